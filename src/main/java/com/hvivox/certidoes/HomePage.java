@@ -1,5 +1,6 @@
 package com.hvivox.certidoes;
 
+import com.hvivox.certidoes.component.EstatisticasPanel;
 import com.hvivox.certidoes.session.CertidoesSession;
 import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.request.mapper.parameter.PageParameters;
@@ -11,6 +12,9 @@ import org.apache.wicket.request.mapper.parameter.PageParameters;
  * 
  * Esta página exibe um dashboard simples mostrando as estatísticas
  * da sessão atual (contadores de operações realizadas).
+ * 
+ * Dashboard das certidões: totais por tipo, status e mês de emissão
+ * (EstatisticasPanel), lidos dos contadores do repositório.
  */
 public class HomePage extends BasePage {
 	private static final long serialVersionUID = 1L;
@@ -20,6 +24,9 @@ public class HomePage extends BasePage {
 
 		add(new Label("titulo", "Home - Certidões ✅"));
 
+		// Dashboard: totais das certidões (custo constante, sem findAll())
+		add(new EstatisticasPanel("estatisticas"));
+
 		// MÓDULO 2 - ITEM 1: Obter dados da Session customizada
 		CertidoesSession session = CertidoesSession.get();
 
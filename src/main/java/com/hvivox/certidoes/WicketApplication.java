@@ -1,8 +1,14 @@
 package com.hvivox.certidoes;
 
+import com.hvivox.certidoes.converter.Conversores;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import com.hvivox.certidoes.listener.CertidoesRequestCycleListener;
 import com.hvivox.certidoes.page.*;
+import com.hvivox.certidoes.service.RelatorioCache;
+import com.hvivox.certidoes.service.RelatorioJobService;
 import com.hvivox.certidoes.session.CertidoesSession;
+import org.apache.wicket.ConverterLocator;
+import org.apache.wicket.IConverterLocator;
 import org.apache.wicket.markup.html.WebPage;
 import org.apache.wicket.protocol.http.WebApplication;
 import org.apache.wicket.protocol.http.WebSession;
@@ -19,6 +25,25 @@ import org.apache.wicket.util.time.Duration;
 
  */
 public class WicketApplication extends WebApplication {
+
+	// Threads e fila dos relatórios gerados em segundo plano
+	private static final int RELATORIO_TRABALHADORES = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+	private static final int RELATORIO_CAPACIDADE_FILA = 10;
+
+	// Espaço em disco para relatórios já gerados (reaproveitados entre downloads)
+	private static final long RELATORIO_CACHE_BYTES = 256L * 1024 * 1024;
+
+	private RelatorioJobService relatorioJobService;
+
+	/**
+	 * Obtém a instância da aplicação atual.
+	 *
+	 * @return Aplicação (WicketApplication)
+	 */
+	public static WicketApplication get() {
+		return (WicketApplication) WebApplication.get();
+	}
+
 	/**
 	 * Define qual página será exibida quando o usuário acessar a raiz da aplicação.
 	 * Esta é a página inicial (home page) da aplicação.
@@ -47,6 +72,22 @@ public class WicketApplication extends WebApplication {
 		return new CertidoesSession(request);
 	}
 
+	/**
+	 * Cria o ConverterLocator com os conversores da aplicação.
+	 * 
+	 * MÓDULO 7 - ITEM 54: CONVERTERS
+	 * 
+	 * Os conversores de CPF, CNPJ, CEP e moeda são registrados uma única vez,
+	 * pelo tipo do valor (Cpf, Cnpj, Cep, Dinheiro). Os componentes não precisam
+	 * sobrescrever getConverter() e compartilham as mesmas instâncias.
+	 * 
+	 * @return ConverterLocator padrão do Wicket + conversores da aplicação
+	 */
+	@Override
+	protected IConverterLocator newConverterLocator() {
+		return Conversores.registrar(new ConverterLocator());
+	}
+
 	/**
 	 * Método de inicialização da aplicação Wicket.
 	 * Aqui são feitas todas as configurações globais da aplicação.
@@ -90,6 +131,32 @@ public class WicketApplication extends WebApplication {
 
 		// MÓDULO 7 - ITEM 57: Configurar modo de produção
 		configurarModoProducao();
+
+		// Relatórios em segundo plano (pool e fila limitados, com cache em disco)
+		relatorioJobService = new RelatorioJobService(CacheCertidaoRepository.padrao(),
+				RelatorioCache.emDiretorioTemporario(RELATORIO_CACHE_BYTES),
+				RELATORIO_TRABALHADORES, RELATORIO_CAPACIDADE_FILA);
+	}
+
+	/**
+	 * Encerra as threads de relatório e apaga os arquivos temporários
+	 * (inclusive os do cache).
+	 */
+	@Override
+	protected void onDestroy() {
+		if (relatorioJobService != null) {
+			relatorioJobService.encerrar();
+		}
+		super.onDestroy();
+	}
+
+	/**
+	 * Serviço de geração de relatórios em segundo plano.
+	 *
+	 * @return RelatorioJobService da aplicação
+	 */
+	public RelatorioJobService getRelatorioJobService() {
+		return relatorioJobService;
 	}
 
 	/**
@@ -0,0 +1,114 @@
+package com.hvivox.certidoes.behavior;
+
+import org.apache.wicket.Component;
+import org.apache.wicket.ajax.AjaxChannel;
+import org.apache.wicket.ajax.AjaxRequestTarget;
+import org.apache.wicket.ajax.attributes.AjaxRequestAttributes;
+import org.apache.wicket.ajax.attributes.ThrottlingSettings;
+import org.apache.wicket.ajax.form.AjaxFormComponentUpdatingBehavior;
+import org.apache.wicket.markup.ComponentTag;
+import org.apache.wicket.util.time.Duration;
+
+/**
+ * ====================================================================
+ * BEHAVIOR CUSTOMIZADO - VALIDAÇÃO AO DIGITAR
+ * ====================================================================
+ *
+ * Valida um campo enquanto o usuário digita, usando os mesmos validadores
+ * do envio do formulário (setRequired, NumeroUnicoValidator,
+ * DataFormatadaValidator, ...), e atualiza via Ajax o campo e o seu
+ * FeedbackPanel.
+ *
+ * COMO FUNCIONA:
+ * - Evento "input": dispara a cada alteração do texto
+ * - Throttling: só uma requisição a cada INTERVALO_PADRAO; o contador
+ *   recomeça a cada tecla, então a validação roda quando o usuário para de
+ *   digitar
+ * - Canal Ajax próprio do campo, do tipo DROP: se chegar uma nova validação
+ *   enquanto outra está em andamento, as intermediárias são descartadas
+ * - O modelo NÃO é atualizado (getUpdateModel() = false): o valor digitado só
+ *   chega à certidão quando o formulário é enviado
+ * - Só o FeedbackPanel é re-renderizado; no campo apenas a classe
+ *   is-invalid é ligada/desligada via JavaScript, para não perder o que o
+ *   usuário digitou enquanto a requisição estava em andamento
+ *
+ * COMO USAR:
+ * numeroField.add(new ValidacaoAoDigitarBehavior(numeroFeedback));
+ */
+public class ValidacaoAoDigitarBehavior extends AjaxFormComponentUpdatingBehavior {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Tempo sem digitar antes de validar
+     */
+    public static final Duration INTERVALO_PADRAO = Duration.milliseconds(400);
+
+    private final Component feedback;
+    private final Duration intervalo;
+
+    /**
+     * @param feedback FeedbackPanel do campo (precisa de setOutputMarkupId)
+     */
+    public ValidacaoAoDigitarBehavior(Component feedback) {
+        this(feedback, INTERVALO_PADRAO);
+    }
+
+    /**
+     * @param feedback  FeedbackPanel do campo (precisa de setOutputMarkupId)
+     * @param intervalo Tempo sem digitar antes de validar
+     */
+    public ValidacaoAoDigitarBehavior(Component feedback, Duration intervalo) {
+        super("input");
+        this.feedback = feedback;
+        this.intervalo = intervalo;
+    }
+
+    @Override
+    protected void onBind() {
+        super.onBind();
+        getComponent().setOutputMarkupId(true);
+    }
+
+    @Override
+    protected void updateAjaxAttributes(AjaxRequestAttributes attributes) {
+        super.updateAjaxAttributes(attributes);
+        String id = getComponent().getMarkupId();
+        attributes.setThrottlingSettings(new ThrottlingSettings("validacao-" + id, intervalo, true));
+        attributes.setChannel(new AjaxChannel("validacao-" + id, AjaxChannel.Type.DROP));
+    }
+
+    /**
+     * Só valida: o modelo é atualizado no envio do formulário
+     */
+    @Override
+    protected boolean getUpdateModel() {
+        return false;
+    }
+
+    @Override
+    protected void onUpdate(AjaxRequestTarget target) {
+        atualizar(target, false);
+    }
+
+    @Override
+    protected void onError(AjaxRequestTarget target, RuntimeException e) {
+        super.onError(target, e);
+        atualizar(target, true);
+    }
+
+    /**
+     * Marca o campo como inválido enquanto ele tiver erro de validação
+     * (vale também para o envio completo do formulário).
+     */
+    @Override
+    protected void onComponentTag(ComponentTag tag) {
+        super.onComponentTag(tag);
+        tag.put("class", getFormComponent().isValid() ? "form-control" : "form-control is-invalid");
+    }
+
+    private void atualizar(AjaxRequestTarget target, boolean invalido) {
+        target.add(feedback);
+        target.appendJavaScript("(function(e){if(e){e.classList.toggle('is-invalid'," + invalido + ");}})"
+                + "(Wicket.$('" + getComponent().getMarkupId() + "'));");
+    }
+}
@@ -0,0 +1,132 @@
+package com.hvivox.certidoes.component;
+
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
+import com.hvivox.certidoes.infra.CertidaoEstatisticas;
+import org.apache.wicket.markup.html.basic.Label;
+import org.apache.wicket.markup.html.list.ListItem;
+import org.apache.wicket.markup.html.list.ListView;
+import org.apache.wicket.markup.html.panel.Panel;
+import org.apache.wicket.model.AbstractReadOnlyModel;
+import org.apache.wicket.model.IModel;
+import org.apache.wicket.model.LoadableDetachableModel;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ====================================================================
+ * PAINEL DE ESTATÍSTICAS DAS CERTIDÕES (DASHBOARD DA HOMEPAGE)
+ * ====================================================================
+ *
+ * Mostra o total de certidões, os totais por tipo e por status e os
+ * últimos meses de emissão.
+ *
+ * COMO FUNCIONA:
+ * - Os números vêm de CertidaoRepository.getEstatisticas(): contadores
+ *   mantidos a cada escrita, então o painel custa o mesmo com qualquer
+ *   quantidade de certidões (nada de findAll())
+ * - LoadableDetachableModel: os contadores são lidos uma vez por
+ *   renderização e descartados no detach (nada vai para a sessão)
+ *
+ * COMO USAR:
+ * add(new EstatisticasPanel("estatisticas"));
+ *
+ * <div wicket:id="estatisticas"></div>
+ */
+public class EstatisticasPanel extends Panel {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Quantos meses (os mais recentes) aparecem no painel
+     */
+    private static final int MESES_EXIBIDOS = 12;
+
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    public EstatisticasPanel(String id) {
+        super(id, new LoadableDetachableModel<CertidaoEstatisticas>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected CertidaoEstatisticas load() {
+                return CacheCertidaoRepository.padrao().getEstatisticas();
+            }
+        });
+
+        add(new Label("total", new AbstractReadOnlyModel<Long>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Long getObject() {
+                return getEstatisticas().getTotal();
+            }
+        }));
+
+        add(new ListView<CertidaoTipo>("tipos", Arrays.asList(CertidaoTipo.values())) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void populateItem(ListItem<CertidaoTipo> item) {
+                CertidaoTipo tipo = item.getModelObject();
+                item.add(new Label("descricao", tipo.getDescricao()));
+                item.add(new Label("quantidade", getEstatisticas().getPorTipo(tipo)));
+            }
+        });
+
+        add(new ListView<CertidaoStatus>("status", Arrays.asList(CertidaoStatus.values())) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void populateItem(ListItem<CertidaoStatus> item) {
+                CertidaoStatus status = item.getModelObject();
+                item.add(new Label("badge", status.getBadgeHtml()).setEscapeModelStrings(false));
+                item.add(new Label("quantidade", getEstatisticas().getPorStatus(status)));
+            }
+        });
+
+        IModel<List<Map.Entry<YearMonth, Long>>> meses = new LoadableDetachableModel<List<Map.Entry<YearMonth, Long>>>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected List<Map.Entry<YearMonth, Long>> load() {
+                List<Map.Entry<YearMonth, Long>> todos = new ArrayList<>(getEstatisticas().getPorMes().entrySet());
+                // Mais recente primeiro
+                List<Map.Entry<YearMonth, Long>> exibidos = new ArrayList<>(MESES_EXIBIDOS);
+                for (int i = todos.size() - 1; i >= 0 && exibidos.size() < MESES_EXIBIDOS; i--) {
+                    exibidos.add(new AbstractMap.SimpleImmutableEntry<>(todos.get(i)));
+                }
+                return exibidos;
+            }
+        };
+        add(new ListView<Map.Entry<YearMonth, Long>>("meses", meses) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void populateItem(ListItem<Map.Entry<YearMonth, Long>> item) {
+                Map.Entry<YearMonth, Long> mes = item.getModelObject();
+                item.add(new Label("mes", FORMATO_MES.format(mes.getKey())));
+                item.add(new Label("quantidade", mes.getValue()));
+            }
+        });
+
+        add(new Label("semData", new AbstractReadOnlyModel<Long>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Long getObject() {
+                return getEstatisticas().getSemData();
+            }
+        }));
+    }
+
+    private CertidaoEstatisticas getEstatisticas() {
+        return (CertidaoEstatisticas) getDefaultModelObject();
+    }
+}
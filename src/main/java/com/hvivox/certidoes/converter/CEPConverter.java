@@ -20,22 +20,25 @@ public class CEPConverter implements IConverter<String> {
     
     private static final long serialVersionUID = 1L;
 
+    private static final int CEP_DIGITOS = 8;
+    private static final String MASCARA = "#####-###";
+
     @Override
     public String convertToObject(String value, Locale locale) throws ConversionException {
         if (value == null || value.trim().isEmpty()) {
             return null;
         }
         
-        // Remove formatação (traços, espaços)
-        String cepLimpo = value.replaceAll("[^0-9]", "");
-        
+        // Extrai os dígitos (ignora traços, espaços) em uma passada
+        char[] digitos = Digitos.extrair(value, CEP_DIGITOS);
+
         // Validar comprimento
-        if (cepLimpo.length() != 8) {
+        if (digitos == null) {
             throw new ConversionException("CEP deve conter 8 dígitos")
                 .setResourceKey("CEPConverter.invalid");
         }
-        
-        return cepLimpo;
+
+        return new String(digitos);
     }
 
     @Override
@@ -44,17 +47,13 @@ public class CEPConverter implements IConverter<String> {
             return "";
         }
         
-        // Remove qualquer formatação existente
-        String cepLimpo = value.replaceAll("[^0-9]", "");
-        
-        // Aplicar formatação #####-###
-        if (cepLimpo.length() == 8) {
-            return String.format("%s-%s",
-                cepLimpo.substring(0, 5),
-                cepLimpo.substring(5, 8)
-            );
+        // Aplicar formatação #####-### (dígitos extraídos e formatados em uma passada)
+        String formatado = Digitos.formatar(value, MASCARA, CEP_DIGITOS);
+        if (formatado != null) {
+            return formatado;
         }
         
+        // Se não tiver 8 dígitos, retornar como está
         return value;
     }
 }
@@ -15,27 +15,37 @@ import java.util.Locale;
  * EXEMPLOS:
  * - Input: "12345678000195" → Output: "12.345.678/0001-95"
  * - Input: "12.345.678/0001-95" → Output: "12345678000195" (apenas números)
+ * - Input com dígitos verificadores errados → ConversionException
  */
 public class CNPJConverter implements IConverter<String> {
     
     private static final long serialVersionUID = 1L;
 
+    private static final int CNPJ_DIGITOS = 14;
+    private static final String MASCARA = "##.###.###/####-##";
+
     @Override
     public String convertToObject(String value, Locale locale) throws ConversionException {
         if (value == null || value.trim().isEmpty()) {
             return null;
         }
         
-        // Remove formatação (pontos, traços, barras, espaços)
-        String cnpjLimpo = value.replaceAll("[^0-9]", "");
-        
+        // Extrai os dígitos (ignora pontos, traços, barras, espaços) em uma passada
+        char[] digitos = Digitos.extrair(value, CNPJ_DIGITOS);
+
         // Validar comprimento
-        if (cnpjLimpo.length() != 14) {
+        if (digitos == null) {
             throw new ConversionException("CNPJ deve conter 14 dígitos")
                 .setResourceKey("CNPJConverter.invalid");
         }
-        
-        return cnpjLimpo;
+
+        // Validar dígitos verificadores
+        if (!Digitos.isCnpjValido(digitos)) {
+            throw new ConversionException("CNPJ inválido: dígitos verificadores não conferem")
+                .setResourceKey("CNPJConverter.invalid");
+        }
+
+        return new String(digitos);
     }
 
     @Override
@@ -44,20 +54,13 @@ public class CNPJConverter implements IConverter<String> {
             return "";
         }
         
-        // Remove qualquer formatação existente
-        String cnpjLimpo = value.replaceAll("[^0-9]", "");
-        
-        // Aplicar formatação ##.###.###/####-##
-        if (cnpjLimpo.length() == 14) {
-            return String.format("%s.%s.%s/%s-%s",
-                cnpjLimpo.substring(0, 2),
-                cnpjLimpo.substring(2, 5),
-                cnpjLimpo.substring(5, 8),
-                cnpjLimpo.substring(8, 12),
-                cnpjLimpo.substring(12, 14)
-            );
+        // Aplicar formatação ##.###.###/####-## (dígitos extraídos e formatados em uma passada)
+        String formatado = Digitos.formatar(value, MASCARA, CNPJ_DIGITOS);
+        if (formatado != null) {
+            return formatado;
         }
         
+        // Se não tiver 14 dígitos, retornar como está
         return value;
     }
 }
@@ -13,28 +13,24 @@ import java.util.Locale;
  * FORMATO: ###.###.###-##
  * 
  * EXEMPLOS:
- * - Input: "12345678901" → Output: "123.456.789-01"
- * - Input: "123.456.789-01" → Output: "12345678901" (apenas números)
+ * - Input: "12345678909" → Output: "123.456.789-09"
+ * - Input: "123.456.789-09" → Output: "12345678909" (apenas números)
+ * - Input com dígitos verificadores errados → ConversionException
  * 
  * USO:
  * 
- * // Em um FormComponent:
- * TextField<String> cpfField = new TextField<>("cpf");
- * cpfField.setType(String.class);
+ * Registrado para o tipo Cpf no ConverterLocator da aplicação (Conversores):
+ * TextField<Cpf> cpfField = new TextField<>("cpf", modelo, Cpf.class);
  * 
- * // Sobrescrever getConverter():
- * @Override
- * public <C> IConverter<C> getConverter(Class<C> type) {
- *     if (type == String.class) {
- *         return (IConverter<C>) new CPFConverter();
- *     }
- *     return super.getConverter(type);
- * }
+ * Sem estado: a instância compartilhada Conversores.CPF serve a todos.
  */
 public class CPFConverter implements IConverter<String> {
     
     private static final long serialVersionUID = 1L;
 
+    private static final int CPF_DIGITOS = 11;
+    private static final String MASCARA = "###.###.###-##";
+
     /**
      * Converte de String (formatada ou não) para String (apenas números).
      * Remove formatação para armazenar/processar.
@@ -45,16 +41,22 @@ public class CPFConverter implements IConverter<String> {
             return null;
         }
         
-        // Remove formatação (pontos, traços, espaços)
-        String cpfLimpo = value.replaceAll("[^0-9]", "");
-        
+        // Extrai os dígitos (ignora pontos, traços, espaços) em uma passada
+        char[] digitos = Digitos.extrair(value, CPF_DIGITOS);
+
         // Validar comprimento
-        if (cpfLimpo.length() != 11) {
+        if (digitos == null) {
             throw new ConversionException("CPF deve conter 11 dígitos")
                 .setResourceKey("CPFConverter.invalid");
         }
-        
-        return cpfLimpo;
+
+        // Validar dígitos verificadores
+        if (!Digitos.isCpfValido(digitos)) {
+            throw new ConversionException("CPF inválido: dígitos verificadores não conferem")
+                .setResourceKey("CPFConverter.invalid");
+        }
+
+        return new String(digitos);
     }
 
     /**
@@ -67,17 +69,10 @@ public class CPFConverter implements IConverter<String> {
             return "";
         }
         
-        // Remove qualquer formatação existente
-        String cpfLimpo = value.replaceAll("[^0-9]", "");
-        
-        // Aplicar formatação ###.###.###-##
-        if (cpfLimpo.length() == 11) {
-            return String.format("%s.%s.%s-%s",
-                cpfLimpo.substring(0, 3),
-                cpfLimpo.substring(3, 6),
-                cpfLimpo.substring(6, 9),
-                cpfLimpo.substring(9, 11)
-            );
+        // Aplicar formatação ###.###.###-## (dígitos extraídos e formatados em uma passada)
+        String formatado = Digitos.formatar(value, MASCARA, CPF_DIGITOS);
+        if (formatado != null) {
+            return formatado;
         }
         
         // Se não tiver 11 dígitos, retornar como está
@@ -0,0 +1,156 @@
+package com.hvivox.certidoes.converter;
+
+import com.hvivox.certidoes.domain.Cep;
+import com.hvivox.certidoes.domain.Cnpj;
+import com.hvivox.certidoes.domain.Cpf;
+import com.hvivox.certidoes.domain.Dinheiro;
+import org.apache.wicket.ConverterLocator;
+import org.apache.wicket.util.convert.ConversionException;
+import org.apache.wicket.util.convert.IConverter;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * ====================================================================
+ * CONVERSORES COMPARTILHADOS DA APLICAÇÃO
+ * ====================================================================
+ *
+ * Uma única instância de cada conversor, registrada por tipo no
+ * ConverterLocator (WicketApplication.newConverterLocator()).
+ *
+ * COMO FUNCIONA:
+ * - Os conversores não têm estado (CPF/CNPJ/CEP/Moeda), então a mesma
+ *   instância atende todos os componentes e todas as threads
+ * - Os campos declaram o tipo do valor (Cpf, Cnpj, Cep, Dinheiro) e o Wicket
+ *   encontra o conversor pelo tipo: nada de sobrescrever getConverter() e
+ *   criar um conversor por componente/chamada
+ * - Vale também para Labels: um Label com modelo Cpf já exibe o CPF formatado
+ *
+ * EXEMPLO DE USO:
+ * TextField<Cpf> cpf = new TextField<>("cpf", new PropertyModel<>(dados, "cpf"), Cpf.class);
+ */
+public final class Conversores {
+
+    public static final CPFConverter CPF = new CPFConverter();
+    public static final CNPJConverter CNPJ = new CNPJConverter();
+    public static final CEPConverter CEP = new CEPConverter();
+    public static final MoedaBrasileiraConverter MOEDA = new MoedaBrasileiraConverter();
+
+    private Conversores() {
+    }
+
+    /**
+     * Registra os conversores dos tipos da aplicação.
+     *
+     * @param locator ConverterLocator da aplicação
+     * @return O próprio locator
+     */
+    public static ConverterLocator registrar(ConverterLocator locator) {
+        locator.set(Cpf.class, new CpfConverter());
+        locator.set(Cnpj.class, new CnpjConverter());
+        locator.set(Cep.class, new CepConverter());
+        locator.set(Dinheiro.class, new DinheiroConverter());
+        return locator;
+    }
+
+    /**
+     * Adapta um conversor de texto (String <-> dígitos) para um tipo de valor.
+     */
+    private abstract static class Tipado<T, V> implements IConverter<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final IConverter<V> conversor;
+
+        Tipado(IConverter<V> conversor) {
+            this.conversor = conversor;
+        }
+
+        @Override
+        public T convertToObject(String value, Locale locale) throws ConversionException {
+            V valor = conversor.convertToObject(value, locale);
+            return valor != null ? criar(valor) : null;
+        }
+
+        @Override
+        public String convertToString(T value, Locale locale) {
+            return conversor.convertToString(value != null ? valor(value) : null, locale);
+        }
+
+        abstract T criar(V valor);
+
+        abstract V valor(T objeto);
+    }
+
+    private static final class CpfConverter extends Tipado<Cpf, String> {
+        private static final long serialVersionUID = 1L;
+
+        CpfConverter() {
+            super(CPF);
+        }
+
+        @Override
+        Cpf criar(String digitos) {
+            return new Cpf(digitos);
+        }
+
+        @Override
+        String valor(Cpf cpf) {
+            return cpf.getDigitos();
+        }
+    }
+
+    private static final class CnpjConverter extends Tipado<Cnpj, String> {
+        private static final long serialVersionUID = 1L;
+
+        CnpjConverter() {
+            super(CNPJ);
+        }
+
+        @Override
+        Cnpj criar(String digitos) {
+            return new Cnpj(digitos);
+        }
+
+        @Override
+        String valor(Cnpj cnpj) {
+            return cnpj.getDigitos();
+        }
+    }
+
+    private static final class CepConverter extends Tipado<Cep, String> {
+        private static final long serialVersionUID = 1L;
+
+        CepConverter() {
+            super(CEP);
+        }
+
+        @Override
+        Cep criar(String digitos) {
+            return new Cep(digitos);
+        }
+
+        @Override
+        String valor(Cep cep) {
+            return cep.getDigitos();
+        }
+    }
+
+    private static final class DinheiroConverter extends Tipado<Dinheiro, BigDecimal> {
+        private static final long serialVersionUID = 1L;
+
+        DinheiroConverter() {
+            super(MOEDA);
+        }
+
+        @Override
+        Dinheiro criar(BigDecimal valor) {
+            return new Dinheiro(valor);
+        }
+
+        @Override
+        BigDecimal valor(Dinheiro dinheiro) {
+            return dinheiro.getValor();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.hvivox.certidoes.converter;
+
+import java.time.LocalDateTime;
+
+/**
+ * ====================================================================
+ * CODEC DE DATAS dd/MM/yyyy
+ * ====================================================================
+ *
+ * Converte texto dd/MM/yyyy direto para epoch-day (dias desde 01/01/1970) e
+ * de volta, sem SimpleDateFormat, Calendar ou LocalDate.
+ *
+ * COMO FUNCIONA:
+ * - parse: confere caractere a caractere (2 dígitos, '/', 2 dígitos, '/',
+ *   4 dígitos), valida mês e dia no calendário (inclusive 29/02 só em ano
+ *   bissexto) e calcula o epoch-day com aritmética inteira
+ * - formatar: calcula dia/mês/ano a partir do epoch-day e monta os 10
+ *   caracteres em um char[]
+ * - Só métodos estáticos e sem estado: pode ser usado por várias threads ao
+ *   mesmo tempo (SimpleDateFormat não pode)
+ *
+ * Validação estrita, equivalente ao SimpleDateFormat com setLenient(false) e
+ * conferência do texto formatado: exige zeros à esquerda ("1/1/2025" é
+ * inválido) e ano entre 0001 e 9999.
+ *
+ * EXEMPLO DE USO:
+ * int dia = DataCodec.parse("25/12/2025");   // 20447
+ * if (dia != DataCodec.INVALIDA) {
+ *     String texto = DataCodec.formatar(dia); // "25/12/2025"
+ * }
+ */
+public final class DataCodec {
+
+    /**
+     * Retorno de parse() para texto que não é uma data dd/MM/yyyy válida
+     */
+    public static final int INVALIDA = Integer.MIN_VALUE;
+
+    /**
+     * Tamanho do texto dd/MM/yyyy
+     */
+    public static final int TAMANHO = 10;
+
+    // Dias de 01/01/0000 a 01/01/1970 (calendário gregoriano proléptico)
+    private static final long DIAS_0000_A_1970 = 719528L;
+
+    // Dias em um ciclo de 400 anos
+    private static final long DIAS_POR_CICLO = 146097L;
+
+    private DataCodec() {
+    }
+
+    /**
+     * Converte dd/MM/yyyy em epoch-day.
+     *
+     * @param texto Texto da data (null = inválida)
+     * @return epoch-day, ou INVALIDA se o texto não for uma data válida
+     */
+    public static int parse(CharSequence texto) {
+        if (texto == null || texto.length() != TAMANHO
+                || texto.charAt(2) != '/' || texto.charAt(5) != '/') {
+            return INVALIDA;
+        }
+        int dia = digitos(texto, 0, 2);
+        int mes = digitos(texto, 3, 2);
+        int ano = digitos(texto, 6, 4);
+        if (dia < 1 || mes < 1 || mes > 12 || ano < 1 || dia > diasNoMes(mes, ano)) {
+            return INVALIDA;
+        }
+        return (int) epochDay(ano, mes, dia);
+    }
+
+    /**
+     * @param texto Texto da data
+     * @return true se o texto é uma data dd/MM/yyyy válida
+     */
+    public static boolean isValida(CharSequence texto) {
+        return parse(texto) != INVALIDA;
+    }
+
+    /**
+     * Converte epoch-day em dd/MM/yyyy.
+     *
+     * @param epochDay Dias desde 01/01/1970 (ano entre 0001 e 9999)
+     * @return Texto dd/MM/yyyy
+     */
+    public static String formatar(int epochDay) {
+        char[] texto = new char[TAMANHO];
+        formatar(epochDay, texto, 0);
+        return new String(texto);
+    }
+
+    /**
+     * Escreve epoch-day como dd/MM/yyyy no array (TAMANHO caracteres a partir
+     * de inicio), para quem monta textos maiores sem criar Strings.
+     *
+     * @param epochDay Dias desde 01/01/1970 (ano entre 0001 e 9999)
+     * @param destino  Array de destino
+     * @param inicio   Posição do primeiro caractere
+     * @throws IllegalArgumentException Se o ano não couber em 4 dígitos
+     */
+    public static void formatar(int epochDay, char[] destino, int inicio) {
+        long zeroDay = epochDay + DIAS_0000_A_1970 - 60; // contando a partir de 01/03/0000
+        long ajuste = 0;
+        if (zeroDay < 0) {
+            long ciclos = (zeroDay + 1) / DIAS_POR_CICLO - 1;
+            ajuste = ciclos * 400;
+            zeroDay -= ciclos * DIAS_POR_CICLO;
+        }
+        long ano = (400 * zeroDay + 591) / DIAS_POR_CICLO;
+        long diaDoAno = zeroDay - (365 * ano + ano / 4 - ano / 100 + ano / 400);
+        if (diaDoAno < 0) {
+            ano--;
+            diaDoAno = zeroDay - (365 * ano + ano / 4 - ano / 100 + ano / 400);
+        }
+        // Ano começando em março: o mês 0 é março
+        int mesDesdeMarco = (int) (diaDoAno * 5 + 2) / 153;
+        int mes = (mesDesdeMarco + 2) % 12 + 1;
+        int dia = (int) diaDoAno - (mesDesdeMarco * 306 + 5) / 10 + 1;
+        ano += ajuste + mesDesdeMarco / 10;
+
+        if (ano < 1 || ano > 9999) {
+            throw new IllegalArgumentException("Ano fora de 0001-9999: " + ano);
+        }
+        destino[inicio] = (char) ('0' + dia / 10);
+        destino[inicio + 1] = (char) ('0' + dia % 10);
+        destino[inicio + 2] = '/';
+        destino[inicio + 3] = (char) ('0' + mes / 10);
+        destino[inicio + 4] = (char) ('0' + mes % 10);
+        destino[inicio + 5] = '/';
+        int a = (int) ano;
+        destino[inicio + 6] = (char) ('0' + a / 1000);
+        destino[inicio + 7] = (char) ('0' + a / 100 % 10);
+        destino[inicio + 8] = (char) ('0' + a / 10 % 10);
+        destino[inicio + 9] = (char) ('0' + a % 10);
+    }
+
+    /**
+     * Formata data e hora como dd/MM/yyyy HH:mm.
+     *
+     * @param dataHora Data e hora
+     * @return Texto dd/MM/yyyy HH:mm
+     */
+    public static String formatarDataHora(LocalDateTime dataHora) {
+        char[] texto = new char[TAMANHO + 6];
+        formatar((int) dataHora.toLocalDate().toEpochDay(), texto, 0);
+        texto[TAMANHO] = ' ';
+        texto[TAMANHO + 1] = (char) ('0' + dataHora.getHour() / 10);
+        texto[TAMANHO + 2] = (char) ('0' + dataHora.getHour() % 10);
+        texto[TAMANHO + 3] = ':';
+        texto[TAMANHO + 4] = (char) ('0' + dataHora.getMinute() / 10);
+        texto[TAMANHO + 5] = (char) ('0' + dataHora.getMinute() % 10);
+        return new String(texto);
+    }
+
+    /**
+     * @return true se o ano é bissexto (calendário gregoriano)
+     */
+    public static boolean isBissexto(int ano) {
+        return (ano & 3) == 0 && (ano % 100 != 0 || ano % 400 == 0);
+    }
+
+    private static int diasNoMes(int mes, int ano) {
+        switch (mes) {
+            case 2:
+                return isBissexto(ano) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Mesmo cálculo de LocalDate.toEpochDay()
+     */
+    private static long epochDay(int ano, int mes, int dia) {
+        long total = 365L * ano + (ano + 3) / 4 - (ano + 99) / 100 + (ano + 399) / 400;
+        total += (367 * mes - 362) / 12;
+        total += dia - 1;
+        if (mes > 2) {
+            total--;
+            if (!isBissexto(ano)) {
+                total--;
+            }
+        }
+        return total - DIAS_0000_A_1970;
+    }
+
+    /**
+     * Lê "quantidade" dígitos decimais; -1 se algum caractere não for dígito
+     */
+    private static int digitos(CharSequence texto, int inicio, int quantidade) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + quantidade; i++) {
+            int d = texto.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            valor = valor * 10 + d;
+        }
+        return valor;
+    }
+}
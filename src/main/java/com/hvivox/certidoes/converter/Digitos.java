@@ -0,0 +1,139 @@
+package com.hvivox.certidoes.converter;
+
+/**
+ * Rotinas dos conversores de documentos (CPF, CNPJ, CEP).
+ *
+ * Substituem o replaceAll("[^0-9]", "") + String.format(substring...) por
+ * uma única passada no texto, escrevendo direto em um char[] já com o
+ * tamanho final: sem regex, sem Formatter e sem Strings intermediárias.
+ *
+ * Só são considerados dígitos os caracteres '0' a '9' (como no [^0-9]).
+ */
+final class Digitos {
+
+    // Posição de dígito na máscara
+    static final char DIGITO = '#';
+
+    private Digitos() {
+    }
+
+    /**
+     * Extrai os dígitos do texto.
+     *
+     * @param valor      Texto (formatado ou não)
+     * @param quantidade Quantidade esperada de dígitos
+     * @return Os dígitos, ou null se o texto não tiver exatamente essa quantidade
+     */
+    static char[] extrair(String valor, int quantidade) {
+        char[] digitos = new char[quantidade];
+        int n = 0;
+        for (int i = 0, tamanho = valor.length(); i < tamanho; i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (n == quantidade) {
+                    return null;
+                }
+                digitos[n++] = c;
+            }
+        }
+        return n == quantidade ? digitos : null;
+    }
+
+    /**
+     * Aplica a máscara aos dígitos do texto (ex: "###.###.###-##").
+     *
+     * @param valor      Texto (formatado ou não)
+     * @param mascara    Máscara: DIGITO nas posições dos dígitos, o resto é literal
+     * @param quantidade Quantidade de DIGITO na máscara
+     * @return Texto formatado, ou null se o texto não tiver exatamente essa
+     *         quantidade de dígitos
+     */
+    static String formatar(String valor, String mascara, int quantidade) {
+        char[] formatado = new char[mascara.length()];
+        int posicao = 0;
+        int n = 0;
+        for (int i = 0, tamanho = valor.length(); i < tamanho; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            if (n == quantidade) {
+                return null;
+            }
+            // Copia os literais da máscara até a próxima posição de dígito
+            while (mascara.charAt(posicao) != DIGITO) {
+                formatado[posicao] = mascara.charAt(posicao);
+                posicao++;
+            }
+            formatado[posicao++] = c;
+            n++;
+        }
+        if (n != quantidade) {
+            return null;
+        }
+        while (posicao < formatado.length) {
+            formatado[posicao] = mascara.charAt(posicao);
+            posicao++;
+        }
+        return new String(formatado);
+    }
+
+    /**
+     * @return true se o CPF (11 dígitos) tem dígitos verificadores corretos e
+     *         não é uma sequência repetida (000.000.000-00, 111..., ...)
+     */
+    static boolean isCpfValido(char[] cpf) {
+        if (repetido(cpf)) {
+            return false;
+        }
+        return cpf[9] - '0' == digitoCpf(cpf, 9) && cpf[10] - '0' == digitoCpf(cpf, 10);
+    }
+
+    /**
+     * @return true se o CNPJ (14 dígitos) tem dígitos verificadores corretos e
+     *         não é uma sequência repetida
+     */
+    static boolean isCnpjValido(char[] cnpj) {
+        if (repetido(cnpj)) {
+            return false;
+        }
+        return cnpj[12] - '0' == digitoCnpj(cnpj, 12) && cnpj[13] - '0' == digitoCnpj(cnpj, 13);
+    }
+
+    /**
+     * Dígito verificador do CPF na posição "posicao" (9 ou 10): pesos de
+     * posicao+1 até 2 sobre os dígitos anteriores, módulo 11.
+     */
+    private static int digitoCpf(char[] cpf, int posicao) {
+        int soma = 0;
+        for (int i = 0; i < posicao; i++) {
+            soma += (cpf[i] - '0') * (posicao + 1 - i);
+        }
+        int resto = soma * 10 % 11;
+        return resto == 10 ? 0 : resto;
+    }
+
+    /**
+     * Dígito verificador do CNPJ na posição "posicao" (12 ou 13): pesos
+     * 2..9 repetidos da direita para a esquerda, módulo 11.
+     */
+    private static int digitoCnpj(char[] cnpj, int posicao) {
+        int soma = 0;
+        int peso = 2;
+        for (int i = posicao - 1; i >= 0; i--) {
+            soma += (cnpj[i] - '0') * peso;
+            peso = peso == 9 ? 2 : peso + 1;
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private static boolean repetido(char[] digitos) {
+        for (int i = 1; i < digitos.length; i++) {
+            if (digitos[i] != digitos[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
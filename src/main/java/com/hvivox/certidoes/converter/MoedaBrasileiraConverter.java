@@ -4,10 +4,6 @@ import org.apache.wicket.util.convert.ConversionException;
 import org.apache.wicket.util.convert.IConverter;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.text.NumberFormat;
-import java.text.ParseException;
 import java.util.Locale;
 
 /**
@@ -22,7 +18,7 @@ import java.util.Locale;
  * - Input: "R$ 1.234,56" → Output: BigDecimal(1234.56)
  * 
  * OBSERVAÇÕES:
- * - Usa BigDecimal para precisão em valores monetários
+ * - Usa BigDecimal para precisão em valores monetários (sem passar por double)
  * - Aceita entrada com ou sem "R$"
  * - Aceita separadores de milhar ou não
  * - Vírgula como separador decimal (padrão brasileiro)
@@ -30,7 +26,6 @@ import java.util.Locale;
 public class MoedaBrasileiraConverter implements IConverter<BigDecimal> {
     
     private static final long serialVersionUID = 1L;
-    private static final Locale LOCALE_BR = new Locale("pt", "BR");
 
     @Override
     public BigDecimal convertToObject(String value, Locale locale) throws ConversionException {
@@ -38,20 +33,14 @@ public class MoedaBrasileiraConverter implements IConverter<BigDecimal> {
             return null;
         }
         
-        try {
-            // Remove símbolo de moeda e espaços
-            String valorLimpo = value.replaceAll("R\\$", "").trim();
-            
-            // Usar NumberFormat brasileiro para fazer o parse
-            NumberFormat nf = NumberFormat.getInstance(LOCALE_BR);
-            Number numero = nf.parse(valorLimpo);
-            
-            return BigDecimal.valueOf(numero.doubleValue());
-            
-        } catch (ParseException e) {
+        // Parse direto dos dígitos para BigDecimal (sem regex, NumberFormat
+        // ou double: o valor fica exatamente como foi digitado)
+        BigDecimal valor = MoedaCodec.parse(value);
+        if (valor == null) {
             throw new ConversionException("Formato de moeda inválido. Use: R$ 1.234,56")
                 .setResourceKey("MoedaBrasileiraConverter.invalid");
         }
+        return valor;
     }
 
     @Override
@@ -60,14 +49,8 @@ public class MoedaBrasileiraConverter implements IConverter<BigDecimal> {
             return "";
         }
         
-        // Configurar formatação brasileira
-        DecimalFormatSymbols symbols = new DecimalFormatSymbols(LOCALE_BR);
-        symbols.setGroupingSeparator('.');
-        symbols.setDecimalSeparator(',');
-        
-        DecimalFormat df = new DecimalFormat("R$ #,##0.00", symbols);
-        
-        return df.format(value);
+        // Formatação brasileira R$ #.##0,00 (MoedaCodec é imutável e thread-safe:
+        // nada de DecimalFormat por chamada)
+        return MoedaCodec.formatar(value);
     }
 }
-
@@ -0,0 +1,217 @@
+package com.hvivox.certidoes.converter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * ====================================================================
+ * CODEC DE MOEDA BRASILEIRA (R$ 1.234,56)
+ * ====================================================================
+ *
+ * Converte texto em reais direto para BigDecimal e de volta, sem
+ * NumberFormat/DecimalFormat, sem regex e sem passar por double.
+ *
+ * COMO FUNCIONA:
+ * - parse: percorre o texto uma vez, acumulando os dígitos em um long
+ *   (valor sem escala) e contando as casas decimais; o resultado é
+ *   BigDecimal.valueOf(semEscala, casas), exato como foi digitado.
+ *   Valores com mais de 18 dígitos usam BigDecimal(String) (também exato)
+ * - formatar: arredonda para 2 casas (HALF_EVEN, como o DecimalFormat) e
+ *   monta o texto em um char[], com '.' a cada 3 dígitos
+ * - Só métodos estáticos e sem estado: pode ser usado por várias threads ao
+ *   mesmo tempo, inclusive na conversão de arquivos importados em lote
+ *
+ * FORMATOS ACEITOS NO PARSE:
+ * "R$ 1.234,56", "1234,56", "1.234", "R$1234", "-R$ 10,00", "R$ -10,00"
+ * (espaços nas pontas são ignorados; '.' separa milhares e ',' decimais)
+ *
+ * EXEMPLO DE USO:
+ * BigDecimal valor = MoedaCodec.parse("R$ 1.234,56"); // 1234.56
+ * String texto = MoedaCodec.formatar(valor);         // "R$ 1.234,56"
+ */
+public final class MoedaCodec {
+
+    private static final String SIMBOLO = "R$";
+
+    // Dígitos que sempre cabem em um long
+    private static final int MAX_DIGITOS_LONG = 18;
+
+    private MoedaCodec() {
+    }
+
+    /**
+     * Converte texto em reais para BigDecimal.
+     *
+     * @param texto Texto do valor (null = inválido)
+     * @return Valor com as casas decimais digitadas, ou null se o texto não
+     *         for um valor válido
+     */
+    public static BigDecimal parse(CharSequence texto) {
+        if (texto == null) {
+            return null;
+        }
+        int inicio = 0;
+        int fim = texto.length();
+        while (inicio < fim && Character.isWhitespace(texto.charAt(inicio))) {
+            inicio++;
+        }
+        while (fim > inicio && Character.isWhitespace(texto.charAt(fim - 1))) {
+            fim--;
+        }
+
+        // Sinal antes ou depois do símbolo: "-R$ 1,00" ou "R$ -1,00"
+        boolean negativo = false;
+        if (inicio < fim && texto.charAt(inicio) == '-') {
+            negativo = true;
+            inicio++;
+        }
+        if (comecaCom(texto, inicio, fim, SIMBOLO)) {
+            inicio += SIMBOLO.length();
+            while (inicio < fim && Character.isWhitespace(texto.charAt(inicio))) {
+                inicio++;
+            }
+            if (!negativo && inicio < fim && texto.charAt(inicio) == '-') {
+                negativo = true;
+                inicio++;
+            }
+        }
+
+        long semEscala = 0;
+        int digitos = 0;
+        int casas = -1; // -1 = ainda na parte inteira
+        boolean grande = false;
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digitos == MAX_DIGITOS_LONG) {
+                    grande = true;
+                }
+                semEscala = semEscala * 10 + (c - '0');
+                digitos++;
+                if (casas >= 0) {
+                    casas++;
+                }
+            } else if (c == '.' && casas < 0 && digitos > 0) {
+                // Separador de milhar: ignorado
+                continue;
+            } else if (c == ',' && casas < 0 && digitos > 0) {
+                casas = 0;
+            } else {
+                return null;
+            }
+        }
+        if (digitos == 0 || casas == 0 || texto.charAt(fim - 1) == '.') {
+            return null;
+        }
+        int escala = Math.max(casas, 0);
+
+        if (grande) {
+            return grande(texto, inicio, fim, negativo, escala);
+        }
+        return BigDecimal.valueOf(negativo ? -semEscala : semEscala, escala);
+    }
+
+    /**
+     * Formata como R$ #.##0,00.
+     *
+     * @param valor Valor (arredondado para 2 casas, HALF_EVEN)
+     * @return Texto em reais (ex: "R$ 1.234,56", "-R$ 0,50")
+     */
+    public static String formatar(BigDecimal valor) {
+        BigDecimal centavos = valor.setScale(2, RoundingMode.HALF_EVEN);
+        boolean negativo = valor.signum() < 0;
+        BigInteger semEscala = centavos.unscaledValue().abs();
+
+        if (semEscala.bitLength() < 63) {
+            return formatar(semEscala.longValue(), negativo);
+        }
+        return formatar(semEscala.toString(), negativo);
+    }
+
+    /**
+     * Formata um valor em centavos como R$ #.##0,00.
+     *
+     * @param centavos Valor em centavos
+     * @return Texto em reais
+     */
+    public static String formatarCentavos(long centavos) {
+        if (centavos == Long.MIN_VALUE) {
+            return formatar(BigDecimal.valueOf(centavos, 2));
+        }
+        return formatar(Math.abs(centavos), centavos < 0);
+    }
+
+    private static String formatar(long centavos, boolean negativo) {
+        // Dígitos da direita para a esquerda no fim do array
+        char[] texto = new char[32];
+        int posicao = texto.length;
+        texto[--posicao] = (char) ('0' + centavos % 10);
+        centavos /= 10;
+        texto[--posicao] = (char) ('0' + centavos % 10);
+        centavos /= 10;
+        texto[--posicao] = ',';
+        int grupo = 0;
+        do {
+            if (grupo == 3) {
+                texto[--posicao] = '.';
+                grupo = 0;
+            }
+            texto[--posicao] = (char) ('0' + centavos % 10);
+            centavos /= 10;
+            grupo++;
+        } while (centavos > 0);
+        texto[--posicao] = ' ';
+        texto[--posicao] = '$';
+        texto[--posicao] = 'R';
+        if (negativo) {
+            texto[--posicao] = '-';
+        }
+        return new String(texto, posicao, texto.length - posicao);
+    }
+
+    /**
+     * Mesma formatação para valores que não cabem em um long
+     */
+    private static String formatar(String centavos, boolean negativo) {
+        int inteiros = centavos.length() - 2;
+        StringBuilder texto = new StringBuilder(centavos.length() + inteiros / 3 + 5);
+        if (negativo) {
+            texto.append('-');
+        }
+        texto.append(SIMBOLO).append(' ');
+        for (int i = 0; i < inteiros; i++) {
+            if (i > 0 && (inteiros - i) % 3 == 0) {
+                texto.append('.');
+            }
+            texto.append(centavos.charAt(i));
+        }
+        return texto.append(',').append(centavos, inteiros, centavos.length()).toString();
+    }
+
+    private static BigDecimal grande(CharSequence texto, int inicio, int fim, boolean negativo, int escala) {
+        StringBuilder digitos = new StringBuilder(fim - inicio + 1);
+        if (negativo) {
+            digitos.append('-');
+        }
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        return new BigDecimal(new BigInteger(digitos.toString()), escala);
+    }
+
+    private static boolean comecaCom(CharSequence texto, int inicio, int fim, String prefixo) {
+        if (fim - inicio < prefixo.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefixo.length(); i++) {
+            if (texto.charAt(inicio + i) != prefixo.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
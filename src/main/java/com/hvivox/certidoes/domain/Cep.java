@@ -0,0 +1,18 @@
+package com.hvivox.certidoes.domain;
+
+/**
+ * CEP (8 dígitos), apenas os dígitos.
+ *
+ * Convertido de/para texto formatado pelo CEPConverter, registrado para este
+ * tipo no ConverterLocator da aplicação.
+ */
+public final class Cep extends Documento {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param digitos Número sem formatação
+     */
+    public Cep(String digitos) {
+        super(digitos);
+    }
+}
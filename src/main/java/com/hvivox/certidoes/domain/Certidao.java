@@ -1,15 +1,34 @@
 package com.hvivox.certidoes.domain;
 
+import com.hvivox.certidoes.converter.DataCodec;
+
 import java.io.Serializable;
 
 public class Certidao implements Serializable {
+    // 2: data de emissão guardada como epoch-day (dataEmissaoDia +
+    // dataEmissaoInvalida) no lugar do texto dataEmissao. Uma certidão
+    // serializada no formato antigo (ex: página guardada no page store) é
+    // recusada com InvalidClassException em vez de voltar sem data.
+    private static final long serialVersionUID = 2L;
+
+    /**
+     * Valor de dataEmissaoDia quando a certidão não tem data válida
+     */
+    public static final int SEM_DATA = DataCodec.INVALIDA;
+
     private Long id;
     private String numero;
     private CertidaoTipo tipo;
     private String interessado;
-    private String dataEmissao; // dd/MM/yyyy (simples pra começar)
+    // Data de emissão em dias desde 01/01/1970 (interpretada uma vez, na escrita)
+    private int dataEmissaoDia = SEM_DATA;
+    // Texto original, guardado só quando não é uma data dd/MM/yyyy válida
+    private String dataEmissaoInvalida;
     private CertidaoStatus status;
 
+    // Texto dd/MM/yyyy montado sob demanda para exibição
+    private transient String dataEmissaoFormatada;
+
     public Certidao() {}
 
     // getters/setters
@@ -25,8 +44,57 @@ public class Certidao implements Serializable {
     public String getInteressado() { return interessado; }
     public void setInteressado(String interessado) { this.interessado = interessado; }
 
-    public String getDataEmissao() { return dataEmissao; }
-    public void setDataEmissao(String dataEmissao) { this.dataEmissao = dataEmissao; }
+    /**
+     * Data de emissão no formato dd/MM/yyyy (visão para exibição e para as
+     * telas/formulários que trabalham com texto).
+     */
+    public String getDataEmissao() {
+        if (dataEmissaoDia == SEM_DATA) {
+            return dataEmissaoInvalida;
+        }
+        if (dataEmissaoFormatada == null) {
+            dataEmissaoFormatada = DataCodec.formatar(dataEmissaoDia);
+        }
+        return dataEmissaoFormatada;
+    }
+
+    /**
+     * Define a data de emissão a partir do texto dd/MM/yyyy.
+     *
+     * O texto é convertido aqui, uma única vez, para dataEmissaoDia. Um texto
+     * que não é data válida é mantido como está (para exibição), mas a
+     * certidão fica sem data para efeito de filtros.
+     */
+    public void setDataEmissao(String dataEmissao) {
+        this.dataEmissaoFormatada = null;
+        this.dataEmissaoInvalida = null;
+        this.dataEmissaoDia = SEM_DATA;
+        if (dataEmissao == null) {
+            return;
+        }
+        int dia = DataCodec.parse(dataEmissao);
+        if (dia != DataCodec.INVALIDA) {
+            this.dataEmissaoDia = dia;
+            this.dataEmissaoFormatada = dataEmissao;
+        } else {
+            this.dataEmissaoInvalida = dataEmissao;
+        }
+    }
+
+    /**
+     * Data de emissão em dias desde 01/01/1970 (epoch-day).
+     *
+     * @return epoch-day ou SEM_DATA
+     */
+    public int getDataEmissaoDia() { return dataEmissaoDia; }
+
+    public void setDataEmissaoDia(int dataEmissaoDia) {
+        this.dataEmissaoDia = dataEmissaoDia;
+        this.dataEmissaoInvalida = null;
+        this.dataEmissaoFormatada = null;
+    }
+
+    public boolean temDataEmissao() { return dataEmissaoDia != SEM_DATA; }
 
     public CertidaoStatus getStatus() { return status; }
     public void setStatus(CertidaoStatus status) { this.status = status; }
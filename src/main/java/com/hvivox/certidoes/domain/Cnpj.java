@@ -0,0 +1,18 @@
+package com.hvivox.certidoes.domain;
+
+/**
+ * CNPJ (14 dígitos), apenas os dígitos.
+ *
+ * Convertido de/para texto formatado pelo CNPJConverter, registrado para este
+ * tipo no ConverterLocator da aplicação.
+ */
+public final class Cnpj extends Documento {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param digitos Número sem formatação
+     */
+    public Cnpj(String digitos) {
+        super(digitos);
+    }
+}
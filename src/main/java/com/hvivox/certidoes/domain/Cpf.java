@@ -0,0 +1,18 @@
+package com.hvivox.certidoes.domain;
+
+/**
+ * CPF (11 dígitos), apenas os dígitos.
+ *
+ * Convertido de/para texto formatado pelo CPFConverter, registrado para este
+ * tipo no ConverterLocator da aplicação.
+ */
+public final class Cpf extends Documento {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param digitos Número sem formatação
+     */
+    public Cpf(String digitos) {
+        super(digitos);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hvivox.certidoes.domain;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Valor em reais.
+ *
+ * Tipo próprio (em vez de BigDecimal direto) para que o conversor de moeda
+ * (MoedaBrasileiraConverter) seja aplicado pelo ConverterLocator da
+ * aplicação só aos campos de dinheiro, e não a todo BigDecimal.
+ *
+ * Imutável; equals/hashCode usam compareTo (10,0 == 10,00).
+ */
+public final class Dinheiro implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final BigDecimal valor;
+
+    /**
+     * @param valor Valor em reais
+     */
+    public Dinheiro(BigDecimal valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("Valor não informado");
+        }
+        this.valor = valor;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Dinheiro && valor.compareTo(((Dinheiro) o).valor) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return valor.stripTrailingZeros().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return valor.toPlainString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.hvivox.certidoes.domain;
+
+import java.io.Serializable;
+
+/**
+ * Número de documento (CPF, CNPJ, CEP) guardado só com os dígitos.
+ *
+ * Cada tipo de documento é uma classe própria para que o Wicket encontre o
+ * conversor pelo tipo do modelo (ConverterLocator da aplicação), sem que
+ * cada campo precise sobrescrever getConverter().
+ *
+ * Imutável; equals/hashCode comparam classe e dígitos.
+ */
+public abstract class Documento implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String digitos;
+
+    protected Documento(String digitos) {
+        if (digitos == null || digitos.isEmpty()) {
+            throw new IllegalArgumentException("Documento sem dígitos");
+        }
+        this.digitos = digitos;
+    }
+
+    /**
+     * Número sem formatação (apenas dígitos)
+     */
+    public String getDigitos() {
+        return digitos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o != null && o.getClass() == getClass() && digitos.equals(((Documento) o).digitos));
+    }
+
+    @Override
+    public int hashCode() {
+        return digitos.hashCode();
+    }
+
+    /**
+     * Os dígitos, sem formatação (a formatação é papel do conversor)
+     */
+    @Override
+    public String toString() {
+        return digitos;
+    }
+}
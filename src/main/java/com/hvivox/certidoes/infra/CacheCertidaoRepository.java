@@ -0,0 +1,351 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ====================================================================
+ * CACHE DE LEITURA PARA CERTIDAOREPOSITORY (DECORATOR)
+ * ====================================================================
+ *
+ * Guarda o resultado de findById em dois níveis, na frente de qualquer
+ * CertidaoRepository (útil quando o repositório está em disco ou remoto):
+ *
+ * 1. Escopo da requisição: entre abrirEscopo() e fecharEscopo() (chamados
+ *    pelo CertidoesRequestCycleListener), a mesma certidão é buscada uma vez
+ *    só por requisição, inclusive "não encontrada" (ex: a página de detalhe,
+ *    o model e o formulário pedindo o mesmo id)
+ * 2. LRU compartilhado: até `capacidade` certidões, descartando a usada há
+ *    mais tempo
+ *
+ * COMO FUNCIONA:
+ * - Escritas pelo cache (save, saveAll, delete...) vão direto ao
+ *   repositório e retiram os ids alterados dos dois níveis
+ * - Escritas feitas no repositório sem passar pelo cache são percebidas pela
+ *   versão (getVersao()): se ela mudou sem uma escrita do cache, o LRU é
+ *   esvaziado. Uma escrita externa simultânea a uma escrita pelo cache pode
+ *   passar despercebida, por isso a aplicação escreve sempre pelo cache
+ * - Uma busca que não achou no cache só guarda o resultado se nenhuma
+ *   escrita aconteceu durante a busca (evita guardar um valor já antigo)
+ * - Toda leitura devolve cópias (findById e também findAll, findByFiltro e
+ *   as consultas paginadas): alterar a certidão devolvida (ex: pelo
+ *   formulário) não altera o que está guardado nem o repositório, até o
+ *   save()
+ * - Consultas por filtro, contagem, estatísticas e existsByNumero não passam
+ *   pelo cache
+ *
+ * CONTADORES: acertos no escopo da requisição, acertos no LRU, falhas
+ * (buscas no repositório) e remoções por falta de espaço.
+ *
+ * EXEMPLO DE USO:
+ * CertidaoRepository repository = CacheCertidaoRepository.padrao();
+ * repository.findById(id);   // busca no repositório
+ * repository.findById(id);   // cache
+ */
+public class CacheCertidaoRepository implements CertidaoRepository {
+
+    public static final int CAPACIDADE_PADRAO = 10_000;
+
+    private static final ThreadLocal<Map<CacheCertidaoRepository, Map<Long, Optional<Certidao>>>> ESCOPO =
+            new ThreadLocal<>();
+
+    private static final CacheCertidaoRepository PADRAO =
+            new CacheCertidaoRepository(new InMemoryCertidaoRepository(), CAPACIDADE_PADRAO);
+
+    private final CertidaoRepository repository;
+    private final Map<Long, Certidao> entradas;
+    private long geracao;
+    private long versaoConhecida;
+
+    private final LongAdder acertosRequisicao = new LongAdder();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    /**
+     * @param repository Repositório de onde as certidões são lidas e onde
+     *                   as escritas são feitas
+     * @param capacidade Máximo de certidões no LRU
+     */
+    public CacheCertidaoRepository(CertidaoRepository repository, int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("capacidade deve ser >= 1: " + capacidade);
+        }
+        this.repository = repository;
+        this.versaoConhecida = repository.getVersao();
+        this.entradas = new LinkedHashMap<Long, Certidao>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Certidao> maisAntiga) {
+                if (size() > capacidade) {
+                    remocoes.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cache compartilhado pelas páginas, na frente do InMemoryCertidaoRepository
+     */
+    public static CacheCertidaoRepository padrao() {
+        return PADRAO;
+    }
+
+    /**
+     * Início da requisição: a partir daqui, findById na thread atual guarda
+     * os resultados até fecharEscopo().
+     */
+    public static void abrirEscopo() {
+        ESCOPO.set(new HashMap<>());
+    }
+
+    /**
+     * Fim da requisição: descarta o que foi guardado na thread atual.
+     */
+    public static void fecharEscopo() {
+        ESCOPO.remove();
+    }
+
+    // ==================== LEITURA ====================
+
+    @Override
+    public Optional<Certidao> findById(Long id) {
+        if (id == null) {
+            return repository.findById(null);
+        }
+        Map<Long, Optional<Certidao>> escopo = escopo();
+        Optional<Certidao> resultado = escopo != null ? escopo.get(id) : null;
+        if (resultado != null) {
+            acertosRequisicao.increment();
+            return resultado.map(CertidaoStore::copiar);
+        }
+
+        Certidao guardada;
+        long geracaoLida;
+        synchronized (entradas) {
+            conferirVersao();
+            guardada = entradas.get(id);
+            geracaoLida = geracao;
+        }
+        if (guardada != null) {
+            acertos.increment();
+            resultado = Optional.of(guardada);
+        } else {
+            falhas.increment();
+            resultado = repository.findById(id).map(CertidaoStore::copiar);
+            if (resultado.isPresent()) {
+                synchronized (entradas) {
+                    conferirVersao();
+                    if (geracao == geracaoLida) {
+                        entradas.put(id, resultado.get());
+                    }
+                }
+            }
+        }
+        if (escopo != null) {
+            escopo.put(id, resultado);
+        }
+        return resultado.map(CertidaoStore::copiar);
+    }
+
+    @Override
+    public List<Certidao> findAll() {
+        return copias(repository.findAll());
+    }
+
+    @Override
+    public boolean existsByNumero(String numero, Long excludingId) {
+        return repository.existsByNumero(numero, excludingId);
+    }
+
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro) {
+        return copias(repository.findByFiltro(filtro));
+    }
+
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro, long offset, int limit, CertidaoOrdenacao ordenacao) {
+        return copias(repository.findByFiltro(filtro, offset, limit, ordenacao));
+    }
+
+    @Override
+    public long countByFiltro(CertidaoFiltro filtro) {
+        return repository.countByFiltro(filtro);
+    }
+
+    @Override
+    public List<Certidao> findByFiltroAfterId(CertidaoFiltro filtro, Long afterId, int limit) {
+        return copias(repository.findByFiltroAfterId(filtro, afterId, limit));
+    }
+
+    @Override
+    public CertidaoEstatisticas getEstatisticas() {
+        return repository.getEstatisticas();
+    }
+
+    @Override
+    public long getVersao() {
+        return repository.getVersao();
+    }
+
+    // ==================== ESCRITA ====================
+
+    @Override
+    public Certidao save(Certidao certidao) {
+        try {
+            return repository.save(certidao);
+        } finally {
+            invalidar(Collections.singletonList(certidao.getId()));
+        }
+    }
+
+    @Override
+    public List<Certidao> saveAll(Collection<Certidao> certidoes) {
+        try {
+            return repository.saveAll(certidoes);
+        } finally {
+            List<Long> ids = new ArrayList<>(certidoes.size());
+            for (Certidao certidao : certidoes) {
+                ids.add(certidao.getId());
+            }
+            invalidar(ids);
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        try {
+            repository.delete(id);
+        } finally {
+            invalidar(Collections.singletonList(id));
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        try {
+            repository.deleteAll(ids);
+        } finally {
+            invalidar(ids);
+        }
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, CertidaoStatus status) {
+        try {
+            return repository.updateStatus(ids, status);
+        } finally {
+            invalidar(ids);
+        }
+    }
+
+    // ==================== CONTADORES ====================
+
+    /**
+     * Buscas atendidas pelo escopo da requisição
+     */
+    public long getAcertosRequisicao() {
+        return acertosRequisicao.sum();
+    }
+
+    /**
+     * Buscas atendidas pelo LRU
+     */
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    /**
+     * Buscas que foram ao repositório
+     */
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    /**
+     * Certidões descartadas do LRU por falta de espaço
+     */
+    public long getRemocoes() {
+        return remocoes.sum();
+    }
+
+    /**
+     * Fração das buscas atendidas sem ir ao repositório (0 a 1)
+     */
+    public double getTaxaAcerto() {
+        long atendidas = getAcertosRequisicao() + getAcertos();
+        long total = atendidas + getFalhas();
+        return total == 0 ? 0 : (double) atendidas / total;
+    }
+
+    /**
+     * Certidões guardadas no LRU
+     */
+    public int tamanho() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    // ==================== APOIO ====================
+
+    /**
+     * Retira os ids dos dois níveis (depois de uma escrita pelo cache).
+     */
+    private void invalidar(Collection<Long> ids) {
+        Map<Long, Optional<Certidao>> escopo = escopo();
+        synchronized (entradas) {
+            for (Long id : ids) {
+                if (id != null) {
+                    entradas.remove(id);
+                    if (escopo != null) {
+                        escopo.remove(id);
+                    }
+                }
+            }
+            geracao++;
+            versaoConhecida = repository.getVersao();
+        }
+    }
+
+    /**
+     * Esvazia o LRU se o repositório mudou sem passar pelo cache (chamado
+     * com o lock de entradas).
+     */
+    private void conferirVersao() {
+        long versao = repository.getVersao();
+        if (versao != SEM_VERSAO && versao != versaoConhecida) {
+            entradas.clear();
+            geracao++;
+            versaoConhecida = versao;
+        }
+    }
+
+    private Map<Long, Optional<Certidao>> escopo() {
+        Map<CacheCertidaoRepository, Map<Long, Optional<Certidao>>> escopos = ESCOPO.get();
+        return escopos != null ? escopos.computeIfAbsent(this, cache -> new HashMap<>()) : null;
+    }
+
+    private static List<Certidao> copias(List<Certidao> certidoes) {
+        List<Certidao> copias = new ArrayList<>(certidoes.size());
+        for (Certidao certidao : certidoes) {
+            copias.add(CertidaoStore.copiar(certidao));
+        }
+        return copias;
+    }
+}
@@ -0,0 +1,193 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Formato binário compacto de uma certidão, usado no log (WAL) e no
+ * snapshot do WalCertidaoRepository.
+ *
+ * FORMATO:
+ * - id: varint (1 a 10 bytes; ids pequenos ocupam 1-3 bytes)
+ * - número e interessado: tamanho em varint (0 = null) + bytes UTF-8
+ * - tipo e status: 1 byte cada (ordinal + 1; 0 = null)
+ * - data: varint do epoch-day (0 = sem data; nesse caso segue o texto
+ *   original, que pode ser null)
+ *
+ * Uma certidão típica ocupa ~30 bytes, contra centenas na serialização Java.
+ */
+final class CertidaoBinario {
+
+    private static final CertidaoTipo[] TIPOS = CertidaoTipo.values();
+    private static final CertidaoStatus[] STATUS = CertidaoStatus.values();
+
+    private CertidaoBinario() {
+    }
+
+    static void escrever(Saida saida, Certidao certidao) {
+        saida.varLong(certidao.getId());
+        saida.texto(certidao.getNumero());
+        saida.byte_(certidao.getTipo() != null ? certidao.getTipo().ordinal() + 1 : 0);
+        saida.texto(certidao.getInteressado());
+        if (certidao.temDataEmissao()) {
+            saida.varLong(zigZag(certidao.getDataEmissaoDia()) + 1);
+        } else {
+            saida.varLong(0);
+            saida.texto(certidao.getDataEmissao());
+        }
+        escreverStatus(saida, certidao.getStatus());
+    }
+
+    static Certidao ler(Entrada entrada) {
+        Certidao certidao = new Certidao();
+        certidao.setId(entrada.varLong());
+        certidao.setNumero(entrada.texto());
+        int tipo = entrada.byte_();
+        certidao.setTipo(tipo != 0 ? TIPOS[tipo - 1] : null);
+        certidao.setInteressado(entrada.texto());
+        long dia = entrada.varLong();
+        if (dia != 0) {
+            certidao.setDataEmissaoDia(deZigZag(dia - 1));
+        } else {
+            certidao.setDataEmissao(entrada.texto());
+        }
+        certidao.setStatus(lerStatus(entrada));
+        return certidao;
+    }
+
+    static void escreverStatus(Saida saida, CertidaoStatus status) {
+        saida.byte_(status != null ? status.ordinal() + 1 : 0);
+    }
+
+    static CertidaoStatus lerStatus(Entrada entrada) {
+        int status = entrada.byte_();
+        return status != 0 ? STATUS[status - 1] : null;
+    }
+
+    private static long zigZag(int valor) {
+        return ((long) valor << 1) ^ (valor >> 31);
+    }
+
+    private static int deZigZag(long valor) {
+        return (int) ((valor >>> 1) ^ -(valor & 1));
+    }
+
+    /**
+     * Buffer de escrita que cresce conforme a necessidade (reaproveitável)
+     */
+    static final class Saida {
+        byte[] dados = new byte[256];
+        int tamanho;
+
+        void limpar() {
+            tamanho = 0;
+        }
+
+        void byte_(int valor) {
+            garantir(1);
+            dados[tamanho++] = (byte) valor;
+        }
+
+        void int_(int valor) {
+            garantir(4);
+            dados[tamanho++] = (byte) (valor >>> 24);
+            dados[tamanho++] = (byte) (valor >>> 16);
+            dados[tamanho++] = (byte) (valor >>> 8);
+            dados[tamanho++] = (byte) valor;
+        }
+
+        void varLong(long valor) {
+            garantir(10);
+            while ((valor & ~0x7FL) != 0) {
+                dados[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            dados[tamanho++] = (byte) valor;
+        }
+
+        void texto(String texto) {
+            if (texto == null) {
+                varLong(0);
+                return;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            varLong(bytes.length + 1L);
+            bytes(bytes, 0, bytes.length);
+        }
+
+        void bytes(byte[] origem, int inicio, int quantidade) {
+            garantir(quantidade);
+            System.arraycopy(origem, inicio, dados, tamanho, quantidade);
+            tamanho += quantidade;
+        }
+
+        void escreverInt(int posicao, int valor) {
+            dados[posicao] = (byte) (valor >>> 24);
+            dados[posicao + 1] = (byte) (valor >>> 16);
+            dados[posicao + 2] = (byte) (valor >>> 8);
+            dados[posicao + 3] = (byte) valor;
+        }
+
+        private void garantir(int adicional) {
+            if (tamanho + adicional > dados.length) {
+                dados = Arrays.copyOf(dados, Math.max(dados.length * 2, tamanho + adicional));
+            }
+        }
+    }
+
+    /**
+     * Leitura sobre um ByteBuffer (heap ou mapeado)
+     */
+    static final class Entrada {
+        private ByteBuffer buffer;
+        private byte[] textoBytes = new byte[256];
+
+        Entrada(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void buffer(ByteBuffer novo) {
+            this.buffer = novo;
+        }
+
+        int byte_() {
+            return buffer.get() & 0xFF;
+        }
+
+        long varLong() {
+            long valor = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                if (deslocamento > 63) {
+                    throw new IllegalStateException("varint inválido");
+                }
+                b = buffer.get();
+                valor |= (long) (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while (b < 0);
+            return valor;
+        }
+
+        String texto() {
+            long tamanho = varLong();
+            if (tamanho == 0) {
+                return null;
+            }
+            int bytes = (int) (tamanho - 1);
+            if (bytes > buffer.remaining()) {
+                throw new IllegalStateException("Texto maior que o registro");
+            }
+            if (bytes > textoBytes.length) {
+                textoBytes = new byte[Math.max(bytes, textoBytes.length * 2)];
+            }
+            buffer.get(textoBytes, 0, bytes);
+            return new String(textoBytes, 0, bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Critério de consulta "compilado" a partir de um CertidaoFiltro.
+ *
+ * O filtro da tela guarda texto livre e datas (java.util.Date). Aqui esses
+ * valores são convertidos UMA vez por consulta para a forma usada pelos
+ * índices do CertidaoStore: texto normalizado (minúsculas, sem acentos) e
+ * período em dias desde a época (epoch-day), para que cada registro seja
+ * testado só com comparações simples.
+ *
+ * É também a forma canônica do filtro: dois filtros que só diferem em
+ * espaços, maiúsculas, acentos ou no horário das datas (dentro da regra de
+ * dias abaixo) geram critérios iguais (equals/hashCode), usados como chave
+ * do cache de consultas (ver ConsultaCache). Fora do pacote infra, essa
+ * forma é exposta como texto por chave() (ex: chave do RelatorioCache).
+ */
+public final class CertidaoCriterio {
+
+    /**
+     * Valor usado quando o período não tem início/fim
+     */
+    static final int SEM_LIMITE_INICIO = Integer.MIN_VALUE;
+    static final int SEM_LIMITE_FIM = Integer.MAX_VALUE;
+
+    final String textoBusca;
+    final CertidaoTipo tipo;
+    final CertidaoStatus status;
+    final int diaInicio;
+    final int diaFim;
+
+    private CertidaoCriterio(String textoBusca, CertidaoTipo tipo, CertidaoStatus status,
+                             int diaInicio, int diaFim) {
+        this.textoBusca = textoBusca;
+        this.tipo = tipo;
+        this.status = status;
+        this.diaInicio = diaInicio;
+        this.diaFim = diaFim;
+    }
+
+    /**
+     * Critério sem filtros (aceita todas as certidões)
+     */
+    static final CertidaoCriterio TODOS = new CertidaoCriterio(null, null, null, SEM_LIMITE_INICIO, SEM_LIMITE_FIM);
+
+    /**
+     * Converte o filtro da tela em critério de consulta.
+     *
+     * @param filtro Filtro preenchido pelo usuário (null = sem filtros)
+     * @return Critério equivalente
+     */
+    public static CertidaoCriterio de(CertidaoFiltro filtro) {
+        if (filtro == null || !filtro.temFiltroAplicado()) {
+            return TODOS;
+        }
+        String texto = filtro.getTextoBusca();
+        if (texto != null) {
+            texto = TextoBuscaIndice.normalizar(texto.trim());
+            if (texto.isEmpty()) {
+                texto = null;
+            }
+        }
+
+        return new CertidaoCriterio(
+                texto,
+                filtro.getTipo(),
+                filtro.getStatus(),
+                diaInicio(filtro.getDataInicio()),
+                diaFim(filtro.getDataFim()));
+    }
+
+    /**
+     * Verifica se existe algum filtro
+     */
+    boolean temFiltro() {
+        return textoBusca != null || tipo != null || status != null || temPeriodo();
+    }
+
+    /**
+     * Verifica se existe algum filtro por data
+     */
+    boolean temPeriodo() {
+        return diaInicio != SEM_LIMITE_INICIO || diaFim != SEM_LIMITE_FIM;
+    }
+
+    /**
+     * Verifica se um registro atende a todos os filtros (AND).
+     */
+    boolean aceita(CertidaoStore.Registro registro) {
+        if (tipo != null && tipo != registro.tipo) {
+            return false;
+        }
+        if (status != null && status != registro.status) {
+            return false;
+        }
+        if (temPeriodo()) {
+            // Data que não pôde ser interpretada não entra em filtro por período
+            if (registro.dia == CertidaoStore.SEM_DATA
+                    || registro.dia < diaInicio || registro.dia > diaFim) {
+                return false;
+            }
+        }
+        return aceitaTexto(registro);
+    }
+
+    /**
+     * Busca por texto em número e interessado, ignorando maiúsculas e acentos
+     * ("sao" encontra "São")
+     */
+    private boolean aceitaTexto(CertidaoStore.Registro registro) {
+        if (textoBusca == null) {
+            return true;
+        }
+        if (registro.numeroBusca != null && registro.numeroBusca.contains(textoBusca)) {
+            return true;
+        }
+        return registro.interessadoBusca != null && registro.interessadoBusca.contains(textoBusca);
+    }
+
+    /**
+     * Forma canônica em texto: critérios iguais (equals) geram o mesmo texto
+     * e critérios diferentes, textos diferentes.
+     *
+     * O texto da busca fica por último, pois pode conter qualquer caractere
+     * (inclusive o separador "|").
+     */
+    public String chave() {
+        StringBuilder chave = new StringBuilder(64)
+                .append("tipo=").append(tipo != null ? tipo.name() : "")
+                .append("|status=").append(status != null ? status.name() : "")
+                .append("|inicio=").append(diaInicio != SEM_LIMITE_INICIO ? Integer.toString(diaInicio) : "")
+                .append("|fim=").append(diaFim != SEM_LIMITE_FIM ? Integer.toString(diaFim) : "");
+        if (textoBusca != null) {
+            chave.append("|texto=").append(textoBusca);
+        }
+        return chave.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CertidaoCriterio)) {
+            return false;
+        }
+        CertidaoCriterio outro = (CertidaoCriterio) o;
+        return diaInicio == outro.diaInicio
+                && diaFim == outro.diaFim
+                && tipo == outro.tipo
+                && status == outro.status
+                && Objects.equals(textoBusca, outro.textoBusca);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(textoBusca, tipo, status, diaInicio, diaFim);
+    }
+
+    @Override
+    public String toString() {
+        return "CertidaoCriterio{" +
+               "textoBusca='" + textoBusca + '\'' +
+               ", tipo=" + tipo +
+               ", status=" + status +
+               ", diaInicio=" + diaInicio +
+               ", diaFim=" + diaFim +
+               '}';
+    }
+
+    /**
+     * Primeiro dia incluído no período.
+     *
+     * A regra antiga excluía a certidão quando a data dela (meia-noite)
+     * era anterior a dataInicio. Se dataInicio tiver horário, o próprio dia
+     * fica de fora, por isso o arredondamento é para cima.
+     */
+    private static int diaInicio(Date dataInicio) {
+        if (dataInicio == null) {
+            return SEM_LIMITE_INICIO;
+        }
+        ZonedDateTime momento = Instant.ofEpochMilli(dataInicio.getTime()).atZone(ZoneId.systemDefault());
+        LocalDate dia = momento.toLocalDate();
+        if (momento.isAfter(dia.atStartOfDay(momento.getZone()))) {
+            dia = dia.plusDays(1);
+        }
+        return (int) dia.toEpochDay();
+    }
+
+    /**
+     * Último dia incluído no período (a meia-noite do dia não pode passar de dataFim).
+     */
+    private static int diaFim(Date dataFim) {
+        if (dataFim == null) {
+            return SEM_LIMITE_FIM;
+        }
+        return (int) Instant.ofEpochMilli(dataFim.getTime())
+                .atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+}
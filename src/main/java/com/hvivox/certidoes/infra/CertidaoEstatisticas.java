@@ -0,0 +1,158 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ====================================================================
+ * CONTADORES AGREGADOS DE CERTIDÕES (TIPO, STATUS E MÊS DE EMISSÃO)
+ * ====================================================================
+ *
+ * Totais usados no dashboard da HomePage, mantidos a cada escrita em vez de
+ * calculados percorrendo todas as certidões: ler um total custa o mesmo com
+ * dez ou com dez milhões de certidões.
+ *
+ * COMO FUNCIONA:
+ * - Um LongAdder por valor do enum, no índice ordinal() (a última posição
+ *   conta as certidões sem tipo / sem status)
+ * - Um LongAdder por mês de emissão, pela chave epoch-month (meses desde
+ *   janeiro de 1970); certidões sem data válida têm um contador próprio
+ * - Cada escrita soma +1 nos contadores do registro novo e -1 nos do antigo:
+ *   O(1), sem lock (LongAdder distribui as somas concorrentes em células)
+ * - Os contadores são lidos um a um: com escritas simultâneas, totais de
+ *   dimensões diferentes podem refletir momentos ligeiramente diferentes
+ *
+ * EXEMPLO DE USO:
+ * CertidaoEstatisticas estatisticas = repository.getEstatisticas();
+ * long emitidas = estatisticas.getPorStatus(CertidaoStatus.EMITIDA);
+ * SortedMap<YearMonth, Long> meses = estatisticas.getPorMes();
+ */
+public class CertidaoEstatisticas {
+
+    private static final YearMonth MES_ZERO = YearMonth.of(1970, 1);
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder[] porTipo = contadores(CertidaoTipo.values().length + 1);
+    private final LongAdder[] porStatus = contadores(CertidaoStatus.values().length + 1);
+    private final ConcurrentHashMap<Integer, LongAdder> porMes = new ConcurrentHashMap<>();
+    private final LongAdder semData = new LongAdder();
+
+    // ==================== LEITURA ====================
+
+    /**
+     * Quantidade de certidões
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * @param tipo Tipo (null = certidões sem tipo)
+     * @return Quantidade de certidões do tipo
+     */
+    public long getPorTipo(CertidaoTipo tipo) {
+        return celula(porTipo, tipo).sum();
+    }
+
+    /**
+     * @param status Status (null = certidões sem status)
+     * @return Quantidade de certidões com o status
+     */
+    public long getPorStatus(CertidaoStatus status) {
+        return celula(porStatus, status).sum();
+    }
+
+    /**
+     * Quantidade de certidões por mês de emissão, do mais antigo ao mais
+     * recente (só meses com certidões).
+     *
+     * @return Novo mapa ordenado mês → quantidade
+     */
+    public SortedMap<YearMonth, Long> getPorMes() {
+        SortedMap<YearMonth, Long> meses = new TreeMap<>();
+        for (Map.Entry<Integer, LongAdder> entrada : porMes.entrySet()) {
+            long quantidade = entrada.getValue().sum();
+            if (quantidade > 0) {
+                meses.put(MES_ZERO.plusMonths(entrada.getKey()), quantidade);
+            }
+        }
+        return meses;
+    }
+
+    /**
+     * Quantidade de certidões sem data de emissão válida
+     */
+    public long getSemData() {
+        return semData.sum();
+    }
+
+    // ==================== ATUALIZAÇÃO ====================
+
+    void incluir(Certidao certidao) {
+        somar(certidao.getTipo(), certidao.getStatus(), certidao.getDataEmissaoDia(), 1);
+    }
+
+    void incluir(CertidaoTipo tipo, CertidaoStatus status, int dia) {
+        somar(tipo, status, dia, 1);
+    }
+
+    void remover(CertidaoTipo tipo, CertidaoStatus status, int dia) {
+        somar(tipo, status, dia, -1);
+    }
+
+    /**
+     * Alteração só de status (ex: cancelamento em lote)
+     */
+    void trocarStatus(CertidaoStatus antigo, CertidaoStatus novo) {
+        celula(porStatus, antigo).decrement();
+        celula(porStatus, novo).increment();
+    }
+
+    private void somar(CertidaoTipo tipo, CertidaoStatus status, int dia, int delta) {
+        total.add(delta);
+        celula(porTipo, tipo).add(delta);
+        celula(porStatus, status).add(delta);
+        if (dia == Certidao.SEM_DATA) {
+            semData.add(delta);
+        } else {
+            int mes = mes(dia);
+            LongAdder contador = porMes.get(mes);
+            if (contador == null) {
+                contador = porMes.computeIfAbsent(mes, m -> new LongAdder());
+            }
+            contador.add(delta);
+        }
+    }
+
+    /**
+     * Mês do dia, em meses desde janeiro de 1970
+     */
+    private static int mes(int dia) {
+        LocalDate data = LocalDate.ofEpochDay(dia);
+        return (data.getYear() - 1970) * 12 + data.getMonthValue() - 1;
+    }
+
+    /**
+     * Contador do valor do enum (null = última posição)
+     */
+    private static LongAdder celula(LongAdder[] contadores, Enum<?> valor) {
+        return contadores[valor != null ? valor.ordinal() : contadores.length - 1];
+    }
+
+    private static LongAdder[] contadores(int quantidade) {
+        LongAdder[] contadores = new LongAdder[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            contadores[i] = new LongAdder();
+        }
+        return contadores;
+    }
+}
@@ -0,0 +1,362 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.infra.CertidaoBinario.Saida;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Log de escrita antecipada (WAL) do WalCertidaoRepository.
+ *
+ * COMO FUNCIONA:
+ * - Cada alteração vira um registro [tamanho][crc32][operação + dados],
+ *   anexado a um buffer em memória (anexar devolve um "ticket")
+ * - Group commit: quem precisa esperar o disco chama aguardar(ticket); a
+ *   primeira thread a chegar grava tudo o que está no buffer (inclusive os
+ *   registros das outras) com um único write + fsync, e as demais, que
+ *   esperavam o mesmo lock, já encontram o seu ticket gravado
+ * - O log é dividido em segmentos (certidoes-0000000001.wal, ...): um
+ *   snapshot abre um segmento novo e os anteriores podem ser apagados
+ * - Na leitura, um registro incompleto ou com CRC errado no fim do último
+ *   segmento (queda durante a escrita) é descartado e o arquivo truncado
+ */
+final class CertidaoLog implements Closeable {
+
+    static final byte SALVAR = 1;
+    static final byte REMOVER = 2;
+    static final byte STATUS = 3;
+
+    private static final String PREFIXO = "certidoes-";
+    private static final String SUFIXO = ".wal";
+    private static final int CABECALHO = 8;
+    private static final int MAX_REGISTRO = 64 << 20;
+    // Na sincronização periódica, grava antes do timer se o buffer passar disso
+    private static final int LIMITE_PENDENTE = 4 << 20;
+
+    /**
+     * Leitor dos registros durante a recuperação
+     */
+    interface Aplicador {
+        void aplicar(byte operacao, ByteBuffer dados);
+    }
+
+    private final Path diretorio;
+    private final WalCertidaoRepository.Sincronizacao sincronizacao;
+    private final ReentrantLock descarga = new ReentrantLock();
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService timer;
+
+    // Guardados por "this"
+    private Saida pendente = new Saida();
+    private long anexados;
+
+    // Guardados por "descarga"
+    private Saida gravando = new Saida();
+    private FileChannel canal;
+    private long segmento;
+    private long gravados;
+    private long sincronizados;
+
+    private volatile IOException falha;
+
+    /**
+     * Abre um segmento novo para escrita.
+     *
+     * @param segmento Número do segmento (maior que os existentes)
+     * @param intervaloMs Intervalo de fsync na sincronização PERIODICA
+     */
+    CertidaoLog(Path diretorio, long segmento, WalCertidaoRepository.Sincronizacao sincronizacao,
+            long intervaloMs) throws IOException {
+        this.diretorio = diretorio;
+        this.sincronizacao = sincronizacao;
+        this.segmento = segmento;
+        this.canal = abrirSegmento(segmento);
+        if (sincronizacao == WalCertidaoRepository.Sincronizacao.PERIODICA) {
+            timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "certidoes-wal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.scheduleWithFixedDelay(this::sincronizarPeriodico, intervaloMs, intervaloMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            timer = null;
+        }
+    }
+
+    /**
+     * Anexa um registro ao buffer (sem tocar no disco).
+     *
+     * @param operacao Operação (SALVAR, REMOVER, STATUS)
+     * @param dados    Dados do registro
+     * @return Ticket para aguardar()
+     */
+    synchronized long anexar(byte operacao, Saida dados) {
+        crc.reset();
+        crc.update(operacao);
+        crc.update(dados.dados, 0, dados.tamanho);
+        pendente.int_(dados.tamanho + 1);
+        pendente.int_((int) crc.getValue());
+        pendente.byte_(operacao);
+        pendente.bytes(dados.dados, 0, dados.tamanho);
+        return ++anexados;
+    }
+
+    /**
+     * Espera o registro chegar ao disco, conforme a política de sincronização.
+     *
+     * @param ticket Devolvido por anexar()
+     * @throws IOException Se a gravação falhou (agora ou antes)
+     */
+    void aguardar(long ticket) throws IOException {
+        verificarFalha();
+        switch (sincronizacao) {
+            case A_CADA_COMMIT:
+                descarregar(ticket, true);
+                break;
+            case SISTEMA:
+                descarregar(ticket, false);
+                break;
+            default:
+                // PERIODICA: o timer grava; só antecipa se o buffer crescer demais
+                if (tamanhoPendente() > LIMITE_PENDENTE) {
+                    descarregar(ticket, false);
+                }
+        }
+    }
+
+    /**
+     * Último ticket que já está no disco conforme a política de
+     * sincronização (gravado e, em A_CADA_COMMIT, sincronizado).
+     */
+    long confirmados() {
+        descarga.lock();
+        try {
+            return sincronizacao == WalCertidaoRepository.Sincronizacao.A_CADA_COMMIT ? sincronizados : gravados;
+        } finally {
+            descarga.unlock();
+        }
+    }
+
+    /**
+     * Grava e sincroniza tudo e passa a escrever em um segmento novo.
+     *
+     * @return Número do novo segmento
+     */
+    long rotacionar() throws IOException {
+        descarga.lock();
+        try {
+            descarregar(Long.MAX_VALUE, true);
+            canal.close();
+            segmento++;
+            canal = abrirSegmento(segmento);
+            return segmento;
+        } finally {
+            descarga.unlock();
+        }
+    }
+
+    /**
+     * Apaga os segmentos anteriores ao informado (já cobertos por um snapshot)
+     */
+    void removerSegmentosAntes(long primeiroMantido) throws IOException {
+        for (long numero : segmentos(diretorio)) {
+            if (numero < primeiroMantido) {
+                Files.deleteIfExists(arquivo(diretorio, numero));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        descarga.lock();
+        try {
+            if (canal.isOpen()) {
+                descarregar(Long.MAX_VALUE, true);
+                canal.close();
+            }
+        } finally {
+            descarga.unlock();
+        }
+    }
+
+    /**
+     * Group commit: grava o buffer inteiro de uma vez.
+     *
+     * @param alvo   Ticket que precisa estar gravado (MAX_VALUE = tudo)
+     * @param forcar Se deve também sincronizar (fsync)
+     */
+    private void descarregar(long alvo, boolean forcar) throws IOException {
+        descarga.lock();
+        try {
+            verificarFalha();
+            if (gravados < alvo) {
+                Saida lote;
+                long ate;
+                synchronized (this) {
+                    lote = pendente;
+                    pendente = gravando;
+                    gravando = lote;
+                    ate = anexados;
+                }
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(lote.dados, 0, lote.tamanho);
+                    while (buffer.hasRemaining()) {
+                        canal.write(buffer);
+                    }
+                } catch (IOException e) {
+                    falha = e;
+                    throw e;
+                }
+                lote.limpar();
+                gravados = ate;
+            }
+            if (forcar && sincronizados < gravados) {
+                try {
+                    canal.force(false);
+                } catch (IOException e) {
+                    falha = e;
+                    throw e;
+                }
+                sincronizados = gravados;
+            }
+        } finally {
+            descarga.unlock();
+        }
+    }
+
+    private void sincronizarPeriodico() {
+        try {
+            descarregar(Long.MAX_VALUE, true);
+        } catch (IOException e) {
+            // Guardado em "falha": a próxima escrita recebe o erro
+        }
+    }
+
+    private synchronized int tamanhoPendente() {
+        return pendente.tamanho;
+    }
+
+    /**
+     * @throws IOException Se uma gravação anterior falhou (o log não aceita
+     *                     mais nada)
+     */
+    void verificarFalha() throws IOException {
+        IOException erro = falha;
+        if (erro != null) {
+            throw new IOException("Log de certidões indisponível após falha de gravação", erro);
+        }
+    }
+
+    private FileChannel abrirSegmento(long numero) throws IOException {
+        return FileChannel.open(arquivo(diretorio, numero), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // ==================== RECUPERAÇÃO ====================
+
+    /**
+     * Números dos segmentos existentes, em ordem crescente
+     */
+    static List<Long> segmentos(Path diretorio) throws IOException {
+        List<Long> numeros = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                try {
+                    numeros.add(Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length())));
+                } catch (NumberFormatException e) {
+                    // Arquivo com nome parecido, mas não é segmento
+                }
+            }
+        }
+        Collections.sort(numeros);
+        return numeros;
+    }
+
+    /**
+     * Reaplica os registros de um segmento.
+     *
+     * @param ultimo Se é o último segmento (o único que pode ter um registro
+     *               incompleto, que é descartado)
+     * @return Quantidade de registros aplicados
+     * @throws IOException Se um segmento anterior ao último estiver corrompido
+     */
+    static long reproduzir(Path diretorio, long numero, boolean ultimo, Aplicador aplicador) throws IOException {
+        Path arquivo = arquivo(diretorio, numero);
+        long posicao = 0;
+        long aplicados = 0;
+        CRC32 crc = new CRC32();
+        byte[] dados = new byte[256];
+        try (InputStream entrada = Files.newInputStream(arquivo);
+             DataInputStream leitor = new DataInputStream(new BufferedInputStream(entrada, 1 << 16))) {
+            while (true) {
+                int tamanho;
+                int crcEsperado;
+                try {
+                    tamanho = leitor.readInt();
+                    crcEsperado = leitor.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (tamanho < 1 || tamanho > MAX_REGISTRO) {
+                    break;
+                }
+                if (tamanho > dados.length) {
+                    dados = new byte[Math.max(tamanho, dados.length * 2)];
+                }
+                try {
+                    leitor.readFully(dados, 0, tamanho);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(dados, 0, tamanho);
+                if ((int) crc.getValue() != crcEsperado) {
+                    break;
+                }
+                aplicador.aplicar(dados[0], ByteBuffer.wrap(dados, 1, tamanho - 1));
+                aplicados++;
+                posicao += CABECALHO + tamanho;
+            }
+        }
+
+        long tamanhoArquivo = Files.size(arquivo);
+        if (posicao < tamanhoArquivo) {
+            if (!ultimo) {
+                throw new IOException("Segmento " + arquivo + " corrompido na posição " + posicao);
+            }
+            // Escrita interrompida: descarta o registro incompleto
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+                canal.truncate(posicao);
+                canal.force(true);
+            }
+        }
+        return aplicados;
+    }
+
+    private static Path arquivo(Path diretorio, long numero) {
+        return diretorio.resolve(String.format("%s%010d%s", PREFIXO, numero, SUFIXO));
+    }
+}
@@ -1,16 +1,82 @@
 package com.hvivox.certidoes.infra;
 
 import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
 import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CertidaoRepository {
+
+    /**
+     * Valor de getVersao() para repositórios sem controle de versão
+     */
+    long SEM_VERSAO = -1L;
+
     List<Certidao> findAll();
     Optional<Certidao> findById(Long id);
-    Certidao save(Certidao certidao); // cria/atualiza
+    Certidao save(Certidao certidao); // cria/atualiza (NumeroDuplicadoException se o número já existir)
     void delete(Long id);
+
+    /**
+     * Salva várias certidões (cria/atualiza) de uma vez, ex: importação.
+     * 
+     * A implementação padrão chama save() para cada certidão, na ordem. Se o
+     * número de uma delas já existir, NumeroDuplicadoException é lançada e
+     * as seguintes não são salvas; quem precisar saber quais foram salvas
+     * confere o id (preenchido só nas salvas, no caso de certidões novas).
+     * Implementações com escrita em lote podem ser tudo ou nada (nesse caso
+     * nenhuma certidão nova fica com id).
+     * 
+     * @param certidoes Certidões a salvar
+     * @return As mesmas certidões, salvas
+     */
+    default List<Certidao> saveAll(Collection<Certidao> certidoes) {
+        List<Certidao> salvas = new ArrayList<>(certidoes.size());
+        for (Certidao certidao : certidoes) {
+            salvas.add(save(certidao));
+        }
+        return salvas;
+    }
+
+    /**
+     * Exclui várias certidões de uma vez (ids inexistentes são ignorados).
+     * 
+     * A implementação padrão chama delete() para cada id.
+     * 
+     * @param ids IDs das certidões
+     */
+    default void deleteAll(Collection<Long> ids) {
+        for (Long id : ids) {
+            delete(id);
+        }
+    }
+
+    /**
+     * Altera o status de várias certidões de uma vez, ex: cancelamento em lote.
+     * 
+     * A implementação padrão busca e salva cada certidão.
+     * 
+     * @param ids    IDs das certidões (inexistentes são ignorados)
+     * @param status Novo status
+     * @return Quantas certidões tiveram o status alterado
+     */
+    default int updateStatus(Collection<Long> ids, CertidaoStatus status) {
+        int alteradas = 0;
+        for (Long id : ids) {
+            Optional<Certidao> certidao = findById(id);
+            if (certidao.isPresent() && certidao.get().getStatus() != status) {
+                certidao.get().setStatus(status);
+                save(certidao.get());
+                alteradas++;
+            }
+        }
+        return alteradas;
+    }
     
     /**
      * MÓDULO 7 - ITEM 58: Busca e filtros de certidões
@@ -22,4 +88,109 @@ public interface CertidaoRepository {
      * @return Lista de certidões que atendem aos critérios
      */
     List<Certidao> findByFiltro(CertidaoFiltro filtro);
+
+    /**
+     * Busca paginada e ordenada.
+     * 
+     * Devolve só as certidões da página pedida, sem copiar todo o resultado.
+     * A implementação padrão carrega o resultado completo e seleciona a
+     * página com um heap limitado; implementações com índices devem
+     * sobrescrever.
+     * 
+     * @param filtro    Critérios de busca (null = todas)
+     * @param offset    Quantas certidões pular
+     * @param limit     Tamanho máximo da página
+     * @param ordenacao Ordenação (null = ordem de inserção)
+     * @return Certidões da página
+     */
+    default List<Certidao> findByFiltro(CertidaoFiltro filtro, long offset, int limit, CertidaoOrdenacao ordenacao) {
+        return Paginacao.paginar(findByFiltro(filtro), Paginacao.comparador(ordenacao), offset, limit);
+    }
+
+    /**
+     * Conta as certidões que atendem ao filtro.
+     * 
+     * @param filtro Critérios de busca (null = todas)
+     * @return Quantidade de certidões
+     */
+    default long countByFiltro(CertidaoFiltro filtro) {
+        return findByFiltro(filtro).size();
+    }
+
+    /**
+     * Busca por cursor (keyset): as próximas certidões depois de um id, em
+     * ordem de inserção.
+     * 
+     * Para paginação profunda (ex: exportações), é mais barato que usar
+     * offset: passe o id da última certidão recebida para obter o próximo lote.
+     * 
+     * @param filtro  Critérios de busca (null = todas)
+     * @param afterId Id da última certidão do lote anterior (null = início)
+     * @param limit   Tamanho máximo do lote
+     * @return Próximas certidões (lista vazia no fim)
+     */
+    default List<Certidao> findByFiltroAfterId(CertidaoFiltro filtro, Long afterId, int limit) {
+        List<Certidao> seguintes = new ArrayList<>();
+        for (Certidao certidao : findByFiltro(filtro)) {
+            if (afterId == null || certidao.getId() > afterId) {
+                seguintes.add(certidao);
+            }
+        }
+        return Paginacao.paginar(seguintes, Paginacao.ORDEM_INSERCAO, 0, limit);
+    }
+
+    /**
+     * Verifica se o número já pertence a alguma certidão.
+     * 
+     * O número é comparado sem os espaços das pontas. A implementação padrão
+     * percorre todas as certidões; implementações com índice de número devem
+     * sobrescrever.
+     * 
+     * @param numero      Número a verificar
+     * @param excludingId Id a desconsiderar (certidão em edição), ou null
+     * @return true se outra certidão já usa o número
+     */
+    default boolean existsByNumero(String numero, Long excludingId) {
+        if (numero == null || numero.trim().isEmpty()) {
+            return false;
+        }
+        String chave = numero.trim();
+        for (Certidao certidao : findAll()) {
+            if (certidao.getNumero() != null && certidao.getNumero().trim().equals(chave)
+                    && !certidao.getId().equals(excludingId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Totais por tipo, status e mês de emissão (ex: dashboard da HomePage).
+     * 
+     * A implementação padrão percorre findAll() a cada chamada;
+     * implementações que mantêm os contadores a cada escrita devolvem os
+     * contadores vivos, com leitura O(1).
+     * 
+     * @return Estatísticas das certidões
+     */
+    default CertidaoEstatisticas getEstatisticas() {
+        CertidaoEstatisticas estatisticas = new CertidaoEstatisticas();
+        for (Certidao certidao : findAll()) {
+            estatisticas.incluir(certidao);
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Versão dos dados do repositório, alterada a cada save/delete.
+     * 
+     * Permite que caches (ex: de relatórios) saibam se o que guardaram ainda
+     * corresponde aos dados atuais. Repositórios que não controlam versão
+     * devolvem SEM_VERSAO, e nesse caso nada deve ser cacheado.
+     * 
+     * @return Versão atual ou SEM_VERSAO
+     */
+    default long getVersao() {
+        return SEM_VERSAO;
+    }
 }
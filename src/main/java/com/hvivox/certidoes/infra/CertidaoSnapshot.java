@@ -0,0 +1,159 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CertidaoBinario.Entrada;
+import com.hvivox.certidoes.infra.CertidaoBinario.Saida;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot do WalCertidaoRepository: todas as certidões em um arquivo
+ * mapeado em memória (certidoes.snapshot).
+ *
+ * FORMATO:
+ * - Cabeçalho: mágico, versão, primeiro segmento do log ainda não coberto,
+ *   valor da sequência de ids, quantidade de certidões e bytes de dados
+ * - Certidões no formato de CertidaoBinario, cada uma precedida do tamanho
+ *
+ * COMO FUNCIONA:
+ * - A escrita e a leitura usam janelas mapeadas (MappedByteBuffer): o SO
+ *   copia as páginas direto do cache de disco, sem read()/write() por bloco
+ * - O arquivo é gravado ao lado (.tmp), sincronizado e só então renomeado:
+ *   uma queda durante o snapshot deixa o snapshot anterior intacto
+ */
+final class CertidaoSnapshot {
+
+    static final String ARQUIVO = "certidoes.snapshot";
+
+    private static final int MAGICO = 0x43534E50; // "CSNP"
+    private static final int VERSAO = 1;
+    private static final int CABECALHO = 4 + 4 + 8 + 8 + 8 + 8;
+    private static final long JANELA_ESCRITA = 8L << 20;
+    private static final long JANELA_LEITURA = 256L << 20;
+
+    /**
+     * Dados do cabeçalho de um snapshot lido
+     */
+    static final class Cabecalho {
+        final long segmento;
+        final long sequencia;
+        final long quantidade;
+
+        Cabecalho(long segmento, long sequencia, long quantidade) {
+            this.segmento = segmento;
+            this.sequencia = sequencia;
+            this.quantidade = quantidade;
+        }
+    }
+
+    private CertidaoSnapshot() {
+    }
+
+    /**
+     * Grava o snapshot.
+     *
+     * @param segmento  Primeiro segmento do log com alterações posteriores
+     * @param sequencia Valor atual da sequência de ids
+     */
+    static void escrever(Path diretorio, Collection<Certidao> certidoes, long segmento, long sequencia)
+            throws IOException {
+        Path temporario = diretorio.resolve(ARQUIVO + ".tmp");
+        Saida registro = new Saida();
+        long quantidade = 0;
+        long posicao = CABECALHO;
+
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer janela = canal.map(FileChannel.MapMode.READ_WRITE, posicao, JANELA_ESCRITA);
+            for (Certidao certidao : certidoes) {
+                registro.limpar();
+                registro.int_(0);
+                CertidaoBinario.escrever(registro, certidao);
+                registro.escreverInt(0, registro.tamanho - 4);
+
+                if (janela.remaining() < registro.tamanho) {
+                    janela.force();
+                    janela = canal.map(FileChannel.MapMode.READ_WRITE, posicao,
+                            Math.max(JANELA_ESCRITA, registro.tamanho));
+                }
+                janela.put(registro.dados, 0, registro.tamanho);
+                posicao += registro.tamanho;
+                quantidade++;
+            }
+            janela.force();
+
+            // Cabeçalho por último: só fica válido com os dados já gravados.
+            // Os bytes depois de "posicao" (resto da janela) são ignorados.
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+            cabecalho.putInt(MAGICO).putInt(VERSAO).putLong(segmento).putLong(sequencia)
+                    .putLong(quantidade).putLong(posicao - CABECALHO);
+            cabecalho.flip();
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho, CABECALHO - cabecalho.remaining());
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, diretorio.resolve(ARQUIVO), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lê o snapshot, entregando cada certidão ao consumidor.
+     *
+     * @return Cabeçalho do snapshot, ou null se não houver snapshot
+     * @throws IOException Se o arquivo não for um snapshot válido
+     */
+    static Cabecalho ler(Path diretorio, Consumer<Certidao> consumidor) throws IOException {
+        Path arquivo = diretorio.resolve(ARQUIVO);
+        if (!Files.exists(arquivo)) {
+            return null;
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+            while (cabecalho.hasRemaining() && canal.read(cabecalho) >= 0) {
+                // lê o cabeçalho inteiro
+            }
+            cabecalho.flip();
+            if (cabecalho.remaining() < CABECALHO || cabecalho.getInt() != MAGICO || cabecalho.getInt() != VERSAO) {
+                throw new IOException("Arquivo " + arquivo + " não é um snapshot de certidões");
+            }
+            long segmento = cabecalho.getLong();
+            long sequencia = cabecalho.getLong();
+            long quantidade = cabecalho.getLong();
+            long fim = CABECALHO + cabecalho.getLong();
+            if (fim > canal.size()) {
+                throw new IOException("Snapshot " + arquivo + " incompleto");
+            }
+
+            long posicao = CABECALHO;
+            MappedByteBuffer janela = mapear(canal, posicao, fim);
+            Entrada entrada = new Entrada(janela);
+            for (long i = 0; i < quantidade; i++) {
+                if (janela.remaining() < 4 || janela.remaining() < 4 + janela.getInt(janela.position())) {
+                    // Registro atravessa o fim da janela: remapeia a partir dele
+                    janela = mapear(canal, posicao, fim);
+                    entrada.buffer(janela);
+                }
+                int tamanho = janela.getInt();
+                int inicio = janela.position();
+                consumidor.accept(CertidaoBinario.ler(entrada));
+                janela.position(inicio + tamanho);
+                posicao += 4 + tamanho;
+            }
+            return new Cabecalho(segmento, sequencia, quantidade);
+        }
+    }
+
+    private static MappedByteBuffer mapear(FileChannel canal, long posicao, long fim) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_ONLY, posicao, Math.min(JANELA_LEITURA, fim - posicao));
+    }
+}
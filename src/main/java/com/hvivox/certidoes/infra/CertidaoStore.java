@@ -0,0 +1,1039 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * ====================================================================
+ * MOTOR DE ARMAZENAMENTO CONCORRENTE DE CERTIDÕES
+ * ====================================================================
+ *
+ * Estrutura thread-safe usada pelo InMemoryCertidaoRepository para guardar
+ * as certidões em memória. Pode ser acessada ao mesmo tempo por várias
+ * threads do Jetty sem corromper os dados nem lançar
+ * ConcurrentModificationException.
+ *
+ * COMO FUNCIONA:
+ * - Leituras: sem lock. O ConcurrentSkipListMap permite get() e iteração
+ *   concorrentes com escritas (iteração fracamente consistente).
+ * - Escritas: "lock striping". Cada id cai em uma de N faixas, e só escritas
+ *   na mesma faixa esperam umas pelas outras.
+ * - Ordem: os registros ficam ordenados pelo id. Como os ids são gerados por
+ *   uma sequência crescente, a ordem dos ids é a ordem de inserção (a mesma
+ *   que o LinkedHashMap antigo mantinha). Atualizar um registro não muda a
+ *   sua posição.
+ *
+ * ÍNDICES SECUNDÁRIOS (usados por consultar()):
+ * - Tipo e status: um conjunto de ids por valor do enum (EnumMap).
+ * - Data de emissão: mapa ordenado dia (epoch-day) → ids, para buscas por
+ *   período.
+ * - Texto (número e interessado): índice invertido de trigramas sobre o
+ *   texto normalizado, sem acentos e em minúsculas (ver TextoBuscaIndice).
+ * - Número (único): mapa número normalizado (trim) → id. A reserva do
+ *   número usa putIfAbsent, que é atômico entre todas as faixas: dois
+ *   salvamentos simultâneos com o mesmo número não passam os dois.
+ * Os índices são atualizados em salvar() e remover(), dentro do lock da faixa
+ * do id (nas operações em lote, com todas as faixas do lote travadas). Cada
+ * registro guarda uma "foto" dos valores indexados no momento em que foi
+ * salvo, então a atualização sabe de quais entradas remover o id mesmo que
+ * o objeto Certidao tenha sido alterado por fora.
+ *
+ * ESTATÍSTICAS: totais por tipo, status e mês de emissão (ver
+ * CertidaoEstatisticas), atualizados junto com os índices.
+ *
+ * CACHE DE CONSULTAS: o resultado de uma consulta com filtro (os ids, em
+ * ordem) fica guardado por critério (ver ConsultaCache), e a contagem e as
+ * páginas seguintes do mesmo filtro saem dele enquanto nenhuma escrita
+ * mudar a versão do store. As escritas não tocam no cache.
+ *
+ * EXEMPLO DE USO:
+ * CertidaoStore store = new CertidaoStore();
+ * store.salvar(certidao);
+ * store.atualizarStatus(ids, CertidaoStatus.CANCELADA);
+ * List<Certidao> todas = store.listar();
+ */
+public class CertidaoStore {
+
+    /**
+     * Número de faixas de lock para escrita (potência de 2)
+     */
+    private static final int NUMERO_FAIXAS = 64;
+
+    /**
+     * Valor de dia usado quando a data de emissão está vazia ou inválida
+     */
+    static final int SEM_DATA = Certidao.SEM_DATA;
+
+    private static final String[] SEM_TEXTOS = new String[0];
+
+    private final AtomicLong seq = new AtomicLong(0);
+    private final ConcurrentSkipListMap<Long, Registro> registros = new ConcurrentSkipListMap<>();
+    private final AtomicInteger tamanho = new AtomicInteger(0);
+    // Incrementada a cada alteração (usada para invalidar caches)
+    private final AtomicLong versao = new AtomicLong(0);
+    private final ReentrantLock[] faixas = new ReentrantLock[NUMERO_FAIXAS];
+
+    // Índices secundários
+    private final EnumMap<CertidaoTipo, Set<Long>> indiceTipo = new EnumMap<>(CertidaoTipo.class);
+    private final EnumMap<CertidaoStatus, Set<Long>> indiceStatus = new EnumMap<>(CertidaoStatus.class);
+    private final ConcurrentSkipListMap<Integer, Set<Long>> indiceDia = new ConcurrentSkipListMap<>();
+    private final TextoBuscaIndice indiceTexto = new TextoBuscaIndice();
+    private final ConcurrentHashMap<String, Long> indiceNumero = new ConcurrentHashMap<>();
+
+    private final CertidaoEstatisticas estatisticas = new CertidaoEstatisticas();
+    private final ConsultaCache consultas =
+            new ConsultaCache(versao, ConsultaCache.ENTRADAS_PADRAO, ConsultaCache.IDS_PADRAO);
+
+    // Visão das certidões (sem expor os registros internos)
+    private final Collection<Certidao> valores = new AbstractCollection<Certidao>() {
+        @Override
+        public Iterator<Certidao> iterator() {
+            Iterator<Registro> it = registros.values().iterator();
+            return new Iterator<Certidao>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Certidao next() {
+                    return it.next().certidao;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return tamanho.get();
+        }
+    };
+
+    public CertidaoStore() {
+        for (int i = 0; i < NUMERO_FAIXAS; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+        // Os EnumMaps são preenchidos aqui e nunca mais mudam de estrutura,
+        // então podem ser lidos por várias threads sem lock
+        for (CertidaoTipo tipo : CertidaoTipo.values()) {
+            indiceTipo.put(tipo, ConcurrentHashMap.newKeySet());
+        }
+        for (CertidaoStatus status : CertidaoStatus.values()) {
+            indiceStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Busca uma certidão pelo id (sem lock).
+     *
+     * @param id ID da certidão
+     * @return Certidão encontrada ou null
+     */
+    public Certidao buscar(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Registro registro = registros.get(id);
+        return registro != null ? registro.certidao : null;
+    }
+
+    /**
+     * Visão somente-leitura dos registros, na ordem de inserção.
+     *
+     * A iteração não lança ConcurrentModificationException: reflete o estado
+     * do store em algum momento durante a iteração.
+     *
+     * @return Coleção com as certidões armazenadas
+     */
+    public Collection<Certidao> valores() {
+        return Collections.unmodifiableCollection(valores);
+    }
+
+    /**
+     * Cópia dos registros, na ordem de inserção.
+     *
+     * @return Nova lista com as certidões armazenadas
+     */
+    public List<Certidao> listar() {
+        return new ArrayList<>(valores);
+    }
+
+    /**
+     * Cria ou atualiza uma certidão.
+     *
+     * Se a certidão não tiver id, um novo id é gerado pela sequência.
+     * Se já tiver id (ex: vindo de importação), a sequência é avançada para
+     * nunca gerar um id repetido.
+     *
+     * @param certidao Certidão a salvar
+     * @return A própria certidão, com o id preenchido
+     * @throws NumeroDuplicadoException Se o número já pertence a outra
+     *                                  certidão (nada é alterado; uma
+     *                                  certidão nova continua sem id)
+     */
+    public Certidao salvar(Certidao certidao) {
+        boolean idGerado = certidao.getId() == null;
+        if (idGerado) {
+            certidao.setId(seq.incrementAndGet());
+        } else {
+            seq.accumulateAndGet(certidao.getId(), Math::max);
+        }
+
+        Long id = certidao.getId();
+        ReentrantLock lock = faixa(id);
+        lock.lock();
+        try {
+            Registro novo = new Registro(certidao);
+            // Reserva o número antes de qualquer alteração
+            if (novo.numeroUnico != null) {
+                Long dono = indiceNumero.putIfAbsent(novo.numeroUnico, id);
+                if (dono != null && !dono.equals(id)) {
+                    if (idGerado) {
+                        certidao.setId(null);
+                    }
+                    throw new NumeroDuplicadoException(novo.numeroUnico);
+                }
+            }
+
+            Registro antigo = registros.put(id, novo);
+            if (antigo == null) {
+                tamanho.incrementAndGet();
+            } else if (antigo.numeroUnico != null && !antigo.numeroUnico.equals(novo.numeroUnico)) {
+                // Número alterado: libera o anterior
+                indiceNumero.remove(antigo.numeroUnico, id);
+            }
+            atualizarIndices(id, antigo, novo);
+            versao.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        return certidao;
+    }
+
+    /**
+     * Verifica se um número já pertence a alguma certidão (O(1), sem lock).
+     *
+     * O número é comparado sem os espaços das pontas.
+     *
+     * @param numero    Número a verificar
+     * @param excetoId  Id a desconsiderar (a própria certidão em edição), ou null
+     * @return true se outra certidão já usa o número
+     */
+    public boolean existeNumero(String numero, Long excetoId) {
+        String chave = normalizarNumero(numero);
+        if (chave == null) {
+            return false;
+        }
+        Long dono = indiceNumero.get(chave);
+        return dono != null && !dono.equals(excetoId);
+    }
+
+    /**
+     * Remove uma certidão.
+     *
+     * @param id ID da certidão
+     * @return true se a certidão existia e foi removida
+     */
+    public boolean remover(Long id) {
+        if (id == null) {
+            return false;
+        }
+
+        ReentrantLock lock = faixa(id);
+        lock.lock();
+        try {
+            Registro antigo = registros.remove(id);
+            if (antigo != null) {
+                tamanho.decrementAndGet();
+                if (antigo.numeroUnico != null) {
+                    indiceNumero.remove(antigo.numeroUnico, id);
+                }
+                atualizarIndices(id, antigo, null);
+                versao.incrementAndGet();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== ESCRITA EM LOTE ====================
+
+    /**
+     * Cria ou atualiza várias certidões de uma vez (tudo ou nada).
+     *
+     * Mais barato que chamar salvar() para cada uma:
+     * - Os ids das certidões novas são reservados na sequência em um único
+     *   bloco (um getAndAdd), em ordem: a ordem do lote é a ordem de inserção
+     * - As faixas de lock envolvidas são travadas uma única vez, em ordem
+     *   crescente (sem deadlock entre lotes simultâneos)
+     * - Os índices são atualizados na mesma passada e a versão muda uma vez só
+     *
+     * @param certidoes Certidões a salvar
+     * @return As certidões do lote, com os ids preenchidos
+     * @throws NumeroDuplicadoException Se algum número já pertence a outra
+     *                                  certidão (ou se repete no lote): nada
+     *                                  é alterado e as certidões novas
+     *                                  continuam sem id
+     */
+    public List<Certidao> salvarTodos(Collection<Certidao> certidoes) {
+        List<Certidao> lote = new ArrayList<>(certidoes);
+        if (lote.isEmpty()) {
+            return lote;
+        }
+
+        // Reserva um bloco de ids para as certidões novas
+        boolean[] idGerado = new boolean[lote.size()];
+        int novas = 0;
+        long maiorInformado = Long.MIN_VALUE;
+        for (Certidao certidao : lote) {
+            if (certidao.getId() == null) {
+                novas++;
+            } else {
+                maiorInformado = Math.max(maiorInformado, certidao.getId());
+            }
+        }
+        long proximoId = novas > 0 ? seq.getAndAdd(novas) + 1 : 0;
+        if (maiorInformado != Long.MIN_VALUE) {
+            seq.accumulateAndGet(maiorInformado, Math::max);
+        }
+        List<Long> ids = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            Certidao certidao = lote.get(i);
+            if (certidao.getId() == null) {
+                certidao.setId(proximoId++);
+                idGerado[i] = true;
+            }
+            ids.add(certidao.getId());
+        }
+
+        boolean[] travadas = travar(ids);
+        try {
+            // Reserva todos os números antes de qualquer alteração
+            List<Registro> novos = new ArrayList<>(lote.size());
+            List<Registro> reservados = new ArrayList<>();
+            for (Certidao certidao : lote) {
+                Registro novo = new Registro(certidao);
+                novos.add(novo);
+                if (novo.numeroUnico == null) {
+                    continue;
+                }
+                Long dono = indiceNumero.putIfAbsent(novo.numeroUnico, novo.id);
+                if (dono == null) {
+                    reservados.add(novo);
+                } else if (dono != novo.id) {
+                    for (Registro reservado : reservados) {
+                        indiceNumero.remove(reservado.numeroUnico, reservado.id);
+                    }
+                    for (int i = 0; i < lote.size(); i++) {
+                        if (idGerado[i]) {
+                            lote.get(i).setId(null);
+                        }
+                    }
+                    throw new NumeroDuplicadoException(novo.numeroUnico);
+                }
+            }
+
+            for (Registro novo : novos) {
+                Registro antigo = registros.put(novo.id, novo);
+                if (antigo == null) {
+                    tamanho.incrementAndGet();
+                } else if (antigo.numeroUnico != null && !antigo.numeroUnico.equals(novo.numeroUnico)) {
+                    indiceNumero.remove(antigo.numeroUnico, novo.id);
+                }
+                atualizarIndices(novo.id, antigo, novo);
+            }
+            versao.incrementAndGet();
+        } finally {
+            destravar(travadas);
+        }
+        return lote;
+    }
+
+    /**
+     * Remove várias certidões de uma vez.
+     *
+     * As faixas de lock envolvidas são travadas uma única vez e a versão muda
+     * uma vez só. Ids inexistentes são ignorados.
+     *
+     * @param ids IDs das certidões
+     * @return Quantas certidões existiam e foram removidas
+     */
+    public int removerTodos(Collection<Long> ids) {
+        List<Long> existentes = semNulos(ids);
+        if (existentes.isEmpty()) {
+            return 0;
+        }
+
+        boolean[] travadas = travar(existentes);
+        try {
+            int removidas = 0;
+            for (Long id : existentes) {
+                Registro antigo = registros.remove(id);
+                if (antigo == null) {
+                    continue;
+                }
+                removidas++;
+                tamanho.decrementAndGet();
+                if (antigo.numeroUnico != null) {
+                    indiceNumero.remove(antigo.numeroUnico, id);
+                }
+                atualizarIndices(id, antigo, null);
+            }
+            if (removidas > 0) {
+                versao.incrementAndGet();
+            }
+            return removidas;
+        } finally {
+            destravar(travadas);
+        }
+    }
+
+    /**
+     * Altera o status de várias certidões de uma vez (ex: cancelamento em lote).
+     *
+     * Só o status muda: os demais índices não são tocados, e no índice de
+     * status cada id sai do conjunto do status antigo e entra no do novo
+     * (O(1) cada). O registro é trocado por uma cópia com o novo status; a
+     * certidão guardada antes não é alterada, então quem já a leu não vê um
+     * lote pela metade.
+     *
+     * @param ids    IDs das certidões (inexistentes são ignorados)
+     * @param status Novo status
+     * @return Quantas certidões tiveram o status alterado
+     */
+    public int atualizarStatus(Collection<Long> ids, CertidaoStatus status) {
+        List<Long> existentes = semNulos(ids);
+        if (existentes.isEmpty()) {
+            return 0;
+        }
+
+        boolean[] travadas = travar(existentes);
+        try {
+            int alteradas = 0;
+            for (Long id : existentes) {
+                Registro antigo = registros.get(id);
+                if (antigo == null || antigo.status == status) {
+                    continue;
+                }
+                estatisticas.trocarStatus(antigo.status, status);
+                registros.put(id, antigo.comStatus(status));
+                if (antigo.status != null) {
+                    indiceStatus.get(antigo.status).remove(id);
+                }
+                if (status != null) {
+                    indiceStatus.get(status).add(id);
+                }
+                alteradas++;
+            }
+            if (alteradas > 0) {
+                versao.incrementAndGet();
+            }
+            return alteradas;
+        } finally {
+            destravar(travadas);
+        }
+    }
+
+    /**
+     * Quantidade de certidões armazenadas (O(1), sem percorrer o mapa).
+     *
+     * @return Total de registros
+     */
+    public int tamanho() {
+        return tamanho.get();
+    }
+
+    /**
+     * Versão dos dados: muda a cada salvar/remover.
+     *
+     * Dois valores iguais garantem que nada foi alterado entre as leituras.
+     *
+     * @return Versão atual
+     */
+    public long versao() {
+        return versao.get();
+    }
+
+    /**
+     * Totais por tipo, status e mês de emissão, sempre atualizados (leitura
+     * O(1), sem percorrer os registros).
+     *
+     * @return Contadores do store
+     */
+    public CertidaoEstatisticas estatisticas() {
+        return estatisticas;
+    }
+
+    /**
+     * Último id gerado pela sequência (para persistir junto com os dados).
+     *
+     * @return Valor atual da sequência
+     */
+    long sequencia() {
+        return seq.get();
+    }
+
+    /**
+     * Avança a sequência para não gerar ids até o valor informado (ex: ids
+     * de certidões excluídas, restaurados de um snapshot).
+     *
+     * @param valor Último id já usado
+     */
+    void avancarSequencia(long valor) {
+        seq.accumulateAndGet(valor, Math::max);
+    }
+
+    // ==================== CONSULTA POR FILTRO ====================
+
+    /**
+     * Consulta as certidões que atendem ao filtro da tela, na ordem de
+     * inserção (o filtro é convertido em CertidaoCriterio).
+     *
+     * @param filtro Filtro (null = todas)
+     * @return Certidões encontradas
+     */
+    public List<Certidao> consultar(CertidaoFiltro filtro) {
+        return consultar(CertidaoCriterio.de(filtro));
+    }
+
+    /**
+     * Conta as certidões que atendem ao filtro.
+     *
+     * @param filtro Filtro (null = todas)
+     * @return Quantidade de certidões
+     */
+    public long contar(CertidaoFiltro filtro) {
+        return contar(CertidaoCriterio.de(filtro));
+    }
+
+    /**
+     * Uma página do resultado do filtro.
+     *
+     * @param filtro    Filtro (null = todas)
+     * @param offset    Quantas certidões pular
+     * @param limit     Tamanho máximo da página
+     * @param ordenacao Ordenação (null = ordem de inserção)
+     * @return Certidões da página
+     */
+    public List<Certidao> pagina(CertidaoFiltro filtro, long offset, int limit, CertidaoOrdenacao ordenacao) {
+        return pagina(CertidaoCriterio.de(filtro), offset, limit,
+                ordenacao != null ? ordenacao.comparador() : null);
+    }
+
+    /**
+     * Consulta por cursor: as próximas certidões do filtro com id maior que
+     * afterId, em ordem de inserção.
+     *
+     * @param filtro  Filtro (null = todas)
+     * @param afterId Último id já lido (null = do início)
+     * @param limit   Tamanho máximo do lote
+     * @return Próximas certidões
+     */
+    public List<Certidao> depoisDe(CertidaoFiltro filtro, Long afterId, int limit) {
+        return depoisDe(CertidaoCriterio.de(filtro), afterId, limit);
+    }
+
+    // ==================== CONSULTA COM ÍNDICES ====================
+
+    /**
+     * Consulta as certidões que atendem ao critério, na ordem de inserção.
+     *
+     * Os ids do resultado vêm do cache de consultas ou de idsDe().
+     *
+     * @param criterio Critério de consulta
+     * @return Certidões encontradas
+     */
+    List<Certidao> consultar(CertidaoCriterio criterio) {
+        if (!criterio.temFiltro()) {
+            return listar();
+        }
+        long[] ids = idsDe(criterio);
+        List<Certidao> resultado = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Registro registro = registros.get(id);
+            if (registro != null) {
+                resultado.add(registro.certidao);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Conta as certidões que atendem ao critério, sem montar listas.
+     *
+     * @param criterio Critério de consulta
+     * @return Quantidade de certidões
+     */
+    long contar(CertidaoCriterio criterio) {
+        if (!criterio.temFiltro()) {
+            return tamanho.get();
+        }
+        return idsDe(criterio).length;
+    }
+
+    /**
+     * Uma página do resultado da consulta.
+     *
+     * Com filtro, a página sai dos ids do resultado (cache de consultas): na
+     * ordem de inserção é só um recorte do array; em outra ordem, heap
+     * limitado (top-k) com offset + limit itens. Sem filtro, na ordem de
+     * inserção percorre o mapa em ordem e para assim que a página enche.
+     *
+     * @param criterio   Critério de consulta
+     * @param offset     Quantas certidões pular
+     * @param limit      Tamanho máximo da página
+     * @param comparador Ordem desejada (null = ordem de inserção)
+     * @return Certidões da página
+     */
+    List<Certidao> pagina(CertidaoCriterio criterio, long offset, int limit, Comparator<Certidao> comparador) {
+        Paginacao.validar(offset, limit);
+
+        if (!criterio.temFiltro()) {
+            if (comparador == null) {
+                List<Certidao> pagina = new ArrayList<>(Math.min(limit, 1024));
+                long pular = offset;
+                for (Registro registro : registros.values()) {
+                    if (pagina.size() >= limit) {
+                        break;
+                    }
+                    if (pular > 0) {
+                        pular--;
+                    } else {
+                        pagina.add(registro.certidao);
+                    }
+                }
+                return pagina;
+            }
+            Paginacao<Certidao> paginacao = new Paginacao<>(comparador, offset, limit);
+            for (Registro registro : registros.values()) {
+                paginacao.oferecer(registro.certidao);
+            }
+            return paginacao.pagina();
+        }
+
+        long[] ids = idsDe(criterio);
+        if (comparador == null) {
+            int inicio = (int) Math.min(offset, ids.length);
+            int fim = (int) Math.min(ids.length, inicio + (long) limit);
+            List<Certidao> pagina = new ArrayList<>(fim - inicio);
+            for (int i = inicio; i < fim; i++) {
+                Registro registro = registros.get(ids[i]);
+                if (registro != null) {
+                    pagina.add(registro.certidao);
+                }
+            }
+            return pagina;
+        }
+
+        Paginacao<Certidao> paginacao = new Paginacao<>(comparador, offset, limit);
+        for (long id : ids) {
+            Registro registro = registros.get(id);
+            if (registro != null) {
+                paginacao.oferecer(registro.certidao);
+            }
+        }
+        return paginacao.pagina();
+    }
+
+    /**
+     * Consulta por cursor: as próximas certidões com id maior que afterId.
+     *
+     * @param criterio Critério de consulta
+     * @param afterId  Último id já lido (null = do início)
+     * @param limit    Tamanho máximo do lote
+     * @return Próximas certidões, em ordem de inserção
+     */
+    List<Certidao> depoisDe(CertidaoCriterio criterio, Long afterId, int limit) {
+        Paginacao.validar(0, limit);
+        long inicio = afterId != null ? afterId : Long.MIN_VALUE;
+
+        if (!criterio.temFiltro()) {
+            // tailMap: começa direto no cursor, sem percorrer o que já foi lido
+            List<Certidao> lote = new ArrayList<>(Math.min(limit, 1024));
+            for (Registro registro : registros.tailMap(inicio, false).values()) {
+                if (lote.size() >= limit) {
+                    break;
+                }
+                lote.add(registro.certidao);
+            }
+            return lote;
+        }
+
+        // Busca binária do cursor nos ids (em ordem crescente)
+        long[] ids = idsDe(criterio);
+        int posicao = Arrays.binarySearch(ids, inicio);
+        posicao = posicao >= 0 ? posicao + 1 : -posicao - 1;
+        List<Certidao> lote = new ArrayList<>(Math.min(limit, 1024));
+        for (int i = posicao; i < ids.length && lote.size() < limit; i++) {
+            Registro registro = registros.get(ids[i]);
+            if (registro != null) {
+                lote.add(registro.certidao);
+            }
+        }
+        return lote;
+    }
+
+    /**
+     * Ids das certidões que atendem ao critério, em ordem crescente.
+     *
+     * PLANO DE EXECUÇÃO (quando o resultado não está no cache):
+     * 1. Estima quantos ids cada índice aplicável (tipo, status, período,
+     *    texto) devolve
+     * 2. Percorre só o índice mais seletivo (o menor)
+     * 3. Cada candidato é conferido contra o critério completo, usando a foto
+     *    do registro (isso faz a interseção com os demais índices e aplica o
+     *    filtro de texto)
+     * Sem filtro indexável (ex: só texto com menos de 3 letras), percorre
+     * todos os registros usando as chaves de texto já normalizadas.
+     *
+     * @return Ids do resultado (compartilhado com o cache: não alterar)
+     */
+    private long[] idsDe(CertidaoCriterio criterio) {
+        long[] ids = consultas.buscar(criterio);
+        if (ids != null) {
+            return ids;
+        }
+
+        long versaoLida = versao.get();
+        Iterable<Long> candidatos = candidatosMaisSeletivos(criterio);
+        List<Registro> encontrados = new ArrayList<>();
+        percorrer(criterio, candidatos, encontrados::add);
+        ids = new long[encontrados.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = encontrados.get(i).id;
+        }
+        if (candidatos != null) {
+            // Índices não guardam ordem: reordenar por id (ordem de inserção)
+            Arrays.sort(ids);
+        }
+        consultas.guardar(criterio, ids, versaoLida);
+        return ids;
+    }
+
+    /**
+     * Aplica a ação a cada registro que atende ao critério.
+     *
+     * @param candidatos Ids vindos de um índice (em qualquer ordem), ou null
+     *                   para percorrer todos os registros em ordem
+     */
+    private void percorrer(CertidaoCriterio criterio, Iterable<Long> candidatos, Consumer<Registro> acao) {
+        if (candidatos == null) {
+            for (Registro registro : registros.values()) {
+                if (criterio.aceita(registro)) {
+                    acao.accept(registro);
+                }
+            }
+        } else {
+            for (Long id : candidatos) {
+                Registro registro = registros.get(id);
+                if (registro != null && criterio.aceita(registro)) {
+                    acao.accept(registro);
+                }
+            }
+        }
+    }
+
+    /**
+     * Escolhe o índice que devolve menos candidatos.
+     *
+     * @return ids candidatos, ou null se nenhum índice se aplica ao critério
+     */
+    private Iterable<Long> candidatosMaisSeletivos(CertidaoCriterio criterio) {
+        Iterable<Long> melhor = null;
+        long menorTamanho = Long.MAX_VALUE;
+
+        if (criterio.tipo != null) {
+            Set<Long> ids = indiceTipo.get(criterio.tipo);
+            melhor = ids;
+            menorTamanho = ids.size();
+        }
+
+        if (criterio.status != null) {
+            Set<Long> ids = indiceStatus.get(criterio.status);
+            if (ids.size() < menorTamanho) {
+                melhor = ids;
+                menorTamanho = ids.size();
+            }
+        }
+
+        Long menorPeriodo = null;
+        if (criterio.temPeriodo()) {
+            if (criterio.diaInicio > criterio.diaFim) {
+                // Período invertido (início depois do fim): nada a devolver
+                return Collections.emptyList();
+            }
+            NavigableMap<Integer, Set<Long>> periodo =
+                    indiceDia.subMap(criterio.diaInicio, true, criterio.diaFim, true);
+            long tamanhoPeriodo = 0;
+            for (Set<Long> ids : periodo.values()) {
+                tamanhoPeriodo += ids.size();
+                if (tamanhoPeriodo >= menorTamanho) {
+                    break;
+                }
+            }
+            if (tamanhoPeriodo < menorTamanho) {
+                menorPeriodo = tamanhoPeriodo;
+                menorTamanho = tamanhoPeriodo;
+            }
+        }
+
+        long tamanhoTexto = indiceTexto.estimar(criterio.textoBusca);
+        if (tamanhoTexto < menorTamanho) {
+            return indiceTexto.candidatos(criterio.textoBusca);
+        }
+
+        if (menorPeriodo != null) {
+            // Só materializa os ids do período se ele for o escolhido
+            List<Long> ids = new ArrayList<>(menorPeriodo.intValue());
+            for (Set<Long> doDia : indiceDia.subMap(criterio.diaInicio, true, criterio.diaFim, true).values()) {
+                ids.addAll(doDia);
+            }
+            return ids;
+        }
+
+        return melhor;
+    }
+
+    /**
+     * Move o id entre as entradas dos índices e atualiza as estatísticas
+     * (chamado com o lock da faixa).
+     *
+     * @param id     ID da certidão
+     * @param antigo Registro anterior (null em inclusão)
+     * @param novo   Registro novo (null em exclusão)
+     */
+    private void atualizarIndices(Long id, Registro antigo, Registro novo) {
+        CertidaoTipo tipoAntigo = antigo != null ? antigo.tipo : null;
+        CertidaoTipo tipoNovo = novo != null ? novo.tipo : null;
+        if (tipoAntigo != tipoNovo) {
+            if (tipoAntigo != null) {
+                indiceTipo.get(tipoAntigo).remove(id);
+            }
+            if (tipoNovo != null) {
+                indiceTipo.get(tipoNovo).add(id);
+            }
+        }
+
+        CertidaoStatus statusAntigo = antigo != null ? antigo.status : null;
+        CertidaoStatus statusNovo = novo != null ? novo.status : null;
+        if (statusAntigo != statusNovo) {
+            if (statusAntigo != null) {
+                indiceStatus.get(statusAntigo).remove(id);
+            }
+            if (statusNovo != null) {
+                indiceStatus.get(statusNovo).add(id);
+            }
+        }
+
+        int diaAntigo = antigo != null ? antigo.dia : SEM_DATA;
+        int diaNovo = novo != null ? novo.dia : SEM_DATA;
+        if (diaAntigo != diaNovo) {
+            if (diaAntigo != SEM_DATA) {
+                Set<Long> ids = indiceDia.get(diaAntigo);
+                if (ids != null) {
+                    ids.remove(id);
+                    // Conjuntos vazios ficam no mapa: remover aqui competiria
+                    // com outra faixa incluindo no mesmo dia
+                }
+            }
+            if (diaNovo != SEM_DATA) {
+                indiceDia.computeIfAbsent(diaNovo, d -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        if (antigo != null) {
+            estatisticas.remover(antigo.tipo, antigo.status, antigo.dia);
+        }
+        if (novo != null) {
+            estatisticas.incluir(novo.tipo, novo.status, novo.dia);
+        }
+
+        String[] textosAntigos = antigo != null ? antigo.textos() : SEM_TEXTOS;
+        String[] textosNovos = novo != null ? novo.textos() : SEM_TEXTOS;
+        if (!Arrays.equals(textosAntigos, textosNovos)) {
+            indiceTexto.atualizar(id, textosAntigos, textosNovos);
+        }
+    }
+
+    /**
+     * Obtém o lock da faixa responsável pelo id.
+     */
+    private ReentrantLock faixa(long id) {
+        return faixas[indiceFaixa(id)];
+    }
+
+    private static int indiceFaixa(long id) {
+        int h = Long.hashCode(id);
+        h ^= (h >>> 16);
+        return h & (NUMERO_FAIXAS - 1);
+    }
+
+    /**
+     * Trava as faixas dos ids, sempre em ordem crescente de faixa (dois lotes
+     * simultâneos nunca esperam um pelo outro em ordem inversa).
+     *
+     * @return Faixas travadas, para destravar()
+     */
+    private boolean[] travar(Collection<Long> ids) {
+        boolean[] travadas = new boolean[NUMERO_FAIXAS];
+        for (Long id : ids) {
+            travadas[indiceFaixa(id)] = true;
+        }
+        for (int i = 0; i < NUMERO_FAIXAS; i++) {
+            if (travadas[i]) {
+                faixas[i].lock();
+            }
+        }
+        return travadas;
+    }
+
+    private void destravar(boolean[] travadas) {
+        for (int i = NUMERO_FAIXAS - 1; i >= 0; i--) {
+            if (travadas[i]) {
+                faixas[i].unlock();
+            }
+        }
+    }
+
+    private static List<Long> semNulos(Collection<Long> ids) {
+        List<Long> semNulos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (id != null) {
+                semNulos.add(id);
+            }
+        }
+        return semNulos;
+    }
+
+    /**
+     * Nova certidão com os mesmos valores (a data inválida é mantida como texto)
+     */
+    static Certidao copiar(Certidao origem) {
+        Certidao copia = new Certidao();
+        copia.setId(origem.getId());
+        copia.setNumero(origem.getNumero());
+        copia.setTipo(origem.getTipo());
+        copia.setInteressado(origem.getInteressado());
+        if (origem.temDataEmissao()) {
+            copia.setDataEmissaoDia(origem.getDataEmissaoDia());
+        } else {
+            copia.setDataEmissao(origem.getDataEmissao());
+        }
+        copia.setStatus(origem.getStatus());
+        return copia;
+    }
+
+    /**
+     * Chave do índice de número: sem espaços nas pontas; vazio = sem número
+     */
+    static String normalizarNumero(String numero) {
+        if (numero == null) {
+            return null;
+        }
+        String chave = numero.trim();
+        return chave.isEmpty() ? null : chave;
+    }
+
+    /**
+     * Confere os números de um lote antes de qualquer alteração (saveAll
+     * tudo ou nada dos repositórios com um único write lock): o número não
+     * pode repetir dentro do lote nem pertencer a outra certidão.
+     *
+     * @param lote Certidões do lote (ainda sem alteração)
+     * @param dono Id da certidão dona do número normalizado, ou 0 se livre
+     * @throws NumeroDuplicadoException Com o primeiro número em conflito
+     */
+    static void conferirNumeros(Collection<Certidao> lote, ToLongFunction<String> dono) {
+        Map<String, Long> reservados = new HashMap<>();
+        long provisorio = -1;
+        for (Certidao certidao : lote) {
+            String chave = normalizarNumero(certidao.getNumero());
+            if (chave == null) {
+                continue;
+            }
+            // Certidões novas ainda não têm id: cada uma recebe um provisório
+            long id = certidao.getId() != null ? certidao.getId() : provisorio--;
+            Long noLote = reservados.putIfAbsent(chave, id);
+            long atual = dono.applyAsLong(chave);
+            if ((noLote != null && noLote != id) || (atual != 0 && atual != id)) {
+                throw new NumeroDuplicadoException(chave);
+            }
+        }
+    }
+
+    /**
+     * Registro armazenado: a certidão mais a foto dos valores indexados no
+     * momento do salvamento. Imutável; uma atualização troca o registro inteiro.
+     */
+    static final class Registro {
+        final long id;
+        final Certidao certidao;
+        final CertidaoTipo tipo;
+        final CertidaoStatus status;
+        final int dia;
+        // Chaves de busca por texto (minúsculas, sem acentos)
+        final String numeroBusca;
+        final String interessadoBusca;
+        // Chave do índice de número único (null se vazio)
+        final String numeroUnico;
+
+        Registro(Certidao certidao) {
+            this.id = certidao.getId();
+            this.certidao = certidao;
+            this.tipo = certidao.getTipo();
+            this.status = certidao.getStatus();
+            this.dia = certidao.getDataEmissaoDia();
+            this.numeroBusca = TextoBuscaIndice.normalizar(certidao.getNumero());
+            this.interessadoBusca = TextoBuscaIndice.normalizar(certidao.getInteressado());
+            this.numeroUnico = normalizarNumero(certidao.getNumero());
+        }
+
+        private Registro(Registro base, CertidaoStatus status) {
+            this.id = base.id;
+            this.certidao = copiar(base.certidao);
+            this.certidao.setStatus(status);
+            this.tipo = base.tipo;
+            this.status = status;
+            this.dia = base.dia;
+            this.numeroBusca = base.numeroBusca;
+            this.interessadoBusca = base.interessadoBusca;
+            this.numeroUnico = base.numeroUnico;
+        }
+
+        /**
+         * Mesma foto, com outro status (em uma cópia da certidão)
+         */
+        Registro comStatus(CertidaoStatus novoStatus) {
+            return new Registro(this, novoStatus);
+        }
+
+        String[] textos() {
+            return new String[] {numeroBusca, interessadoBusca};
+        }
+    }
+}
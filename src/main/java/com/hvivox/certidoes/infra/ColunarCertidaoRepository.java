@@ -0,0 +1,742 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * ====================================================================
+ * REPOSITÓRIO COLUNAR DE CERTIDÕES (LAYOUT COMPACTO EM MEMÓRIA)
+ * ====================================================================
+ *
+ * Alternativa ao InMemoryCertidaoRepository para dezenas de milhões de
+ * certidões: em vez de um objeto Certidao (com Long, Strings e cabeçalhos)
+ * por registro, cada campo fica em um array primitivo (coluna).
+ *
+ * COLUNAS (uma posição por certidão, na ordem de inclusão):
+ * - ids: long[]
+ * - dias (data de emissão em epoch-day): int[]
+ * - tipos e status: byte[] (ordinal + 1; 0 = null)
+ * - números e interessados: int[] com o código do texto em um DicionarioTexto
+ *   (interessados se repetem muito; números ficam em bytes UTF-8 contíguos).
+ *   O número é guardado sem espaços nas pontas: o mesmo código serve à
+ *   coluna e à verificação de número único
+ * Datas inválidas (texto livre) e números com espaços nas pontas são raros e
+ * ficam em mapas à parte.
+ *
+ * COMO FUNCIONA:
+ * - Ids da sequência chegam em ordem e as posições já ficam ordenadas por id.
+ *   Um id informado fora de ordem (ex: importação) vai para o fim das
+ *   colunas e entra em um índice à parte (posições em ordem de id), juntado
+ *   uma vez ao fim de cada escrita: um lote de m ids custa O(n + m log m),
+ *   sem deslocar as colunas
+ * - Objetos Certidao só são criados na saída (findById, findByFiltro...):
+ *   alterar uma certidão devolvida não altera o repositório até o save()
+ * - Filtros percorrem direto as colunas: tipo/status comparam bytes, período
+ *   compara ints e a busca por texto testa cada texto DISTINTO do dicionário
+ *   uma vez e depois só consulta um BitSet por código
+ * - Exclusões marcam a posição como removida; quando passam de 1/4 das
+ *   posições, as colunas e os dicionários são compactados
+ * - Leituras em paralelo (read lock); escritas exclusivas (write lock)
+ * - Estatísticas (CertidaoEstatisticas) atualizadas a cada escrita, com os
+ *   valores antigos lidos das colunas
+ *
+ * CUSTO POR CERTIDÃO (MemoriaRepositorioBenchmark, números de 10 dígitos):
+ * ~70 bytes, contra ~1,5 KB no CertidaoStore (objetos, Strings e índices,
+ * inclusive o de trigramas).
+ *
+ * EXEMPLO DE USO:
+ * CertidaoRepository repository = new ColunarCertidaoRepository();
+ * repository.saveAll(certidoesImportadas);
+ * List<Certidao> canceladas = repository.findByFiltro(filtroCanceladas);
+ */
+public class ColunarCertidaoRepository implements CertidaoRepository {
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final CertidaoTipo[] TIPOS = CertidaoTipo.values();
+    private static final CertidaoStatus[] STATUS = CertidaoStatus.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong versao = new AtomicLong();
+
+    // Colunas
+    private long[] ids = new long[CAPACIDADE_INICIAL];
+    private int[] dias = new int[CAPACIDADE_INICIAL];
+    private byte[] tipos = new byte[CAPACIDADE_INICIAL];
+    private byte[] status = new byte[CAPACIDADE_INICIAL];
+    private int[] numeros = new int[CAPACIDADE_INICIAL];
+    private int[] interessados = new int[CAPACIDADE_INICIAL];
+    private BitSet removidos = new BitSet();
+    private final Map<Long, String> datasInvalidas = new HashMap<>();
+    // Número como foi informado, quando difere do guardado na coluna
+    private final Map<Long, String> numerosOriginais = new HashMap<>();
+
+    // Posições usadas (inclusive removidas) e removidas
+    private int posicoes;
+    private int quantidadeRemovidas;
+    private long seq;
+
+    // Índice id → posição: as posições em ordem de id. Null enquanto as
+    // colunas já estão em ordem de id (ordem[i] == i)
+    private int[] ordem;
+    // Posições que estão no índice e o maior id delas
+    private int indexadas;
+    private long maiorId;
+    // Ids incluídos fora de ordem na escrita atual (id → posição), juntados
+    // ao índice ao fim da escrita
+    private final TreeMap<Long, Integer> foraDeOrdem = new TreeMap<>();
+
+    private DicionarioTexto dicionarioNumeros = new DicionarioTexto();
+    private DicionarioTexto dicionarioInteressados = new DicionarioTexto();
+    // Código do número (sem espaços nas pontas) → id dono (0 = livre)
+    private long[] donoNumero = new long[CAPACIDADE_INICIAL];
+
+    private final CertidaoEstatisticas estatisticas = new CertidaoEstatisticas();
+
+    // ==================== ESCRITA ====================
+
+    @Override
+    public Certidao save(Certidao certidao) {
+        lock.writeLock().lock();
+        try {
+            salvar(certidao);
+            versao.incrementAndGet();
+            return certidao;
+        } finally {
+            consolidarIndice();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lote tudo ou nada: os números são conferidos antes de qualquer alteração.
+     */
+    @Override
+    public List<Certidao> saveAll(Collection<Certidao> certidoes) {
+        List<Certidao> lote = new ArrayList<>(certidoes);
+        lock.writeLock().lock();
+        try {
+            CertidaoStore.conferirNumeros(lote, chave -> dono(dicionarioNumeros.buscar(chave)));
+            for (Certidao certidao : lote) {
+                salvar(certidao);
+            }
+            if (!lote.isEmpty()) {
+                versao.incrementAndGet();
+            }
+            return lote;
+        } finally {
+            consolidarIndice();
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        deleteAll(Collections.singletonList(id));
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> idsRemover) {
+        lock.writeLock().lock();
+        try {
+            boolean alterou = false;
+            for (Long id : idsRemover) {
+                int posicao = localizar(id);
+                if (posicao < 0) {
+                    continue;
+                }
+                liberarNumero(posicao, id);
+                datasInvalidas.remove(id);
+                numerosOriginais.remove(id);
+                estatisticas.remover(tipoNa(posicao), statusNa(posicao), dias[posicao]);
+                removidos.set(posicao);
+                quantidadeRemovidas++;
+                alterou = true;
+            }
+            if (alterou) {
+                if (quantidadeRemovidas > CAPACIDADE_INICIAL && quantidadeRemovidas > posicoes / 4) {
+                    compactar();
+                }
+                versao.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Só a coluna de status é escrita: um byte por certidão.
+     */
+    @Override
+    public int updateStatus(Collection<Long> idsAlterar, CertidaoStatus novoStatus) {
+        byte valor = codigo(novoStatus);
+        lock.writeLock().lock();
+        try {
+            int alteradas = 0;
+            for (Long id : idsAlterar) {
+                int posicao = localizar(id);
+                if (posicao >= 0 && status[posicao] != valor) {
+                    estatisticas.trocarStatus(statusNa(posicao), novoStatus);
+                    status[posicao] = valor;
+                    alteradas++;
+                }
+            }
+            if (alteradas > 0) {
+                versao.incrementAndGet();
+            }
+            return alteradas;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava a certidão nas colunas (chamado com o write lock).
+     */
+    private void salvar(Certidao certidao) {
+        String numero = certidao.getNumero();
+        String chave = CertidaoStore.normalizarNumero(numero);
+        // Só consulta: o número entra no dicionário depois da verificação
+        long dono = dono(chave != null ? dicionarioNumeros.buscar(chave) : DicionarioTexto.SEM_CODIGO);
+        Long id = certidao.getId();
+        if (dono != 0 && (id == null || dono != id)) {
+            throw new NumeroDuplicadoException(chave);
+        }
+
+        int posicao;
+        if (id == null) {
+            id = ++seq;
+            certidao.setId(id);
+            posicao = inserir(id);
+        } else {
+            seq = Math.max(seq, id);
+            posicao = localizar(id);
+            if (posicao >= 0) {
+                liberarNumero(posicao, id);
+                estatisticas.remover(tipoNa(posicao), statusNa(posicao), dias[posicao]);
+            } else {
+                posicao = inserir(id);
+            }
+        }
+
+        dias[posicao] = certidao.getDataEmissaoDia();
+        if (!certidao.temDataEmissao() && certidao.getDataEmissao() != null) {
+            datasInvalidas.put(id, certidao.getDataEmissao());
+        } else {
+            datasInvalidas.remove(id);
+        }
+        tipos[posicao] = certidao.getTipo() != null ? (byte) (certidao.getTipo().ordinal() + 1) : 0;
+        status[posicao] = codigo(certidao.getStatus());
+        int codigoChave = dicionarioNumeros.codigo(chave);
+        numeros[posicao] = codigoChave;
+        if (numero != null && !numero.equals(chave)) {
+            numerosOriginais.put(id, numero);
+        } else {
+            numerosOriginais.remove(id);
+        }
+        interessados[posicao] = dicionarioInteressados.codigo(certidao.getInteressado());
+        estatisticas.incluir(certidao);
+
+        if (codigoChave != DicionarioTexto.SEM_CODIGO) {
+            if (codigoChave >= donoNumero.length) {
+                donoNumero = Arrays.copyOf(donoNumero, Math.max(donoNumero.length * 2, codigoChave + 1));
+            }
+            donoNumero[codigoChave] = id;
+        }
+    }
+
+    /**
+     * Posição para um id novo: sempre no fim das colunas.
+     *
+     * Um id maior que todos os do índice (ids da sequência) entra direto no
+     * fim do índice; os demais esperam em foraDeOrdem até consolidarIndice().
+     */
+    private int inserir(long id) {
+        int existente = posicaoDe(id);
+        if (existente >= 0) {
+            // Posição de uma certidão removida com o mesmo id: reaproveitada
+            removidos.clear(existente);
+            quantidadeRemovidas--;
+            return existente;
+        }
+        garantirCapacidade(posicoes + 1);
+        int posicao = posicoes++;
+        ids[posicao] = id;
+        if (foraDeOrdem.isEmpty() && (indexadas == 0 || id > maiorId)) {
+            if (ordem != null) {
+                if (indexadas == ordem.length) {
+                    ordem = Arrays.copyOf(ordem, ids.length);
+                }
+                ordem[indexadas] = posicao;
+            }
+            indexadas++;
+            maiorId = id;
+        } else {
+            foraDeOrdem.put(id, posicao);
+        }
+        return posicao;
+    }
+
+    /**
+     * Junta ao índice os ids incluídos fora de ordem (intercalação das duas
+     * sequências ordenadas: O(n + m)). Chamado ao fim de cada escrita.
+     */
+    private void consolidarIndice() {
+        if (foraDeOrdem.isEmpty()) {
+            return;
+        }
+        int[] junto = new int[Math.max(ids.length, indexadas + foraDeOrdem.size())];
+        int i = 0;
+        int destino = 0;
+        for (Map.Entry<Long, Integer> novo : foraDeOrdem.entrySet()) {
+            long id = novo.getKey();
+            while (i < indexadas && ids[posicaoNoIndice(i)] < id) {
+                junto[destino++] = posicaoNoIndice(i++);
+            }
+            junto[destino++] = novo.getValue();
+        }
+        while (i < indexadas) {
+            junto[destino++] = posicaoNoIndice(i++);
+        }
+        ordem = junto;
+        indexadas = destino;
+        maiorId = Math.max(maiorId, foraDeOrdem.lastKey());
+        foraDeOrdem.clear();
+    }
+
+    private void liberarNumero(int posicao, long id) {
+        int codigo = numeros[posicao];
+        if (codigo != DicionarioTexto.SEM_CODIGO && dono(codigo) == id) {
+            donoNumero[codigo] = 0;
+        }
+    }
+
+    /**
+     * Remove as posições excluídas e os textos que ficaram sem uso.
+     */
+    private void compactar() {
+        DicionarioTexto novosNumeros = new DicionarioTexto();
+        DicionarioTexto novosInteressados = new DicionarioTexto();
+        long[] novosDonos = new long[donoNumero.length];
+        // Nova posição de cada posição antiga (-1 = removida), para o índice
+        int[] novaPosicao = ordem != null ? new int[posicoes] : null;
+        int destino = 0;
+        for (int origem = 0; origem < posicoes; origem++) {
+            if (removidos.get(origem)) {
+                if (novaPosicao != null) {
+                    novaPosicao[origem] = -1;
+                }
+                continue;
+            }
+            if (novaPosicao != null) {
+                novaPosicao[origem] = destino;
+            }
+            ids[destino] = ids[origem];
+            dias[destino] = dias[origem];
+            tipos[destino] = tipos[origem];
+            status[destino] = status[origem];
+            numeros[destino] = novosNumeros.codigo(dicionarioNumeros.texto(numeros[origem]));
+            interessados[destino] = novosInteressados.codigo(dicionarioInteressados.texto(interessados[origem]));
+            int codigoChave = numeros[destino];
+            if (codigoChave != DicionarioTexto.SEM_CODIGO) {
+                if (codigoChave >= novosDonos.length) {
+                    novosDonos = Arrays.copyOf(novosDonos, Math.max(novosDonos.length * 2, codigoChave + 1));
+                }
+                novosDonos[codigoChave] = ids[destino];
+            }
+            destino++;
+        }
+        if (novaPosicao != null) {
+            int mantidas = 0;
+            for (int i = 0; i < indexadas; i++) {
+                int posicao = novaPosicao[ordem[i]];
+                if (posicao >= 0) {
+                    ordem[mantidas++] = posicao;
+                }
+            }
+        }
+        posicoes = destino;
+        indexadas = destino;
+        maiorId = destino > 0 ? ids[posicaoNoIndice(destino - 1)] : 0;
+        quantidadeRemovidas = 0;
+        removidos = new BitSet();
+        dicionarioNumeros = novosNumeros;
+        dicionarioInteressados = novosInteressados;
+        donoNumero = novosDonos;
+    }
+
+    private void garantirCapacidade(int necessaria) {
+        if (necessaria <= ids.length) {
+            return;
+        }
+        int capacidade = Math.max(necessaria, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacidade);
+        dias = Arrays.copyOf(dias, capacidade);
+        tipos = Arrays.copyOf(tipos, capacidade);
+        status = Arrays.copyOf(status, capacidade);
+        numeros = Arrays.copyOf(numeros, capacidade);
+        interessados = Arrays.copyOf(interessados, capacidade);
+    }
+
+    // ==================== LEITURA ====================
+
+    @Override
+    public List<Certidao> findAll() {
+        return findByFiltro(null);
+    }
+
+    @Override
+    public Optional<Certidao> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int posicao = localizar(id);
+            return posicao >= 0 ? Optional.of(materializar(posicao)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByNumero(String numero, Long excludingId) {
+        String chave = CertidaoStore.normalizarNumero(numero);
+        if (chave == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            long dono = dono(dicionarioNumeros.buscar(chave));
+            return dono != 0 && (excludingId == null || dono != excludingId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro) {
+        lock.readLock().lock();
+        try {
+            List<Certidao> encontradas = new ArrayList<>();
+            paraCada(CertidaoCriterio.de(filtro), posicao -> encontradas.add(materializar(posicao)));
+            return encontradas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sem ordenação: para na página. Com ordenação: heap limitado de
+     * posições, comparando direto nas colunas; só a página é materializada.
+     */
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro, long offset, int limit, CertidaoOrdenacao ordenacao) {
+        Paginacao.validar(offset, limit);
+        lock.readLock().lock();
+        try {
+            if (limit == 0) {
+                return new ArrayList<>();
+            }
+            if (ordenacao == null) {
+                List<Certidao> pagina = new ArrayList<>(Math.min(limit, 1024));
+                long[] pular = {offset};
+                percorrer(CertidaoCriterio.de(filtro), posicao -> {
+                    if (pular[0] > 0) {
+                        pular[0]--;
+                    } else {
+                        pagina.add(materializar(posicao));
+                    }
+                    return pagina.size() < limit;
+                });
+                return pagina;
+            }
+            Paginacao<Integer> paginacao = new Paginacao<>(comparador(ordenacao), offset, limit);
+            paraCada(CertidaoCriterio.de(filtro), paginacao::oferecer);
+            List<Certidao> pagina = new ArrayList<>();
+            for (Integer posicao : paginacao.pagina()) {
+                pagina.add(materializar(posicao));
+            }
+            return pagina;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long countByFiltro(CertidaoFiltro filtro) {
+        lock.readLock().lock();
+        try {
+            long[] total = {0};
+            paraCada(CertidaoCriterio.de(filtro), posicao -> total[0]++);
+            return total[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Certidao> findByFiltroAfterId(CertidaoFiltro filtro, Long afterId, int limit) {
+        Paginacao.validar(0, limit);
+        lock.readLock().lock();
+        try {
+            int inicio = 0;
+            if (afterId != null) {
+                int busca = buscarNoIndice(afterId);
+                inicio = busca >= 0 ? busca + 1 : -(busca + 1);
+            }
+            List<Certidao> lote = new ArrayList<>(Math.min(limit, 1024));
+            Filtro aceita = new Filtro(CertidaoCriterio.de(filtro));
+            for (int i = inicio; i < indexadas && lote.size() < limit; i++) {
+                int posicao = posicaoNoIndice(i);
+                if (!removidos.get(posicao) && aceita.aceita(posicao)) {
+                    lote.add(materializar(posicao));
+                }
+            }
+            return lote;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Contadores mantidos a cada escrita (leitura O(1)).
+     */
+    @Override
+    public CertidaoEstatisticas getEstatisticas() {
+        return estatisticas;
+    }
+
+    @Override
+    public long getVersao() {
+        return versao.get();
+    }
+
+    /**
+     * Quantidade de certidões (sem as removidas)
+     */
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return posicoes - quantidadeRemovidas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Passa por cada posição que atende ao critério, em ordem de id, até a
+     * ação devolver false (chamado com o read lock).
+     */
+    private void percorrer(CertidaoCriterio criterio, IntPredicate continuar) {
+        Filtro filtro = new Filtro(criterio);
+        if (ordem != null) {
+            for (int i = 0; i < indexadas; i++) {
+                int posicao = ordem[i];
+                if (!removidos.get(posicao) && filtro.aceita(posicao) && !continuar.test(posicao)) {
+                    return;
+                }
+            }
+            return;
+        }
+        for (int posicao = removidos.nextClearBit(0); posicao < posicoes;
+             posicao = removidos.nextClearBit(posicao + 1)) {
+            if (filtro.aceita(posicao) && !continuar.test(posicao)) {
+                return;
+            }
+        }
+    }
+
+    private void paraCada(CertidaoCriterio criterio, IntConsumer acao) {
+        percorrer(criterio, posicao -> {
+            acao.accept(posicao);
+            return true;
+        });
+    }
+
+    /**
+     * Critério traduzido para os valores das colunas
+     */
+    private final class Filtro {
+        private final byte tipo;
+        private final byte status;
+        private final boolean periodo;
+        private final int diaInicio;
+        private final int diaFim;
+        private final BitSet numerosComTexto;
+        private final BitSet interessadosComTexto;
+
+        Filtro(CertidaoCriterio criterio) {
+            tipo = criterio.tipo != null ? (byte) (criterio.tipo.ordinal() + 1) : 0;
+            status = codigo(criterio.status);
+            periodo = criterio.temPeriodo();
+            diaInicio = criterio.diaInicio;
+            diaFim = criterio.diaFim;
+            if (criterio.textoBusca != null) {
+                numerosComTexto = dicionarioNumeros.contendo(criterio.textoBusca);
+                interessadosComTexto = dicionarioInteressados.contendo(criterio.textoBusca);
+            } else {
+                numerosComTexto = null;
+                interessadosComTexto = null;
+            }
+        }
+
+        boolean aceita(int posicao) {
+            if (tipo != 0 && tipos[posicao] != tipo) {
+                return false;
+            }
+            if (status != 0 && ColunarCertidaoRepository.this.status[posicao] != status) {
+                return false;
+            }
+            if (periodo) {
+                int dia = dias[posicao];
+                if (dia == Certidao.SEM_DATA || dia < diaInicio || dia > diaFim) {
+                    return false;
+                }
+            }
+            if (numerosComTexto != null) {
+                int numero = numeros[posicao];
+                int interessado = interessados[posicao];
+                return (numero >= 0 && numerosComTexto.get(numero))
+                        || (interessado >= 0 && interessadosComTexto.get(interessado));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Ordem pedida, comparando posições pelos valores das colunas (mesma
+     * regra de CertidaoOrdenacao: nulos por último, desempate pelo id).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<Integer> comparador(CertidaoOrdenacao ordenacao) {
+        Comparator<Integer> porId = (a, b) -> Long.compare(ids[a], ids[b]);
+        if (ordenacao == null) {
+            return porId;
+        }
+        IntFunction<Comparable> valor;
+        switch (ordenacao.getCampo()) {
+            case ID:
+                return ordenacao.isAscendente() ? porId : porId.reversed();
+            case NUMERO:
+                valor = posicao -> dicionarioNumeros.texto(numeros[posicao]);
+                break;
+            case TIPO:
+                valor = posicao -> tipos[posicao] != 0 ? TIPOS[tipos[posicao] - 1].getDescricao() : null;
+                break;
+            case INTERESSADO:
+                valor = posicao -> dicionarioInteressados.texto(interessados[posicao]);
+                break;
+            case DATA_EMISSAO:
+                valor = posicao -> dias[posicao] != Certidao.SEM_DATA ? dias[posicao] : null;
+                break;
+            default:
+                valor = posicao -> status[posicao] != 0 ? STATUS[status[posicao] - 1].getDescricao() : null;
+        }
+        Comparator<Comparable> natural = Comparator.naturalOrder();
+        Comparator<Comparable> direcao = ordenacao.isAscendente() ? natural : natural.reversed();
+        Comparator<Integer> porCampo = Comparator.comparing(valor::apply, Comparator.nullsLast(direcao));
+        return porCampo.thenComparing(porId);
+    }
+
+    // ==================== APOIO ====================
+
+    /**
+     * Posição do id (não removida), ou -1
+     */
+    private int localizar(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        int posicao = posicaoDe(id);
+        return posicao >= 0 && !removidos.get(posicao) ? posicao : -1;
+    }
+
+    /**
+     * Posição do id, inclusive removida ou ainda fora do índice, ou -1
+     */
+    private int posicaoDe(long id) {
+        int busca = buscarNoIndice(id);
+        if (busca >= 0) {
+            return posicaoNoIndice(busca);
+        }
+        Integer posicao = foraDeOrdem.isEmpty() ? null : foraDeOrdem.get(id);
+        return posicao != null ? posicao : -1;
+    }
+
+    /**
+     * Busca binária do id no índice (mesmo retorno de Arrays.binarySearch)
+     */
+    private int buscarNoIndice(long id) {
+        int baixo = 0;
+        int alto = indexadas - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            long valor = ids[posicaoNoIndice(meio)];
+            if (valor < id) {
+                baixo = meio + 1;
+            } else if (valor > id) {
+                alto = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -(baixo + 1);
+    }
+
+    private int posicaoNoIndice(int i) {
+        return ordem != null ? ordem[i] : i;
+    }
+
+    private long dono(int codigoChave) {
+        return codigoChave >= 0 && codigoChave < donoNumero.length ? donoNumero[codigoChave] : 0;
+    }
+
+    /**
+     * Cria a Certidao a partir das colunas (fronteira da API)
+     */
+    private Certidao materializar(int posicao) {
+        Certidao certidao = new Certidao();
+        long id = ids[posicao];
+        certidao.setId(id);
+        String original = numerosOriginais.isEmpty() ? null : numerosOriginais.get(id);
+        certidao.setNumero(original != null ? original : dicionarioNumeros.texto(numeros[posicao]));
+        certidao.setTipo(tipoNa(posicao));
+        certidao.setInteressado(dicionarioInteressados.texto(interessados[posicao]));
+        if (dias[posicao] != Certidao.SEM_DATA) {
+            certidao.setDataEmissaoDia(dias[posicao]);
+        } else {
+            certidao.setDataEmissao(datasInvalidas.get(id));
+        }
+        certidao.setStatus(statusNa(posicao));
+        return certidao;
+    }
+
+    private CertidaoTipo tipoNa(int posicao) {
+        return tipos[posicao] != 0 ? TIPOS[tipos[posicao] - 1] : null;
+    }
+
+    private CertidaoStatus statusNa(int posicao) {
+        return status[posicao] != 0 ? STATUS[status[posicao] - 1] : null;
+    }
+
+    private static byte codigo(CertidaoStatus valor) {
+        return valor != null ? (byte) (valor.ordinal() + 1) : 0;
+    }
+}
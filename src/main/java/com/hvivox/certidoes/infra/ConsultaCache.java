@@ -0,0 +1,124 @@
+package com.hvivox.certidoes.infra;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de resultados de consulta do CertidaoStore: critério → ids.
+ *
+ * A listagem refaz a mesma consulta a cada página e a cada contagem (o
+ * DataProvider chama size() e iterator() para o mesmo filtro). Aqui o
+ * resultado fica guardado como um long[] com os ids em ordem crescente, e
+ * não como certidões: a entrada é compacta e as certidões são lidas do
+ * store na hora, sempre atualizadas.
+ *
+ * COMO FUNCIONA:
+ * - Chave: o CertidaoCriterio, que já é a forma canônica do filtro (texto
+ *   sem espaços, minúsculo e sem acentos; datas em epoch-day). Dois filtros
+ *   que devolvem o mesmo resultado caem na mesma entrada
+ * - LRU limitado pelo número de entradas e pelo total de ids guardados;
+ *   resultados grandes demais não são guardados
+ * - Carimbo de versão: cada entrada guarda a versão do store em que foi
+ *   calculada e só vale enquanto a versão for a mesma. As escritas não
+ *   passam por aqui: só incrementam a versão (dentro do lock da faixa do
+ *   id), então o caminho de escrita continua O(1) e sem lock global
+ * - Entradas vencidas saem na primeira leitura depois da escrita, e todas
+ *   de uma vez quando um resultado de versão nova é guardado
+ * - Corrida com escritas: guardar() só aceita o resultado se a versão do
+ *   store não mudou desde o início da consulta (uma escrita em andamento
+ *   incrementa a versão ao terminar, o que vence a entrada)
+ */
+final class ConsultaCache {
+
+    static final int ENTRADAS_PADRAO = 256;
+    static final long IDS_PADRAO = 4_000_000;
+
+    private final AtomicLong versao;
+    private final int maxEntradas;
+    private final long maxIds;
+    private final Map<CertidaoCriterio, Entrada> entradas;
+    private long idsGuardados;
+    // Versão das entradas guardadas por último (as anteriores podem estar vencidas)
+    private long versaoGuardada;
+
+    /**
+     * @param versao      Versão do store (incrementada a cada escrita)
+     * @param maxEntradas Máximo de consultas guardadas
+     * @param maxIds      Máximo de ids somando todas as entradas
+     */
+    ConsultaCache(AtomicLong versao, int maxEntradas, long maxIds) {
+        this.versao = versao;
+        this.maxEntradas = maxEntradas;
+        this.maxIds = maxIds;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @return Ids do resultado (não alterar), ou null se não estiver guardado
+     *         ou se houve escrita depois de guardado
+     */
+    synchronized long[] buscar(CertidaoCriterio criterio) {
+        Entrada entrada = entradas.get(criterio);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.versao != versao.get()) {
+            entradas.remove(criterio);
+            idsGuardados -= entrada.ids.length;
+            return null;
+        }
+        return entrada.ids;
+    }
+
+    /**
+     * Guarda o resultado, se nenhuma escrita aconteceu durante a consulta.
+     *
+     * @param versaoLida Versão lida antes de a consulta começar
+     */
+    synchronized void guardar(CertidaoCriterio criterio, long[] ids, long versaoLida) {
+        if (versao.get() != versaoLida || ids.length > maxIds / 4) {
+            return;
+        }
+        if (versaoGuardada != versaoLida) {
+            removerVencidas(versaoLida);
+            versaoGuardada = versaoLida;
+        }
+        Entrada anterior = entradas.put(criterio, new Entrada(ids, versaoLida));
+        if (anterior != null) {
+            idsGuardados -= anterior.ids.length;
+        }
+        idsGuardados += ids.length;
+
+        Iterator<Entrada> it = entradas.values().iterator();
+        while ((entradas.size() > maxEntradas || idsGuardados > maxIds) && it.hasNext()) {
+            idsGuardados -= it.next().ids.length;
+            it.remove();
+        }
+    }
+
+    private void removerVencidas(long versaoAtual) {
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            Entrada entrada = it.next();
+            if (entrada.versao != versaoAtual) {
+                idsGuardados -= entrada.ids.length;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Resultado guardado e a versão do store em que foi calculado
+     */
+    private static final class Entrada {
+        final long[] ids;
+        final long versao;
+
+        Entrada(long[] ids, long versao) {
+            this.ids = ids;
+            this.versao = versao;
+        }
+    }
+}
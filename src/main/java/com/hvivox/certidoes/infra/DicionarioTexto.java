@@ -0,0 +1,194 @@
+package com.hvivox.certidoes.infra;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Dicionário de textos para as colunas do ColunarCertidaoRepository.
+ *
+ * Cada texto distinto recebe um código (0, 1, 2...) e a coluna guarda só o
+ * int. Os textos ficam em UTF-8, um atrás do outro, em um único byte[]
+ * (sem um objeto String por valor), e a busca texto → código usa uma tabela
+ * de endereçamento aberto sobre int[].
+ *
+ * Custo por texto distinto: os bytes do texto + 4 (início) + ~8 (tabela),
+ * contra ~40 + 2 por caractere de uma String.
+ *
+ * Não é thread-safe: o ColunarCertidaoRepository controla o acesso.
+ */
+final class DicionarioTexto {
+
+    static final int SEM_CODIGO = -1;
+
+    private byte[] bytes = new byte[1024];
+    private int usados;
+    // inicios[codigo] .. inicios[codigo + 1]: bytes do texto
+    private int[] inicios = new int[65];
+    private int quantidade;
+    // código + 1 (0 = posição livre)
+    private int[] tabela = new int[128];
+
+    /**
+     * Código do texto, incluindo-o se ainda não existir.
+     *
+     * @param texto Texto (null = SEM_CODIGO)
+     */
+    int codigo(String texto) {
+        if (texto == null) {
+            return SEM_CODIGO;
+        }
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(utf8, 0, utf8.length);
+        int posicao = procurar(utf8, hash);
+        if (tabela[posicao] != 0) {
+            return tabela[posicao] - 1;
+        }
+
+        if (usados + utf8.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, usados + utf8.length));
+        }
+        System.arraycopy(utf8, 0, bytes, usados, utf8.length);
+        usados += utf8.length;
+        if (quantidade + 2 > inicios.length) {
+            inicios = Arrays.copyOf(inicios, inicios.length * 2);
+        }
+        int codigo = quantidade++;
+        inicios[codigo + 1] = usados;
+        tabela[posicao] = codigo + 1;
+        if (quantidade * 2 > tabela.length) {
+            redimensionar();
+        }
+        return codigo;
+    }
+
+    /**
+     * Código de um texto já existente.
+     *
+     * @return Código, ou SEM_CODIGO se o texto não está no dicionário
+     */
+    int buscar(String texto) {
+        if (texto == null) {
+            return SEM_CODIGO;
+        }
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        int posicao = procurar(utf8, hash(utf8, 0, utf8.length));
+        return tabela[posicao] - 1;
+    }
+
+    /**
+     * Texto de um código (uma String nova a cada chamada).
+     */
+    String texto(int codigo) {
+        if (codigo == SEM_CODIGO) {
+            return null;
+        }
+        int inicio = inicios[codigo];
+        return new String(bytes, inicio, inicios[codigo + 1] - inicio, StandardCharsets.UTF_8);
+    }
+
+    int quantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Códigos cujo texto, normalizado para busca, contém o trecho.
+     *
+     * Textos só com ASCII são comparados direto nos bytes (sem criar String);
+     * os demais passam por TextoBuscaIndice.normalizar.
+     *
+     * @param trecho Trecho já normalizado (TextoBuscaIndice.normalizar)
+     */
+    BitSet contendo(String trecho) {
+        BitSet encontrados = new BitSet(quantidade);
+        byte[] alvo = trecho.getBytes(StandardCharsets.UTF_8);
+        for (int codigo = 0; codigo < quantidade; codigo++) {
+            if (contem(bytes, inicios[codigo], inicios[codigo + 1], trecho, alvo)) {
+                encontrados.set(codigo);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Verifica se o texto em UTF-8 (bytes[inicio..fim)), normalizado para
+     * busca, contém o trecho.
+     *
+     * @param trecho Trecho já normalizado (TextoBuscaIndice.normalizar)
+     * @param alvo   O trecho em UTF-8
+     */
+    static boolean contem(byte[] bytes, int inicio, int fim, String trecho, byte[] alvo) {
+        for (int i = inicio; i < fim; i++) {
+            if (bytes[i] < 0) {
+                String texto = new String(bytes, inicio, fim - inicio, StandardCharsets.UTF_8);
+                return TextoBuscaIndice.normalizar(texto).contains(trecho);
+            }
+        }
+        // Texto só com ASCII não contém trecho com outros caracteres
+        return alvo.length == trecho.length() && contemAsciiMinusculo(bytes, inicio, fim, alvo);
+    }
+
+    private static boolean contemAsciiMinusculo(byte[] bytes, int inicio, int fim, byte[] alvo) {
+        int ultimo = fim - alvo.length;
+        for (int i = inicio; i <= ultimo; i++) {
+            int j = 0;
+            while (j < alvo.length && minusculo(bytes[i + j]) == alvo[j]) {
+                j++;
+            }
+            if (j == alvo.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte minusculo(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    /**
+     * Posição do texto na tabela, ou a posição livre onde ele entraria
+     */
+    private int procurar(byte[] utf8, int hash) {
+        int mascara = tabela.length - 1;
+        int posicao = hash & mascara;
+        while (tabela[posicao] != 0 && !igual(tabela[posicao] - 1, utf8)) {
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+
+    private boolean igual(int codigo, byte[] utf8) {
+        int inicio = inicios[codigo];
+        if (inicios[codigo + 1] - inicio != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (bytes[inicio + i] != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void redimensionar() {
+        int[] nova = new int[tabela.length * 2];
+        int mascara = nova.length - 1;
+        for (int codigo = 0; codigo < quantidade; codigo++) {
+            int posicao = hash(bytes, inicios[codigo], inicios[codigo + 1]) & mascara;
+            while (nova[posicao] != 0) {
+                posicao = (posicao + 1) & mascara;
+            }
+            nova[posicao] = codigo + 1;
+        }
+        tabela = nova;
+    }
+
+    private static int hash(byte[] dados, int inicio, int fim) {
+        int h = 1;
+        for (int i = inicio; i < fim; i++) {
+            h = 31 * h + dados[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -4,17 +4,22 @@ import com.hvivox.certidoes.domain.Certidao;
 import com.hvivox.certidoes.domain.CertidaoStatus;
 import com.hvivox.certidoes.domain.CertidaoTipo;
 import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
+/**
+ * Repositório em memória de certidões.
+ *
+ * Os dados ficam em um CertidaoStore estático, compartilhado por todas as
+ * instâncias (as páginas criam uma instância nova a cada uso). O store é
+ * thread-safe: várias requisições podem ler e gravar ao mesmo tempo.
+ */
 public class InMemoryCertidaoRepository implements CertidaoRepository {
 
-    private static final AtomicLong SEQ = new AtomicLong(0);
-    private static final Map<Long, Certidao> DB = new LinkedHashMap<>();
+    private static final CertidaoStore DB = new CertidaoStore();
 
     static {
         // dados iniciais (pra você já ver tabela)
@@ -24,37 +29,59 @@ public class InMemoryCertidaoRepository implements CertidaoRepository {
 
     private static void seed(String numero, CertidaoTipo tipo, String interessado, String data, CertidaoStatus status) {
         Certidao c = new Certidao();
-        c.setId(SEQ.incrementAndGet());
         c.setNumero(numero);
         c.setTipo(tipo);
         c.setInteressado(interessado);
         c.setDataEmissao(data);
         c.setStatus(status);
-        DB.put(c.getId(), c);
+        DB.salvar(c);
     }
 
     @Override
     public List<Certidao> findAll() {
-        return new ArrayList<>(DB.values());
+        return DB.listar();
     }
 
     @Override
     public Optional<Certidao> findById(Long id) {
-        return Optional.ofNullable(DB.get(id));
+        return Optional.ofNullable(DB.buscar(id));
     }
 
     @Override
     public Certidao save(Certidao certidao) {
-        if (certidao.getId() == null) {
-            certidao.setId(SEQ.incrementAndGet());
-        }
-        DB.put(certidao.getId(), certidao);
-        return certidao;
+        return DB.salvar(certidao);
     }
 
     @Override
     public void delete(Long id) {
-        DB.remove(id);
+        DB.remover(id);
+    }
+
+    /**
+     * Lote tudo ou nada: ids reservados em bloco e uma única trava das faixas
+     * (ver CertidaoStore.salvarTodos).
+     */
+    @Override
+    public List<Certidao> saveAll(Collection<Certidao> certidoes) {
+        return DB.salvarTodos(certidoes);
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        DB.removerTodos(ids);
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, CertidaoStatus status) {
+        return DB.atualizarStatus(ids, status);
+    }
+
+    /**
+     * Consulta O(1) no índice de número único do store.
+     */
+    @Override
+    public boolean existsByNumero(String numero, Long excludingId) {
+        return DB.existeNumero(numero, excludingId);
     }
     
     /**
@@ -62,6 +89,9 @@ public class InMemoryCertidaoRepository implements CertidaoRepository {
      * 
      * Implementa busca de certidões com múltiplos filtros.
      * Os filtros são aplicados cumulativamente (AND).
+     * 
+     * Tipo, status e período usam os índices secundários do CertidaoStore:
+     * só os candidatos do índice mais seletivo são conferidos.
      */
     @Override
     public List<Certidao> findByFiltro(CertidaoFiltro filtro) {
@@ -69,87 +99,38 @@ public class InMemoryCertidaoRepository implements CertidaoRepository {
             return findAll();
         }
         
-        return DB.values().stream()
-            .filter(certidao -> filtrarPorTextoBusca(certidao, filtro.getTextoBusca()))
-            .filter(certidao -> filtrarPorTipo(certidao, filtro.getTipo()))
-            .filter(certidao -> filtrarPorStatus(certidao, filtro.getStatus()))
-            .filter(certidao -> filtrarPorData(certidao, filtro.getDataInicio(), filtro.getDataFim()))
-            .collect(Collectors.toList());
+        return DB.consultar(filtro);
     }
-    
+
     /**
-     * Filtra por texto de busca (busca em número e interessado)
+     * Busca paginada: usa os índices do store e um heap limitado (top-k),
+     * sem copiar o resultado inteiro.
      */
-    private boolean filtrarPorTextoBusca(Certidao certidao, String textoBusca) {
-        if (textoBusca == null || textoBusca.trim().isEmpty()) {
-            return true;
-        }
-        
-        String busca = textoBusca.toLowerCase().trim();
-        
-        // Busca no número
-        if (certidao.getNumero() != null && certidao.getNumero().toLowerCase().contains(busca)) {
-            return true;
-        }
-        
-        // Busca no interessado
-        if (certidao.getInteressado() != null && certidao.getInteressado().toLowerCase().contains(busca)) {
-            return true;
-        }
-        
-        return false;
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro, long offset, int limit, CertidaoOrdenacao ordenacao) {
+        return DB.pagina(filtro, offset, limit, ordenacao);
     }
-    
-    /**
-     * Filtra por tipo de certidão
-     */
-    private boolean filtrarPorTipo(Certidao certidao, CertidaoTipo tipo) {
-        if (tipo == null) {
-            return true;
-        }
-        return tipo.equals(certidao.getTipo());
+
+    @Override
+    public long countByFiltro(CertidaoFiltro filtro) {
+        return DB.contar(filtro);
     }
-    
-    /**
-     * Filtra por status da certidão
-     */
-    private boolean filtrarPorStatus(Certidao certidao, CertidaoStatus status) {
-        if (status == null) {
-            return true;
-        }
-        return status.equals(certidao.getStatus());
+
+    @Override
+    public List<Certidao> findByFiltroAfterId(CertidaoFiltro filtro, Long afterId, int limit) {
+        return DB.depoisDe(filtro, afterId, limit);
     }
-    
+
     /**
-     * Filtra por data de emissão (entre dataInicio e dataFim)
+     * Contadores mantidos pelo store a cada escrita.
      */
-    private boolean filtrarPorData(Certidao certidao, Date dataInicio, Date dataFim) {
-        if (dataInicio == null && dataFim == null) {
-            return true;
-        }
-        
-        // Parsear a data da certidão (formato dd/MM/yyyy)
-        if (certidao.getDataEmissao() == null) {
-            return false;
-        }
-        
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-        try {
-            Date dataCertidao = sdf.parse(certidao.getDataEmissao());
-            
-            // Verificar se está dentro do período
-            if (dataInicio != null && dataCertidao.before(dataInicio)) {
-                return false;
-            }
-            
-            if (dataFim != null && dataCertidao.after(dataFim)) {
-                return false;
-            }
-            
-            return true;
-        } catch (ParseException e) {
-            // Se não conseguir parsear, não incluir nos resultados
-            return false;
-        }
+    @Override
+    public CertidaoEstatisticas getEstatisticas() {
+        return DB.estatisticas();
+    }
+
+    @Override
+    public long getVersao() {
+        return DB.versao();
     }
 }
@@ -0,0 +1,192 @@
+package com.hvivox.certidoes.infra;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.LongPredicate;
+
+/**
+ * Tabela hash long → long em arquivo mapeado (endereçamento aberto, sondagem
+ * linear), usada pelo OffHeapCertidaoRepository para os índices de id e de
+ * número.
+ *
+ * FORMATO:
+ * - Cabeçalho (64 bytes): capacidade (potência de 2) e entradas ocupadas
+ * - Entradas de 16 bytes: chave e valor. Chave 0 = posição livre; valor 0
+ *   com chave preenchida = entrada removida (mantém a sequência de sondagem)
+ *
+ * A mesma chave pode ter mais de um valor (o índice de números usa o hash do
+ * número como chave e confere o número verdadeiro no registro).
+ *
+ * Acima de 50% de ocupação a tabela é recriada com o dobro da capacidade em
+ * um arquivo ao lado, que depois substitui o original.
+ *
+ * Não é thread-safe: o OffHeapCertidaoRepository controla o acesso.
+ */
+final class IndiceMapeado implements Closeable {
+
+    private static final int CABECALHO = 64;
+    private static final int ENTRADA = 16;
+    private static final long CAPACIDADE_INICIAL = 1024;
+
+    private final Path arquivo;
+    private RegiaoMapeada regiao;
+    private long capacidade;
+    private long ocupadas;
+
+    IndiceMapeado(Path arquivo) throws IOException {
+        this.arquivo = arquivo;
+        this.regiao = new RegiaoMapeada(arquivo, RegiaoMapeada.BITS_JANELA_PADRAO);
+        regiao.garantir(CABECALHO);
+        capacidade = regiao.getLong(0);
+        ocupadas = regiao.getLong(8);
+        if (capacidade == 0) {
+            limpar();
+        }
+    }
+
+    /**
+     * Primeiro valor da chave aceito pelo filtro.
+     *
+     * @return Valor, ou 0 se nenhum
+     */
+    long buscar(long chave, LongPredicate aceita) {
+        long mascara = capacidade - 1;
+        for (long i = espalhar(chave) & mascara; ; i = (i + 1) & mascara) {
+            long posicao = posicao(i);
+            long atual = regiao.getLong(posicao);
+            if (atual == 0) {
+                return 0;
+            }
+            if (atual == chave) {
+                long valor = regiao.getLong(posicao + 8);
+                if (valor != 0 && aceita.test(valor)) {
+                    return valor;
+                }
+            }
+        }
+    }
+
+    long buscar(long chave) {
+        return buscar(chave, valor -> true);
+    }
+
+    /**
+     * Inclui a entrada (sem conferir se já existe).
+     *
+     * @param chave Diferente de 0
+     * @param valor Diferente de 0
+     */
+    void inserir(long chave, long valor) throws IOException {
+        if ((ocupadas + 1) * 2 > capacidade) {
+            redimensionar(capacidade * 2);
+        }
+        long mascara = capacidade - 1;
+        long i = espalhar(chave) & mascara;
+        while (true) {
+            long posicao = posicao(i);
+            long atual = regiao.getLong(posicao);
+            if (atual == 0 || regiao.getLong(posicao + 8) == 0) {
+                if (atual == 0) {
+                    ocupadas++;
+                    regiao.putLong(8, ocupadas);
+                }
+                regiao.putLong(posicao + 8, valor);
+                regiao.putLong(posicao, chave);
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+    }
+
+    /**
+     * Marca a entrada como removida.
+     *
+     * @return true se a entrada existia
+     */
+    boolean remover(long chave, long valor) {
+        long mascara = capacidade - 1;
+        for (long i = espalhar(chave) & mascara; ; i = (i + 1) & mascara) {
+            long posicao = posicao(i);
+            long atual = regiao.getLong(posicao);
+            if (atual == 0) {
+                return false;
+            }
+            if (atual == chave && regiao.getLong(posicao + 8) == valor) {
+                regiao.putLong(posicao + 8, 0);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Esvazia a tabela (usado para reconstruir o índice)
+     */
+    void limpar() throws IOException {
+        regiao.close();
+        Files.deleteIfExists(arquivo);
+        regiao = new RegiaoMapeada(arquivo, RegiaoMapeada.BITS_JANELA_PADRAO);
+        iniciar(regiao, CAPACIDADE_INICIAL);
+        capacidade = CAPACIDADE_INICIAL;
+        ocupadas = 0;
+    }
+
+    void force() {
+        regiao.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        regiao.close();
+    }
+
+    /**
+     * Recria a tabela sem as entradas removidas
+     */
+    private void redimensionar(long novaCapacidade) throws IOException {
+        Path novo = arquivo.resolveSibling(arquivo.getFileName() + ".novo");
+        Files.deleteIfExists(novo);
+        RegiaoMapeada destino = new RegiaoMapeada(novo, RegiaoMapeada.BITS_JANELA_PADRAO);
+        iniciar(destino, novaCapacidade);
+        long mascara = novaCapacidade - 1;
+        long copiadas = 0;
+        for (long i = 0; i < capacidade; i++) {
+            long chave = regiao.getLong(posicao(i));
+            long valor = regiao.getLong(posicao(i) + 8);
+            if (chave == 0 || valor == 0) {
+                continue;
+            }
+            long j = espalhar(chave) & mascara;
+            while (destino.getLong(posicao(j)) != 0) {
+                j = (j + 1) & mascara;
+            }
+            destino.putLong(posicao(j), chave);
+            destino.putLong(posicao(j) + 8, valor);
+            copiadas++;
+        }
+        destino.putLong(8, copiadas);
+        destino.force();
+        regiao.close();
+        Files.move(novo, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        regiao = destino;
+        capacidade = novaCapacidade;
+        ocupadas = copiadas;
+    }
+
+    private static void iniciar(RegiaoMapeada regiao, long capacidade) throws IOException {
+        regiao.garantir(posicao(capacidade));
+        regiao.putLong(0, capacidade);
+        regiao.putLong(8, 0);
+    }
+
+    private static long posicao(long indice) {
+        return CABECALHO + indice * ENTRADA;
+    }
+
+    private static long espalhar(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
@@ -0,0 +1,24 @@
+package com.hvivox.certidoes.infra;
+
+/**
+ * Lançada ao salvar uma certidão com um número que já pertence a outra
+ * certidão.
+ *
+ * O NumeroUnicoValidator evita esse caso na maioria das vezes; esta exceção
+ * cobre a corrida entre dois envios simultâneos que passaram pela validação
+ * com o mesmo número.
+ */
+public class NumeroDuplicadoException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String numero;
+
+    public NumeroDuplicadoException(String numero) {
+        super("Já existe uma certidão com o número '" + numero + "'");
+        this.numero = numero;
+    }
+
+    public String getNumero() {
+        return numero;
+    }
+}
@@ -0,0 +1,930 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * ====================================================================
+ * REPOSITÓRIO DE CERTIDÕES FORA DO HEAP (ARQUIVOS MAPEADOS EM MEMÓRIA)
+ * ====================================================================
+ *
+ * Para volumes maiores que o heap: as certidões ficam em arquivos mapeados
+ * (RegiaoMapeada), e o heap guarda só as referências às janelas. O GC não
+ * percorre os dados, então as pausas não crescem com a quantidade de
+ * certidões, e abrir o repositório não carrega nada: o SO traz as páginas
+ * do disco conforme são lidas.
+ *
+ * ARQUIVOS (no diretório informado):
+ * - certidoes.registros: cabeçalho (64 bytes) + um registro de 32 bytes por
+ *   certidão: id, epoch-day, tipo, status, estado (ativo/removido),
+ *   referência aos textos e hash do número
+ * - certidoes.textos: número, interessado e data inválida de cada certidão,
+ *   em UTF-8, em um bloco reaproveitado enquanto os textos novos couberem
+ * - certidoes.ids: índice id → registro (IndiceMapeado)
+ * - certidoes.numeros: índice hash do número → registro (número único)
+ *
+ * COMO FUNCIONA:
+ * - Consultas percorrem os registros com um cursor (Visao) que lê só os
+ *   campos testados, direto do arquivo; uma Certidao só é criada para o
+ *   que é devolvido. Alterar a certidão devolvida não altera o repositório
+ *   até o save()
+ * - Certidões excluídas continuam com o registro (marcado como removido) e
+ *   um novo save() com o mesmo id reaproveita a posição
+ * - Leituras em paralelo (read lock); escritas exclusivas (write lock)
+ * - Estatísticas (CertidaoEstatisticas): contadas percorrendo os registros
+ *   no primeiro getEstatisticas() (abrir continua sem ler nada) e, daí em
+ *   diante, atualizadas a cada escrita
+ *
+ * DURABILIDADE: os dados sobrevivem a reinícios depois do close(). Em uma
+ * queda, o SO grava as páginas em qualquer ordem: ao abrir, os índices são
+ * reconstruídos a partir dos registros, mas a última escrita pode ficar
+ * incompleta. Para garantia de gravação, use o WalCertidaoRepository.
+ *
+ * EXEMPLO DE USO:
+ * try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(Paths.get("dados"))) {
+ *     repository.saveAll(certidoesImportadas);
+ * }
+ */
+public class OffHeapCertidaoRepository implements CertidaoRepository, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapCertidaoRepository.class);
+
+    static final String ARQUIVO_REGISTROS = "certidoes.registros";
+    static final String ARQUIVO_TEXTOS = "certidoes.textos";
+    static final String ARQUIVO_IDS = "certidoes.ids";
+    static final String ARQUIVO_NUMEROS = "certidoes.numeros";
+
+    private static final int MAGICO = 0x43524547; // "CREG"
+    private static final int FORMATO = 1;
+    private static final CertidaoTipo[] TIPOS = CertidaoTipo.values();
+    private static final CertidaoStatus[] STATUS = CertidaoStatus.values();
+
+    // Cabeçalho de certidoes.registros
+    private static final int CABECALHO = 64;
+    private static final int C_MAGICO = 0;
+    private static final int C_FORMATO = 4;
+    private static final int C_SEQUENCIA = 8;
+    private static final int C_POSICOES = 16;
+    private static final int C_TEXTOS = 24;
+    private static final int C_VERSAO = 32;
+    private static final int C_ATIVOS = 40;
+    private static final int C_ABERTO = 48;
+    private static final int C_ORDENADO = 49;
+
+    // Registro de uma certidão
+    private static final int REGISTRO = 32;
+    private static final int R_ID = 0;
+    private static final int R_DIA = 8;
+    private static final int R_TIPO = 12;
+    private static final int R_STATUS = 13;
+    private static final int R_ESTADO = 14;
+    private static final int R_TEXTOS = 16;
+    private static final int R_HASH_NUMERO = 24;
+
+    private static final byte ATIVO = 1;
+    private static final byte REMOVIDO = 2;
+
+    // Textos de cada certidão: [capacidade][número][interessado][data inválida]
+    private static final int TEXTO_NUMERO = 0;
+    private static final int TEXTO_INTERESSADO = 1;
+    private static final int TEXTO_DATA = 2;
+    // Posição 0 dos textos fica sem uso: referência 0 = sem bloco
+    private static final long TEXTOS_INICIO = 8;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RegiaoMapeada registros;
+    private final RegiaoMapeada textos;
+    private final IndiceMapeado ids;
+    private final IndiceMapeado numeros;
+    private final AtomicLong versao;
+
+    // Cópia do cabeçalho (gravada junto em cada alteração)
+    private long sequencia;
+    private long posicoes;
+    private long textosUsados;
+    private long ativos;
+    // true enquanto as posições estão em ordem crescente de id
+    private boolean ordenado;
+    // null até o primeiro getEstatisticas(); depois, mantido pelas escritas
+    private volatile CertidaoEstatisticas estatisticas;
+
+    /**
+     * Abre (ou cria) o repositório no diretório.
+     */
+    public OffHeapCertidaoRepository(Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+        registros = new RegiaoMapeada(diretorio.resolve(ARQUIVO_REGISTROS), RegiaoMapeada.BITS_JANELA_PADRAO);
+        textos = new RegiaoMapeada(diretorio.resolve(ARQUIVO_TEXTOS), RegiaoMapeada.BITS_JANELA_PADRAO);
+        ids = new IndiceMapeado(diretorio.resolve(ARQUIVO_IDS));
+        numeros = new IndiceMapeado(diretorio.resolve(ARQUIVO_NUMEROS));
+        registros.garantir(CABECALHO);
+
+        if (registros.getInt(C_MAGICO) == 0) {
+            registros.putInt(C_MAGICO, MAGICO);
+            registros.putInt(C_FORMATO, FORMATO);
+            registros.putLong(C_TEXTOS, TEXTOS_INICIO);
+            registros.put(C_ORDENADO, (byte) 1);
+        } else if (registros.getInt(C_MAGICO) != MAGICO || registros.getInt(C_FORMATO) != FORMATO) {
+            close();
+            throw new IOException("Arquivo de certidões inválido: " + diretorio.resolve(ARQUIVO_REGISTROS));
+        }
+        sequencia = registros.getLong(C_SEQUENCIA);
+        posicoes = registros.getLong(C_POSICOES);
+        textosUsados = registros.getLong(C_TEXTOS);
+        ativos = registros.getLong(C_ATIVOS);
+        ordenado = registros.get(C_ORDENADO) == 1;
+        versao = new AtomicLong(registros.getLong(C_VERSAO));
+
+        if (registros.get(C_ABERTO) == 1) {
+            logger.warn("Repositório de certidões em {} não foi fechado corretamente; reconstruindo índices",
+                    diretorio);
+            reconstruirIndices();
+        }
+        registros.put(C_ABERTO, (byte) 1);
+        registros.force();
+        logger.info("Certidões abertas de {}: {}", diretorio, ativos);
+    }
+
+    // ==================== ESCRITA ====================
+
+    @Override
+    public Certidao save(Certidao certidao) {
+        lock.writeLock().lock();
+        try {
+            salvar(certidao);
+            alterou();
+            return certidao;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lote tudo ou nada: ids e números são conferidos antes de qualquer
+     * alteração.
+     */
+    @Override
+    public List<Certidao> saveAll(Collection<Certidao> certidoes) {
+        List<Certidao> lote = new ArrayList<>(certidoes);
+        for (Certidao certidao : lote) {
+            conferirId(certidao.getId());
+        }
+        lock.writeLock().lock();
+        try {
+            CertidaoStore.conferirNumeros(lote, chave -> {
+                long posicao = posicaoDoNumero(chave, hashNumero(chave));
+                return posicao >= 0 ? idNa(posicao) : 0;
+            });
+            for (Certidao certidao : lote) {
+                salvar(certidao);
+            }
+            if (!lote.isEmpty()) {
+                alterou();
+            }
+            return lote;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        deleteAll(Collections.singletonList(id));
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> idsRemover) {
+        lock.writeLock().lock();
+        try {
+            boolean alterou = false;
+            for (Long id : idsRemover) {
+                long posicao = localizar(id);
+                if (posicao < 0) {
+                    continue;
+                }
+                long registro = registro(posicao);
+                long hash = registros.getLong(registro + R_HASH_NUMERO);
+                if (hash != 0) {
+                    numeros.remover(hash, posicao + 1);
+                }
+                retirarDasEstatisticas(posicao);
+                registros.put(registro + R_ESTADO, REMOVIDO);
+                ativos--;
+                alterou = true;
+            }
+            if (alterou) {
+                registros.putLong(C_ATIVOS, ativos);
+                alterou();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Só o byte de status de cada registro é escrito.
+     */
+    @Override
+    public int updateStatus(Collection<Long> idsAlterar, CertidaoStatus novoStatus) {
+        byte valor = codigo(novoStatus);
+        lock.writeLock().lock();
+        try {
+            int alteradas = 0;
+            for (Long id : idsAlterar) {
+                long posicao = localizar(id);
+                if (posicao < 0) {
+                    continue;
+                }
+                byte anterior = registros.get(registro(posicao) + R_STATUS);
+                if (anterior != valor) {
+                    if (estatisticas != null) {
+                        estatisticas.trocarStatus(status(anterior), novoStatus);
+                    }
+                    registros.put(registro(posicao) + R_STATUS, valor);
+                    alteradas++;
+                }
+            }
+            if (alteradas > 0) {
+                alterou();
+            }
+            return alteradas;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava a certidão (chamado com o write lock).
+     */
+    private void salvar(Certidao certidao) throws IOException {
+        String chave = CertidaoStore.normalizarNumero(certidao.getNumero());
+        long hash = chave != null ? hashNumero(chave) : 0;
+        Long id = certidao.getId();
+        conferirId(id);
+        long posicao = id != null ? ids.buscar(id) - 1 : -1;
+        if (chave != null) {
+            long dono = posicaoDoNumero(chave, hash);
+            if (dono >= 0 && dono != posicao) {
+                throw new NumeroDuplicadoException(chave);
+            }
+        }
+
+        byte estadoAnterior = 0;
+        if (posicao < 0) {
+            if (id == null) {
+                id = sequencia + 1;
+                certidao.setId(id);
+            } else if (id <= sequencia) {
+                // Id informado menor que outro já gravado: as posições saem da ordem de id
+                ordenado = false;
+                registros.put(C_ORDENADO, (byte) 0);
+            }
+            posicao = posicoes;
+            registros.garantir(registro(posicao + 1));
+            registros.putLong(registro(posicao) + R_ID, id);
+            registros.putLong(registro(posicao) + R_TEXTOS, 0);
+            posicoes++;
+            registros.putLong(C_POSICOES, posicoes);
+            ids.inserir(id, posicao + 1);
+        } else {
+            estadoAnterior = registros.get(registro(posicao) + R_ESTADO);
+            long hashAnterior = registros.getLong(registro(posicao) + R_HASH_NUMERO);
+            if (estadoAnterior == ATIVO && hashAnterior != 0) {
+                numeros.remover(hashAnterior, posicao + 1);
+            }
+            if (estadoAnterior == ATIVO) {
+                retirarDasEstatisticas(posicao);
+            }
+        }
+        if (id > sequencia) {
+            sequencia = id;
+            registros.putLong(C_SEQUENCIA, sequencia);
+        }
+
+        long registro = registro(posicao);
+        escreverTextos(posicao, certidao.getNumero(), certidao.getInteressado(),
+                certidao.temDataEmissao() ? null : certidao.getDataEmissao());
+        registros.putInt(registro + R_DIA, certidao.getDataEmissaoDia());
+        registros.put(registro + R_TIPO, certidao.getTipo() != null ? (byte) (certidao.getTipo().ordinal() + 1) : 0);
+        registros.put(registro + R_STATUS, codigo(certidao.getStatus()));
+        registros.putLong(registro + R_HASH_NUMERO, hash);
+        registros.put(registro + R_ESTADO, ATIVO);
+        if (hash != 0) {
+            numeros.inserir(hash, posicao + 1);
+        }
+        if (estadoAnterior != ATIVO) {
+            ativos++;
+            registros.putLong(C_ATIVOS, ativos);
+        }
+        if (estatisticas != null) {
+            estatisticas.incluir(certidao);
+        }
+    }
+
+    /**
+     * Ids informados devem ser positivos: 0 marca posição livre no índice de ids
+     */
+    private static void conferirId(Long id) {
+        if (id != null && id <= 0) {
+            throw new IllegalArgumentException("Id de certidão deve ser positivo: " + id);
+        }
+    }
+
+    /**
+     * Tira dos contadores a certidão ativa da posição, antes de alterá-la
+     */
+    private void retirarDasEstatisticas(long posicao) {
+        if (estatisticas != null) {
+            Visao visao = new Visao().em(posicao);
+            estatisticas.remover(tipo(visao.tipo()), status(visao.status()), visao.dia());
+        }
+    }
+
+    /**
+     * Grava os textos no bloco atual do registro, ou em um bloco novo no fim
+     * de certidoes.textos se não couberem.
+     */
+    private void escreverTextos(long posicao, String numero, String interessado, String data) throws IOException {
+        byte[][] valores = {utf8(numero), utf8(interessado), utf8(data)};
+        int tamanho = 4;
+        for (byte[] valor : valores) {
+            tamanho += 4 + (valor != null ? valor.length : 0);
+        }
+
+        long bloco = registros.getLong(registro(posicao) + R_TEXTOS);
+        if (bloco == 0 || textos.getInt(bloco) < tamanho) {
+            bloco = alocarTextos(tamanho);
+            textos.putInt(bloco, tamanho);
+            registros.putLong(registro(posicao) + R_TEXTOS, bloco);
+        }
+        long destino = bloco + 4;
+        for (byte[] valor : valores) {
+            if (valor == null) {
+                textos.putInt(destino, 0);
+                destino += 4;
+            } else {
+                textos.putInt(destino, valor.length + 1);
+                textos.put(destino + 4, valor, valor.length);
+                destino += 4 + valor.length;
+            }
+        }
+    }
+
+    /**
+     * Espaço no fim de certidoes.textos, sem atravessar o limite de janela
+     */
+    private long alocarTextos(int tamanho) throws IOException {
+        long janela = textos.tamanhoJanela();
+        if (tamanho > janela) {
+            throw new IllegalArgumentException("Textos da certidão muito grandes: " + tamanho + " bytes");
+        }
+        long inicio = textosUsados;
+        if ((inicio % janela) + tamanho > janela) {
+            inicio = (inicio / janela + 1) * janela;
+        }
+        textos.garantir(inicio + tamanho);
+        textosUsados = inicio + tamanho;
+        registros.putLong(C_TEXTOS, textosUsados);
+        return inicio;
+    }
+
+    private void alterou() {
+        registros.putLong(C_VERSAO, versao.incrementAndGet());
+    }
+
+    /**
+     * Recria os índices a partir dos registros (abertura após uma queda).
+     *
+     * O fim dos textos também é recalculado (fim do maior bloco em uso): o
+     * cabeçalho pode ter ficado com um valor antigo, e um bloco novo
+     * alocado ali sobrescreveria os textos de outra certidão.
+     */
+    private void reconstruirIndices() throws IOException {
+        ids.limpar();
+        numeros.limpar();
+        ativos = 0;
+        ordenado = true;
+        textosUsados = TEXTOS_INICIO;
+        long anterior = 0;
+        for (long posicao = 0; posicao < posicoes; posicao++) {
+            long registro = registro(posicao);
+            long id = registros.getLong(registro + R_ID);
+            long bloco = registros.getLong(registro + R_TEXTOS);
+            if (bloco != 0) {
+                textosUsados = Math.max(textosUsados, bloco + textos.getInt(bloco));
+            }
+            ids.inserir(id, posicao + 1);
+            ordenado &= id > anterior;
+            anterior = Math.max(anterior, id);
+            sequencia = Math.max(sequencia, id);
+            if (registros.get(registro + R_ESTADO) == ATIVO) {
+                ativos++;
+                long hash = registros.getLong(registro + R_HASH_NUMERO);
+                if (hash != 0) {
+                    numeros.inserir(hash, posicao + 1);
+                }
+            }
+        }
+        registros.putLong(C_SEQUENCIA, sequencia);
+        registros.putLong(C_TEXTOS, textosUsados);
+        registros.putLong(C_ATIVOS, ativos);
+        registros.put(C_ORDENADO, (byte) (ordenado ? 1 : 0));
+    }
+
+    // ==================== LEITURA ====================
+
+    @Override
+    public List<Certidao> findAll() {
+        return findByFiltro(null);
+    }
+
+    @Override
+    public Optional<Certidao> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            long posicao = localizar(id);
+            return posicao >= 0 ? Optional.of(new Visao().em(posicao).materializar()) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByNumero(String numero, Long excludingId) {
+        String chave = CertidaoStore.normalizarNumero(numero);
+        if (chave == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            long dono = posicaoDoNumero(chave, hashNumero(chave));
+            return dono >= 0 && (excludingId == null || idNa(dono) != excludingId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro) {
+        lock.readLock().lock();
+        try {
+            List<Certidao> encontradas = new ArrayList<>();
+            paraCada(CertidaoCriterio.de(filtro), visao -> encontradas.add(visao.materializar()));
+            if (!ordenado) {
+                encontradas.sort(Paginacao.ORDEM_INSERCAO);
+            }
+            return encontradas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Heap limitado de chaves de ordenação; só a página é materializada.
+     * Sem ordenação e com as posições em ordem de id, para na página.
+     */
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro, long offset, int limit, CertidaoOrdenacao ordenacao) {
+        Paginacao.validar(offset, limit);
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            CertidaoCriterio criterio = CertidaoCriterio.de(filtro);
+            if (ordenacao == null && ordenado) {
+                List<Certidao> pagina = new ArrayList<>(Math.min(limit, 1024));
+                long[] pular = {offset};
+                percorrer(criterio, visao -> {
+                    if (pular[0] > 0) {
+                        pular[0]--;
+                    } else {
+                        pagina.add(visao.materializar());
+                    }
+                    return pagina.size() < limit;
+                });
+                return pagina;
+            }
+            Paginacao<Chave> paginacao = new Paginacao<>(comparador(ordenacao), offset, limit);
+            paraCada(criterio, visao -> paginacao.oferecer(new Chave(visao, ordenacao)));
+            return materializar(paginacao.pagina());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long countByFiltro(CertidaoFiltro filtro) {
+        lock.readLock().lock();
+        try {
+            long[] total = {0};
+            paraCada(CertidaoCriterio.de(filtro), visao -> total[0]++);
+            return total[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Certidao> findByFiltroAfterId(CertidaoFiltro filtro, Long afterId, int limit) {
+        Paginacao.validar(0, limit);
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        long depoisDe = afterId != null ? afterId : Long.MIN_VALUE;
+        lock.readLock().lock();
+        try {
+            Filtro aceita = new Filtro(CertidaoCriterio.de(filtro));
+            Visao visao = new Visao();
+            if (ordenado) {
+                List<Certidao> lote = new ArrayList<>(Math.min(limit, 1024));
+                for (long posicao = primeiraDepoisDe(depoisDe); posicao < posicoes && lote.size() < limit; posicao++) {
+                    if (visao.em(posicao).ativo() && aceita.aceita(visao)) {
+                        lote.add(visao.materializar());
+                    }
+                }
+                return lote;
+            }
+            Paginacao<Chave> paginacao = new Paginacao<>(comparador(null), 0, limit);
+            for (long posicao = 0; posicao < posicoes; posicao++) {
+                if (visao.em(posicao).ativo() && visao.id() > depoisDe && aceita.aceita(visao)) {
+                    paginacao.oferecer(new Chave(visao, null));
+                }
+            }
+            return materializar(paginacao.pagina());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Na primeira chamada, conta as certidões ativas (com o write lock, para
+     * nenhuma escrita passar no meio); depois, leitura O(1).
+     */
+    @Override
+    public CertidaoEstatisticas getEstatisticas() {
+        CertidaoEstatisticas atuais = estatisticas;
+        if (atuais != null) {
+            return atuais;
+        }
+        lock.writeLock().lock();
+        try {
+            if (estatisticas == null) {
+                CertidaoEstatisticas contadas = new CertidaoEstatisticas();
+                Visao visao = new Visao();
+                for (long posicao = 0; posicao < posicoes; posicao++) {
+                    if (visao.em(posicao).ativo()) {
+                        contadas.incluir(tipo(visao.tipo()), status(visao.status()), visao.dia());
+                    }
+                }
+                estatisticas = contadas;
+            }
+            return estatisticas;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long getVersao() {
+        return versao.get();
+    }
+
+    /**
+     * Quantidade de certidões (sem as removidas)
+     */
+    public long tamanho() {
+        lock.readLock().lock();
+        try {
+            return ativos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Grava tudo no disco e libera os arquivos.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            registros.put(C_ABERTO, (byte) 0);
+            ids.close();
+            numeros.close();
+            textos.close();
+            registros.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Passa o cursor por cada certidão ativa que atende ao critério, na ordem
+     * das posições, até a ação devolver false (chamado com o read lock).
+     */
+    private void percorrer(CertidaoCriterio criterio, Predicate<Visao> continuar) {
+        Filtro filtro = new Filtro(criterio);
+        Visao visao = new Visao();
+        for (long posicao = 0; posicao < posicoes; posicao++) {
+            if (visao.em(posicao).ativo() && filtro.aceita(visao) && !continuar.test(visao)) {
+                return;
+            }
+        }
+    }
+
+    private void paraCada(CertidaoCriterio criterio, Consumer<Visao> acao) {
+        percorrer(criterio, visao -> {
+            acao.accept(visao);
+            return true;
+        });
+    }
+
+    /**
+     * Primeira posição com id maior (busca binária; exige posições em ordem)
+     */
+    private long primeiraDepoisDe(long id) {
+        long inicio = 0;
+        long fim = posicoes;
+        while (inicio < fim) {
+            long meio = (inicio + fim) >>> 1;
+            if (idNa(meio) <= id) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    private List<Certidao> materializar(List<Chave> chaves) {
+        List<Certidao> certidoes = new ArrayList<>(chaves.size());
+        Visao visao = new Visao();
+        for (Chave chave : chaves) {
+            certidoes.add(visao.em(chave.posicao).materializar());
+        }
+        return certidoes;
+    }
+
+    // ==================== CURSOR E FILTRO ====================
+
+    /**
+     * Cursor sobre um registro: cada campo é lido do arquivo só quando pedido
+     * (flyweight: um único objeto percorre todas as posições).
+     */
+    private final class Visao {
+        private long posicao;
+        private long registro;
+        private byte[] buffer = new byte[64];
+        private int tamanhoBuffer;
+
+        Visao em(long posicao) {
+            this.posicao = posicao;
+            this.registro = registro(posicao);
+            return this;
+        }
+
+        boolean ativo() {
+            return registros.get(registro + R_ESTADO) == ATIVO;
+        }
+
+        long id() {
+            return registros.getLong(registro + R_ID);
+        }
+
+        int dia() {
+            return registros.getInt(registro + R_DIA);
+        }
+
+        byte tipo() {
+            return registros.get(registro + R_TIPO);
+        }
+
+        byte status() {
+            return registros.get(registro + R_STATUS);
+        }
+
+        String texto(int campo) {
+            return carregar(campo) ? new String(buffer, 0, tamanhoBuffer, StandardCharsets.UTF_8) : null;
+        }
+
+        /**
+         * Texto do campo, normalizado para busca, contém o trecho
+         */
+        boolean contem(int campo, String trecho, byte[] alvo) {
+            return carregar(campo) && DicionarioTexto.contem(buffer, 0, tamanhoBuffer, trecho, alvo);
+        }
+
+        /**
+         * Copia os bytes do campo para o buffer.
+         *
+         * @return false se o campo é null
+         */
+        private boolean carregar(int campo) {
+            long origem = registros.getLong(registro + R_TEXTOS) + 4;
+            for (int i = 0; i < campo; i++) {
+                int tamanho = textos.getInt(origem);
+                origem += 4 + Math.max(tamanho - 1, 0);
+            }
+            int tamanho = textos.getInt(origem) - 1;
+            if (tamanho < 0) {
+                return false;
+            }
+            if (tamanho > buffer.length) {
+                buffer = new byte[Math.max(tamanho, buffer.length * 2)];
+            }
+            textos.get(origem + 4, buffer, tamanho);
+            tamanhoBuffer = tamanho;
+            return true;
+        }
+
+        Certidao materializar() {
+            Certidao certidao = new Certidao();
+            certidao.setId(id());
+            certidao.setNumero(texto(TEXTO_NUMERO));
+            certidao.setTipo(OffHeapCertidaoRepository.tipo(tipo()));
+            certidao.setInteressado(texto(TEXTO_INTERESSADO));
+            if (dia() != Certidao.SEM_DATA) {
+                certidao.setDataEmissaoDia(dia());
+            } else {
+                certidao.setDataEmissao(texto(TEXTO_DATA));
+            }
+            certidao.setStatus(OffHeapCertidaoRepository.status(status()));
+            return certidao;
+        }
+    }
+
+    /**
+     * Critério traduzido para os valores gravados nos registros
+     */
+    private static final class Filtro {
+        private final byte tipo;
+        private final byte status;
+        private final boolean periodo;
+        private final int diaInicio;
+        private final int diaFim;
+        private final String trecho;
+        private final byte[] alvo;
+
+        Filtro(CertidaoCriterio criterio) {
+            tipo = criterio.tipo != null ? (byte) (criterio.tipo.ordinal() + 1) : 0;
+            status = codigo(criterio.status);
+            periodo = criterio.temPeriodo();
+            diaInicio = criterio.diaInicio;
+            diaFim = criterio.diaFim;
+            trecho = criterio.textoBusca;
+            alvo = trecho != null ? trecho.getBytes(StandardCharsets.UTF_8) : null;
+        }
+
+        boolean aceita(Visao visao) {
+            if (tipo != 0 && visao.tipo() != tipo) {
+                return false;
+            }
+            if (status != 0 && visao.status() != status) {
+                return false;
+            }
+            if (periodo) {
+                int dia = visao.dia();
+                if (dia == Certidao.SEM_DATA || dia < diaInicio || dia > diaFim) {
+                    return false;
+                }
+            }
+            return trecho == null
+                    || visao.contem(TEXTO_NUMERO, trecho, alvo)
+                    || visao.contem(TEXTO_INTERESSADO, trecho, alvo);
+        }
+    }
+
+    /**
+     * Valor de ordenação de uma posição, lido uma vez ao entrar no heap
+     */
+    private static final class Chave {
+        final long posicao;
+        final long id;
+        @SuppressWarnings("rawtypes")
+        final Comparable valor;
+
+        Chave(Visao visao, CertidaoOrdenacao ordenacao) {
+            posicao = visao.posicao;
+            id = visao.id();
+            valor = ordenacao != null ? valor(visao, ordenacao.getCampo()) : null;
+        }
+
+        @SuppressWarnings("rawtypes")
+        private static Comparable valor(Visao visao, CertidaoOrdenacao.Campo campo) {
+            switch (campo) {
+                case ID:
+                    return visao.id();
+                case NUMERO:
+                    return visao.texto(TEXTO_NUMERO);
+                case TIPO:
+                    return visao.tipo() != 0 ? TIPOS[visao.tipo() - 1].getDescricao() : null;
+                case INTERESSADO:
+                    return visao.texto(TEXTO_INTERESSADO);
+                case DATA_EMISSAO:
+                    return visao.dia() != Certidao.SEM_DATA ? visao.dia() : null;
+                default:
+                    return visao.status() != 0 ? STATUS[visao.status() - 1].getDescricao() : null;
+            }
+        }
+    }
+
+    /**
+     * Mesma regra de CertidaoOrdenacao: nulos por último, desempate pelo id
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Chave> comparador(CertidaoOrdenacao ordenacao) {
+        Comparator<Chave> porId = Comparator.comparingLong(chave -> chave.id);
+        if (ordenacao == null) {
+            return porId;
+        }
+        Comparator<Comparable> natural = Comparator.naturalOrder();
+        Comparator<Comparable> direcao = ordenacao.isAscendente() ? natural : natural.reversed();
+        return Comparator.comparing((Chave chave) -> chave.valor, Comparator.nullsLast(direcao)).thenComparing(porId);
+    }
+
+    // ==================== APOIO ====================
+
+    /**
+     * Posição do id (ativa), ou -1
+     */
+    private long localizar(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        long posicao = ids.buscar(id) - 1;
+        return posicao >= 0 && registros.get(registro(posicao) + R_ESTADO) == ATIVO ? posicao : -1;
+    }
+
+    /**
+     * Posição da certidão ativa com o número (sem espaços nas pontas), ou -1.
+     * Hashes iguais de números diferentes são separados conferindo o texto.
+     */
+    private long posicaoDoNumero(String chave, long hash) {
+        Visao visao = new Visao();
+        return numeros.buscar(hash, valor ->
+                chave.equals(CertidaoStore.normalizarNumero(visao.em(valor - 1).texto(TEXTO_NUMERO)))) - 1;
+    }
+
+    private long idNa(long posicao) {
+        return registros.getLong(registro(posicao) + R_ID);
+    }
+
+    private static long registro(long posicao) {
+        return CABECALHO + posicao * REGISTRO;
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a) do número; 0 fica reservado para "sem número"
+     */
+    private static long hashNumero(String chave) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < chave.length(); i++) {
+            hash ^= chave.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash != 0 ? hash : 1;
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static CertidaoTipo tipo(byte codigo) {
+        return codigo != 0 ? TIPOS[codigo - 1] : null;
+    }
+
+    private static CertidaoStatus status(byte codigo) {
+        return codigo != 0 ? STATUS[codigo - 1] : null;
+    }
+
+    private static byte codigo(CertidaoStatus valor) {
+        return valor != null ? (byte) (valor.ordinal() + 1) : 0;
+    }
+}
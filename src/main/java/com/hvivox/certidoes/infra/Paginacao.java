@@ -0,0 +1,104 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Seleção de uma página (offset/limit) dentro de um conjunto de resultados.
+ *
+ * Em vez de ordenar todos os resultados, mantém apenas os offset + limit
+ * primeiros em um heap limitado (top-k): custo O(n log k) e memória O(k),
+ * onde k costuma ser bem menor que n nas primeiras páginas.
+ *
+ * Para páginas muito profundas prefira a consulta por cursor
+ * (findByFiltroAfterId), que não depende do offset.
+ */
+final class Paginacao<T> {
+
+    /**
+     * Ordem padrão das listagens: ordem de inserção (ids crescentes)
+     */
+    static final Comparator<Certidao> ORDEM_INSERCAO = Comparator.comparing(Certidao::getId);
+
+    private final Comparator<? super T> comparador;
+    private final long offset;
+    private final int limit;
+    private final int k;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param comparador Ordem desejada
+     * @param offset     Quantos itens pular (>= 0)
+     * @param limit      Tamanho da página
+     */
+    Paginacao(Comparator<? super T> comparador, long offset, int limit) {
+        validar(offset, limit);
+        this.comparador = comparador;
+        this.offset = offset;
+        this.limit = limit;
+        this.k = (int) Math.min((long) Integer.MAX_VALUE - 8, offset + Math.max(limit, 0));
+        // Heap invertido: o topo é o "pior" item guardado, o primeiro a sair
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), Collections.reverseOrder(comparador));
+    }
+
+    /**
+     * Oferece um item ao heap (descartado se não estiver entre os k primeiros).
+     */
+    void oferecer(T item) {
+        if (k == 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (comparador.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    /**
+     * Itens da página, já ordenados.
+     */
+    List<T> pagina() {
+        List<T> ordenados = new ArrayList<>(heap);
+        ordenados.sort(comparador);
+        if (offset >= ordenados.size()) {
+            return new ArrayList<>();
+        }
+        int fim = (int) Math.min(ordenados.size(), offset + limit);
+        return new ArrayList<>(ordenados.subList((int) offset, fim));
+    }
+
+    /**
+     * Página de uma lista já carregada (usada pelas implementações padrão).
+     */
+    static <T> List<T> paginar(List<T> itens, Comparator<? super T> comparador, long offset, int limit) {
+        Paginacao<T> paginacao = new Paginacao<>(comparador, offset, limit);
+        for (T item : itens) {
+            paginacao.oferecer(item);
+        }
+        return paginacao.pagina();
+    }
+
+    /**
+     * Comparator da ordenação pedida (null = ordem de inserção).
+     */
+    static Comparator<Certidao> comparador(CertidaoOrdenacao ordenacao) {
+        return ordenacao != null ? ordenacao.comparador() : ORDEM_INSERCAO;
+    }
+
+    static void validar(long offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset não pode ser negativo: " + offset);
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit não pode ser negativo: " + limit);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.hvivox.certidoes.infra;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Arquivo mapeado em memória em janelas de tamanho fixo (fora do heap).
+ *
+ * Um MappedByteBuffer endereça no máximo 2 GB; aqui o arquivo é dividido em
+ * janelas de 2^bits bytes e as posições são long. Crescer só mapeia novas
+ * janelas no fim (as existentes não são copiadas nem remapeadas).
+ *
+ * Quem grava deve alinhar os dados para que nenhum valor atravesse o limite
+ * de uma janela (registros de tamanho que divide a janela, ou pular para a
+ * próxima janela).
+ *
+ * Leituras concorrentes são seguras (só métodos absolutos); escritas e
+ * garantir() precisam de acesso exclusivo, controlado por quem usa.
+ */
+final class RegiaoMapeada implements Closeable {
+
+    static final int BITS_JANELA_PADRAO = 26; // 64 MB
+
+    private final FileChannel canal;
+    private final int bits;
+    private final int mascara;
+    private MappedByteBuffer[] janelas = new MappedByteBuffer[0];
+
+    RegiaoMapeada(Path arquivo, int bits) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.bits = bits;
+        this.mascara = (1 << bits) - 1;
+        garantir(canal.size());
+    }
+
+    int tamanhoJanela() {
+        return 1 << bits;
+    }
+
+    /**
+     * Mapeia janelas até cobrir o tamanho (o arquivo cresce junto).
+     */
+    void garantir(long tamanho) throws IOException {
+        int necessarias = (int) ((tamanho + mascara) >>> bits);
+        if (necessarias <= janelas.length) {
+            return;
+        }
+        MappedByteBuffer[] novas = Arrays.copyOf(janelas, necessarias);
+        for (int i = janelas.length; i < necessarias; i++) {
+            novas[i] = canal.map(FileChannel.MapMode.READ_WRITE, (long) i << bits, 1L << bits);
+        }
+        janelas = novas;
+    }
+
+    long getLong(long posicao) {
+        return janela(posicao).getLong(deslocamento(posicao));
+    }
+
+    void putLong(long posicao, long valor) {
+        janela(posicao).putLong(deslocamento(posicao), valor);
+    }
+
+    int getInt(long posicao) {
+        return janela(posicao).getInt(deslocamento(posicao));
+    }
+
+    void putInt(long posicao, int valor) {
+        janela(posicao).putInt(deslocamento(posicao), valor);
+    }
+
+    byte get(long posicao) {
+        return janela(posicao).get(deslocamento(posicao));
+    }
+
+    void put(long posicao, byte valor) {
+        janela(posicao).put(deslocamento(posicao), valor);
+    }
+
+    void get(long posicao, byte[] destino, int tamanho) {
+        ByteBuffer visao = janela(posicao).duplicate();
+        visao.position(deslocamento(posicao));
+        visao.get(destino, 0, tamanho);
+    }
+
+    void put(long posicao, byte[] origem, int tamanho) {
+        ByteBuffer visao = janela(posicao).duplicate();
+        visao.position(deslocamento(posicao));
+        visao.put(origem, 0, tamanho);
+    }
+
+    /**
+     * Grava no disco as páginas alteradas
+     */
+    void force() {
+        for (MappedByteBuffer janela : janelas) {
+            janela.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        janelas = new MappedByteBuffer[0];
+        canal.close();
+    }
+
+    private MappedByteBuffer janela(long posicao) {
+        return janelas[(int) (posicao >>> bits)];
+    }
+
+    private int deslocamento(long posicao) {
+        return (int) posicao & mascara;
+    }
+}
@@ -0,0 +1,188 @@
+package com.hvivox.certidoes.infra;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice invertido de trigramas para a busca por texto (número e interessado).
+ *
+ * COMO FUNCIONA:
+ * - Os textos são normalizados (minúsculas e sem acentos): "São" vira "sao".
+ * - Cada texto normalizado é quebrado em trigramas (trechos de 3 caracteres):
+ *   "empresa" → "emp", "mpr", "pre", "res", "esa".
+ * - Para cada trigrama o índice guarda o conjunto de ids que o contêm.
+ * - Uma busca por "presa" só pode casar com ids presentes em TODAS as listas
+ *   de "pre", "res" e "esa" (interseção), começando pela menor lista.
+ * - Os candidatos ainda passam por um contains() no texto normalizado, pois
+ *   ter os trigramas não garante que eles estejam juntos e na ordem certa.
+ *
+ * Buscas com menos de 3 caracteres não usam o índice (ficam a cargo da
+ * varredura com as chaves normalizadas).
+ *
+ * O índice é atualizado pelo CertidaoStore dentro do lock da faixa do id.
+ */
+final class TextoBuscaIndice {
+
+    static final int TAMANHO_TRIGRAMA = 3;
+
+    private static final long[] SEM_TRIGRAMAS = new long[0];
+
+    // trigrama (3 chars empacotados em um long) → ids
+    private final ConcurrentHashMap<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Normaliza o texto para busca: minúsculas e sem acentos.
+     *
+     * @param texto Texto original (pode ser null)
+     * @return Texto normalizado, ou null se o texto for null
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+
+        // Atalho: texto só com ASCII não precisa de decomposição
+        boolean ascii = true;
+        for (int i = 0; i < texto.length() && ascii; i++) {
+            ascii = texto.charAt(i) < 0x80;
+        }
+        String decomposto = ascii ? texto : Normalizer.normalize(texto, Normalizer.Form.NFD);
+
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Atualiza o índice quando os textos de um registro mudam.
+     *
+     * @param id      ID da certidão
+     * @param antigos Textos normalizados anteriores (vazio em inclusão)
+     * @param novos   Textos normalizados novos (vazio em exclusão)
+     */
+    void atualizar(Long id, String[] antigos, String[] novos) {
+        long[] remover = trigramas(antigos);
+        long[] incluir = trigramas(novos);
+
+        // Os dois arrays estão ordenados: percorre como em um merge e só
+        // mexe nos trigramas que de fato mudaram
+        int i = 0;
+        int j = 0;
+        while (i < remover.length || j < incluir.length) {
+            if (j >= incluir.length || (i < remover.length && remover[i] < incluir[j])) {
+                Set<Long> ids = postings.get(remover[i]);
+                if (ids != null) {
+                    ids.remove(id);
+                }
+                i++;
+            } else if (i >= remover.length || incluir[j] < remover[i]) {
+                postings.computeIfAbsent(incluir[j], t -> ConcurrentHashMap.newKeySet()).add(id);
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Estima quantos candidatos a busca devolve (tamanho da menor lista).
+     *
+     * @param busca Texto de busca já normalizado
+     * @return Estimativa, ou Long.MAX_VALUE se a busca não usa o índice
+     */
+    long estimar(String busca) {
+        if (busca == null || busca.length() < TAMANHO_TRIGRAMA) {
+            return Long.MAX_VALUE;
+        }
+        long menor = Long.MAX_VALUE;
+        for (long trigrama : trigramas(new String[] {busca})) {
+            Set<Long> ids = postings.get(trigrama);
+            if (ids == null) {
+                return 0;
+            }
+            menor = Math.min(menor, ids.size());
+        }
+        return menor;
+    }
+
+    /**
+     * Ids que contêm todos os trigramas da busca (interseção das listas).
+     *
+     * @param busca Texto de busca já normalizado (3 caracteres ou mais)
+     * @return Ids candidatos (sem ordem definida)
+     */
+    List<Long> candidatos(String busca) {
+        long[] chaves = trigramas(new String[] {busca});
+        List<Set<Long>> listas = new ArrayList<>(chaves.length);
+        for (long trigrama : chaves) {
+            Set<Long> ids = postings.get(trigrama);
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            listas.add(ids);
+        }
+
+        // Interseção começando pela menor lista
+        listas.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Set<Long> menor = listas.get(0);
+        List<Long> resultado = new ArrayList<>(menor.size());
+        for (Long id : menor) {
+            boolean emTodas = true;
+            for (int k = 1; k < listas.size() && emTodas; k++) {
+                emTodas = listas.get(k).contains(id);
+            }
+            if (emTodas) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Trigramas distintos dos textos, ordenados.
+     */
+    private static long[] trigramas(String[] textos) {
+        int total = 0;
+        for (String texto : textos) {
+            if (texto != null && texto.length() >= TAMANHO_TRIGRAMA) {
+                total += texto.length() - TAMANHO_TRIGRAMA + 1;
+            }
+        }
+        if (total == 0) {
+            return SEM_TRIGRAMAS;
+        }
+
+        long[] chaves = new long[total];
+        int n = 0;
+        for (String texto : textos) {
+            if (texto == null) {
+                continue;
+            }
+            for (int i = 0; i + TAMANHO_TRIGRAMA <= texto.length(); i++) {
+                chaves[n++] = ((long) texto.charAt(i) << 32)
+                        | ((long) texto.charAt(i + 1) << 16)
+                        | texto.charAt(i + 2);
+            }
+        }
+
+        Arrays.sort(chaves);
+        int distintos = 1;
+        for (int i = 1; i < chaves.length; i++) {
+            if (chaves[i] != chaves[distintos - 1]) {
+                chaves[distintos++] = chaves[i];
+            }
+        }
+        return distintos == chaves.length ? chaves : Arrays.copyOf(chaves, distintos);
+    }
+}
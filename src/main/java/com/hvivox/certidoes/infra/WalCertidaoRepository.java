@@ -0,0 +1,593 @@
+package com.hvivox.certidoes.infra;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.infra.CertidaoBinario.Entrada;
+import com.hvivox.certidoes.infra.CertidaoBinario.Saida;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ====================================================================
+ * REPOSITÓRIO PERSISTENTE DE CERTIDÕES (WAL + SNAPSHOT)
+ * ====================================================================
+ *
+ * Mesmo motor do InMemoryCertidaoRepository (CertidaoStore, com os mesmos
+ * índices), mas os dados sobrevivem a reinícios, sem banco de dados externo.
+ *
+ * COMO FUNCIONA:
+ * - Escrita: a alteração é aplicada no store e anexada ao log (CertidaoLog)
+ *   sob um único lock, o que mantém a ordem do log igual à do store; a
+ *   espera pelo disco acontece fora do lock, com group commit (várias
+ *   escritas simultâneas compartilham o mesmo fsync)
+ * - Falha no disco: a escrita fica visível no store antes do fsync. Se a
+ *   gravação falhar, as escritas ainda não confirmadas são desfeitas no
+ *   store (da mais nova para a mais antiga, com os valores anteriores
+ *   guardados ao aplicar) e o repositório passa a recusar escritas, porque
+ *   o log não aceita mais nada depois de uma falha
+ * - O store guarda cópias: save() grava uma cópia da certidão recebida e as
+ *   leituras devolvem cópias, então nada alterado por fora (sem save())
+ *   chega ao store, ao log ou ao snapshot
+ * - Snapshot: a cada registrosPorSnapshot registros (ou ao chamar
+ *   snapshot()), todas as certidões são gravadas em um arquivo mapeado em
+ *   memória (CertidaoSnapshot) e os segmentos antigos do log são apagados
+ * - Recuperação (no construtor): carrega o snapshot e reaplica os segmentos
+ *   do log posteriores a ele
+ *
+ * SINCRONIZAÇÃO (quando a escrita é considerada gravada):
+ * - A_CADA_COMMIT: save() só retorna depois do fsync (nada se perde)
+ * - PERIODICA: fsync a cada intervalo; uma queda perde no máximo o intervalo
+ * - SISTEMA: grava no arquivo sem fsync; sobrevive à queda do processo, mas
+ *   não à do sistema operacional
+ *
+ * Leituras são as mesmas do store: sem lock e sem acesso a disco.
+ *
+ * EXEMPLO DE USO:
+ * WalCertidaoRepository repository = new WalCertidaoRepository(Paths.get("dados"));
+ * repository.save(certidao);
+ * ...
+ * repository.close(); // ao parar a aplicação
+ */
+public class WalCertidaoRepository implements CertidaoRepository, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalCertidaoRepository.class);
+
+    /**
+     * Política de fsync do log
+     */
+    public enum Sincronizacao {
+        A_CADA_COMMIT,
+        PERIODICA,
+        SISTEMA
+    }
+
+    public static final long REGISTROS_POR_SNAPSHOT_PADRAO = 1_000_000L;
+    public static final long INTERVALO_SINCRONIZACAO_PADRAO_MS = 200L;
+
+    // Certidões carregadas no store por vez durante a recuperação
+    private static final int LOTE_RECUPERACAO = 10_000;
+
+    private final Path diretorio;
+    private final long registrosPorSnapshot;
+    private final CertidaoStore store = new CertidaoStore();
+    private final CertidaoLog log;
+
+    // Ordem das escritas (store + log); o disco é esperado fora dele
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final Saida registro = new Saida();
+    private long registrosDesdeSnapshot;
+    // Escritas já aplicadas no store esperando o disco: ticket → valores
+    // anteriores de cada id alterado (null = não existia)
+    private final ConcurrentSkipListMap<Long, Map<Long, Certidao>> pendentes = new ConcurrentSkipListMap<>();
+
+    private final Object snapshotLock = new Object();
+    private final AtomicBoolean snapshotAgendado = new AtomicBoolean();
+    private final ExecutorService snapshots = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "certidoes-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Abre (ou cria) o repositório com fsync a cada commit.
+     *
+     * @param diretorio Diretório dos arquivos de dados
+     * @throws IOException Se os dados existentes não puderem ser lidos
+     */
+    public WalCertidaoRepository(Path diretorio) throws IOException {
+        this(diretorio, Sincronizacao.A_CADA_COMMIT, INTERVALO_SINCRONIZACAO_PADRAO_MS,
+                REGISTROS_POR_SNAPSHOT_PADRAO);
+    }
+
+    /**
+     * Abre (ou cria) o repositório.
+     *
+     * @param diretorio           Diretório dos arquivos de dados
+     * @param sincronizacao       Política de fsync do log
+     * @param intervaloMs         Intervalo de fsync na política PERIODICA
+     * @param registrosPorSnapshot Registros no log que disparam um snapshot
+     * @throws IOException Se os dados existentes não puderem ser lidos
+     */
+    public WalCertidaoRepository(Path diretorio, Sincronizacao sincronizacao, long intervaloMs,
+            long registrosPorSnapshot) throws IOException {
+        this.diretorio = Files.createDirectories(diretorio);
+        this.registrosPorSnapshot = registrosPorSnapshot;
+        this.log = new CertidaoLog(diretorio, recuperar(), sincronizacao, intervaloMs);
+    }
+
+    // ==================== ESCRITA ====================
+
+    @Override
+    public Certidao save(Certidao certidao) {
+        long ticket;
+        escrita.lock();
+        try {
+            verificarLog();
+            Certidao copia = CertidaoStore.copiar(certidao);
+            Map<Long, Certidao> anteriores = new HashMap<>();
+            if (copia.getId() != null) {
+                anteriores.put(copia.getId(), store.buscar(copia.getId()));
+            }
+            store.salvar(copia);
+            anteriores.putIfAbsent(copia.getId(), null);
+            certidao.setId(copia.getId());
+            ticket = anexarSalvar(copia);
+            pendentes.put(ticket, anteriores);
+        } finally {
+            escrita.unlock();
+        }
+        aguardar(ticket);
+        return certidao;
+    }
+
+    /**
+     * Lote tudo ou nada no store (ver CertidaoStore.salvarTodos), com um
+     * único group commit para o lote inteiro.
+     */
+    @Override
+    public List<Certidao> saveAll(Collection<Certidao> certidoes) {
+        List<Certidao> lote = new ArrayList<>(certidoes);
+        long ticket = 0;
+        escrita.lock();
+        try {
+            verificarLog();
+            List<Certidao> copias = new ArrayList<>(lote.size());
+            Map<Long, Certidao> anteriores = new HashMap<>();
+            for (Certidao certidao : lote) {
+                copias.add(CertidaoStore.copiar(certidao));
+                if (certidao.getId() != null) {
+                    anteriores.put(certidao.getId(), store.buscar(certidao.getId()));
+                }
+            }
+            store.salvarTodos(copias);
+            for (int i = 0; i < lote.size(); i++) {
+                Certidao copia = copias.get(i);
+                lote.get(i).setId(copia.getId());
+                anteriores.putIfAbsent(copia.getId(), null);
+                ticket = anexarSalvar(copia);
+            }
+            if (ticket != 0) {
+                pendentes.put(ticket, anteriores);
+            }
+        } finally {
+            escrita.unlock();
+        }
+        aguardar(ticket);
+        return lote;
+    }
+
+    @Override
+    public void delete(Long id) {
+        deleteAll(Collections.singletonList(id));
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        long ticket = 0;
+        escrita.lock();
+        try {
+            verificarLog();
+            List<Long> lote = new ArrayList<>(ids);
+            Map<Long, Certidao> anteriores = anteriores(lote, null);
+            if (store.removerTodos(lote) > 0) {
+                registro.limpar();
+                escreverIds(lote);
+                ticket = anexar(CertidaoLog.REMOVER);
+                pendentes.put(ticket, anteriores);
+            }
+        } finally {
+            escrita.unlock();
+        }
+        aguardar(ticket);
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, CertidaoStatus status) {
+        int alteradas;
+        long ticket = 0;
+        escrita.lock();
+        try {
+            verificarLog();
+            List<Long> lote = new ArrayList<>(ids);
+            Map<Long, Certidao> anteriores = anteriores(lote, status);
+            alteradas = store.atualizarStatus(lote, status);
+            if (alteradas > 0) {
+                registro.limpar();
+                CertidaoBinario.escreverStatus(registro, status);
+                escreverIds(lote);
+                ticket = anexar(CertidaoLog.STATUS);
+                pendentes.put(ticket, anteriores);
+            }
+        } finally {
+            escrita.unlock();
+        }
+        aguardar(ticket);
+        return alteradas;
+    }
+
+    /**
+     * Grava um snapshot agora e apaga os segmentos do log cobertos por ele.
+     *
+     * As escritas só ficam bloqueadas enquanto a lista de certidões é
+     * copiada e o log troca de segmento; a gravação do arquivo acontece em
+     * paralelo com elas (as alterações feitas nesse meio-tempo estão no
+     * segmento novo e são reaplicadas na recuperação). As certidões da lista
+     * são as do store, que nunca saem deste repositório nem são alteradas
+     * (escritas trocam o objeto), então o que é gravado é exatamente o
+     * estado do momento da cópia.
+     *
+     * @throws IOException Se o snapshot não puder ser gravado (o anterior e o
+     *                     log continuam válidos)
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            List<Certidao> certidoes;
+            long segmento;
+            long sequencia;
+            escrita.lock();
+            try {
+                certidoes = store.listar();
+                segmento = log.rotacionar();
+                sequencia = store.sequencia();
+                registrosDesdeSnapshot = 0;
+            } finally {
+                escrita.unlock();
+            }
+            CertidaoSnapshot.escrever(diretorio, certidoes, segmento, sequencia);
+            log.removerSegmentosAntes(segmento);
+        }
+    }
+
+    /**
+     * Grava o que estiver pendente no log e fecha os arquivos.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshots.shutdown();
+        try {
+            snapshots.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private long anexarSalvar(Certidao certidao) {
+        registro.limpar();
+        CertidaoBinario.escrever(registro, certidao);
+        return anexar(CertidaoLog.SALVAR);
+    }
+
+    private long anexar(byte operacao) {
+        registrosDesdeSnapshot++;
+        if (registrosDesdeSnapshot >= registrosPorSnapshot && snapshotAgendado.compareAndSet(false, true)) {
+            snapshots.execute(this::snapshotAutomatico);
+        }
+        return log.anexar(operacao, registro);
+    }
+
+    private void escreverIds(Collection<Long> ids) {
+        registro.varLong(ids.size());
+        for (Long id : ids) {
+            registro.varLong(id);
+        }
+    }
+
+    /**
+     * Espera o log gravar o ticket (0 = nada foi anexado). Se a gravação
+     * falhar, desfaz no store as escritas ainda não confirmadas.
+     */
+    private void aguardar(long ticket) {
+        if (ticket == 0) {
+            return;
+        }
+        try {
+            log.aguardar(ticket);
+            pendentes.remove(ticket);
+        } catch (IOException e) {
+            escrita.lock();
+            try {
+                desfazerPendentes();
+            } finally {
+                escrita.unlock();
+            }
+            throw new UncheckedIOException("Falha ao gravar o log de certidões", e);
+        }
+    }
+
+    /**
+     * Recusa a escrita antes de tocar no store se o log já falhou (chamado
+     * com o lock de escrita)
+     */
+    private void verificarLog() {
+        try {
+            log.verificarFalha();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Valores atuais das certidões que a escrita vai alterar (chamado com o
+     * lock de escrita).
+     *
+     * @param status Novo status (só entram as que mudam), ou null para todas
+     *               as existentes
+     */
+    private Map<Long, Certidao> anteriores(Collection<Long> ids, CertidaoStatus status) {
+        Map<Long, Certidao> anteriores = new HashMap<>();
+        for (Long id : ids) {
+            Certidao atual = store.buscar(id);
+            if (atual != null && (status == null || atual.getStatus() != status)) {
+                anteriores.put(id, atual);
+            }
+        }
+        return anteriores;
+    }
+
+    /**
+     * Desfaz, da mais nova para a mais antiga, as escritas aplicadas no store
+     * cujo registro não chegou ao disco (chamado com o lock de escrita).
+     *
+     * Depois da falha o log recusa novas escritas (verificarLog), então não
+     * há escrita posterior a preservar: o store volta ao que está no disco.
+     */
+    private void desfazerPendentes() {
+        long confirmados = log.confirmados();
+        for (Map<Long, Certidao> anteriores : pendentes.tailMap(confirmados, false).descendingMap().values()) {
+            List<Long> novas = new ArrayList<>();
+            List<Certidao> restaurar = new ArrayList<>();
+            for (Map.Entry<Long, Certidao> anterior : anteriores.entrySet()) {
+                if (anterior.getValue() == null) {
+                    novas.add(anterior.getKey());
+                } else {
+                    restaurar.add(anterior.getValue());
+                }
+            }
+            store.removerTodos(novas);
+            store.salvarTodos(restaurar);
+        }
+        pendentes.clear();
+    }
+
+    private void snapshotAutomatico() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            logger.error("Falha ao gravar snapshot das certidões em {}", diretorio, e);
+        } finally {
+            snapshotAgendado.set(false);
+        }
+    }
+
+    // ==================== RECUPERAÇÃO ====================
+
+    /**
+     * Carrega o snapshot e reaplica o log.
+     *
+     * O snapshot é gravado enquanto as escritas continuam, então pode ter
+     * certidões já com valores do segmento seguinte e, por um instante, dois
+     * registros com o mesmo número. Essas certidões ficam "adiadas" e são
+     * salvas de novo no fim, quando o log já liberou o número.
+     *
+     * @return Número do segmento a abrir para escrita
+     */
+    private long recuperar() throws IOException {
+        Map<Long, Certidao> adiadas = new HashMap<>();
+        List<Certidao> lote = new ArrayList<>(LOTE_RECUPERACAO);
+        CertidaoSnapshot.Cabecalho snapshot = CertidaoSnapshot.ler(diretorio, certidao -> {
+            lote.add(certidao);
+            if (lote.size() == LOTE_RECUPERACAO) {
+                carregar(lote, adiadas);
+            }
+        });
+        carregar(lote, adiadas);
+
+        long primeiroSegmento = 0;
+        long proximoSegmento = 1;
+        if (snapshot != null) {
+            store.avancarSequencia(snapshot.sequencia);
+            primeiroSegmento = snapshot.segmento;
+            proximoSegmento = snapshot.segmento;
+        }
+
+        List<Long> segmentos = CertidaoLog.segmentos(diretorio);
+        Entrada entrada = new Entrada(ByteBuffer.allocate(0));
+        long reaplicados = 0;
+        for (int i = 0; i < segmentos.size(); i++) {
+            long segmento = segmentos.get(i);
+            if (segmento < primeiroSegmento) {
+                continue; // já coberto pelo snapshot (sobrou de uma limpeza interrompida)
+            }
+            reaplicados += CertidaoLog.reproduzir(diretorio, segmento, i == segmentos.size() - 1,
+                    (operacao, dados) -> {
+                        entrada.buffer(dados);
+                        reaplicar(operacao, entrada, adiadas);
+                    });
+            proximoSegmento = segmento + 1;
+        }
+
+        resolverAdiadas(adiadas);
+        logger.info("Certidões recuperadas de {}: {} (snapshot: {}, registros do log: {})", diretorio,
+                store.tamanho(), snapshot != null ? snapshot.quantidade : 0, reaplicados);
+        registrosDesdeSnapshot = reaplicados;
+        return proximoSegmento;
+    }
+
+    private void carregar(List<Certidao> lote, Map<Long, Certidao> adiadas) {
+        try {
+            store.salvarTodos(lote);
+        } catch (NumeroDuplicadoException e) {
+            for (Certidao certidao : lote) {
+                salvarOuAdiar(certidao, adiadas);
+            }
+        }
+        lote.clear();
+    }
+
+    private void reaplicar(byte operacao, Entrada entrada, Map<Long, Certidao> adiadas) {
+        switch (operacao) {
+            case CertidaoLog.SALVAR:
+                Certidao certidao = CertidaoBinario.ler(entrada);
+                adiadas.remove(certidao.getId());
+                salvarOuAdiar(certidao, adiadas);
+                break;
+            case CertidaoLog.REMOVER:
+                List<Long> removidas = lerIds(entrada);
+                adiadas.keySet().removeAll(removidas);
+                store.removerTodos(removidas);
+                break;
+            case CertidaoLog.STATUS:
+                CertidaoStatus status = CertidaoBinario.lerStatus(entrada);
+                List<Long> ids = lerIds(entrada);
+                store.atualizarStatus(ids, status);
+                for (Long id : ids) {
+                    Certidao adiada = adiadas.get(id);
+                    if (adiada != null) {
+                        adiada.setStatus(status);
+                    }
+                }
+                break;
+            default:
+                throw new IllegalStateException("Operação desconhecida no log: " + operacao);
+        }
+    }
+
+    private void salvarOuAdiar(Certidao certidao, Map<Long, Certidao> adiadas) {
+        try {
+            store.salvar(certidao);
+        } catch (NumeroDuplicadoException e) {
+            adiadas.put(certidao.getId(), certidao);
+        }
+    }
+
+    private void resolverAdiadas(Map<Long, Certidao> adiadas) throws IOException {
+        boolean progresso = true;
+        while (progresso && !adiadas.isEmpty()) {
+            progresso = false;
+            for (Iterator<Certidao> it = adiadas.values().iterator(); it.hasNext(); ) {
+                try {
+                    store.salvar(it.next());
+                    it.remove();
+                    progresso = true;
+                } catch (NumeroDuplicadoException e) {
+                    // tenta de novo na próxima volta
+                }
+            }
+        }
+        if (!adiadas.isEmpty()) {
+            throw new IOException("Dados de certidões inconsistentes em " + diretorio
+                    + ": números duplicados nas certidões " + adiadas.keySet());
+        }
+    }
+
+    private static List<Long> lerIds(Entrada entrada) {
+        int quantidade = (int) entrada.varLong();
+        List<Long> ids = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            ids.add(entrada.varLong());
+        }
+        return ids;
+    }
+
+    // ==================== LEITURA (do store, em cópias) ====================
+
+    @Override
+    public List<Certidao> findAll() {
+        return copias(store.listar());
+    }
+
+    @Override
+    public Optional<Certidao> findById(Long id) {
+        return Optional.ofNullable(store.buscar(id)).map(CertidaoStore::copiar);
+    }
+
+    @Override
+    public boolean existsByNumero(String numero, Long excludingId) {
+        return store.existeNumero(numero, excludingId);
+    }
+
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro) {
+        if (filtro == null || !filtro.temFiltroAplicado()) {
+            return findAll();
+        }
+        return copias(store.consultar(filtro));
+    }
+
+    @Override
+    public List<Certidao> findByFiltro(CertidaoFiltro filtro, long offset, int limit, CertidaoOrdenacao ordenacao) {
+        return copias(store.pagina(filtro, offset, limit, ordenacao));
+    }
+
+    @Override
+    public long countByFiltro(CertidaoFiltro filtro) {
+        return store.contar(filtro);
+    }
+
+    @Override
+    public List<Certidao> findByFiltroAfterId(CertidaoFiltro filtro, Long afterId, int limit) {
+        return copias(store.depoisDe(filtro, afterId, limit));
+    }
+
+    @Override
+    public CertidaoEstatisticas getEstatisticas() {
+        return store.estatisticas();
+    }
+
+    @Override
+    public long getVersao() {
+        return store.versao();
+    }
+
+    private static List<Certidao> copias(List<Certidao> certidoes) {
+        List<Certidao> copias = new ArrayList<>(certidoes.size());
+        for (Certidao certidao : certidoes) {
+            copias.add(CertidaoStore.copiar(certidao));
+        }
+        return copias;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hvivox.certidoes.listener;
 
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import org.apache.wicket.request.IRequestHandler;
 import org.apache.wicket.request.cycle.AbstractRequestCycleListener;
 import org.apache.wicket.request.cycle.RequestCycle;
@@ -70,6 +71,9 @@ public class CertidoesRequestCycleListener extends AbstractRequestCycleListener
      */
     @Override
     public void onBeginRequest(RequestCycle cycle) {
+        // Buscas por id repetidas nesta requisição saem do cache (sempre ativo)
+        CacheCertidaoRepository.abrirEscopo();
+
         if (!HABILITAR_MONITORAMENTO) {
             return; // Monitoramento desabilitado
         }
@@ -159,6 +163,19 @@ public class CertidoesRequestCycleListener extends AbstractRequestCycleListener
         System.out.println("[RequestCycle] ◀ Fim da requisição");
     }
 
+    /**
+     * Chamado depois do fim da requisição, inclusive quando houve erro.
+     *
+     * Descarta as certidões guardadas no escopo da requisição (a thread volta
+     * para o pool do servidor e não pode levar dados para a próxima).
+     *
+     * @param cycle RequestCycle atual
+     */
+    @Override
+    public void onDetach(RequestCycle cycle) {
+        CacheCertidaoRepository.fecharEscopo();
+    }
+
     /**
      * Chamado quando ocorre uma exceção durante o processamento.
      * 
@@ -0,0 +1,85 @@
+package com.hvivox.certidoes.model;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import org.apache.wicket.extensions.markup.html.repeater.util.SortParam;
+import org.apache.wicket.extensions.markup.html.repeater.util.SortableDataProvider;
+import org.apache.wicket.model.IModel;
+
+import java.util.Iterator;
+
+/**
+ * ====================================================================
+ * DATA PROVIDER DE CERTIDÕES (PAGINADO E ORDENÁVEL)
+ * ====================================================================
+ *
+ * Fornece as linhas do DataTable da CertidaoListPage, uma página por vez.
+ *
+ * DIFERENÇA PARA O LISTVIEW:
+ * - ListView: recebe a List completa; a lista inteira fica na página e é
+ *   serializada junto com ela no page store.
+ * - DataProvider: guarda só o filtro e a ordenação. A cada renderização
+ *   busca no repositório apenas as linhas da página visível
+ *   (findByFiltro com offset/limit) e o total (countByFiltro).
+ *
+ * Cada linha usa um CertidaoLoadableDetachableModel, então só o id da
+ * certidão é serializado.
+ *
+ * EXEMPLO DE USO:
+ * CertidaoDataProvider provider = new CertidaoDataProvider(filtro);
+ * add(new AjaxFallbackDefaultDataTable<>("certidoes", colunas, provider, 20));
+ */
+public class CertidaoDataProvider extends SortableDataProvider<Certidao, CertidaoOrdenacao.Campo> {
+    private static final long serialVersionUID = 1L;
+
+    // Mesmo objeto de filtro do formulário de busca
+    private final CertidaoFiltro filtro;
+
+    // Repositório (transient porque não é serializável)
+    private transient CertidaoRepository repository;
+
+    /**
+     * @param filtro Filtro compartilhado com o formulário de busca
+     */
+    public CertidaoDataProvider(CertidaoFiltro filtro) {
+        this.filtro = filtro;
+    }
+
+    @Override
+    public Iterator<? extends Certidao> iterator(long first, long count) {
+        return getRepository()
+                .findByFiltro(filtro, first, (int) count, getOrdenacao())
+                .iterator();
+    }
+
+    @Override
+    public long size() {
+        return getRepository().countByFiltro(filtro);
+    }
+
+    @Override
+    public IModel<Certidao> model(Certidao object) {
+        return new CertidaoLoadableDetachableModel(object);
+    }
+
+    /**
+     * Converte o estado de ordenação do DataTable em CertidaoOrdenacao.
+     *
+     * @return Ordenação escolhida, ou null (ordem de inserção)
+     */
+    private CertidaoOrdenacao getOrdenacao() {
+        SortParam<CertidaoOrdenacao.Campo> sort = getSort();
+        if (sort == null || sort.getProperty() == null) {
+            return null;
+        }
+        return new CertidaoOrdenacao(sort.getProperty(), sort.isAscending());
+    }
+
+    private CertidaoRepository getRepository() {
+        if (repository == null) {
+            repository = CacheCertidaoRepository.padrao();
+        }
+        return repository;
+    }
+}
@@ -115,6 +115,22 @@ public class CertidaoFiltro implements Serializable {
         this.dataFim = null;
     }
     
+    /**
+     * Cria uma cópia independente deste filtro (as datas também são copiadas).
+     *
+     * Usada quando o filtro precisa ser guardado enquanto o formulário de
+     * busca continua alterando o original (ex: relatórios em segundo plano).
+     */
+    public CertidaoFiltro copiar() {
+        CertidaoFiltro copia = new CertidaoFiltro();
+        copia.textoBusca = this.textoBusca;
+        copia.tipo = this.tipo;
+        copia.status = this.status;
+        copia.dataInicio = this.dataInicio != null ? new Date(this.dataInicio.getTime()) : null;
+        copia.dataFim = this.dataFim != null ? new Date(this.dataFim.getTime()) : null;
+        return copia;
+    }
+
     @Override
     public String toString() {
         return "CertidaoFiltro{" +
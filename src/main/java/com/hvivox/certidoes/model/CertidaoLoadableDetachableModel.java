@@ -1,8 +1,8 @@
 package com.hvivox.certidoes.model;
 
 import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import com.hvivox.certidoes.infra.CertidaoRepository;
-import com.hvivox.certidoes.infra.InMemoryCertidaoRepository;
 import org.apache.wicket.model.LoadableDetachableModel;
 
 /**
@@ -56,10 +56,14 @@ public class CertidaoLoadableDetachableModel extends LoadableDetachableModel<Cer
     /**
      * Construtor alternativo que aceita uma Certidao existente.
      * Útil quando você já tem o objeto mas quer usar LoadableDetachableModel.
-     * 
+     *
+     * O objeto recebido já fica anexado ao model, então a requisição atual
+     * não precisa buscá-lo de novo no repositório (só após o detach).
+     *
      * @param certidao Certidão existente (o ID será extraído)
      */
     public CertidaoLoadableDetachableModel(Certidao certidao) {
+        super(certidao);
         if (certidao == null || certidao.getId() == null) {
             throw new IllegalArgumentException("Certidão deve ter um ID válido");
         }
@@ -94,7 +98,7 @@ public class CertidaoLoadableDetachableModel extends LoadableDetachableModel<Cer
      */
     private CertidaoRepository getRepository() {
         if (repository == null) {
-            repository = new InMemoryCertidaoRepository();
+            repository = CacheCertidaoRepository.padrao();
         }
         return repository;
     }
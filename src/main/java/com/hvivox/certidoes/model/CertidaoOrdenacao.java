@@ -0,0 +1,78 @@
+package com.hvivox.certidoes.model;
+
+import com.hvivox.certidoes.domain.Certidao;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Ordenação usada nas consultas paginadas de certidões.
+ *
+ * Em caso de empate, a ordem é desempatada pelo id, para que a mesma consulta
+ * sempre devolva as páginas na mesma ordem. Valores vazios ficam no fim.
+ *
+ * EXEMPLO DE USO:
+ * CertidaoOrdenacao ordem = new CertidaoOrdenacao(CertidaoOrdenacao.Campo.INTERESSADO, true);
+ * repository.findByFiltro(filtro, 0, 20, ordem);
+ */
+public class CertidaoOrdenacao implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Campos que podem ser usados para ordenar
+     */
+    public enum Campo {
+        ID(c -> c.getId()),
+        NUMERO(Certidao::getNumero),
+        TIPO(c -> c.getTipo() != null ? c.getTipo().getDescricao() : null),
+        INTERESSADO(Certidao::getInteressado),
+        DATA_EMISSAO(c -> c.temDataEmissao() ? c.getDataEmissaoDia() : null),
+        STATUS(c -> c.getStatus() != null ? c.getStatus().getDescricao() : null);
+
+        private final Function<Certidao, Comparable<?>> valor;
+
+        Campo(Function<Certidao, Comparable<?>> valor) {
+            this.valor = valor;
+        }
+    }
+
+    private final Campo campo;
+    private final boolean ascendente;
+
+    public CertidaoOrdenacao(Campo campo, boolean ascendente) {
+        if (campo == null) {
+            throw new IllegalArgumentException("Campo de ordenação é obrigatório");
+        }
+        this.campo = campo;
+        this.ascendente = ascendente;
+    }
+
+    public Campo getCampo() {
+        return campo;
+    }
+
+    public boolean isAscendente() {
+        return ascendente;
+    }
+
+    /**
+     * Cria o Comparator equivalente a esta ordenação.
+     *
+     * @return Comparator de certidões (valores vazios no fim, desempate por id)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<Certidao> comparador() {
+        Comparator<Comparable> natural = Comparator.naturalOrder();
+        Comparator<Comparable> direcao = ascendente ? natural : natural.reversed();
+        Comparator<Certidao> porCampo = Comparator.comparing(
+                c -> (Comparable) campo.valor.apply(c), Comparator.nullsLast(direcao));
+        return porCampo.thenComparing(Certidao::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    @Override
+    public String toString() {
+        return "CertidaoOrdenacao{" + campo + (ascendente ? " ASC" : " DESC") + '}';
+    }
+}
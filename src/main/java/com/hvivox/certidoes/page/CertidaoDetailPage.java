@@ -1,8 +1,9 @@
 package com.hvivox.certidoes.page;
 
 import com.hvivox.certidoes.BasePage;
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import com.hvivox.certidoes.infra.CertidaoRepository;
-import com.hvivox.certidoes.infra.InMemoryCertidaoRepository;
 import com.hvivox.certidoes.model.CertidaoLoadableDetachableModel;
 import org.apache.wicket.markup.html.WebMarkupContainer;
 import org.apache.wicket.markup.html.basic.Label;
@@ -26,12 +27,14 @@ public class CertidaoDetailPage extends BasePage {
             return;
         }
 
-        if (!getRepository().findById(id).isPresent()) {
+        Certidao certidao = getRepository().findById(id).orElse(null);
+        if (certidao == null) {
             showNotFound();
             return;
         }
 
-        CertidaoLoadableDetachableModel certidaoModel = new CertidaoLoadableDetachableModel(id);
+        // A certidão já buscada fica anexada ao model (sem segunda busca nesta requisição)
+        CertidaoLoadableDetachableModel certidaoModel = new CertidaoLoadableDetachableModel(certidao);
 
         WebMarkupContainer headerContainer = new WebMarkupContainer("headerContainer");
         headerContainer.setVisible(true);
@@ -83,7 +86,7 @@ public class CertidaoDetailPage extends BasePage {
 
     private CertidaoRepository getRepository() {
         if (repository == null) {
-            repository = new InMemoryCertidaoRepository();
+            repository = CacheCertidaoRepository.padrao();
         }
         return repository;
     }
@@ -1,11 +1,13 @@
 package com.hvivox.certidoes.page;
 
 import com.hvivox.certidoes.BasePage;
+import com.hvivox.certidoes.behavior.ValidacaoAoDigitarBehavior;
 import com.hvivox.certidoes.domain.Certidao;
 import com.hvivox.certidoes.domain.CertidaoStatus;
 import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import com.hvivox.certidoes.infra.CertidaoRepository;
-import com.hvivox.certidoes.infra.InMemoryCertidaoRepository;
+import com.hvivox.certidoes.infra.NumeroDuplicadoException;
 import com.hvivox.certidoes.validator.DataFormatadaValidator;
 import com.hvivox.certidoes.validator.NumeroUnicoValidator;
 import org.apache.wicket.AttributeModifier;
@@ -54,8 +56,15 @@ public class CertidaoFormPage extends BasePage {
                 // onValidate() também foi executado antes deste método
                 // Se chegou aqui, todos os campos estão válidos
 
-                // Salvar
-                getRepository().save(certidao);
+                // Salvar (o índice de número único do repositório garante que
+                // dois envios simultâneos com o mesmo número não sejam aceitos)
+                try {
+                    getRepository().save(certidao);
+                } catch (NumeroDuplicadoException e) {
+                    get("numero").error("Já existe uma certidão com o número '" + e.getNumero()
+                            + "'. Por favor, use outro número.");
+                    return;
+                }
 
                 if (isEditMode) {
                     getSession().success("Certidão atualizada com sucesso!");
@@ -86,6 +95,10 @@ public class CertidaoFormPage extends BasePage {
                 // Isso destaca visualmente os campos inválidos usando Bootstrap
                 visitChildren(FormComponent.class, (component, visit) -> {
                     FormComponent<?> fc = (FormComponent<?>) component;
+                    if (!fc.getBehaviors(ValidacaoAoDigitarBehavior.class).isEmpty()) {
+                        // A classe CSS destes campos já é controlada pelo behavior
+                        return;
+                    }
                     if (!fc.isValid()) {
                         // Adicionar classe Bootstrap para destacar campo com erro
                         fc.add(new AttributeModifier("class", Model.of("form-control is-invalid")));
@@ -149,11 +162,9 @@ public class CertidaoFormPage extends BasePage {
         TextField<String> numeroField = new TextField<>("numero");
         numeroField.setRequired(true);
         numeroField.add(StringValidator.minimumLength(1));
-        // Adicionar validador de número único APENAS em modo novo (criação)
-        // Em modo edição, não validamos duplicação para permitir manter o mesmo número
-        if (!isEditMode) {
-            numeroField.add(new NumeroUnicoValidator(false, null));
-        }
+        // Validador de número único (consulta O(1) no índice do repositório)
+        // Em modo edição, a própria certidão é desconsiderada para permitir manter o mesmo número
+        numeroField.add(new NumeroUnicoValidator(isEditMode, certidao.getId()));
         form.add(numeroField);
 
         // FeedbackPanel específico para o campo número (mostra apenas erros deste
@@ -163,6 +174,9 @@ public class CertidaoFormPage extends BasePage {
         numeroFeedback.setOutputMarkupId(true);
         form.add(numeroFeedback);
 
+        // Validação ao digitar (throttled): avisa do número repetido antes do envio
+        numeroField.add(new ValidacaoAoDigitarBehavior(numeroFeedback));
+
         // Campo Tipo (obrigatório) - Dropdown
         DropDownChoice<CertidaoTipo> tipoField = new DropDownChoice<>("tipo",
                 Arrays.asList(CertidaoTipo.values()));
@@ -204,6 +218,9 @@ public class CertidaoFormPage extends BasePage {
         dataEmissaoFeedback.setOutputMarkupId(true);
         form.add(dataEmissaoFeedback);
 
+        // Validação ao digitar (throttled) com o mesmo DataFormatadaValidator
+        dataEmissaoField.add(new ValidacaoAoDigitarBehavior(dataEmissaoFeedback));
+
         // Campo Status (opcional) - Dropdown
         // MÓDULO 4 - ITEM 7: Feedback inline por componente
         DropDownChoice<CertidaoStatus> statusField = new DropDownChoice<>("status",
@@ -225,12 +242,12 @@ public class CertidaoFormPage extends BasePage {
 
     /**
      * Obtém a instância do repositório (lazy initialization)
-     * Como o repositório usa dados estáticos, podemos criar uma nova instância
-     * quando necessário
+     * O cache de certidões é compartilhado (CacheCertidaoRepository.padrao())
+     * e fica na frente do InMemoryCertidaoRepository
      */
     private CertidaoRepository getRepository() {
         if (repository == null) {
-            repository = new InMemoryCertidaoRepository();
+            repository = CacheCertidaoRepository.padrao();
         }
         return repository;
     }
@@ -1,18 +1,39 @@
 package com.hvivox.certidoes.page;
 
 import com.hvivox.certidoes.BasePage;
+import com.hvivox.certidoes.WicketApplication;
 import com.hvivox.certidoes.domain.Certidao;
 import com.hvivox.certidoes.domain.CertidaoStatus;
 import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import com.hvivox.certidoes.infra.CertidaoRepository;
-import com.hvivox.certidoes.infra.InMemoryCertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoDataProvider;
 import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
 import com.hvivox.certidoes.resource.RelatorioDownloadResource;
+import com.hvivox.certidoes.resource.RelatorioJobDownloadResource;
+import com.hvivox.certidoes.service.RelatorioCsvService;
 import com.hvivox.certidoes.service.RelatorioExcelService;
+import com.hvivox.certidoes.service.RelatorioJob;
+import com.hvivox.certidoes.service.RelatorioNdjsonService;
+import com.hvivox.certidoes.service.RelatorioService;
+import com.hvivox.certidoes.service.RelatorioStreamingService;
 import com.hvivox.certidoes.service.RelatorioWordService;
+import org.apache.wicket.AttributeModifier;
+import org.apache.wicket.ajax.AbstractAjaxTimerBehavior;
 import org.apache.wicket.ajax.AjaxRequestTarget;
+import org.apache.wicket.ajax.attributes.AjaxCallListener;
+import org.apache.wicket.ajax.attributes.AjaxRequestAttributes;
+import org.apache.wicket.ajax.markup.html.AjaxLink;
 import org.apache.wicket.ajax.markup.html.form.AjaxButton;
+import org.apache.wicket.ajax.markup.html.form.AjaxCheckBox;
+import org.apache.wicket.extensions.ajax.markup.html.repeater.data.table.AjaxFallbackDefaultDataTable;
 import org.apache.wicket.extensions.markup.html.form.DateTextField;
+import org.apache.wicket.extensions.markup.html.repeater.data.grid.ICellPopulator;
+import org.apache.wicket.extensions.markup.html.repeater.data.table.AbstractColumn;
+import org.apache.wicket.extensions.markup.html.repeater.data.table.DataTable;
+import org.apache.wicket.extensions.markup.html.repeater.data.table.IColumn;
+import org.apache.wicket.extensions.markup.html.repeater.data.table.PropertyColumn;
 import org.apache.wicket.markup.html.WebMarkupContainer;
 import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.html.form.DropDownChoice;
@@ -21,16 +42,24 @@ import org.apache.wicket.markup.html.form.TextField;
 import org.apache.wicket.markup.html.link.BookmarkablePageLink;
 import org.apache.wicket.markup.html.link.Link;
 import org.apache.wicket.markup.html.link.ResourceLink;
-import org.apache.wicket.markup.html.list.ListItem;
-import org.apache.wicket.markup.html.list.ListView;
+import org.apache.wicket.markup.html.panel.Fragment;
+import org.apache.wicket.markup.repeater.Item;
+import org.apache.wicket.model.AbstractReadOnlyModel;
 import org.apache.wicket.model.CompoundPropertyModel;
+import org.apache.wicket.model.IModel;
+import org.apache.wicket.model.Model;
 import org.apache.wicket.request.mapper.parameter.PageParameters;
 import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.util.time.Duration;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * MÓDULO 7 - ITEM 58: BUSCA E FILTROS NA LISTAGEM DE CERTIDÕES
@@ -44,6 +73,12 @@ import java.util.List;
  * - Filtro por período de data de emissão
  * - Atualização dinâmica via Ajax (sem recarregar a página)
  * - Limpar filtros
+ * - Exportação Excel/Word em segundo plano, com progresso via Ajax
+ * - Exportação CSV/NDJSON em streaming (para extrações grandes)
+ * - Tabela paginada e ordenável (DataTable + CertidaoDataProvider): só as
+ *   linhas da página visível são buscadas, renderizadas e serializadas
+ * - Seleção de várias certidões e cancelamento em lote (uma única chamada a
+ *   CertidaoRepository.updateStatus, não um save por certidão)
  */
 public class CertidaoListPage extends BasePage {
     private static final long serialVersionUID = 1L;
@@ -51,12 +86,29 @@ public class CertidaoListPage extends BasePage {
     // Repositório (transient porque não é serializável - Wicket serializa páginas)
     private transient CertidaoRepository repository;
 
+    // Quantidade de linhas por página da tabela
+    private static final int LINHAS_POR_PAGINA = 20;
+
     // Modelo de filtro
     private CertidaoFiltro filtro = new CertidaoFiltro();
 
-    // Container da tabela que será atualizado via Ajax
-    private WebMarkupContainer tableContainer;
+    // Provider da tabela (guarda só o filtro e a ordenação, não as certidões)
+    private final CertidaoDataProvider dataProvider = new CertidaoDataProvider(filtro);
+
+    // Container da tabela que será atualizado via Ajax (formulário por causa
+    // das caixas de seleção)
+    private Form<Void> tableContainer;
     private WebMarkupContainer emptyMessage;
+    private DataTable<Certidao, CertidaoOrdenacao.Campo> certidoesTable;
+
+    // Ids marcados para ações em lote (mantidos ao trocar de página/ordenação)
+    private final Set<Long> selecionadas = new LinkedHashSet<>();
+
+    // Relatório em segundo plano acompanhado pela página (apenas o id é serializado)
+    private static final Duration INTERVALO_PROGRESSO = Duration.seconds(1);
+    private String relatorioJobId;
+    private WebMarkupContainer relatorioContainer;
+    private AbstractAjaxTimerBehavior relatorioTimer;
 
     public CertidaoListPage(final PageParameters parameters) {
         super();
@@ -167,18 +219,63 @@ public class CertidaoListPage extends BasePage {
         // ==================== TABELA DE RESULTADOS ====================
 
         // Container para a tabela (para poder atualizar via Ajax)
-        tableContainer = new WebMarkupContainer("tableContainer");
-        tableContainer.setOutputMarkupId(true);
+        // A visibilidade é recalculada a cada renderização pelo total do provider
+        tableContainer = new Form<Void>("tableContainer") {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void onConfigure() {
+                super.onConfigure();
+                setVisible(certidoesTable.getItemCount() > 0);
+            }
+        };
+        tableContainer.setOutputMarkupPlaceholderTag(true);
         add(tableContainer);
 
-        // Mensagem quando não houver dados (deve ser criada ANTES de
-        // atualizarListaCertidoes)
-        emptyMessage = new WebMarkupContainer("emptyMessage");
-        emptyMessage.setOutputMarkupId(true);
-        add(emptyMessage);
+        // Tabela paginada/ordenável: paginação e ordenação via Ajax
+        certidoesTable = new AjaxFallbackDefaultDataTable<>("certidoes", criarColunas(),
+                dataProvider, LINHAS_POR_PAGINA);
+        tableContainer.add(certidoesTable);
+
+        // Cancelamento em lote das certidões marcadas
+        AjaxButton btnCancelarSelecionadas = new AjaxButton("btnCancelarSelecionadas") {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void onSubmit(AjaxRequestTarget target, Form<?> form) {
+                if (selecionadas.isEmpty()) {
+                    getSession().warn("Selecione ao menos uma certidão para cancelar.");
+                } else {
+                    int canceladas = getRepository().updateStatus(new ArrayList<>(selecionadas),
+                            CertidaoStatus.CANCELADA);
+                    selecionadas.clear();
+                    getSession().info(canceladas + " certidão(ões) cancelada(s) com sucesso!");
+                }
+                target.add(tableContainer);
+                target.add(getFeedbackPanel());
+            }
 
-        // Inicializar a lista (após criar tableContainer e emptyMessage)
-        atualizarListaCertidoes();
+            @Override
+            protected void updateAjaxAttributes(AjaxRequestAttributes attributes) {
+                super.updateAjaxAttributes(attributes);
+                attributes.getAjaxCallListeners().add(new AjaxCallListener()
+                        .onPrecondition("return confirm('Cancelar as certidões selecionadas?');"));
+            }
+        };
+        tableContainer.add(btnCancelarSelecionadas);
+
+        // Mensagem quando não houver dados
+        emptyMessage = new WebMarkupContainer("emptyMessage") {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void onConfigure() {
+                super.onConfigure();
+                setVisible(certidoesTable.getItemCount() == 0);
+            }
+        };
+        emptyMessage.setOutputMarkupPlaceholderTag(true);
+        add(emptyMessage);
 
         // Link "Nova Certidão" no topo
         add(new BookmarkablePageLink<>("linkNovaCertidao", CertidaoFormPage.class));
@@ -186,126 +283,291 @@ public class CertidaoListPage extends BasePage {
         // ==================== MÓDULO 7 - ITEM 59: BOTÕES DE EXPORTAÇÃO
         // ====================
 
-        // Botão Exportar para Excel
-        add(new ResourceLink<Void>("btnExportarExcel", new IResource() {
+        // Os relatórios são gerados em segundo plano (RelatorioJobService):
+        // o clique só agenda o job e a página acompanha o progresso via Ajax
+        relatorioContainer = new WebMarkupContainer("relatorioContainer") {
             private static final long serialVersionUID = 1L;
 
             @Override
-            public void respond(Attributes attributes) {
-                // Buscar certidões com os filtros atuais
-                List<Certidao> certidoesParaExportar = getRepository().findByFiltro(filtro);
+            protected void onConfigure() {
+                super.onConfigure();
+                setVisible(getRelatorioJob() != null);
+            }
+        };
+        relatorioContainer.setOutputMarkupPlaceholderTag(true);
+        add(relatorioContainer);
 
-                // Gerar nome do arquivo com data/hora
-                String nomeArquivo = "certidoes_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        relatorioContainer.add(new Label("relatorioMensagem", new AbstractReadOnlyModel<String>() {
+            private static final long serialVersionUID = 1L;
 
-                // Criar resource de download
-                RelatorioDownloadResource resource = new RelatorioDownloadResource(
-                        new RelatorioExcelService(),
-                        certidoesParaExportar,
-                        nomeArquivo);
+            @Override
+            public String getObject() {
+                return descreverRelatorio(getRelatorioJob());
+            }
+        }));
+
+        WebMarkupContainer relatorioProgresso = new WebMarkupContainer("relatorioProgresso");
+        relatorioProgresso.add(AttributeModifier.replace("style", new AbstractReadOnlyModel<String>() {
+            private static final long serialVersionUID = 1L;
 
-                resource.respond(attributes);
+            @Override
+            public String getObject() {
+                RelatorioJob job = getRelatorioJob();
+                return "width: " + (job != null ? job.getPercentual() : 0) + "%";
             }
         }));
+        relatorioContainer.add(relatorioProgresso);
+
+        relatorioContainer.add(new ResourceLink<Void>("linkDownloadRelatorio", new IResource() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void respond(Attributes attributes) {
+                new RelatorioJobDownloadResource(relatorioJobId).respond(attributes);
+            }
+        }) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void onConfigure() {
+                super.onConfigure();
+                RelatorioJob job = getRelatorioJob();
+                setVisible(job != null && job.getStatus() == RelatorioJob.Status.CONCLUIDO);
+            }
+        });
+
+        // Atualiza o progresso enquanto o job não termina
+        relatorioTimer = new AbstractAjaxTimerBehavior(INTERVALO_PROGRESSO) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void onTimer(AjaxRequestTarget target) {
+                RelatorioJob job = getRelatorioJob();
+                if (job == null || job.isFinalizado()) {
+                    stop(target);
+                }
+                target.add(relatorioContainer);
+            }
+        };
+        relatorioTimer.stop(null);
+        add(relatorioTimer);
+
+        // Botão Exportar para Excel
+        add(criarLinkExportar("btnExportarExcel", new RelatorioExcelService()));
 
         // Botão Exportar para Word
-        add(new ResourceLink<Void>("btnExportarWord", new IResource() {
+        add(criarLinkExportar("btnExportarWord", new RelatorioWordService()));
+
+        // Formatos planos (CSV e NDJSON compactado): baratos o bastante para
+        // sair direto na resposta, lendo o repositório em lotes
+        add(criarLinkExportarStreaming("btnExportarCsv", new RelatorioCsvService()));
+        add(criarLinkExportarStreaming("btnExportarNdjson", new RelatorioNdjsonService(true)));
+    }
+
+    /**
+     * Link de download imediato para formatos com cursor (sem job)
+     */
+    private ResourceLink<Void> criarLinkExportarStreaming(String id, RelatorioStreamingService relatorioService) {
+        return new ResourceLink<Void>(id, new IResource() {
             private static final long serialVersionUID = 1L;
 
             @Override
             public void respond(Attributes attributes) {
-                // Buscar certidões com os filtros atuais
-                List<Certidao> certidoesParaExportar = getRepository().findByFiltro(filtro);
+                // Gerar nome do arquivo com data/hora
+                String nomeArquivo = "certidoes_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+
+                new RelatorioDownloadResource(relatorioService, getRepository(), filtro.copiar(), nomeArquivo)
+                        .respond(attributes);
+            }
+        });
+    }
+
+    /**
+     * Link que agenda a exportação com os filtros atuais
+     */
+    private AjaxLink<Void> criarLinkExportar(String id, RelatorioService relatorioService) {
+        return new AjaxLink<Void>(id) {
+            private static final long serialVersionUID = 1L;
 
+            @Override
+            public void onClick(AjaxRequestTarget target) {
                 // Gerar nome do arquivo com data/hora
                 String nomeArquivo = "certidoes_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
 
-                // Criar resource de download
-                RelatorioDownloadResource resource = new RelatorioDownloadResource(
-                        new RelatorioWordService(),
-                        certidoesParaExportar,
-                        nomeArquivo);
+                try {
+                    RelatorioJob job = WicketApplication.get().getRelatorioJobService()
+                            .submeter(relatorioService, filtro, nomeArquivo);
+                    relatorioJobId = job.getId();
+                    relatorioTimer.restart(target);
+                } catch (RejectedExecutionException e) {
+                    // Fila cheia: recusa em vez de acumular trabalho
+                    getSession().error("Muitos relatórios em geração no momento. Tente novamente em instantes.");
+                }
 
-                resource.respond(attributes);
+                target.add(relatorioContainer);
+                target.add(getFeedbackPanel());
             }
-        }));
+        };
     }
 
     /**
-     * Atualiza a lista de certidões aplicando os filtros atuais
+     * Job de relatório acompanhado pela página (null se nenhum ou expirado)
+     */
+    private RelatorioJob getRelatorioJob() {
+        return WicketApplication.get().getRelatorioJobService().getJob(relatorioJobId);
+    }
+
+    /**
+     * Texto do andamento do relatório
+     */
+    private static String descreverRelatorio(RelatorioJob job) {
+        if (job == null) {
+            return "";
+        }
+        switch (job.getStatus()) {
+            case NA_FILA:
+                return "Relatório na fila de geração...";
+            case EXECUTANDO:
+                return "Gerando relatório: " + job.getProcessadas() + " de " + job.getTotal() + " certidões ("
+                        + job.getPercentual() + "%)";
+            case CONCLUIDO:
+                return "Relatório pronto: " + job.getNomeArquivo();
+            default:
+                return "Erro ao gerar relatório: " + job.getMensagemErro();
+        }
+    }
+
+    /**
+     * Atualiza a lista de certidões aplicando os filtros atuais.
+     *
+     * O provider já lê o filtro atualizado; basta voltar para a primeira
+     * página (a página atual pode não existir no novo resultado).
      */
     private void atualizarListaCertidoes() {
-        // Buscar certidões com filtros
-        List<Certidao> certidoes = getRepository().findByFiltro(filtro);
+        certidoesTable.setCurrentPage(0);
+        // Não cancelar em lote certidões que saíram do resultado
+        selecionadas.clear();
+    }
 
-        // Atualizar visibilidade dos containers
-        tableContainer.setVisible(!certidoes.isEmpty());
-        emptyMessage.setVisible(certidoes.isEmpty());
+    /**
+     * Colunas da tabela de certidões.
+     *
+     * As colunas com propriedade de ordenação (CertidaoOrdenacao.Campo) têm o
+     * cabeçalho clicável.
+     */
+    private List<IColumn<Certidao, CertidaoOrdenacao.Campo>> criarColunas() {
+        List<IColumn<Certidao, CertidaoOrdenacao.Campo>> colunas = new ArrayList<>();
 
-        // Remover ListView anterior (se existir)
-        if (tableContainer.get("certidoes") != null) {
-            tableContainer.remove("certidoes");
-        }
+        // Caixa de seleção para as ações em lote
+        colunas.add(new AbstractColumn<Certidao, CertidaoOrdenacao.Campo>(Model.of("")) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void populateItem(Item<ICellPopulator<Certidao>> cellItem, String componentId,
+                    IModel<Certidao> rowModel) {
+                cellItem.add(criarSelecao(componentId, rowModel.getObject().getId()));
+            }
+        });
+        colunas.add(new PropertyColumn<>(Model.of("ID"), CertidaoOrdenacao.Campo.ID, "id"));
+        colunas.add(new PropertyColumn<>(Model.of("Número"), CertidaoOrdenacao.Campo.NUMERO, "numero"));
+        // Tipo e status usando método do enum (refatorado)
+        colunas.add(new PropertyColumn<>(Model.of("Tipo"), CertidaoOrdenacao.Campo.TIPO, "tipo.descricao"));
+        colunas.add(new PropertyColumn<>(Model.of("Interessado"), CertidaoOrdenacao.Campo.INTERESSADO,
+                "interessado"));
+        colunas.add(new PropertyColumn<>(Model.of("Data Emissão"), CertidaoOrdenacao.Campo.DATA_EMISSAO,
+                "dataEmissao"));
+        colunas.add(new PropertyColumn<>(Model.of("Status"), CertidaoOrdenacao.Campo.STATUS, "status.descricao"));
+
+        // Coluna de ações (links Ver/Editar/Excluir)
+        colunas.add(new AbstractColumn<Certidao, CertidaoOrdenacao.Campo>(Model.of("Ações")) {
+            private static final long serialVersionUID = 1L;
 
-        // ListView para repetir as linhas da tabela
-        ListView<Certidao> certidoesList = new ListView<Certidao>("certidoes", certidoes) {
+            @Override
+            public void populateItem(Item<ICellPopulator<Certidao>> cellItem, String componentId,
+                    IModel<Certidao> rowModel) {
+                cellItem.add(criarAcoes(componentId, rowModel.getObject().getId()));
+            }
+        });
+        return colunas;
+    }
+
+    /**
+     * Caixa de seleção de uma linha (fragmento "selecaoFragment" do HTML).
+     *
+     * Cada clique atualiza o conjunto de selecionadas via Ajax, então a
+     * seleção continua valendo ao trocar de página da tabela.
+     */
+    private Fragment criarSelecao(String componentId, Long certidaoId) {
+        Fragment selecao = new Fragment(componentId, "selecaoFragment", this);
+        selecao.add(new AjaxCheckBox("selecionada", new IModel<Boolean>() {
             private static final long serialVersionUID = 1L;
 
             @Override
-            protected void populateItem(ListItem<Certidao> item) {
-                Certidao certidao = item.getModelObject();
-
-                // Colunas simples
-                item.add(new Label("id", certidao.getId()));
-                item.add(new Label("numero", certidao.getNumero()));
-                // Tipo usando método do enum (refatorado)
-                item.add(new Label("tipo",
-                        certidao.getTipo() != null ? certidao.getTipo().getDescricao() : ""));
-                item.add(new Label("interessado", certidao.getInteressado()));
-                item.add(new Label("dataEmissao", certidao.getDataEmissao()));
-                // Status usando método do enum (refatorado)
-                item.add(new Label("status",
-                        certidao.getStatus() != null ? certidao.getStatus().getDescricao() : ""));
-
-                // Links de ação
-                PageParameters params = new PageParameters();
-                params.add("id", certidao.getId());
-
-                // Link Ver (vamos criar a página no Passo 4)
-                BookmarkablePageLink<Void> linkVer = new BookmarkablePageLink<>("linkVer", CertidaoDetailPage.class,
-                        params);
-                item.add(linkVer);
-
-                // Link Editar (vamos usar a mesma página do formulário)
-                BookmarkablePageLink<Void> linkEditar = new BookmarkablePageLink<>("linkEditar", CertidaoFormPage.class,
-                        params);
-                item.add(linkEditar);
-
-                // Link Excluir com confirmação usando Behavior customizado (MÓDULO 2 - ITEM 2)
-                Link<Void> linkExcluir = new Link<Void>("linkExcluir") {
-                    private static final long serialVersionUID = 1L;
-
-                    @Override
-                    public void onClick() {
-                        Long certidaoId = certidao.getId();
-                        getRepository().delete(certidaoId);
-
-                        // MÓDULO 2 - ITEM 1: Incrementar contador na Session customizada
-                        com.hvivox.certidoes.session.CertidoesSession session = com.hvivox.certidoes.session.CertidoesSession
-                                .get();
-                        session.incrementarCertidoesExcluidas();
-
-                        getSession().info("Certidão excluída com sucesso!");
-                        setResponsePage(CertidaoListPage.class);
-                    }
-                };
-                // Adicionar o Behavior de confirmação
-                linkExcluir.add(new com.hvivox.certidoes.behavior.ConfirmacaoBehavior(
-                        "Tem certeza que deseja excluir esta certidão?"));
-                item.add(linkExcluir);
+            public Boolean getObject() {
+                return selecionadas.contains(certidaoId);
+            }
+
+            @Override
+            public void setObject(Boolean marcada) {
+                if (Boolean.TRUE.equals(marcada)) {
+                    selecionadas.add(certidaoId);
+                } else {
+                    selecionadas.remove(certidaoId);
+                }
+            }
+
+            @Override
+            public void detach() {
+            }
+        }) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void onUpdate(AjaxRequestTarget target) {
+                // O modelo já guardou a marcação
+            }
+        });
+        return selecao;
+    }
+
+    /**
+     * Links de ação de uma linha (fragmento "acoesFragment" do HTML)
+     */
+    private Fragment criarAcoes(String componentId, Long certidaoId) {
+        Fragment acoes = new Fragment(componentId, "acoesFragment", this);
+
+        PageParameters params = new PageParameters();
+        params.add("id", certidaoId);
+
+        // Link Ver
+        acoes.add(new BookmarkablePageLink<Void>("linkVer", CertidaoDetailPage.class, params));
+
+        // Link Editar (vamos usar a mesma página do formulário)
+        acoes.add(new BookmarkablePageLink<Void>("linkEditar", CertidaoFormPage.class, params));
+
+        // Link Excluir com confirmação usando Behavior customizado (MÓDULO 2 - ITEM 2)
+        Link<Void> linkExcluir = new Link<Void>("linkExcluir") {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void onClick() {
+                getRepository().delete(certidaoId);
+
+                // MÓDULO 2 - ITEM 1: Incrementar contador na Session customizada
+                com.hvivox.certidoes.session.CertidoesSession session = com.hvivox.certidoes.session.CertidoesSession
+                        .get();
+                session.incrementarCertidoesExcluidas();
+
+                getSession().info("Certidão excluída com sucesso!");
+                setResponsePage(CertidaoListPage.class);
             }
         };
-        tableContainer.add(certidoesList);
+        // Adicionar o Behavior de confirmação
+        linkExcluir.add(new com.hvivox.certidoes.behavior.ConfirmacaoBehavior(
+                "Tem certeza que deseja excluir esta certidão?"));
+        acoes.add(linkExcluir);
+
+        return acoes;
     }
 
     /**
@@ -317,12 +579,12 @@ public class CertidaoListPage extends BasePage {
 
     /**
      * Obtém a instância do repositório (lazy initialization)
-     * Como o repositório usa dados estáticos, podemos criar uma nova instância
-     * quando necessário
+     * O cache de certidões é compartilhado (CacheCertidaoRepository.padrao())
+     * e fica na frente do InMemoryCertidaoRepository
      */
     private CertidaoRepository getRepository() {
         if (repository == null) {
-            repository = new InMemoryCertidaoRepository();
+            repository = CacheCertidaoRepository.padrao();
         }
         return repository;
     }
@@ -6,8 +6,8 @@ import com.hvivox.certidoes.component.CertidaoCard;
 import com.hvivox.certidoes.domain.Certidao;
 import com.hvivox.certidoes.domain.CertidaoStatus;
 import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import com.hvivox.certidoes.infra.CertidaoRepository;
-import com.hvivox.certidoes.infra.InMemoryCertidaoRepository;
 import org.apache.wicket.ajax.AjaxRequestTarget;
 import org.apache.wicket.ajax.form.AjaxFormComponentUpdatingBehavior;
 import org.apache.wicket.markup.html.WebMarkupContainer;
@@ -420,7 +420,7 @@ public class ComponentesDemoPage extends BasePage {
         componenteContainer.setVisible(true);
 
         // Buscar algumas certidões do repositório para demonstrar
-        CertidaoRepository repo = new InMemoryCertidaoRepository();
+        CertidaoRepository repo = CacheCertidaoRepository.padrao();
         List<Certidao> certidoes = repo.findAll();
 
         // Criar o componente CertidaoCard
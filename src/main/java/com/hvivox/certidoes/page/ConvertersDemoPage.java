@@ -1,13 +1,15 @@
 package com.hvivox.certidoes.page;
 
 import com.hvivox.certidoes.BasePage;
-import com.hvivox.certidoes.converter.*;
+import com.hvivox.certidoes.domain.Cep;
+import com.hvivox.certidoes.domain.Cnpj;
+import com.hvivox.certidoes.domain.Cpf;
+import com.hvivox.certidoes.domain.Dinheiro;
 import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.html.form.Form;
 import org.apache.wicket.markup.html.form.TextField;
 import org.apache.wicket.model.PropertyModel;
 import org.apache.wicket.request.mapper.parameter.PageParameters;
-import org.apache.wicket.util.convert.IConverter;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -29,8 +31,10 @@ import java.math.BigDecimal;
  * 
  * USO:
  * 1. Criar o conversor (implements IConverter<T>)
- * 2. Associar ao FormComponent via @Override getConverter()
- * 3. Wicket aplica automaticamente na renderização e submissão
+ * 2. Registrar no ConverterLocator da aplicação pelo tipo do valor
+ *    (WicketApplication.newConverterLocator / Conversores)
+ * 3. Declarar o tipo no campo (Cpf, Cnpj, Cep, Dinheiro)
+ * 4. Wicket aplica automaticamente na renderização e submissão
  */
 public class ConvertersDemoPage extends BasePage {
 
@@ -58,71 +62,35 @@ public class ConvertersDemoPage extends BasePage {
         };
         add(form);
 
-        // Campo CPF com conversor customizado
-        TextField<String> cpfField = new TextField<String>("cpf",
-                new PropertyModel<String>(formData, "cpf")) {
-            @SuppressWarnings("unchecked")
-            @Override
-            public <C> IConverter<C> getConverter(Class<C> type) {
-                if (type == String.class) {
-                    return (IConverter<C>) new CPFConverter();
-                }
-                return super.getConverter(type);
-            }
-        };
+        // Campos tipados: o conversor vem do ConverterLocator da aplicação
+        // (WicketApplication.newConverterLocator), pelo tipo do valor.
+        // Nenhum campo sobrescreve getConverter() nem cria o seu conversor.
+        TextField<Cpf> cpfField = new TextField<>("cpf",
+                new PropertyModel<Cpf>(formData, "cpf"), Cpf.class);
         cpfField.setRequired(false);
         form.add(cpfField);
 
-        // Campo CNPJ com conversor customizado
-        TextField<String> cnpjField = new TextField<String>("cnpj",
-                new PropertyModel<String>(formData, "cnpj")) {
-            @SuppressWarnings("unchecked")
-            @Override
-            public <C> IConverter<C> getConverter(Class<C> type) {
-                if (type == String.class) {
-                    return (IConverter<C>) new CNPJConverter();
-                }
-                return super.getConverter(type);
-            }
-        };
+        TextField<Cnpj> cnpjField = new TextField<>("cnpj",
+                new PropertyModel<Cnpj>(formData, "cnpj"), Cnpj.class);
         cnpjField.setRequired(false);
         form.add(cnpjField);
 
-        // Campo CEP com conversor customizado
-        TextField<String> cepField = new TextField<String>("cep",
-                new PropertyModel<String>(formData, "cep")) {
-            @SuppressWarnings("unchecked")
-            @Override
-            public <C> IConverter<C> getConverter(Class<C> type) {
-                if (type == String.class) {
-                    return (IConverter<C>) new CEPConverter();
-                }
-                return super.getConverter(type);
-            }
-        };
+        TextField<Cep> cepField = new TextField<>("cep",
+                new PropertyModel<Cep>(formData, "cep"), Cep.class);
         cepField.setRequired(false);
         form.add(cepField);
 
-        // Campo Valor com conversor de moeda
-        TextField<BigDecimal> valorField = new TextField<BigDecimal>("valor",
-                new PropertyModel<BigDecimal>(formData, "valor"), BigDecimal.class) {
-            @SuppressWarnings("unchecked")
-            @Override
-            public <C> IConverter<C> getConverter(Class<C> type) {
-                if (type == BigDecimal.class) {
-                    return (IConverter<C>) new MoedaBrasileiraConverter();
-                }
-                return super.getConverter(type);
-            }
-        };
+        TextField<Dinheiro> valorField = new TextField<>("valor",
+                new PropertyModel<Dinheiro>(formData, "valor"), Dinheiro.class);
         valorField.setRequired(false);
         form.add(valorField);
 
-        // Labels para exibir valores atuais
-        form.add(new Label("cpfAtual", new PropertyModel<String>(formData, "cpf")));
-        form.add(new Label("cnpjAtual", new PropertyModel<String>(formData, "cnpj")));
-        form.add(new Label("cepAtual", new PropertyModel<String>(formData, "cep")));
-        form.add(new Label("valorAtual", new PropertyModel<BigDecimal>(formData, "valor")));
+        // Labels para exibir valores atuais (o Label também usa o conversor do
+        // tipo, então exibe o valor formatado)
+        form.add(new Label("cpfAtual", new PropertyModel<Cpf>(formData, "cpf")));
+        form.add(new Label("cnpjAtual", new PropertyModel<Cnpj>(formData, "cnpj")));
+        form.add(new Label("cepAtual", new PropertyModel<Cep>(formData, "cep")));
+        form.add(new Label("valorAtual", new PropertyModel<Dinheiro>(formData, "valor")));
 
         // Documentação
         add(new Label("docInfo", getDocumentacaoInfo()).setEscapeModelStrings(false));
@@ -166,40 +134,40 @@ public class ConvertersDemoPage extends BasePage {
     public static class FormData implements Serializable {
         private static final long serialVersionUID = 1L;
 
-        private String cpf = "12345678901"; // Valor inicial para demonstração
-        private String cnpj = "12345678000195";
-        private String cep = "12345678";
-        private BigDecimal valor = new BigDecimal("1234.56");
+        private Cpf cpf = new Cpf("12345678909"); // Valor inicial para demonstração
+        private Cnpj cnpj = new Cnpj("12345678000195");
+        private Cep cep = new Cep("12345678");
+        private Dinheiro valor = new Dinheiro(new BigDecimal("1234.56"));
 
-        public String getCpf() {
+        public Cpf getCpf() {
             return cpf;
         }
 
-        public void setCpf(String cpf) {
+        public void setCpf(Cpf cpf) {
             this.cpf = cpf;
         }
 
-        public String getCnpj() {
+        public Cnpj getCnpj() {
             return cnpj;
         }
 
-        public void setCnpj(String cnpj) {
+        public void setCnpj(Cnpj cnpj) {
             this.cnpj = cnpj;
         }
 
-        public String getCep() {
+        public Cep getCep() {
             return cep;
         }
 
-        public void setCep(String cep) {
+        public void setCep(Cep cep) {
             this.cep = cep;
         }
 
-        public BigDecimal getValor() {
+        public Dinheiro getValor() {
             return valor;
         }
 
-        public void setValor(BigDecimal valor) {
+        public void setValor(Dinheiro valor) {
             this.valor = valor;
         }
     }
@@ -1,11 +1,14 @@
 package com.hvivox.certidoes.resource;
 
 import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
 import com.hvivox.certidoes.service.RelatorioService;
+import com.hvivox.certidoes.service.RelatorioStreamingService;
 import org.apache.wicket.request.resource.AbstractResource;
 import org.apache.wicket.util.time.Duration;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -13,6 +16,15 @@ import java.util.List;
  * 
  * Resource que gera e faz download de relatórios de certidões.
  * Utiliza os serviços de geração de relatórios (Excel ou Word).
+ *
+ * O relatório é escrito direto no stream da resposta. Como o tamanho final
+ * não é conhecido, não é enviado Content-Length: o container usa transferência
+ * em blocos (chunked) e os bytes começam a sair à medida que o buffer da
+ * resposta enche, em vez de só depois do arquivo inteiro estar em memória.
+ *
+ * Com um RelatorioStreamingService (CSV, NDJSON, Excel), o repositório e um
+ * filtro, nem a lista de certidões é carregada: o serviço lê o repositório
+ * em lotes pelo cursor.
  */
 public class RelatorioDownloadResource extends AbstractResource {
     
@@ -20,11 +32,33 @@ public class RelatorioDownloadResource extends AbstractResource {
     
     private final RelatorioService relatorioService;
     private final List<Certidao> certidoes;
+    // Só no download por cursor; o resource é descartado ao fim da resposta
+    private final transient CertidaoRepository repository;
+    private final CertidaoFiltro filtro;
     private final String nomeArquivo;
     
     public RelatorioDownloadResource(RelatorioService relatorioService, List<Certidao> certidoes, String nomeArquivo) {
         this.relatorioService = relatorioService;
         this.certidoes = certidoes;
+        this.repository = null;
+        this.filtro = null;
+        this.nomeArquivo = nomeArquivo;
+    }
+
+    /**
+     * Download que lê as certidões do repositório durante a escrita (cursor).
+     *
+     * @param relatorioService Formato com suporte a cursor (CSV, NDJSON, Excel)
+     * @param repository       Repositório de onde as certidões são lidas
+     * @param filtro           Filtro das certidões
+     * @param nomeArquivo      Nome do arquivo, sem extensão
+     */
+    public RelatorioDownloadResource(RelatorioStreamingService relatorioService, CertidaoRepository repository,
+            CertidaoFiltro filtro, String nomeArquivo) {
+        this.relatorioService = relatorioService;
+        this.certidoes = null;
+        this.repository = repository;
+        this.filtro = filtro;
         this.nomeArquivo = nomeArquivo;
     }
     
@@ -41,8 +75,15 @@ public class RelatorioDownloadResource extends AbstractResource {
             @Override
             public void writeData(Attributes attributes) {
                 try {
-                    ByteArrayOutputStream outputStream = relatorioService.gerarRelatorio(certidoes);
-                    attributes.getResponse().write(outputStream.toByteArray());
+                    OutputStream outputStream = attributes.getResponse().getOutputStream();
+                    if (certidoes != null) {
+                        relatorioService.gerarRelatorio(certidoes, outputStream);
+                    } else {
+                        ((RelatorioStreamingService) relatorioService)
+                                .gerarRelatorio(repository, filtro, outputStream);
+                    }
+                    // Envia o último bloco sem esperar o fim do ciclo da requisição
+                    outputStream.flush();
                 } catch (Exception e) {
                     throw new RuntimeException("Erro ao gerar relatório", e);
                 }
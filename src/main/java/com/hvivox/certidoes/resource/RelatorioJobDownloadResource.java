@@ -0,0 +1,97 @@
+package com.hvivox.certidoes.resource;
+
+import com.hvivox.certidoes.WicketApplication;
+import com.hvivox.certidoes.service.RelatorioJob;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.request.http.WebResponse;
+import org.apache.wicket.request.resource.AbstractResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Download do arquivo de um relatório gerado em segundo plano
+ * (RelatorioJobService).
+ *
+ * Guarda apenas o id do job; o arquivo já está pronto em disco e é copiado
+ * para a resposta, sem gerar nada na thread da requisição.
+ *
+ * ETAG:
+ * Relatórios que vêm do RelatorioCache são enviados com ETag (a chave do
+ * cache). Se o cliente repetir o download mandando If-None-Match com o mesmo
+ * valor, a resposta é 304 (Not Modified), sem corpo. A resposta é marcada
+ * como "private, no-cache": o navegador pode guardar o arquivo, mas sempre
+ * confirma com o servidor antes de reutilizá-lo.
+ */
+public class RelatorioJobDownloadResource extends AbstractResource {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String jobId;
+
+    public RelatorioJobDownloadResource(String jobId) {
+        this.jobId = jobId;
+    }
+
+    @Override
+    protected ResourceResponse newResourceResponse(Attributes attributes) {
+        ResourceResponse response = new ResourceResponse();
+
+        RelatorioJob job = WicketApplication.get().getRelatorioJobService().getJob(jobId);
+        if (job == null || job.getStatus() != RelatorioJob.Status.CONCLUIDO) {
+            // Job inexistente, expirado ou ainda em andamento
+            response.setError(404, "Relatório não disponível");
+            return response;
+        }
+
+        File arquivo = job.getArquivo();
+        if (!arquivo.isFile()) {
+            // Removido do cache (LRU) depois que o job terminou
+            response.setError(404, "Relatório não disponível");
+            return response;
+        }
+
+        String etag = job.getEtag() != null ? '"' + job.getEtag() + '"' : null;
+        if (etag != null) {
+            response.getHeaders().addHeader("ETag", etag);
+        }
+        if (etag != null && etag.equals(((WebRequest) attributes.getRequest()).getHeader("If-None-Match"))) {
+            // O cliente já tem este conteúdo
+            response.setStatusCode(304);
+            response.setWriteCallback(new WriteCallback() {
+                @Override
+                public void writeData(Attributes attributes) {
+                    // 304 não tem corpo
+                }
+            });
+            return response;
+        }
+
+        response.setContentType(job.getContentType());
+        response.setFileName(job.getNomeArquivo());
+        response.setContentLength(arquivo.length());
+
+        response.setWriteCallback(new WriteCallback() {
+            @Override
+            public void writeData(Attributes attributes) {
+                try {
+                    Files.copy(arquivo.toPath(), attributes.getResponse().getOutputStream());
+                } catch (IOException e) {
+                    throw new RuntimeException("Erro ao enviar relatório", e);
+                }
+            }
+        });
+
+        return response;
+    }
+
+    /**
+     * Permite guardar a resposta, mas exige revalidação (If-None-Match) a
+     * cada uso; a URL do link é a mesma para jobs diferentes da página.
+     */
+    @Override
+    protected void configureCache(ResourceResponse data, Attributes attributes) {
+        ((WebResponse) attributes.getResponse()).setHeader("Cache-Control", "private, no-cache");
+    }
+}
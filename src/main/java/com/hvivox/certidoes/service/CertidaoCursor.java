@@ -0,0 +1,73 @@
+package com.hvivox.certidoes.service;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Percorre as certidões do filtro em lotes de TAMANHO_LOTE, usando o cursor
+ * por id do repositório (findByFiltroAfterId).
+ *
+ * Só o lote atual fica em memória: é o que os relatórios em streaming e os
+ * jobs de exportação usam no lugar de findByFiltro(filtro). Cada iterator()
+ * recomeça do primeiro id.
+ */
+final class CertidaoCursor implements Iterable<Certidao> {
+
+    // Certidões lidas do repositório por vez
+    static final int TAMANHO_LOTE = 1000;
+
+    private final CertidaoRepository repository;
+    private final CertidaoFiltro filtro;
+
+    /**
+     * @param repository Repositório de onde as certidões são lidas
+     * @param filtro     Filtro das certidões (null = todas)
+     */
+    CertidaoCursor(CertidaoRepository repository, CertidaoFiltro filtro) {
+        this.repository = repository;
+        this.filtro = filtro;
+    }
+
+    @Override
+    public Iterator<Certidao> iterator() {
+        return new Iterator<Certidao>() {
+            private List<Certidao> lote = Collections.emptyList();
+            private int posicao;
+            private Long ultimoId;
+            private boolean fim;
+
+            @Override
+            public boolean hasNext() {
+                if (posicao < lote.size()) {
+                    return true;
+                }
+                if (fim) {
+                    return false;
+                }
+                lote = repository.findByFiltroAfterId(filtro, ultimoId, TAMANHO_LOTE);
+                posicao = 0;
+                // Lote incompleto: não há mais nada depois dele
+                fim = lote.size() < TAMANHO_LOTE;
+                if (lote.isEmpty()) {
+                    return false;
+                }
+                ultimoId = lote.get(lote.size() - 1).getId();
+                return true;
+            }
+
+            @Override
+            public Certidao next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return lote.get(posicao++);
+            }
+        };
+    }
+}
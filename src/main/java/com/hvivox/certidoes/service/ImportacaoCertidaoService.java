@@ -0,0 +1,388 @@
+package com.hvivox.certidoes.service;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.infra.NumeroDuplicadoException;
+import com.hvivox.certidoes.validator.DataFormatadaValidator;
+import org.apache.wicket.validation.IValidationError;
+import org.apache.wicket.validation.Validatable;
+import org.apache.wicket.validation.ValidationError;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ====================================================================
+ * IMPORTAÇÃO DE CERTIDÕES EM LOTE (CSV / XLSX)
+ * ====================================================================
+ *
+ * Cadastra certidões a partir de arquivos grandes (centenas de milhares de
+ * linhas), sem passar pelo formulário uma a uma.
+ *
+ * COMO FUNCIONA:
+ * - O ImportacaoLeitor (LeitorCsvImportacao, LeitorXlsxImportacao) entrega
+ *   as linhas em streaming; elas são agrupadas em lotes de tamanhoLote
+ * - Cada lote é validado em paralelo (paralelismo threads), com as mesmas
+ *   regras do formulário: campos obrigatórios, DataFormatadaValidator e
+ *   número único (existsByNumero do repositório de destino)
+ * - As linhas válidas do lote são gravadas de uma vez com saveAll; se um
+ *   número for tomado nesse meio-tempo, o lote é completado linha a linha
+ *   para apontar qual linha falhou
+ * - Só um lote fica em memória por vez: o consumo depende do tamanhoLote,
+ *   não do tamanho do arquivo
+ *
+ * FORMATO:
+ * Cabeçalho com as colunas Número, Tipo, Interessado, Data Emissão e
+ * (opcional) Status, em qualquer ordem. Outras colunas (ex: ID) são
+ * ignoradas; é o formato das exportações CSV e Excel. Tipo e status aceitam
+ * a descrição ("Positiva com Efeito de Negativa") ou o nome
+ * (POSITIVA_COM_EFEITO_DE_NEGATIVA).
+ *
+ * EXEMPLO DE USO:
+ * ImportacaoCertidaoService importacao = new ImportacaoCertidaoService(repository, 1000, 4);
+ * ImportacaoResultado resultado = importacao.importar(new LeitorCsvImportacao(inputStream));
+ * resultado.getImportadas(); resultado.getErros(); resultado.getLinhasPorSegundo();
+ */
+public class ImportacaoCertidaoService {
+
+    public static final int TAMANHO_LOTE_PADRAO = 1000;
+
+    private static final DataFormatadaValidator VALIDADOR_DATA = new DataFormatadaValidator();
+
+    private static final Map<String, CertidaoTipo> TIPOS = new HashMap<>();
+    private static final Map<String, CertidaoStatus> STATUS = new HashMap<>();
+
+    static {
+        for (CertidaoTipo tipo : CertidaoTipo.values()) {
+            TIPOS.put(normalizar(tipo.name()), tipo);
+            TIPOS.put(normalizar(tipo.getDescricao()), tipo);
+        }
+        for (CertidaoStatus status : CertidaoStatus.values()) {
+            STATUS.put(normalizar(status.name()), status);
+            STATUS.put(normalizar(status.getDescricao()), status);
+        }
+    }
+
+    private final CertidaoRepository repository;
+    private final int tamanhoLote;
+    private final int paralelismo;
+
+    /**
+     * @param repository  Repositório de destino
+     * @param tamanhoLote Linhas validadas e gravadas por vez
+     * @param paralelismo Threads validando cada lote
+     */
+    public ImportacaoCertidaoService(CertidaoRepository repository, int tamanhoLote, int paralelismo) {
+        if (tamanhoLote < 1 || paralelismo < 1) {
+            throw new IllegalArgumentException("tamanhoLote e paralelismo devem ser positivos");
+        }
+        this.repository = repository;
+        this.tamanhoLote = tamanhoLote;
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Importa o arquivo inteiro.
+     *
+     * Erros de linha (campo inválido, número repetido) não interrompem a
+     * importação: vão para o resultado. Erros do arquivo (formato ilegível,
+     * cabeçalho sem as colunas obrigatórias) interrompem, mantendo os lotes
+     * já gravados.
+     *
+     * @param leitor Fonte das linhas
+     * @return Resultado (contadores, erros por linha, vazão)
+     * @throws Exception Se o arquivo não puder ser lido
+     */
+    public ImportacaoResultado importar(ImportacaoLeitor leitor) throws Exception {
+        ImportacaoResultado resultado = new ImportacaoResultado();
+        ExecutorService validadores = Executors.newFixedThreadPool(paralelismo, new ValidadorFactory());
+        try {
+            Importacao importacao = new Importacao(resultado, validadores);
+            leitor.ler(importacao);
+            importacao.processarLote();
+        } finally {
+            validadores.shutdownNow();
+            resultado.concluir();
+        }
+        return resultado;
+    }
+
+    /**
+     * Estado de uma importação: colunas do cabeçalho e o lote atual
+     */
+    private final class Importacao implements ImportacaoLeitor.Destino {
+        private final ImportacaoResultado resultado;
+        private final ExecutorService validadores;
+        private final List<Linha> lote = new ArrayList<>(tamanhoLote);
+        private Colunas colunas;
+
+        Importacao(ImportacaoResultado resultado, ExecutorService validadores) {
+            this.resultado = resultado;
+            this.validadores = validadores;
+        }
+
+        @Override
+        public void linha(long numeroLinha, String[] campos) throws Exception {
+            if (colunas == null) {
+                colunas = new Colunas(campos);
+                return;
+            }
+            resultado.linhaLida();
+            lote.add(new Linha(numeroLinha, campos));
+            if (lote.size() == tamanhoLote) {
+                processarLote();
+            }
+        }
+
+        void processarLote() throws InterruptedException, ExecutionException {
+            if (lote.isEmpty()) {
+                return;
+            }
+            validar();
+
+            // Números repetidos dentro do próprio lote (entre lotes, o índice
+            // de número do repositório recusa no saveAll)
+            Set<String> numeros = new HashSet<>();
+            List<Linha> validas = new ArrayList<>(lote.size());
+            List<Certidao> certidoes = new ArrayList<>(lote.size());
+            for (Linha linha : lote) {
+                if (linha.erro == null && !numeros.add(linha.certidao.getNumero())) {
+                    linha.erro = "Número '" + linha.certidao.getNumero() + "' repetido no arquivo";
+                }
+                if (linha.erro != null) {
+                    resultado.erro(linha.numero, linha.erro);
+                } else {
+                    validas.add(linha);
+                    certidoes.add(linha.certidao);
+                }
+            }
+
+            gravar(validas, certidoes);
+            lote.clear();
+        }
+
+        /**
+         * Valida o lote dividido em "paralelismo" partes
+         */
+        private void validar() throws InterruptedException, ExecutionException {
+            int partes = Math.min(paralelismo, lote.size());
+            int tamanhoParte = (lote.size() + partes - 1) / partes;
+            List<Callable<Void>> tarefas = new ArrayList<>(partes);
+            for (int inicio = 0; inicio < lote.size(); inicio += tamanhoParte) {
+                List<Linha> parte = lote.subList(inicio, Math.min(lote.size(), inicio + tamanhoParte));
+                tarefas.add(() -> {
+                    for (Linha linha : parte) {
+                        converter(linha, colunas);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> tarefa : validadores.invokeAll(tarefas)) {
+                tarefa.get();
+            }
+        }
+
+        private void gravar(List<Linha> validas, List<Certidao> certidoes) {
+            if (validas.isEmpty()) {
+                return;
+            }
+            try {
+                repository.saveAll(certidoes);
+                resultado.importadas(certidoes.size());
+            } catch (NumeroDuplicadoException e) {
+                // Número tomado depois da validação: completa linha a linha
+                for (Linha linha : validas) {
+                    if (linha.certidao.getId() != null) {
+                        resultado.importadas(1);
+                        continue;
+                    }
+                    try {
+                        repository.save(linha.certidao);
+                        resultado.importadas(1);
+                    } catch (NumeroDuplicadoException duplicado) {
+                        resultado.erro(linha.numero, mensagemNumeroExistente(duplicado.getNumero()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converte e valida uma linha (roda nas threads de validação).
+     */
+    private void converter(Linha linha, Colunas colunas) {
+        String[] campos = linha.campos;
+        linha.campos = null;
+
+        String numero = colunas.valor(campos, colunas.numero);
+        String tipoTexto = colunas.valor(campos, colunas.tipo);
+        String interessado = colunas.valor(campos, colunas.interessado);
+        String data = colunas.valor(campos, colunas.dataEmissao);
+        String statusTexto = colunas.valor(campos, colunas.status);
+
+        if (numero.isEmpty()) {
+            linha.erro = "Número não informado";
+            return;
+        }
+        CertidaoTipo tipo = TIPOS.get(normalizar(tipoTexto));
+        if (tipo == null) {
+            linha.erro = tipoTexto.isEmpty() ? "Tipo não informado" : "Tipo inválido: '" + tipoTexto + "'";
+            return;
+        }
+        if (interessado.isEmpty()) {
+            linha.erro = "Interessado não informado";
+            return;
+        }
+        if (data.isEmpty()) {
+            linha.erro = "Data de emissão não informada";
+            return;
+        }
+        String erroData = validar(VALIDADOR_DATA, data);
+        if (erroData != null) {
+            linha.erro = erroData + " (recebido: '" + data + "')";
+            return;
+        }
+        CertidaoStatus status = null;
+        if (!statusTexto.isEmpty()) {
+            status = STATUS.get(normalizar(statusTexto));
+            if (status == null) {
+                linha.erro = "Status inválido: '" + statusTexto + "'";
+                return;
+            }
+        }
+        if (repository.existsByNumero(numero, null)) {
+            linha.erro = mensagemNumeroExistente(numero);
+            return;
+        }
+
+        Certidao certidao = new Certidao();
+        certidao.setNumero(numero);
+        certidao.setTipo(tipo);
+        certidao.setInteressado(interessado);
+        certidao.setDataEmissao(data);
+        certidao.setStatus(status);
+        linha.certidao = certidao;
+    }
+
+    /**
+     * Roda um validador do Wicket fora de formulário
+     *
+     * @return Mensagem do primeiro erro, ou null se o valor é válido
+     */
+    private static String validar(DataFormatadaValidator validador, String valor) {
+        Validatable<String> validatable = new Validatable<>(valor);
+        validador.validate(validatable);
+        if (validatable.isValid()) {
+            return null;
+        }
+        IValidationError erro = validatable.getErrors().get(0);
+        return erro instanceof ValidationError ? ((ValidationError) erro).getMessage() : "Valor inválido";
+    }
+
+    private static String mensagemNumeroExistente(String numero) {
+        return "Já existe uma certidão com o número '" + numero + "'";
+    }
+
+    /**
+     * Minúsculas, sem acentos e só letras/dígitos: "Data Emissão" → "dataemissao"
+     */
+    static String normalizar(String texto) {
+        String semAcentos = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder normalizado = new StringBuilder(semAcentos.length());
+        for (int i = 0; i < semAcentos.length(); i++) {
+            char c = semAcentos.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalizado.append(Character.toLowerCase(c));
+            }
+        }
+        return normalizado.toString();
+    }
+
+    /**
+     * Posição de cada coluna, pelo cabeçalho
+     */
+    private static final class Colunas {
+        final int numero;
+        final int tipo;
+        final int interessado;
+        final int dataEmissao;
+        final int status;
+
+        Colunas(String[] cabecalho) {
+            Map<String, Integer> posicoes = new HashMap<>();
+            for (int i = 0; i < cabecalho.length; i++) {
+                posicoes.putIfAbsent(normalizar(cabecalho[i]), i);
+            }
+            numero = obrigatoria(posicoes, "Número", "numero");
+            tipo = obrigatoria(posicoes, "Tipo", "tipo");
+            interessado = obrigatoria(posicoes, "Interessado", "interessado");
+            dataEmissao = obrigatoria(posicoes, "Data Emissão", "dataemissao", "datadeemissao", "data");
+            status = opcional(posicoes, "status");
+        }
+
+        String valor(String[] campos, int coluna) {
+            return coluna >= 0 && coluna < campos.length && campos[coluna] != null ? campos[coluna].trim() : "";
+        }
+
+        private static int obrigatoria(Map<String, Integer> posicoes, String nome, String... chaves) {
+            int posicao = opcional(posicoes, chaves);
+            if (posicao < 0) {
+                throw new IllegalArgumentException("Cabeçalho sem a coluna obrigatória '" + nome + "'");
+            }
+            return posicao;
+        }
+
+        private static int opcional(Map<String, Integer> posicoes, String... chaves) {
+            for (String chave : chaves) {
+                Integer posicao = posicoes.get(chave);
+                if (posicao != null) {
+                    return posicao;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Linha do lote: campos lidos e, depois da validação, a certidão ou o erro
+     */
+    private static final class Linha {
+        final long numero;
+        String[] campos;
+        Certidao certidao;
+        String erro;
+
+        Linha(long numero, String[] campos) {
+            this.numero = numero;
+            this.campos = campos;
+        }
+    }
+
+    /**
+     * Threads daemon para a validação
+     */
+    private static final class ValidadorFactory implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "importacao-validacao-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hvivox.certidoes.service;
+
+/**
+ * Fonte de linhas de uma importação de certidões (CSV, XLSX, ...).
+ *
+ * O leitor percorre o arquivo em streaming e entrega cada linha ao destino
+ * assim que ela é lida, sem guardar o arquivo em memória. A primeira linha
+ * entregue é o cabeçalho.
+ */
+public interface ImportacaoLeitor {
+
+    /**
+     * Lê o arquivo inteiro, entregando as linhas na ordem.
+     *
+     * @param destino Recebe cada linha
+     * @throws Exception Se o arquivo não puder ser lido
+     */
+    void ler(Destino destino) throws Exception;
+
+    /**
+     * Recebe as linhas lidas
+     */
+    interface Destino {
+
+        /**
+         * @param numeroLinha Número da linha no arquivo (a partir de 1), para
+         *                    as mensagens de erro
+         * @param campos      Valores das colunas (o array pode ser reaproveitado
+         *                    pelo leitor depois que o método retorna)
+         */
+        void linha(long numeroLinha, String[] campos) throws Exception;
+    }
+}
@@ -0,0 +1,115 @@
+package com.hvivox.certidoes.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de uma importação: contadores, erros por linha e vazão.
+ *
+ * Só as primeiras LIMITE_ERROS mensagens são guardadas (um arquivo todo
+ * errado não pode ocupar memória proporcional ao seu tamanho); o total de
+ * linhas com erro é sempre contado.
+ */
+public class ImportacaoResultado implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Mensagens de erro guardadas
+    public static final int LIMITE_ERROS = 1000;
+
+    private long linhasLidas;
+    private long importadas;
+    private long comErro;
+    private final List<ErroLinha> erros = new ArrayList<>();
+    private final long inicio = System.nanoTime();
+    private long duracaoNanos;
+
+    public long getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    /**
+     * Linhas recusadas (inclusive as que não têm mensagem guardada)
+     */
+    public long getComErro() {
+        return comErro;
+    }
+
+    /**
+     * Primeiros erros, na ordem do arquivo
+     */
+    public List<ErroLinha> getErros() {
+        return Collections.unmodifiableList(erros);
+    }
+
+    public long getDuracaoMs() {
+        return duracaoNanos / 1_000_000;
+    }
+
+    /**
+     * Vazão da importação (linhas lidas por segundo)
+     */
+    public double getLinhasPorSegundo() {
+        return duracaoNanos > 0 ? linhasLidas * 1_000_000_000d / duracaoNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Importação: %d linhas, %d importadas, %d com erro, %d ms (%.0f linhas/s)",
+                linhasLidas, importadas, comErro, getDuracaoMs(), getLinhasPorSegundo());
+    }
+
+    // ==================== ATUALIZAÇÃO (ImportacaoCertidaoService) ====================
+
+    void linhaLida() {
+        linhasLidas++;
+    }
+
+    void importadas(int quantidade) {
+        importadas += quantidade;
+    }
+
+    void erro(long numeroLinha, String mensagem) {
+        comErro++;
+        if (erros.size() < LIMITE_ERROS) {
+            erros.add(new ErroLinha(numeroLinha, mensagem));
+        }
+    }
+
+    void concluir() {
+        duracaoNanos = System.nanoTime() - inicio;
+    }
+
+    /**
+     * Erro de uma linha do arquivo
+     */
+    public static final class ErroLinha implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final long linha;
+        private final String mensagem;
+
+        ErroLinha(long linha, String mensagem) {
+            this.linha = linha;
+            this.mensagem = mensagem;
+        }
+
+        public long getLinha() {
+            return linha;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+
+        @Override
+        public String toString() {
+            return "Linha " + linha + ": " + mensagem;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.hvivox.certidoes.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Leitor de CSV para importação (RFC 4180).
+ *
+ * COMO FUNCIONA:
+ * - Lê o texto em blocos de TAMANHO_BUFFER caracteres e monta cada campo em
+ *   um StringBuilder reaproveitado: a memória não depende do tamanho do
+ *   arquivo
+ * - Separador ',' ou ';' (Excel em português), detectado pelo cabeçalho
+ * - Campos entre aspas podem conter separador, quebra de linha e aspas
+ *   duplicadas (""); aspas fora dessa regra são mantidas como texto
+ * - Aceita quebras de linha CRLF ou LF e ignora o BOM do UTF-8
+ * - Linhas em branco são ignoradas
+ *
+ * Lê o mesmo formato gerado por RelatorioCsvService.
+ */
+public class LeitorCsvImportacao implements ImportacaoLeitor {
+
+    private static final int TAMANHO_BUFFER = 8192;
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+
+    /**
+     * @param reader Texto CSV (não é fechado pelo leitor)
+     */
+    public LeitorCsvImportacao(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @param inputStream CSV em UTF-8 (não é fechado pelo leitor)
+     */
+    public LeitorCsvImportacao(InputStream inputStream) {
+        this(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void ler(Destino destino) throws Exception {
+        char[] buffer = new char[TAMANHO_BUFFER];
+        StringBuilder campo = new StringBuilder(64);
+        String[] campos = new String[8];
+        int quantidade = 0;
+
+        char separador = 0; // definido ao ver o primeiro ',' ou ';' fora de aspas
+        boolean entreAspas = false;
+        boolean aspasNoCampo = false; // campo começou com aspas
+        boolean fimDeAspas = false;   // acabou de fechar aspas (pode ser "")
+        boolean linhaVazia = true;
+        boolean primeiroBloco = true;
+        long numeroLinha = 1;
+        long inicioRegistro = 1;
+
+        int lidos;
+        while ((lidos = reader.read(buffer)) != -1) {
+            int i = 0;
+            if (primeiroBloco) {
+                primeiroBloco = false;
+                if (lidos > 0 && buffer[0] == BOM) {
+                    i = 1;
+                }
+            }
+            for (; i < lidos; i++) {
+                char c = buffer[i];
+
+                if (entreAspas) {
+                    if (c == '"') {
+                        entreAspas = false;
+                        fimDeAspas = true;
+                    } else {
+                        if (c == '\n') {
+                            numeroLinha++;
+                        }
+                        campo.append(c);
+                    }
+                    continue;
+                }
+
+                if (c == '"') {
+                    if (fimDeAspas) {
+                        // "" dentro de campo entre aspas
+                        campo.append('"');
+                        entreAspas = true;
+                        fimDeAspas = false;
+                    } else if (campo.length() == 0 && !aspasNoCampo) {
+                        entreAspas = true;
+                        aspasNoCampo = true;
+                        linhaVazia = false;
+                    } else {
+                        // Aspas no meio de campo sem aspas: mantidas como texto
+                        campo.append(c);
+                    }
+                    continue;
+                }
+                fimDeAspas = false;
+
+                if (c == '\r') {
+                    continue;
+                }
+                if (c == '\n') {
+                    if (!linhaVazia) {
+                        campos = adicionar(campos, quantidade++, campo);
+                        destino.linha(inicioRegistro, Arrays.copyOf(campos, quantidade));
+                    }
+                    quantidade = 0;
+                    linhaVazia = true;
+                    aspasNoCampo = false;
+                    numeroLinha++;
+                    inicioRegistro = numeroLinha;
+                    continue;
+                }
+                if (separador == 0 && (c == ',' || c == ';')) {
+                    separador = c;
+                }
+                if (c == separador) {
+                    campos = adicionar(campos, quantidade++, campo);
+                    aspasNoCampo = false;
+                    linhaVazia = false;
+                    continue;
+                }
+                campo.append(c);
+                linhaVazia = false;
+            }
+        }
+
+        if (entreAspas) {
+            throw new IOException("Aspas não fechadas a partir da linha " + inicioRegistro);
+        }
+        if (!linhaVazia) {
+            campos = adicionar(campos, quantidade++, campo);
+            destino.linha(inicioRegistro, Arrays.copyOf(campos, quantidade));
+        }
+    }
+
+    private static String[] adicionar(String[] campos, int posicao, StringBuilder campo) {
+        if (posicao == campos.length) {
+            campos = Arrays.copyOf(campos, campos.length * 2);
+        }
+        campos[posicao] = campo.toString();
+        campo.setLength(0);
+        return campos;
+    }
+}
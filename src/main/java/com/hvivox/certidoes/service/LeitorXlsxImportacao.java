@@ -0,0 +1,147 @@
+package com.hvivox.certidoes.service;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Leitor de planilhas XLSX para importação, pela API de eventos (SAX) do POI.
+ *
+ * COMO FUNCIONA:
+ * - A primeira aba é percorrida como XML, célula por célula: a planilha
+ *   nunca é carregada inteira (XSSFWorkbook guardaria todas as linhas)
+ * - Os textos compartilhados (sharedStrings) são lidos sem montar o
+ *   modelo completo (ReadOnlySharedStringsTable)
+ * - Cada célula chega já formatada como é exibida no Excel (DataFormatter),
+ *   então uma data com formato dd/mm/aaaa chega como "25/12/2025"
+ * - Células vazias omitidas no XML viram ""
+ *
+ * LIMITE DE MEMÓRIA:
+ * As linhas da aba são lidas em streaming, mas a ReadOnlySharedStringsTable
+ * guarda TODOS os textos compartilhados no heap antes da primeira linha. O
+ * Excel grava ali os textos das células (números e datas não entram, e
+ * textos repetidos entram uma vez): uma planilha com centenas de milhares de
+ * interessados diferentes pode ocupar dezenas de MB só nessa tabela. O POI
+ * não tem uma versão em disco dessa tabela; para arquivos assim, prefira
+ * importar em CSV (LeitorCsvImportacao), cuja memória não depende do arquivo.
+ *
+ * Lê o mesmo formato gerado por RelatorioExcelService.
+ */
+public class LeitorXlsxImportacao implements ImportacaoLeitor {
+
+    private final File arquivo;
+
+    /**
+     * @param arquivo Planilha .xlsx (lida direto do disco, sem cópia em memória)
+     */
+    public LeitorXlsxImportacao(File arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    @Override
+    public void ler(Destino destino) throws Exception {
+        try (OPCPackage pacote = OPCPackage.open(arquivo, PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(pacote);
+            ReadOnlySharedStringsTable textos = new ReadOnlySharedStringsTable(pacote);
+            StylesTable estilos = xssfReader.getStylesTable();
+
+            Iterator<InputStream> abas = xssfReader.getSheetsData();
+            if (!abas.hasNext()) {
+                return;
+            }
+            try (InputStream aba = abas.next()) {
+                Linhas linhas = new Linhas(destino);
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(estilos, textos, linhas,
+                        new DataFormatter(new Locale("pt", "BR")), false));
+                try {
+                    parser.parse(new InputSource(aba));
+                } catch (FalhaDestino e) {
+                    // Exceção do destino, repassada de dentro do parser
+                    throw (Exception) e.getCause();
+                }
+            }
+        }
+    }
+
+    /**
+     * Junta as células de cada linha e entrega ao destino
+     */
+    private static final class Linhas implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Destino destino;
+        private String[] campos = new String[8];
+        private int quantidade;
+        private int proximaColuna;
+
+        Linhas(Destino destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            quantidade = 0;
+            proximaColuna = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int coluna = cellReference != null ? new CellReference(cellReference).getCol() : proximaColuna;
+            // Colunas sem célula no XML ficam vazias
+            while (quantidade < coluna) {
+                adicionar("");
+            }
+            adicionar(formattedValue != null ? formattedValue : "");
+            proximaColuna = coluna + 1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (quantidade == 0) {
+                return;
+            }
+            try {
+                destino.linha(rowNum + 1L, Arrays.copyOf(campos, quantidade));
+            } catch (Exception e) {
+                throw new FalhaDestino(e);
+            }
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Cabeçalho/rodapé de impressão: ignorado
+        }
+
+        private void adicionar(String valor) {
+            if (quantidade == campos.length) {
+                campos = Arrays.copyOf(campos, campos.length * 2);
+            }
+            campos[quantidade++] = valor;
+        }
+    }
+
+    /**
+     * Leva a exceção do destino para fora do parser SAX
+     */
+    private static final class FalhaDestino extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        FalhaDestino(Exception causa) {
+            super(causa);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.hvivox.certidoes.service;
+
+import com.hvivox.certidoes.infra.CertidaoCriterio;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ====================================================================
+ * CACHE DE RELATÓRIOS GERADOS
+ * ====================================================================
+ *
+ * Guarda em disco os relatórios já gerados, para que exportar de novo a
+ * mesma lista não gere o documento outra vez.
+ *
+ * CHAVE:
+ * SHA-256 da forma canônica do filtro (CertidaoCriterio.chave(), a mesma
+ * usada nas consultas do repositório) + formato + versão do repositório
+ * (CertidaoRepository.getVersao()). Qualquer save/delete muda a versão,
+ * então um relatório cacheado nunca fica desatualizado: a chave
+ * simplesmente deixa de ser pedida e a entrada sai por LRU.
+ * A chave também serve de ETag no download.
+ *
+ * LIMITE:
+ * LRU limitado pelo total de bytes em disco. Ao passar do limite, os
+ * relatórios usados há mais tempo são apagados.
+ *
+ * EXEMPLO DE USO:
+ * String chave = RelatorioCache.chave(filtro, service, repository.getVersao());
+ * File arquivo = cache.buscar(chave);
+ * if (arquivo == null) {
+ *     arquivo = cache.guardar(chave, arquivoGerado);
+ * }
+ */
+public class RelatorioCache {
+
+    private final File diretorio;
+    private final long limiteBytes;
+
+    // Ordem de acesso: o primeiro é o usado há mais tempo (guardado por this)
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * @param diretorio   Diretório onde os relatórios são guardados
+     * @param limiteBytes Espaço máximo ocupado pelos relatórios
+     */
+    public RelatorioCache(File diretorio, long limiteBytes) {
+        this.diretorio = diretorio;
+        this.limiteBytes = limiteBytes;
+        if (!diretorio.isDirectory() && !diretorio.mkdirs()) {
+            throw new IllegalStateException("Não foi possível criar o diretório do cache: " + diretorio);
+        }
+    }
+
+    /**
+     * Cria um cache em um diretório temporário.
+     *
+     * @param limiteBytes Espaço máximo ocupado pelos relatórios
+     */
+    public static RelatorioCache emDiretorioTemporario(long limiteBytes) {
+        try {
+            return new RelatorioCache(Files.createTempDirectory("relatorio-cache").toFile(), limiteBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível criar o diretório do cache", e);
+        }
+    }
+
+    /**
+     * Chave do relatório (SHA-256 em hexadecimal).
+     *
+     * Filtros equivalentes geram a mesma chave: o filtro é reduzido ao
+     * CertidaoCriterio (texto sem espaços nas pontas, minúsculo e sem
+     * acentos; datas pelo dia que de fato filtram), então só muda a chave o
+     * que muda o resultado.
+     *
+     * @param filtro           Filtro da exportação (null = todas)
+     * @param relatorioService Formato do relatório
+     * @param versao           Versão do repositório
+     * @return Chave do relatório
+     */
+    public static String chave(CertidaoFiltro filtro, RelatorioService relatorioService, long versao) {
+        StringBuilder canonico = new StringBuilder(128)
+                .append("v=").append(versao)
+                .append("|formato=").append(relatorioService.getClass().getName())
+                .append(relatorioService.getFileExtension());
+        canonico.append('|').append(CertidaoCriterio.de(filtro).chave());
+        return sha256(canonico.toString());
+    }
+
+    /**
+     * Busca um relatório cacheado (e o marca como usado recentemente).
+     *
+     * @param chave Chave do relatório
+     * @return Arquivo, ou null se não estiver no cache
+     */
+    public synchronized File buscar(String chave) {
+        Entrada entrada = entradas.get(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (!entrada.arquivo.isFile()) {
+            // Apagado por fora do cache
+            entradas.remove(chave);
+            totalBytes -= entrada.tamanho;
+            return null;
+        }
+        return entrada.arquivo;
+    }
+
+    /**
+     * Move um relatório recém-gerado para o cache.
+     *
+     * @param chave         Chave do relatório
+     * @param arquivoGerado Arquivo gerado (é movido para o diretório do cache)
+     * @return Arquivo dentro do cache
+     * @throws IOException Se não for possível mover o arquivo
+     */
+    public File guardar(String chave, File arquivoGerado) throws IOException {
+        File destino = new File(diretorio, chave);
+        long tamanho = arquivoGerado.length();
+
+        synchronized (this) {
+            Files.move(arquivoGerado.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Entrada anterior = entradas.put(chave, new Entrada(destino, tamanho));
+            if (anterior != null) {
+                // Mesma chave gerada duas vezes ao mesmo tempo: o arquivo foi substituído
+                totalBytes -= anterior.tamanho;
+            }
+            totalBytes += tamanho;
+            removerExcedente(chave);
+        }
+        return destino;
+    }
+
+    /**
+     * Espaço ocupado pelos relatórios cacheados
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getQuantidade() {
+        return entradas.size();
+    }
+
+    /**
+     * Apaga todos os relatórios do cache.
+     */
+    public synchronized void limpar() {
+        for (Entrada entrada : entradas.values()) {
+            apagar(entrada.arquivo);
+        }
+        entradas.clear();
+        totalBytes = 0;
+    }
+
+    /**
+     * Remove os relatórios usados há mais tempo até voltar ao limite
+     * (o que acabou de ser guardado é mantido).
+     */
+    private void removerExcedente(String chaveMantida) {
+        Iterator<Map.Entry<String, Entrada>> it = entradas.entrySet().iterator();
+        while (totalBytes > limiteBytes && it.hasNext()) {
+            Map.Entry<String, Entrada> entrada = it.next();
+            if (entrada.getKey().equals(chaveMantida)) {
+                continue;
+            }
+            totalBytes -= entrada.getValue().tamanho;
+            apagar(entrada.getValue().arquivo);
+            it.remove();
+        }
+    }
+
+    /**
+     * Arquivo cacheado e o tamanho contabilizado para ele
+     */
+    private static final class Entrada {
+        final File arquivo;
+        final long tamanho;
+
+        Entrada(File arquivo, long tamanho) {
+            this.arquivo = arquivo;
+            this.tamanho = tamanho;
+        }
+    }
+
+    private static void apagar(File arquivo) {
+        if (arquivo.exists() && !arquivo.delete()) {
+            arquivo.deleteOnExit();
+        }
+    }
+
+    private static String sha256(String texto) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.hvivox.certidoes.service;
+
+import com.hvivox.certidoes.domain.Certidao;
+
+import java.io.IOException;
+
+/**
+ * Serviço para geração de relatórios de certidões em CSV (RFC 4180).
+ *
+ * Mesmas colunas e valores da planilha Excel (tipo e status pela descrição,
+ * data dd/MM/yyyy), separados por vírgula. Campos com vírgula, aspas ou
+ * quebra de linha são colocados entre aspas.
+ *
+ * Muito mais barato que o Excel para extrações grandes: ver
+ * RelatorioTextoService.
+ */
+public class RelatorioCsvService extends RelatorioTextoService {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final char SEPARADOR = ',';
+
+    private static final String CABECALHO = "ID,Número,Tipo,Interessado,Data Emissão,Status\r\n";
+
+    public RelatorioCsvService() {
+        this(false);
+    }
+
+    /**
+     * @param gzip true para gerar .csv.gz
+     */
+    public RelatorioCsvService(boolean gzip) {
+        super(gzip);
+    }
+
+    @Override
+    protected void escreverCabecalho(Saida saida) throws IOException {
+        saida.escrever(CABECALHO);
+    }
+
+    @Override
+    protected void escreverLinha(Certidao certidao, Saida saida) throws IOException {
+        if (certidao.getId() != null) {
+            saida.escrever(certidao.getId());
+        }
+        saida.escrever(SEPARADOR);
+        escreverCampo(certidao.getNumero(), saida);
+        saida.escrever(SEPARADOR);
+        escreverCampo(certidao.getTipo() != null ? certidao.getTipo().getDescricao() : null, saida);
+        saida.escrever(SEPARADOR);
+        escreverCampo(certidao.getInteressado(), saida);
+        saida.escrever(SEPARADOR);
+        if (certidao.temDataEmissao()) {
+            escreverData(certidao.getDataEmissaoDia(), saida, false);
+        } else {
+            escreverCampo(certidao.getDataEmissao(), saida);
+        }
+        saida.escrever(SEPARADOR);
+        escreverCampo(certidao.getStatus() != null ? certidao.getStatus().getDescricao() : null, saida);
+        saida.escrever('\r').escrever('\n');
+    }
+
+    /**
+     * Escreve um campo de texto, entre aspas só quando necessário
+     */
+    private static void escreverCampo(String valor, Saida saida) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (!precisaAspas(valor)) {
+            saida.escrever(valor);
+            return;
+        }
+        saida.escrever('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                saida.escrever('"');
+            }
+            saida.escrever(c);
+        }
+        saida.escrever('"');
+    }
+
+    private static boolean precisaAspas(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == SEPARADOR || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected String getContentTypeTexto() {
+        return "text/csv; charset=UTF-8";
+    }
+
+    @Override
+    protected String getExtensaoTexto() {
+        return ".csv";
+    }
+}
@@ -1,11 +1,14 @@
 package com.hvivox.certidoes.service;
 
 import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * MÓDULO 7 - ITEM 59: RELATÓRIOS COM APACHE POI - EXCEL
@@ -16,16 +19,81 @@ import java.util.List;
  * - Cabeçalho formatado
  * - Dados organizados em tabela
  * - Estilização profissional
+ *
+ * GERAÇÃO EM STREAMING (SXSSF):
+ * A planilha é gerada com SXSSFWorkbook, que mantém em memória só as últimas
+ * JANELA_LINHAS linhas; as anteriores são descarregadas para um arquivo
+ * temporário (compactado). Assim o consumo de heap é o mesmo para 100 ou
+ * 200 mil linhas.
+ *
+ * Como as linhas antigas já saíram da memória, autoSizeColumn não pode ser
+ * usado (e mediria todas as células). A largura das colunas é estimada pelo
+ * tamanho do texto do cabeçalho e das primeiras AMOSTRA_LARGURA linhas.
+ *
+ * Pelo repositório (RelatorioStreamingService), as certidões são lidas em
+ * lotes com o cursor por id: nem a lista completa fica em memória.
  */
-public class RelatorioExcelService implements RelatorioService {
-    
+public class RelatorioExcelService implements RelatorioStreamingService {
+
+    private static final long serialVersionUID = 1L;
+
+    // Linhas mantidas em memória pelo SXSSFWorkbook
+    static final int JANELA_LINHAS = 100;
+
+    // Linhas usadas para estimar a largura das colunas
+    static final int AMOSTRA_LARGURA = 200;
+
+    // Limite de largura (em caracteres) para uma coluna
+    private static final int LARGURA_MAXIMA = 60;
+
+    private static final String[] COLUNAS = {"ID", "Número", "Tipo", "Interessado", "Data Emissão", "Status"};
+
+    /**
+     * Gera o relatório escrevendo diretamente no OutputStream informado
+     * (por exemplo, o stream da resposta HTTP), sem montar o arquivo inteiro
+     * em memória.
+     *
+     * @param certidoes    Certidões do relatório
+     * @param outputStream Destino da planilha (não é fechado aqui)
+     * @throws IOException Se ocorrer erro de escrita
+     */
     @Override
-    public ByteArrayOutputStream gerarRelatorio(List<Certidao> certidoes) throws Exception {
-        // Criar workbook (arquivo Excel)
-        Workbook workbook = new XSSFWorkbook();
-        
+    public void gerarRelatorio(Iterable<Certidao> certidoes, OutputStream outputStream) throws IOException {
+        escrever(certidoes, outputStream);
+    }
+
+    /**
+     * Gera o relatório lendo as certidões do repositório em lotes
+     * (findByFiltroAfterId).
+     *
+     * @param repository   Repositório de onde as certidões são lidas
+     * @param filtro       Filtro das certidões (null = todas)
+     * @param outputStream Destino da planilha (não é fechado aqui)
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @Override
+    public void gerarRelatorio(CertidaoRepository repository, CertidaoFiltro filtro, OutputStream outputStream)
+            throws IOException {
+        escrever(new CertidaoCursor(repository, filtro), outputStream);
+    }
+
+    private void escrever(Iterable<Certidao> certidoes, OutputStream outputStream) throws IOException {
+        // Workbook em streaming: só JANELA_LINHAS linhas ficam em memória
+        SXSSFWorkbook workbook = new SXSSFWorkbook(JANELA_LINHAS);
+        workbook.setCompressTempFiles(true);
+        try {
+            preencher(workbook, certidoes);
+            workbook.write(outputStream);
+        } finally {
+            // Remove os arquivos temporários das linhas descarregadas
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void preencher(SXSSFWorkbook workbook, Iterable<Certidao> certidoes) {
         // Criar sheet (aba)
-        Sheet sheet = workbook.createSheet("Certidões");
+        SXSSFSheet sheet = workbook.createSheet("Certidões");
         
         // Criar estilos
         CellStyle headerStyle = criarEstiloHeader(workbook);
@@ -33,11 +101,13 @@ public class RelatorioExcelService implements RelatorioService {
         
         // Criar linha de cabeçalho
         Row headerRow = sheet.createRow(0);
-        String[] colunas = {"ID", "Número", "Tipo", "Interessado", "Data Emissão", "Status"};
+        // Largura estimada (em caracteres), começando pelo cabeçalho
+        int[] larguras = new int[COLUNAS.length];
         
-        for (int i = 0; i < colunas.length; i++) {
+        for (int i = 0; i < COLUNAS.length; i++) {
+            larguras[i] = COLUNAS[i].length() + 2; // cabeçalho em negrito/maior
             Cell cell = headerRow.createCell(i);
-            cell.setCellValue(colunas[i]);
+            cell.setCellValue(COLUNAS[i]);
             cell.setCellStyle(headerStyle);
         }
         
@@ -69,19 +139,29 @@ public class RelatorioExcelService implements RelatorioService {
             Cell cell5 = row.createCell(5);
             cell5.setCellValue(certidao.getStatus() != null ? certidao.getStatus().getDescricao() : "");
             cell5.setCellStyle(dataStyle);
+
+            // Amostra para a largura das colunas
+            if (rowNum <= AMOSTRA_LARGURA + 1) {
+                for (int i = 0; i < COLUNAS.length; i++) {
+                    larguras[i] = Math.max(larguras[i], larguraTexto(row.getCell(i)));
+                }
+            }
         }
         
-        // Ajustar largura das colunas
-        for (int i = 0; i < colunas.length; i++) {
-            sheet.autoSizeColumn(i);
+        // Ajustar largura das colunas (unidade do POI: 1/256 de caractere)
+        for (int i = 0; i < COLUNAS.length; i++) {
+            sheet.setColumnWidth(i, (Math.min(larguras[i], LARGURA_MAXIMA) + 2) * 256);
         }
-        
-        // Escrever para ByteArrayOutputStream
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        workbook.write(outputStream);
-        workbook.close();
-        
-        return outputStream;
+    }
+
+    /**
+     * Tamanho do conteúdo de uma célula, em caracteres
+     */
+    private int larguraTexto(Cell cell) {
+        if (cell.getCellType() == CellType.NUMERIC) {
+            return Long.toString((long) cell.getNumericCellValue()).length();
+        }
+        return cell.getStringCellValue().length();
     }
     
     /**
@@ -0,0 +1,140 @@
+package com.hvivox.certidoes.service;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estado de uma geração de relatório em segundo plano.
+ *
+ * Criado pelo RelatorioJobService e atualizado pela thread de trabalho; as
+ * páginas só leem (por isso os campos de estado são volatile/atômicos).
+ *
+ * CICLO DE VIDA:
+ * NA_FILA -> EXECUTANDO -> CONCLUIDO (arquivo disponível) ou ERRO
+ */
+public class RelatorioJob {
+
+    /**
+     * Situação do job
+     */
+    public enum Status {
+        NA_FILA, EXECUTANDO, CONCLUIDO, ERRO
+    }
+
+    private final String id;
+    private final String nomeArquivo;
+    private final String contentType;
+    private final String etag;
+    private final long criadoEm = System.currentTimeMillis();
+
+    private volatile Status status = Status.NA_FILA;
+    private volatile int total;
+    private final AtomicInteger processadas = new AtomicInteger();
+    private volatile File arquivo;
+    private volatile String mensagemErro;
+    private volatile long concluidoEm;
+
+    RelatorioJob(String id, String nomeArquivo, String contentType, String etag) {
+        this.id = id;
+        this.nomeArquivo = nomeArquivo;
+        this.contentType = contentType;
+        this.etag = etag;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Nome do arquivo para download (com extensão)
+     */
+    public String getNomeArquivo() {
+        return nomeArquivo;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Identificador do conteúdo (chave no RelatorioCache), ou null quando o
+     * relatório não é cacheado. O arquivo de um job com etag pertence ao cache.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getProcessadas() {
+        return processadas.get();
+    }
+
+    /**
+     * Progresso de 0 a 100
+     */
+    public int getPercentual() {
+        if (status == Status.CONCLUIDO) {
+            return 100;
+        }
+        int t = total;
+        return t <= 0 ? 0 : (int) Math.min(99, processadas.get() * 100L / t);
+    }
+
+    public boolean isFinalizado() {
+        return status == Status.CONCLUIDO || status == Status.ERRO;
+    }
+
+    /**
+     * Arquivo gerado (só quando CONCLUIDO)
+     */
+    public File getArquivo() {
+        return arquivo;
+    }
+
+    public String getMensagemErro() {
+        return mensagemErro;
+    }
+
+    long getCriadoEm() {
+        return criadoEm;
+    }
+
+    long getConcluidoEm() {
+        return concluidoEm;
+    }
+
+    // ==================== ATUALIZAÇÃO (thread de trabalho) ====================
+
+    void iniciar(int total) {
+        this.total = total;
+        this.status = Status.EXECUTANDO;
+    }
+
+    void avancar() {
+        processadas.incrementAndGet();
+    }
+
+    void concluir(File arquivo) {
+        this.arquivo = arquivo;
+        this.concluidoEm = System.currentTimeMillis();
+        this.status = Status.CONCLUIDO;
+    }
+
+    void falhar(String mensagemErro) {
+        this.mensagemErro = mensagemErro;
+        this.concluidoEm = System.currentTimeMillis();
+        this.status = Status.ERRO;
+    }
+
+    @Override
+    public String toString() {
+        return "RelatorioJob{" + id + ", " + status + ", " + processadas.get() + "/" + total + '}';
+    }
+}
@@ -0,0 +1,272 @@
+package com.hvivox.certidoes.service;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ====================================================================
+ * GERAÇÃO DE RELATÓRIOS EM SEGUNDO PLANO
+ * ====================================================================
+ *
+ * Tira a geração dos relatórios (POI) das threads de requisição do servidor.
+ * Cada exportação vira um job executado por um pool pequeno e limitado de
+ * threads; a página acompanha o progresso via Ajax e baixa o arquivo quando
+ * o job termina.
+ *
+ * COMO FUNCIONA:
+ * - Pool fixo de "trabalhadores" threads (daemon, prioridade reduzida)
+ * - Fila limitada: com a fila cheia o job é recusado na hora
+ *   (RejectedExecutionException) em vez de acumular trabalho sem limite
+ * - O relatório é gravado em um arquivo temporário (spool em disco), e não
+ *   em memória; o download apenas copia o arquivo para a resposta
+ * - As certidões são lidas em lotes pelo cursor do repositório
+ *   (CertidaoCursor), nunca a exportação inteira de uma vez; o progresso é
+ *   contado à medida que o gerador percorre o cursor
+ * - Jobs finalizados expiram após TEMPO_RETENCAO_MS e o arquivo é apagado;
+ *   a limpeza roda a cada INTERVALO_LIMPEZA_MS, mesmo sem novos jobs
+ * - Com um RelatorioCache, a mesma exportação (mesmo filtro, formato e
+ *   versão dos dados) não é gerada de novo: o job já nasce CONCLUIDO
+ *   apontando para o arquivo cacheado
+ *
+ * EXEMPLO DE USO:
+ * RelatorioJobService service = new RelatorioJobService(repository, cache, 2, 10);
+ * RelatorioJob job = service.submeter(new RelatorioExcelService(), filtro, "certidoes");
+ * ...
+ * service.getJob(job.getId()).getPercentual();
+ */
+public class RelatorioJobService {
+
+    // Tempo que um job finalizado (e seu arquivo) fica disponível
+    static final long TEMPO_RETENCAO_MS = TimeUnit.MINUTES.toMillis(30);
+
+    // Intervalo entre duas limpezas dos jobs expirados
+    static final long INTERVALO_LIMPEZA_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final CertidaoRepository repository;
+    private final RelatorioCache cache;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService limpeza;
+    private final long tempoRetencaoMs;
+    private final Map<String, RelatorioJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param repository     Repositório de onde as certidões são lidas
+     * @param cache          Cache dos relatórios gerados (null = sem cache)
+     * @param trabalhadores  Quantidade de threads gerando relatórios
+     * @param capacidadeFila Jobs que podem esperar na fila
+     */
+    public RelatorioJobService(CertidaoRepository repository, RelatorioCache cache, int trabalhadores,
+            int capacidadeFila) {
+        this(repository, cache, trabalhadores, capacidadeFila, TEMPO_RETENCAO_MS, INTERVALO_LIMPEZA_MS);
+    }
+
+    /**
+     * @param repository         Repositório de onde as certidões são lidas
+     * @param cache              Cache dos relatórios gerados (null = sem cache)
+     * @param trabalhadores      Quantidade de threads gerando relatórios
+     * @param capacidadeFila     Jobs que podem esperar na fila
+     * @param tempoRetencaoMs    Tempo que um job finalizado fica disponível
+     * @param intervaloLimpezaMs Intervalo entre duas limpezas dos expirados
+     */
+    public RelatorioJobService(CertidaoRepository repository, RelatorioCache cache, int trabalhadores,
+            int capacidadeFila, long tempoRetencaoMs, long intervaloLimpezaMs) {
+        this.repository = repository;
+        this.cache = cache;
+        this.tempoRetencaoMs = tempoRetencaoMs;
+        this.executor = new ThreadPoolExecutor(trabalhadores, trabalhadores, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), new TrabalhadorFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.limpeza = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "relatorio-job-limpeza");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.limpeza.scheduleWithFixedDelay(this::removerExpirados, intervaloLimpezaMs, intervaloLimpezaMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Agenda a geração de um relatório.
+     *
+     * @param relatorioService Formato do relatório (Excel, Word, ...)
+     * @param filtro           Filtro das certidões (é copiado)
+     * @param nomeArquivo      Nome do arquivo, sem extensão
+     * @return Job criado (na fila)
+     * @throws RejectedExecutionException Se a fila estiver cheia
+     */
+    public RelatorioJob submeter(RelatorioService relatorioService, CertidaoFiltro filtro, String nomeArquivo) {
+        removerExpirados();
+
+        // Cópia: o filtro da página pode mudar enquanto o job espera na fila
+        CertidaoFiltro filtroJob = filtro != null ? filtro.copiar() : new CertidaoFiltro();
+
+        // Versão lida antes da consulta: se os dados mudarem durante a geração,
+        // o arquivo fica sob uma chave que não será mais pedida
+        long versao = repository.getVersao();
+        String chave = cache != null && versao != CertidaoRepository.SEM_VERSAO
+                ? RelatorioCache.chave(filtroJob, relatorioService, versao)
+                : null;
+
+        RelatorioJob job = new RelatorioJob(UUID.randomUUID().toString(),
+                nomeArquivo + relatorioService.getFileExtension(), relatorioService.getContentType(), chave);
+
+        File cacheado = chave != null ? cache.buscar(chave) : null;
+        if (cacheado != null) {
+            // Mesma exportação já gerada: nada a fazer
+            job.iniciar(0);
+            job.concluir(cacheado);
+            jobs.put(job.getId(), job);
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> executar(job, relatorioService, filtroJob));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * @param id Id do job
+     * @return Job, ou null se não existir/expirou
+     */
+    public RelatorioJob getJob(String id) {
+        return id != null ? jobs.get(id) : null;
+    }
+
+    /**
+     * Jobs aguardando na fila
+     */
+    public int getJobsNaFila() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Interrompe os trabalhadores e apaga os arquivos gerados
+     * (chamado no onDestroy da aplicação).
+     */
+    public void encerrar() {
+        limpeza.shutdownNow();
+        executor.shutdownNow();
+        for (RelatorioJob job : jobs.values()) {
+            apagarArquivo(job);
+        }
+        jobs.clear();
+        if (cache != null) {
+            cache.limpar();
+        }
+    }
+
+    private void executar(RelatorioJob job, RelatorioService relatorioService, CertidaoFiltro filtro) {
+        File arquivo = null;
+        try {
+            // Total só para o percentual: as certidões são lidas em lotes pelo
+            // cursor, e o gerador não depende dessa contagem
+            int total = (int) Math.min(repository.countByFiltro(filtro), Integer.MAX_VALUE);
+            job.iniciar(total);
+
+            arquivo = File.createTempFile("relatorio-", relatorioService.getFileExtension());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(arquivo.toPath()))) {
+                relatorioService.gerarRelatorio(
+                        new CursorComProgresso(new CertidaoCursor(repository, filtro), job), out);
+            }
+            if (job.getEtag() != null) {
+                arquivo = cache.guardar(job.getEtag(), arquivo);
+            }
+            job.concluir(arquivo);
+        } catch (Exception e) {
+            if (arquivo != null && !arquivo.delete()) {
+                arquivo.deleteOnExit();
+            }
+            job.falhar(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private void removerExpirados() {
+        long limite = System.currentTimeMillis() - tempoRetencaoMs;
+        jobs.values().removeIf(job -> {
+            if (job.isFinalizado() && job.getConcluidoEm() < limite) {
+                apagarArquivo(job);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static void apagarArquivo(RelatorioJob job) {
+        File arquivo = job.getArquivo();
+        // Arquivos do cache são apagados pelo próprio cache (LRU)
+        if (arquivo != null && job.getEtag() == null && !arquivo.delete()) {
+            arquivo.deleteOnExit();
+        }
+    }
+
+    /**
+     * Cursor que avança o progresso do job a cada certidão entregue ao
+     * gerador de relatório.
+     */
+    private static final class CursorComProgresso implements Iterable<Certidao> {
+        private final Iterable<Certidao> certidoes;
+        private final RelatorioJob job;
+
+        CursorComProgresso(Iterable<Certidao> certidoes, RelatorioJob job) {
+            this.certidoes = certidoes;
+            this.job = job;
+        }
+
+        @Override
+        public Iterator<Certidao> iterator() {
+            Iterator<Certidao> iterator = certidoes.iterator();
+            return new Iterator<Certidao>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Certidao next() {
+                    Certidao certidao = iterator.next();
+                    job.avancar();
+                    return certidao;
+                }
+            };
+        }
+    }
+
+    /**
+     * Threads daemon, com nome identificável e prioridade abaixo das threads
+     * de requisição.
+     */
+    private static final class TrabalhadorFactory implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "relatorio-job-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
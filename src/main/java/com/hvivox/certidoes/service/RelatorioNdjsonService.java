@@ -0,0 +1,114 @@
+package com.hvivox.certidoes.service;
+
+import com.hvivox.certidoes.domain.Certidao;
+
+import java.io.IOException;
+
+/**
+ * Serviço para geração de relatórios de certidões em NDJSON (um objeto JSON
+ * por linha), pensado para consumo por outros sistemas.
+ *
+ * Formato de cada linha:
+ * {"id":1,"numero":"0001","tipo":"NEGATIVA","interessado":"Empresa ABC","dataEmissao":"2025-12-24","status":"EMITIDA"}
+ *
+ * Tipo e status usam o nome do enum e a data vem em ISO (yyyy-MM-dd); uma
+ * data inválida guardada na certidão é enviada como texto. Campos vazios
+ * são null.
+ */
+public class RelatorioNdjsonService extends RelatorioTextoService {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final char[] HEXA = "0123456789abcdef".toCharArray();
+
+    public RelatorioNdjsonService() {
+        this(false);
+    }
+
+    /**
+     * @param gzip true para gerar .ndjson.gz
+     */
+    public RelatorioNdjsonService(boolean gzip) {
+        super(gzip);
+    }
+
+    @Override
+    protected void escreverCabecalho(Saida saida) {
+        // NDJSON não tem cabeçalho
+    }
+
+    @Override
+    protected void escreverLinha(Certidao certidao, Saida saida) throws IOException {
+        saida.escrever("{\"id\":");
+        if (certidao.getId() != null) {
+            saida.escrever(certidao.getId());
+        } else {
+            saida.escrever("null");
+        }
+        saida.escrever(",\"numero\":");
+        escreverTexto(certidao.getNumero(), saida);
+        saida.escrever(",\"tipo\":");
+        escreverTexto(certidao.getTipo() != null ? certidao.getTipo().name() : null, saida);
+        saida.escrever(",\"interessado\":");
+        escreverTexto(certidao.getInteressado(), saida);
+        saida.escrever(",\"dataEmissao\":");
+        if (certidao.temDataEmissao()) {
+            saida.escrever('"');
+            escreverData(certidao.getDataEmissaoDia(), saida, true);
+            saida.escrever('"');
+        } else {
+            escreverTexto(certidao.getDataEmissao(), saida);
+        }
+        saida.escrever(",\"status\":");
+        escreverTexto(certidao.getStatus() != null ? certidao.getStatus().name() : null, saida);
+        saida.escrever('}').escrever('\n');
+    }
+
+    /**
+     * Escreve uma string JSON (com escape), ou null
+     */
+    private static void escreverTexto(String valor, Saida saida) throws IOException {
+        if (valor == null) {
+            saida.escrever("null");
+            return;
+        }
+        saida.escrever('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    saida.escrever('\\').escrever('"');
+                    break;
+                case '\\':
+                    saida.escrever('\\').escrever('\\');
+                    break;
+                case '\n':
+                    saida.escrever('\\').escrever('n');
+                    break;
+                case '\r':
+                    saida.escrever('\\').escrever('r');
+                    break;
+                case '\t':
+                    saida.escrever('\\').escrever('t');
+                    break;
+                default:
+                    if (c < 0x20) {
+                        saida.escrever("\\u00").escrever(HEXA[c >> 4]).escrever(HEXA[c & 0xF]);
+                    } else {
+                        saida.escrever(c);
+                    }
+            }
+        }
+        saida.escrever('"');
+    }
+
+    @Override
+    protected String getContentTypeTexto() {
+        return "application/x-ndjson; charset=UTF-8";
+    }
+
+    @Override
+    protected String getExtensaoTexto() {
+        return ".ndjson";
+    }
+}
@@ -3,23 +3,53 @@ package com.hvivox.certidoes.service;
 import com.hvivox.certidoes.domain.Certidao;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * MÓDULO 7 - ITEM 59: RELATÓRIOS COM APACHE POI
  * 
  * Interface para serviços de geração de relatórios.
+ *
+ * O contrato principal escreve o relatório em um OutputStream (por exemplo,
+ * o stream da resposta HTTP), para que o arquivo não precise ficar inteiro
+ * em memória antes de ser enviado.
+ *
+ * Os serviços não guardam estado de geração e são Serializable, para poderem
+ * ser referenciados por componentes das páginas (que o Wicket serializa).
  */
-public interface RelatorioService {
-    
+public interface RelatorioService extends Serializable {
+
+    /**
+     * Gera relatório contendo as certidões fornecidas, escrevendo no stream
+     * informado.
+     *
+     * As certidões são percorridas uma única vez, em ordem: pode ser uma
+     * lista ou um cursor que lê o repositório em lotes (como nos jobs de
+     * exportação). O total não é conhecido antes do fim.
+     *
+     * @param certidoes    Certidões para incluir no relatório
+     * @param outputStream Destino do relatório (não é fechado pelo serviço)
+     * @throws Exception Se ocorrer erro na geração
+     */
+    void gerarRelatorio(Iterable<Certidao> certidoes, OutputStream outputStream) throws Exception;
+
     /**
-     * Gera relatório contendo as certidões fornecidas
+     * Gera relatório contendo as certidões fornecidas em memória.
+     *
+     * Útil para relatórios pequenos ou testes; para downloads prefira
+     * gerarRelatorio(Iterable, OutputStream).
      * 
      * @param certidoes Lista de certidões para incluir no relatório
      * @return ByteArrayOutputStream contendo o relatório gerado
      * @throws Exception Se ocorrer erro na geração
      */
-    ByteArrayOutputStream gerarRelatorio(List<Certidao> certidoes) throws Exception;
+    default ByteArrayOutputStream gerarRelatorio(List<Certidao> certidoes) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        gerarRelatorio(certidoes, outputStream);
+        return outputStream;
+    }
     
     /**
      * Retorna o tipo MIME do relatório gerado
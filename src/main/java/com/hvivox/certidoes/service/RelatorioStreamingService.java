@@ -0,0 +1,29 @@
+package com.hvivox.certidoes.service;
+
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+
+import java.io.OutputStream;
+
+/**
+ * Relatório que pode ser gerado lendo o repositório aos poucos (cursor), sem
+ * carregar a lista completa de certidões.
+ *
+ * Indicado para formatos em que cada linha é escrita e descartada (CSV,
+ * NDJSON, e o Excel em SXSSF): o consumo de memória não depende do tamanho
+ * da exportação.
+ */
+public interface RelatorioStreamingService extends RelatorioService {
+
+    /**
+     * Gera o relatório percorrendo o repositório em lotes
+     * (findByFiltroAfterId).
+     *
+     * @param repository   Repositório de onde as certidões são lidas
+     * @param filtro       Filtro das certidões (null = todas)
+     * @param outputStream Destino do relatório (não é fechado pelo serviço)
+     * @throws Exception Se ocorrer erro na geração
+     */
+    void gerarRelatorio(CertidaoRepository repository, CertidaoFiltro filtro, OutputStream outputStream)
+            throws Exception;
+}
@@ -0,0 +1,239 @@
+package com.hvivox.certidoes.service;
+
+import com.hvivox.certidoes.converter.DataCodec;
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Base dos relatórios em texto plano (uma certidão por linha).
+ *
+ * COMO FUNCIONA:
+ * - As linhas são montadas em um único buffer de caracteres (Saida),
+ *   reaproveitado do começo ao fim do relatório: não há String por célula
+ *   nem concatenação
+ * - Quando o buffer enche, ele é enviado ao Writer UTF-8 do stream de destino
+ * - Com gzip = true, a saída é compactada enquanto é escrita
+ * - Pelo repositório, as certidões são lidas em lotes (CertidaoCursor)
+ *
+ * As subclasses só escrevem o cabeçalho e cada linha.
+ */
+public abstract class RelatorioTextoService implements RelatorioStreamingService {
+
+    private static final long serialVersionUID = 1L;
+
+    // Tamanho do buffer de caracteres
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private final boolean gzip;
+
+    /**
+     * @param gzip true para compactar a saída (arquivo .gz)
+     */
+    protected RelatorioTextoService(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    @Override
+    public void gerarRelatorio(Iterable<Certidao> certidoes, OutputStream outputStream) throws IOException {
+        escrever(certidoes, outputStream);
+    }
+
+    @Override
+    public void gerarRelatorio(CertidaoRepository repository, CertidaoFiltro filtro, OutputStream outputStream)
+            throws IOException {
+        escrever(new CertidaoCursor(repository, filtro), outputStream);
+    }
+
+    @Override
+    public String getContentType() {
+        return gzip ? "application/gzip" : getContentTypeTexto();
+    }
+
+    @Override
+    public String getFileExtension() {
+        return gzip ? getExtensaoTexto() + ".gz" : getExtensaoTexto();
+    }
+
+    /**
+     * Tipo MIME do texto sem compactação
+     */
+    protected abstract String getContentTypeTexto();
+
+    /**
+     * Extensão do arquivo sem compactação (ex: ".csv")
+     */
+    protected abstract String getExtensaoTexto();
+
+    /**
+     * Escreve o cabeçalho do arquivo (pode não escrever nada)
+     */
+    protected abstract void escreverCabecalho(Saida saida) throws IOException;
+
+    /**
+     * Escreve uma certidão, incluindo a quebra de linha
+     */
+    protected abstract void escreverLinha(Certidao certidao, Saida saida) throws IOException;
+
+    /**
+     * Escreve uma data (epoch-day) sem criar String: dd/MM/yyyy ou, com
+     * iso = true, yyyy-MM-dd.
+     */
+    protected static void escreverData(int epochDay, Saida saida, boolean iso) throws IOException {
+        saida.escreverData(epochDay, iso);
+    }
+
+    private void escrever(Iterable<Certidao> certidoes, OutputStream outputStream) throws IOException {
+        Saida saida = abrir(outputStream);
+        escreverCabecalho(saida);
+        for (Certidao certidao : certidoes) {
+            escreverLinha(certidao, saida);
+        }
+        fechar(saida);
+    }
+
+    private Saida abrir(OutputStream outputStream) throws IOException {
+        OutputStream destino = gzip ? new GZIPOutputStream(new NaoFecha(outputStream), TAMANHO_BUFFER) : outputStream;
+        return new Saida(new OutputStreamWriter(destino, StandardCharsets.UTF_8));
+    }
+
+    private void fechar(Saida saida) throws IOException {
+        saida.descarregar();
+        if (gzip) {
+            // Escreve o final do gzip (o stream de destino continua aberto)
+            saida.writer.close();
+        } else {
+            saida.writer.flush();
+        }
+    }
+
+    /**
+     * Buffer de caracteres de uma geração de relatório.
+     *
+     * Não é thread-safe: cada chamada de gerarRelatorio cria o seu.
+     */
+    protected static final class Saida {
+        private final Writer writer;
+        private final char[] buffer = new char[TAMANHO_BUFFER];
+        // dd/MM/yyyy da data sendo escrita (reaproveitado)
+        private final char[] data = new char[DataCodec.TAMANHO];
+        private int posicao;
+
+        Saida(Writer writer) {
+            this.writer = writer;
+        }
+
+        public Saida escrever(char c) throws IOException {
+            if (posicao == buffer.length) {
+                descarregar();
+            }
+            buffer[posicao++] = c;
+            return this;
+        }
+
+        /**
+         * Escreve o texto como está (sem escape)
+         */
+        public Saida escrever(String texto) throws IOException {
+            int tamanho = texto.length();
+            int inicio = 0;
+            while (inicio < tamanho) {
+                if (posicao == buffer.length) {
+                    descarregar();
+                }
+                int n = Math.min(tamanho - inicio, buffer.length - posicao);
+                texto.getChars(inicio, inicio + n, buffer, posicao);
+                posicao += n;
+                inicio += n;
+            }
+            return this;
+        }
+
+        /**
+         * Escreve um número inteiro sem criar String
+         */
+        public Saida escrever(long numero) throws IOException {
+            if (numero == Long.MIN_VALUE) {
+                return escrever(Long.toString(numero));
+            }
+            if (numero < 0) {
+                escrever('-');
+                numero = -numero;
+            }
+            if (buffer.length - posicao < 20) {
+                descarregar();
+            }
+            int digitos = 1;
+            for (long resto = numero / 10; resto > 0; resto /= 10) {
+                digitos++;
+            }
+            int fim = posicao + digitos;
+            for (int i = fim - 1; i >= posicao; i--) {
+                buffer[i] = (char) ('0' + numero % 10);
+                numero /= 10;
+            }
+            posicao = fim;
+            return this;
+        }
+
+        /**
+         * Escreve a data (epoch-day) formatada pelo DataCodec: dd/MM/yyyy ou,
+         * com iso = true, os mesmos dígitos na ordem yyyy-MM-dd
+         */
+        public Saida escreverData(int epochDay, boolean iso) throws IOException {
+            if (buffer.length - posicao < DataCodec.TAMANHO) {
+                descarregar();
+            }
+            if (!iso) {
+                DataCodec.formatar(epochDay, buffer, posicao);
+                posicao += DataCodec.TAMANHO;
+                return this;
+            }
+            DataCodec.formatar(epochDay, data, 0);
+            System.arraycopy(data, 6, buffer, posicao, 4);
+            buffer[posicao + 4] = '-';
+            buffer[posicao + 5] = data[3];
+            buffer[posicao + 6] = data[4];
+            buffer[posicao + 7] = '-';
+            buffer[posicao + 8] = data[0];
+            buffer[posicao + 9] = data[1];
+            posicao += DataCodec.TAMANHO;
+            return this;
+        }
+
+        void descarregar() throws IOException {
+            writer.write(buffer, 0, posicao);
+            posicao = 0;
+        }
+    }
+
+    /**
+     * Impede que o fechamento do gzip feche o stream de destino (ex: resposta HTTP)
+     */
+    private static final class NaoFecha extends java.io.FilterOutputStream {
+        NaoFecha(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
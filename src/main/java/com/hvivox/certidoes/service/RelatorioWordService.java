@@ -1,10 +1,11 @@
 package com.hvivox.certidoes.service;
 
+import com.hvivox.certidoes.converter.DataCodec;
 import com.hvivox.certidoes.domain.Certidao;
 import org.apache.poi.xwpf.usermodel.*;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 
 /**
  * MÓDULO 7 - ITEM 59: RELATÓRIOS COM APACHE POI - WORD
@@ -19,7 +20,7 @@ import java.util.List;
 public class RelatorioWordService implements RelatorioService {
     
     @Override
-    public ByteArrayOutputStream gerarRelatorio(List<Certidao> certidoes) throws Exception {
+    public void gerarRelatorio(Iterable<Certidao> certidoes, OutputStream outputStream) throws Exception {
         // Criar documento
         XWPFDocument document = new XWPFDocument();
         
@@ -37,14 +38,15 @@ public class RelatorioWordService implements RelatorioService {
         XWPFParagraph dataRelatorio = document.createParagraph();
         dataRelatorio.setAlignment(ParagraphAlignment.CENTER);
         XWPFRun runData = dataRelatorio.createRun();
-        runData.setText("Gerado em: " + new java.text.SimpleDateFormat("dd/MM/yyyy HH:mm").format(new java.util.Date()));
+        runData.setText("Gerado em: " + DataCodec.formatarDataHora(LocalDateTime.now()));
         runData.setFontSize(10);
         runData.setFontFamily("Arial");
         runData.addBreak();
         runData.addBreak();
         
         // Criar tabela
-        XWPFTable table = document.createTable(certidoes.size() + 1, 6);
+        // Só o cabeçalho: as linhas são criadas enquanto as certidões são percorridas
+        XWPFTable table = document.createTable(1, 6);
         table.setWidth("100%");
         
         // Cabeçalho da tabela
@@ -57,9 +59,10 @@ public class RelatorioWordService implements RelatorioService {
         configurarCelulaHeader(headerRow.getCell(5), "Status");
         
         // Preencher dados
-        int rowIndex = 1;
+        int total = 0;
         for (Certidao certidao : certidoes) {
-            XWPFTableRow row = table.getRow(rowIndex++);
+            XWPFTableRow row = table.createRow();
+            total++;
             
             configurarCelula(row.getCell(0), certidao.getId() != null ? certidao.getId().toString() : "");
             configurarCelula(row.getCell(1), certidao.getNumero() != null ? certidao.getNumero() : "");
@@ -75,17 +78,18 @@ public class RelatorioWordService implements RelatorioService {
         XWPFRun runRodape = rodape.createRun();
         runRodape.addBreak();
         runRodape.addBreak();
-        runRodape.setText("Total de certidões: " + certidoes.size());
+        runRodape.setText("Total de certidões: " + total);
         runRodape.setFontSize(10);
         runRodape.setItalic(true);
         runRodape.setFontFamily("Arial");
         
-        // Escrever para ByteArrayOutputStream
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        document.write(outputStream);
-        document.close();
-        
-        return outputStream;
+        // Escrever direto no stream de destino (sem cópia intermediária em memória)
+        try {
+            document.write(outputStream);
+            outputStream.flush();
+        } finally {
+            document.close();
+        }
     }
     
     /**
@@ -0,0 +1,134 @@
+package com.hvivox.certidoes.validator;
+
+import com.hvivox.certidoes.infra.CertidaoRepository;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Consultas recentes de "número já existe?", compartilhadas entre todos os
+ * formulários abertos.
+ *
+ * Com a validação ao digitar, o mesmo número chega várias vezes em poucos
+ * segundos (vários usuários, requisições Ajax repetidas). Aqui cada consulta
+ * é feita uma vez só:
+ * - Consultas iguais ao mesmo tempo são agrupadas: a primeira thread consulta
+ *   o repositório e as demais esperam pelo mesmo resultado
+ * - O resultado fica guardado por VALIDADE_MS
+ *
+ * As respostas ficam separadas por instância de repositório (mapa com
+ * chave fraca: um repositório descartado leva junto as suas respostas), e a
+ * chave inclui a versão dele (CertidaoRepository.getVersao()): depois de
+ * qualquer save/delete a chave muda, então uma resposta guardada nunca fica
+ * desatualizada. A validade só limita a memória usada.
+ * Repositórios sem versão (SEM_VERSAO) são consultados diretamente.
+ *
+ * EXEMPLO DE USO:
+ * boolean existe = ConsultaNumeroCache.get().existeNumero(repository, "CERT-001", null);
+ */
+public final class ConsultaNumeroCache {
+
+    // Tempo que uma resposta fica guardada
+    static final long VALIDADE_MS = 5000;
+
+    // Acima disso as respostas vencidas são descartadas
+    static final int LIMITE_ENTRADAS = 1024;
+
+    private static final ConsultaNumeroCache INSTANCIA = new ConsultaNumeroCache(VALIDADE_MS);
+
+    private final Map<CertidaoRepository, ConcurrentHashMap<String, Consulta>> porRepositorio =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private final long validadeMs;
+
+    /**
+     * @param validadeMs Tempo que uma resposta fica guardada
+     */
+    public ConsultaNumeroCache(long validadeMs) {
+        this.validadeMs = validadeMs;
+    }
+
+    /**
+     * Instância compartilhada pelos validadores (validade VALIDADE_MS)
+     */
+    public static ConsultaNumeroCache get() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Equivalente a repository.existsByNumero(numero, excetoId).
+     *
+     * @param repository Repositório consultado
+     * @param numero     Número (já sem espaços nas pontas)
+     * @param excetoId   Id a desconsiderar (null = nenhum)
+     * @return true se outra certidão já usa o número
+     */
+    public boolean existeNumero(CertidaoRepository repository, String numero, Long excetoId) {
+        long versao = repository.getVersao();
+        if (versao == CertidaoRepository.SEM_VERSAO) {
+            return repository.existsByNumero(numero, excetoId);
+        }
+
+        ConcurrentHashMap<String, Consulta> consultas =
+                porRepositorio.computeIfAbsent(repository, r -> new ConcurrentHashMap<>());
+        long agora = System.currentTimeMillis();
+        if (consultas.size() > LIMITE_ENTRADAS) {
+            consultas.values().removeIf(c -> c.vencida(agora));
+        }
+
+        String chave = versao + "|" + excetoId + '|' + numero;
+        Consulta consulta = consultas.compute(chave,
+                (k, atual) -> atual != null && !atual.vencida(agora) ? atual : new Consulta(agora + validadeMs));
+
+        if (consulta.iniciada.compareAndSet(false, true)) {
+            // Esta thread faz a consulta; as demais esperam em join()
+            try {
+                consulta.resultado.complete(repository.existsByNumero(numero, excetoId));
+            } catch (RuntimeException e) {
+                consultas.remove(chave, consulta);
+                consulta.resultado.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return consulta.resultado.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Respostas guardadas (e consultas em andamento), somando os repositórios
+     */
+    public int getQuantidade() {
+        synchronized (porRepositorio) {
+            int quantidade = 0;
+            for (ConcurrentHashMap<String, Consulta> consultas : porRepositorio.values()) {
+                quantidade += consultas.size();
+            }
+            return quantidade;
+        }
+    }
+
+    /**
+     * Uma consulta: em andamento (resultado ainda não completado) ou pronta
+     */
+    private static final class Consulta {
+        final CompletableFuture<Boolean> resultado = new CompletableFuture<>();
+        final AtomicBoolean iniciada = new AtomicBoolean();
+        final long venceEm;
+
+        Consulta(long venceEm) {
+            this.venceEm = venceEm;
+        }
+
+        boolean vencida(long agora) {
+            return agora >= venceEm && resultado.isDone();
+        }
+    }
+}
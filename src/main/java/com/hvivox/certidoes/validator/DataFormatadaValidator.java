@@ -1,13 +1,10 @@
 package com.hvivox.certidoes.validator;
 
+import com.hvivox.certidoes.converter.DataCodec;
 import org.apache.wicket.validation.IValidatable;
 import org.apache.wicket.validation.IValidator;
 import org.apache.wicket.validation.ValidationError;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
 /**
  * ====================================================================
  * VALIDADOR CUSTOMIZADO - DATA FORMATADA (dd/MM/yyyy)
@@ -20,6 +17,7 @@ import java.util.Date;
  * - Valida formato exato: dd/MM/yyyy (10 caracteres)
  * - Valida se a data é válida (não aceita 32/13/2025, por exemplo)
  * - Valida se a data parseada corresponde exatamente ao input
+ * - Sem SimpleDateFormat: usa o DataCodec (thread-safe, sem alocação)
  * - Reutilizável: pode ser usado em qualquer TextField de data
  * - Mensagens de erro personalizadas em português
  * 
@@ -43,9 +41,6 @@ import java.util.Date;
 public class DataFormatadaValidator implements IValidator<String> {
     private static final long serialVersionUID = 1L;
 
-    private static final String FORMATO_DATA = "dd/MM/yyyy";
-    private static final int TAMANHO_ESPERADO = 10;
-
     private String mensagemErro;
 
     /**
@@ -82,35 +77,9 @@ public class DataFormatadaValidator implements IValidator<String> {
             return;
         }
 
-        // Validar tamanho
-        if (dataStr.length() != TAMANHO_ESPERADO) {
-            ValidationError error = new ValidationError();
-            error.setMessage(mensagemErro);
-            validatable.error(error);
-            return;
-        }
-
-        // Validar formato e se a data é válida
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat(FORMATO_DATA);
-            sdf.setLenient(false); // Não aceitar datas inválidas como 32/13/2025
-
-            Date date = sdf.parse(dataStr);
-
-            // Verificar se a data parseada corresponde exatamente ao input
-            // Isso garante que "01/01/2025" não seja aceito como "1/1/2025"
-            String dataFormatada = sdf.format(date);
-            if (!dataFormatada.equals(dataStr)) {
-                ValidationError error = new ValidationError();
-                error.setMessage(mensagemErro);
-                validatable.error(error);
-                return;
-            }
-
-            // Se chegou aqui, a data é válida!
-
-        } catch (ParseException e) {
-            // Data inválida (formato incorreto ou data inexistente)
+        // Validar formato e se a data é válida (DataCodec: tamanho, zeros à
+        // esquerda e datas inexistentes como 32/13/2025 ou 29/02/2023)
+        if (!DataCodec.isValida(dataStr)) {
             ValidationError error = new ValidationError();
             error.setMessage(mensagemErro);
             validatable.error(error);
@@ -1,7 +1,7 @@
 package com.hvivox.certidoes.validator;
 
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import com.hvivox.certidoes.infra.CertidaoRepository;
-import com.hvivox.certidoes.infra.InMemoryCertidaoRepository;
 import org.apache.wicket.validation.IValidatable;
 import org.apache.wicket.validation.IValidator;
 import org.apache.wicket.validation.ValidationError;
@@ -64,7 +64,7 @@ public class NumeroUnicoValidator implements IValidator<String> {
      */
     private CertidaoRepository getRepository() {
         if (repository == null) {
-            repository = new InMemoryCertidaoRepository();
+            repository = CacheCertidaoRepository.padrao();
         }
         return repository;
     }
@@ -88,36 +88,22 @@ public class NumeroUnicoValidator implements IValidator<String> {
         }
 
         String numeroNormalizado = numero.trim();
-        CertidaoRepository repo = getRepository();
 
-        // Verificar duplicação
-        boolean numeroExiste;
-
-        if (isEditMode && idAtual != null) {
-            // Modo edição: verificar se existe em outra certidão
-            numeroExiste = repo.findAll().stream()
-                    .filter(c -> c.getNumero() != null && c.getId() != null)
-                    .anyMatch(c -> c.getNumero().trim().equals(numeroNormalizado)
-                            && !c.getId().equals(idAtual));
-
-            if (numeroExiste) {
-                ValidationError error = new ValidationError();
+        // Consulta no índice de número do repositório (O(1), sem copiar a lista).
+        // Em modo edição, a própria certidão é desconsiderada.
+        // Com a validação ao digitar, consultas repetidas do mesmo número são
+        // agrupadas e reaproveitadas (ConsultaNumeroCache)
+        Long excetoId = isEditMode ? idAtual : null;
+        if (ConsultaNumeroCache.get().existeNumero(getRepository(), numeroNormalizado, excetoId)) {
+            ValidationError error = new ValidationError();
+            if (excetoId != null) {
                 error.setMessage("Já existe outra certidão com o número '" + numeroNormalizado
                         + "'. Por favor, use outro número.");
-                validatable.error(error);
-            }
-        } else {
-            // Modo novo: verificar se já existe
-            numeroExiste = repo.findAll().stream()
-                    .filter(c -> c.getNumero() != null)
-                    .anyMatch(c -> c.getNumero().trim().equals(numeroNormalizado));
-
-            if (numeroExiste) {
-                ValidationError error = new ValidationError();
+            } else {
                 error.setMessage("Já existe uma certidão com o número '" + numeroNormalizado
                         + "'. Por favor, use outro número.");
-                validatable.error(error);
             }
+            validatable.error(error);
         }
     }
 }
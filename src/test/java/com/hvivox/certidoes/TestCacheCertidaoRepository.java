@@ -0,0 +1,148 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.infra.InMemoryCertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Testa o CacheCertidaoRepository.
+ *
+ * TESTES:
+ * - Escopo da requisição: o mesmo id é buscado uma vez só
+ * - LRU: acertos, falhas e remoções por falta de espaço
+ * - Escritas pelo cache e fora dele não deixam valor antigo
+ * - Todas as leituras devolvem cópias
+ */
+public class TestCacheCertidaoRepository {
+
+    private ColunarCertidaoRepository repository;
+    private int buscas;
+    private CacheCertidaoRepository cache;
+
+    @Before
+    public void setUp() {
+        repository = new ColunarCertidaoRepository() {
+            @Override
+            public Optional<Certidao> findById(Long id) {
+                buscas++;
+                return super.findById(id);
+            }
+        };
+        cache = new CacheCertidaoRepository(repository, 2);
+    }
+
+    @After
+    public void tearDown() {
+        CacheCertidaoRepository.fecharEscopo();
+    }
+
+    @Test
+    public void escopoDaRequisicao() {
+        Long id = repository.save(nova("0001")).getId();
+
+        CacheCertidaoRepository.abrirEscopo();
+        cache.findById(id);
+        cache.findById(id);
+        cache.findById(999L);
+        cache.findById(999L);
+        CacheCertidaoRepository.fecharEscopo();
+
+        assertEquals(2, buscas);
+        assertEquals(2, cache.getAcertosRequisicao());
+
+        // Alterar a cópia devolvida não altera o que está guardado
+        cache.findById(id).get().setNumero("OUTRO");
+        assertEquals("0001", cache.findById(id).get().getNumero());
+    }
+
+    @Test
+    public void lruComRemocoes() {
+        Long a = repository.save(nova("A")).getId();
+        Long b = repository.save(nova("B")).getId();
+        Long c = repository.save(nova("C")).getId();
+
+        cache.findById(a);
+        cache.findById(b);
+        cache.findById(a);
+        cache.findById(c); // descarta b (usado há mais tempo)
+        cache.findById(a);
+        cache.findById(b);
+
+        assertEquals(4, cache.getFalhas());
+        assertEquals(2, cache.getAcertos());
+        assertEquals(2, cache.getRemocoes());
+        assertEquals(2, cache.tamanho());
+        assertEquals(4, buscas);
+    }
+
+    @Test
+    public void escritasInvalidam() {
+        Long id = repository.save(nova("0001")).getId();
+        cache.findById(id);
+
+        // Pelo cache: só o id alterado sai do cache
+        Certidao editada = cache.findById(id).get();
+        editada.setInteressado("Alterado");
+        cache.save(editada);
+        assertEquals("Alterado", cache.findById(id).get().getInteressado());
+
+        cache.updateStatus(Arrays.asList(id), CertidaoStatus.CANCELADA);
+        assertEquals(CertidaoStatus.CANCELADA, cache.findById(id).get().getStatus());
+
+        // Direto no repositório: percebido pela versão
+        repository.updateStatus(Arrays.asList(id), CertidaoStatus.EMITIDA);
+        assertEquals(CertidaoStatus.EMITIDA, cache.findById(id).get().getStatus());
+
+        cache.delete(id);
+        assertFalse(cache.findById(id).isPresent());
+    }
+
+    @Test
+    public void leiturasDevolvemCopias() {
+        // O InMemory devolve os objetos do store; o cache não pode repassá-los
+        InMemoryCertidaoRepository base = new InMemoryCertidaoRepository();
+        CacheCertidaoRepository sobreBase = new CacheCertidaoRepository(base, 2);
+        String numero = "COPIA-" + System.nanoTime();
+        Long id = base.save(nova(numero)).getId();
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setTextoBusca(numero);
+
+        try {
+            sobreBase.findAll().forEach(c -> c.setInteressado("A"));
+            sobreBase.findByFiltro(filtro).get(0).setInteressado("B");
+            sobreBase.findByFiltro(filtro, 0, 10,
+                    new CertidaoOrdenacao(CertidaoOrdenacao.Campo.ID, true)).get(0).setInteressado("C");
+            sobreBase.findByFiltroAfterId(filtro, null, 10).get(0).setInteressado("D");
+            sobreBase.findById(id).get().setInteressado("E");
+
+            assertEquals("Interessado " + numero, base.findById(id).get().getInteressado());
+            assertEquals("Interessado " + numero, sobreBase.findByFiltro(filtro).get(0).getInteressado());
+        } finally {
+            base.delete(id);
+        }
+    }
+
+    private static Certidao nova(String numero) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado("Interessado " + numero);
+        c.setDataEmissao("01/01/2026");
+        c.setStatus(CertidaoStatus.EMITIDA);
+        return c;
+    }
+}
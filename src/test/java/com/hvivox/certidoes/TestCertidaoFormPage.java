@@ -6,6 +6,8 @@ import org.apache.wicket.util.tester.WicketTester;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertTrue;
+
 /**
  * MÓDULO 7 - ITEM 55: TESTE UNITÁRIO 1 - Formulário de Certidão
  * 
@@ -16,6 +18,7 @@ import org.junit.Test;
  * - Formulário existe
  * - Campos obrigatórios funcionam
  * - Submissão com dados válidos funciona
+ * - Validação ao digitar (evento "input"): feedback e classe is-invalid
  */
 public class TestCertidaoFormPage {
 
@@ -88,4 +91,28 @@ public class TestCertidaoFormPage {
         // A página não deve ter mensagens de sucesso quando há erros de validação
         tester.assertRenderedPage(CertidaoFormPage.class);
     }
+
+    @Test
+    public void validacaoAoDigitarNumeroRepetido() {
+        tester.startPage(CertidaoFormPage.class);
+
+        // Número dos dados iniciais: erro no feedback do campo e is-invalid ligado
+        FormTester formTester = tester.newFormTester("form", false);
+        formTester.setValue("numero", "0001");
+        tester.executeAjaxEvent("form:numero", "input");
+
+        tester.assertComponentOnAjaxResponse("form:numeroFeedback");
+        tester.assertFeedback("form:numeroFeedback",
+                "Já existe uma certidão com o número '0001'. Por favor, use outro número.");
+        assertTrue(tester.getLastResponseAsString().contains("classList.toggle('is-invalid',true)"));
+
+        // Número livre: feedback vazio e is-invalid desligado
+        formTester = tester.newFormTester("form", false);
+        formTester.setValue("numero", "CERT-DIGITADO-" + System.nanoTime());
+        tester.executeAjaxEvent("form:numero", "input");
+
+        tester.assertComponentOnAjaxResponse("form:numeroFeedback");
+        tester.assertFeedback("form:numeroFeedback");
+        assertTrue(tester.getLastResponseAsString().contains("classList.toggle('is-invalid',false)"));
+    }
 }
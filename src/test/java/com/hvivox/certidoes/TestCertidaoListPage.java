@@ -1,10 +1,31 @@
 package com.hvivox.certidoes;
 
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoDataProvider;
+import com.hvivox.certidoes.model.CertidaoFiltro;
 import com.hvivox.certidoes.page.CertidaoListPage;
+import org.apache.wicket.Component;
+import org.apache.wicket.extensions.markup.html.repeater.data.sort.OrderByLink;
+import org.apache.wicket.extensions.markup.html.repeater.data.table.DataTable;
+import org.apache.wicket.markup.html.navigation.paging.PagingNavigator;
+import org.apache.wicket.util.tester.FormTester;
 import org.apache.wicket.util.tester.WicketTester;
+import org.apache.wicket.util.visit.IVisitor;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 /**
  * MÓDULO 7 - ITEM 55: TESTE UNITÁRIO 2 - Listagem de Certidões
  * 
@@ -14,16 +35,27 @@ import org.junit.Test;
  * - Página renderiza corretamente
  * - DataView existe
  * - Links de ação existem
+ * - Cancelamento em lote disponível
+ * - CertidaoDataProvider: size(), ordenação pelo cabeçalho, navegação entre
+ *   páginas e volta à primeira página quando o filtro muda
  */
 public class TestCertidaoListPage {
 
+    private static final int TOTAL = 25;
+
     private WicketTester tester;
+    private final List<Long> criadas = new ArrayList<>();
 
     @Before
     public void setUp() {
         tester = new WicketTester(new WicketApplication());
     }
 
+    @After
+    public void tearDown() {
+        CacheCertidaoRepository.padrao().deleteAll(criadas);
+    }
+
     @Test
     public void listPageRendersSuccessfully() {
         // Iniciar e renderizar a página de listagem
@@ -46,9 +78,9 @@ public class TestCertidaoListPage {
     public void repeatingComponentExists() {
         tester.startPage(CertidaoListPage.class);
 
-        // Verificar se o componente repetidor existe (ListView)
+        // Verificar se o componente repetidor existe (DataTable paginado)
         tester.assertComponent("tableContainer:certidoes",
-                org.apache.wicket.markup.html.list.ListView.class);
+                org.apache.wicket.extensions.markup.html.repeater.data.table.DataTable.class);
     }
 
     @Test
@@ -59,4 +91,94 @@ public class TestCertidaoListPage {
         // O DataView deve ter pelo menos um item
         tester.assertContains("Certidão");
     }
+
+    @Test
+    public void bulkCancelButtonExists() {
+        tester.startPage(CertidaoListPage.class);
+
+        // Botão de cancelamento em lote dentro do formulário da tabela
+        tester.assertComponent("tableContainer:btnCancelarSelecionadas",
+                org.apache.wicket.ajax.markup.html.form.AjaxButton.class);
+    }
+
+    @Test
+    public void ordenacaoPaginacaoEFiltro() {
+        String prefixo = criarCertidoes();
+        tester.startPage(CertidaoListPage.class);
+        buscar(prefixo);
+
+        // size() do provider: total do filtro, não só a página
+        DataTable<?, ?> tabela = tabela();
+        assertEquals(TOTAL, tabela.getItemCount());
+        assertEquals(2, tabela.getPageCount());
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setTextoBusca(prefixo);
+        assertEquals(TOTAL, new CertidaoDataProvider(filtro).size());
+
+        // Cabeçalho "Número" (segunda coluna ordenável): ordem crescente
+        tester.clickLink(caminhos(OrderByLink.class).get(1), false);
+        String html = tester.getLastResponseAsString();
+        assertEmOrdem(html, prefixo + "-00", prefixo + "-01", prefixo + "-10", prefixo + "-19");
+        assertFalse(html.contains(prefixo + "-20"));
+
+        // Próxima página: as linhas restantes, na mesma ordem
+        tester.clickLink(caminhos(PagingNavigator.class).get(0) + ":next", false);
+        html = tester.getLastResponseAsString();
+        assertEquals(1, tabela().getCurrentPage());
+        assertEmOrdem(html, prefixo + "-20", prefixo + "-21", prefixo + "-24");
+        assertFalse(html.contains(prefixo + "-19"));
+
+        // Filtro novo: volta para a primeira página
+        buscar(prefixo + "-2");
+        assertEquals(0, tabela().getCurrentPage());
+        assertEquals(5, tabela().getItemCount()); // -20 a -24
+    }
+
+    /**
+     * Cria TOTAL certidões com números PREFIXO-00 a PREFIXO-24, salvas fora
+     * da ordem dos números.
+     */
+    private String criarCertidoes() {
+        String prefixo = "LST" + System.nanoTime();
+        CertidaoRepository repository = CacheCertidaoRepository.padrao();
+        for (int i = 0; i < TOTAL; i++) {
+            Certidao certidao = new Certidao();
+            certidao.setNumero(String.format("%s-%02d", prefixo, (i * 7) % TOTAL));
+            certidao.setTipo(CertidaoTipo.NEGATIVA);
+            certidao.setInteressado("Interessado da listagem");
+            certidao.setDataEmissao("01/01/2026");
+            certidao.setStatus(CertidaoStatus.EMITIDA);
+            criadas.add(repository.save(certidao).getId());
+        }
+        return prefixo;
+    }
+
+    private void buscar(String texto) {
+        FormTester formTester = tester.newFormTester("formBusca", false);
+        formTester.setValue("textoBusca", texto);
+        tester.executeAjaxEvent("formBusca:btnBuscar", "click");
+    }
+
+    private DataTable<?, ?> tabela() {
+        return (DataTable<?, ?>) tester.getComponentFromLastRenderedPage("tableContainer:certidoes");
+    }
+
+    /**
+     * Caminhos dos componentes do tipo, na ordem em que estão na página
+     */
+    private List<String> caminhos(Class<? extends Component> tipo) {
+        List<String> caminhos = new ArrayList<>();
+        tester.getLastRenderedPage().visitChildren(tipo,
+                (IVisitor<Component, Void>) (componente, visita) -> caminhos.add(componente.getPageRelativePath()));
+        return caminhos;
+    }
+
+    private static void assertEmOrdem(String html, String... textos) {
+        int anterior = -1;
+        for (String texto : textos) {
+            int posicao = html.indexOf(texto);
+            assertTrue(texto + " fora da ordem esperada", posicao > anterior);
+            anterior = posicao;
+        }
+    }
 }
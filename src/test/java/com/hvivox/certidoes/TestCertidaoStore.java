@@ -0,0 +1,477 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CertidaoEstatisticas;
+import com.hvivox.certidoes.infra.CertidaoStore;
+import com.hvivox.certidoes.infra.NumeroDuplicadoException;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Teste de estresse do CertidaoStore.
+ *
+ * TESTES:
+ * - Ordem de inserção é mantida na listagem
+ * - Escritas e leituras concorrentes não corrompem o store
+ * - Ids gerados em paralelo são únicos
+ * - Número único: duplicado é recusado, inclusive em salvamentos simultâneos
+ * - Escrita em lote: tudo ou nada, ids em sequência, status e exclusão em lote
+ * - Estatísticas por tipo, status e mês acompanham as escritas
+ * - Busca por texto: sem acentos e maiúsculas, trecho curto, trigramas fora de ordem
+ * - Período com horário, ordenação com valores vazios, contagem e cursor
+ * - Consultas repetidas (cache de consultas) acompanham as escritas
+ */
+public class TestCertidaoStore {
+
+    private static final int ESCRITORES = 8;
+    private static final int LEITORES = 4;
+    private static final int OPERACOES_POR_ESCRITOR = 5000;
+
+    private CertidaoStore store;
+
+    @Before
+    public void setUp() {
+        store = new CertidaoStore();
+    }
+
+    @Test
+    public void listagemMantemOrdemDeInsercao() {
+        Certidao a = store.salvar(nova("A"));
+        Certidao b = store.salvar(nova("B"));
+        Certidao c = store.salvar(nova("C"));
+
+        // Atualizar não muda a posição
+        a.setInteressado("A atualizada");
+        store.salvar(a);
+
+        List<Certidao> todas = store.listar();
+        assertEquals(3, todas.size());
+        assertEquals(a.getId(), todas.get(0).getId());
+        assertEquals(b.getId(), todas.get(1).getId());
+        assertEquals(c.getId(), todas.get(2).getId());
+        assertEquals("A atualizada", store.buscar(a.getId()).getInteressado());
+    }
+
+    @Test
+    public void idInformadoAvancaSequencia() {
+        Certidao importada = nova("IMP");
+        importada.setId(100L);
+        store.salvar(importada);
+
+        Certidao nova = store.salvar(nova("NOVA"));
+        assertTrue(nova.getId() > 100L);
+    }
+
+    @Test
+    public void numeroDuplicadoERecusado() {
+        Certidao a = store.salvar(nova("0001"));
+        assertTrue(store.existeNumero(" 0001 ", null));
+        assertFalse(store.existeNumero("0001", a.getId()));
+
+        Certidao duplicada = nova("0001 ");
+        try {
+            store.salvar(duplicada);
+            fail("Número duplicado foi aceito");
+        } catch (NumeroDuplicadoException e) {
+            assertEquals("0001", e.getNumero());
+        }
+        assertNull(duplicada.getId());
+        assertEquals(1, store.tamanho());
+
+        // Alterar o número libera o anterior
+        a.setNumero("0002");
+        store.salvar(a);
+        assertFalse(store.existeNumero("0001", null));
+        assertNotNull(store.salvar(duplicada).getId());
+    }
+
+    @Test
+    public void numeroDisputadoPorVariasThreads() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(ESCRITORES);
+        CountDownLatch largada = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Long> aceitas = new ConcurrentLinkedQueue<>();
+        for (int t = 0; t < ESCRITORES; t++) {
+            pool.execute(() -> {
+                try {
+                    largada.await();
+                    for (int i = 0; i < 1000; i++) {
+                        try {
+                            aceitas.add(store.salvar(nova("N" + i)).getId());
+                        } catch (NumeroDuplicadoException e) {
+                            // esperado para todas as threads menos uma
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        largada.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        // Cada número foi aceito exatamente uma vez
+        assertEquals(1000, aceitas.size());
+        assertEquals(1000, store.tamanho());
+    }
+
+    @Test
+    public void escritasELeiturasConcorrentes() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(ESCRITORES + LEITORES);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<Throwable> erros = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> idsMantidos = new ConcurrentLinkedQueue<>();
+
+        List<java.util.concurrent.Future<?>> escritores = new ArrayList<>();
+        for (int t = 0; t < ESCRITORES; t++) {
+            final int thread = t;
+            escritores.add(pool.submit(() -> {
+                try {
+                    largada.await();
+                    for (int i = 0; i < OPERACOES_POR_ESCRITOR; i++) {
+                        Certidao c = store.salvar(nova(thread + "-" + i));
+                        if (i % 3 == 0) {
+                            // Atualização do mesmo registro
+                            c.setStatus(CertidaoStatus.EMITIDA);
+                            store.salvar(c);
+                        }
+                        if (i % 2 == 0) {
+                            assertTrue(store.remover(c.getId()));
+                        } else {
+                            idsMantidos.add(c.getId());
+                        }
+                    }
+                } catch (Throwable e) {
+                    erros.add(e);
+                }
+            }));
+        }
+
+        for (int t = 0; t < LEITORES; t++) {
+            pool.submit(() -> {
+                try {
+                    largada.await();
+                    while (escrevendo.get()) {
+                        for (Certidao c : store.valores()) {
+                            assertNotNull(c.getId());
+                        }
+                        store.listar();
+                        store.tamanho();
+                    }
+                } catch (Throwable e) {
+                    erros.add(e);
+                }
+            });
+        }
+
+        largada.countDown();
+        for (java.util.concurrent.Future<?> f : escritores) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        escrevendo.set(false);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertTrue("Erros durante o teste: " + erros, erros.isEmpty());
+
+        int esperado = ESCRITORES * (OPERACOES_POR_ESCRITOR / 2);
+        assertEquals(esperado, idsMantidos.size());
+        assertEquals(esperado, store.tamanho());
+        assertEquals(esperado, store.listar().size());
+
+        Set<Long> unicos = new HashSet<>(idsMantidos);
+        assertEquals("Ids repetidos", esperado, unicos.size());
+        for (Long id : unicos) {
+            assertNotNull(store.buscar(id));
+        }
+
+        // Listagem continua ordenada por inserção (ids crescentes)
+        long anterior = Long.MIN_VALUE;
+        for (Certidao c : store.listar()) {
+            assertFalse(c.getId() <= anterior);
+            anterior = c.getId();
+        }
+    }
+
+    @Test
+    public void salvarTodosGeraIdsEmOrdemOuNada() {
+        store.salvar(nova("EXISTENTE"));
+        List<Certidao> lote = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            lote.add(nova("L" + i));
+        }
+        store.salvarTodos(lote);
+        assertEquals(101, store.tamanho());
+        for (int i = 1; i < lote.size(); i++) {
+            assertEquals(lote.get(i - 1).getId() + 1, (long) lote.get(i).getId());
+        }
+
+        // Um número repetido recusa o lote inteiro
+        List<Certidao> recusado = new ArrayList<>();
+        recusado.add(nova("NOVA"));
+        recusado.add(nova("EXISTENTE"));
+        try {
+            store.salvarTodos(recusado);
+            fail("Lote com número duplicado foi aceito");
+        } catch (NumeroDuplicadoException e) {
+            assertEquals("EXISTENTE", e.getNumero());
+        }
+        assertNull(recusado.get(0).getId());
+        assertFalse(store.existeNumero("NOVA", null));
+        assertEquals(101, store.tamanho());
+    }
+
+    @Test
+    public void statusEExclusaoEmLote() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(store.salvar(nova("S" + i)).getId());
+        }
+        long versao = store.versao();
+        Certidao lidaAntes = store.buscar(ids.get(0));
+
+        assertEquals(10, store.atualizarStatus(ids, CertidaoStatus.CANCELADA));
+        assertEquals(versao + 1, store.versao());
+        assertEquals(CertidaoStatus.CANCELADA, store.buscar(ids.get(0)).getStatus());
+        // O registro é trocado, não alterado: quem leu antes não vê o lote
+        assertEquals(CertidaoStatus.RASCUNHO, lidaAntes.getStatus());
+        CertidaoFiltro canceladas = new CertidaoFiltro();
+        canceladas.setStatus(CertidaoStatus.CANCELADA);
+        assertEquals(10, store.contar(canceladas));
+        canceladas.setStatus(CertidaoStatus.RASCUNHO);
+        assertEquals(0, store.contar(canceladas));
+        // Já canceladas: nada muda
+        assertEquals(0, store.atualizarStatus(ids, CertidaoStatus.CANCELADA));
+
+        assertEquals(5, store.removerTodos(ids.subList(0, 5)));
+        assertEquals(5, store.tamanho());
+        assertFalse(store.existeNumero("S0", null));
+        assertEquals(0, store.removerTodos(ids.subList(0, 5)));
+    }
+
+    @Test
+    public void estatisticasAcompanhamEscritas() {
+        Certidao janeiro = store.salvar(nova("E1"));
+        Certidao fevereiro = nova("E2");
+        fevereiro.setDataEmissao("15/02/2026");
+        fevereiro.setTipo(CertidaoTipo.POSITIVA);
+        store.salvar(fevereiro);
+        Certidao semData = nova("E3");
+        semData.setDataEmissao("texto livre");
+        store.salvar(semData);
+
+        // Atualização move a certidão entre os contadores
+        janeiro.setDataEmissao("20/02/2026");
+        store.salvar(janeiro);
+        store.atualizarStatus(Arrays.asList(fevereiro.getId()), CertidaoStatus.EMITIDA);
+        store.remover(semData.getId());
+
+        CertidaoEstatisticas estatisticas = store.estatisticas();
+        assertEquals(2, estatisticas.getTotal());
+        assertEquals(1, estatisticas.getPorTipo(CertidaoTipo.NEGATIVA));
+        assertEquals(1, estatisticas.getPorTipo(CertidaoTipo.POSITIVA));
+        assertEquals(1, estatisticas.getPorStatus(CertidaoStatus.RASCUNHO));
+        assertEquals(1, estatisticas.getPorStatus(CertidaoStatus.EMITIDA));
+        assertEquals(0, estatisticas.getSemData());
+        assertEquals(1, estatisticas.getPorMes().size());
+        assertEquals(Long.valueOf(2), estatisticas.getPorMes().get(YearMonth.of(2026, 2)));
+    }
+
+    @Test
+    public void buscaPorTextoIgnoraAcentosEMaiusculas() {
+        Certidao sao = nova("SP-1");
+        sao.setInteressado("Prefeitura de São Paulo");
+        store.salvar(sao);
+        Certidao jose = nova("J-2");
+        jose.setInteressado("José da Silva");
+        store.salvar(jose);
+        Certidao trigramas = nova("T-3");
+        trigramas.setInteressado("abc bcd");
+        store.salvar(trigramas);
+        Certidao junto = nova("T-4");
+        junto.setInteressado("xabcdx");
+        store.salvar(junto);
+
+        assertEquals(ids(sao), ids(store.consultar(texto("  SAO PAULO "))));
+        assertEquals(ids(jose), ids(store.consultar(texto("jose"))));
+        assertEquals(ids(jose), ids(store.consultar(texto("JOSÉ"))));
+        // Menos de 3 letras: varredura, sem o índice de trigramas
+        assertEquals(ids(sao), ids(store.consultar(texto("sp"))));
+        // "abc bcd" tem os trigramas de "abcd", mas não o trecho
+        assertEquals(ids(junto), ids(store.consultar(texto("abcd"))));
+
+        // Texto alterado sai do índice
+        sao.setInteressado("Prefeitura de Campinas");
+        store.salvar(sao);
+        assertTrue(store.consultar(texto("sao paulo")).isEmpty());
+        assertEquals(ids(sao), ids(store.consultar(texto("campinas"))));
+    }
+
+    @Test
+    public void periodoComHorario() {
+        Certidao dia9 = store.salvar(comData("D9", "09/03/2026"));
+        Certidao dia10 = store.salvar(comData("D10", "10/03/2026"));
+        Certidao dia11 = store.salvar(comData("D11", "11/03/2026"));
+        store.salvar(comData("INVALIDA", "texto livre"));
+
+        // Início com horário: o próprio dia fica de fora
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setDataInicio(new GregorianCalendar(2026, 2, 10, 14, 30).getTime());
+        assertEquals(ids(dia11), ids(store.consultar(filtro)));
+        filtro.setDataInicio(new GregorianCalendar(2026, 2, 10).getTime());
+        assertEquals(ids(dia10, dia11), ids(store.consultar(filtro)));
+
+        // Fim com horário: o dia entra
+        filtro.setDataInicio(null);
+        filtro.setDataFim(new GregorianCalendar(2026, 2, 10, 14, 30).getTime());
+        assertEquals(ids(dia9, dia10), ids(store.consultar(filtro)));
+        assertEquals(2, store.contar(filtro));
+    }
+
+    @Test
+    public void ordenacaoComValoresVazios() {
+        Certidao bruno = nova("O1");
+        bruno.setInteressado("Bruno");
+        store.salvar(bruno);
+        Certidao vazio = nova("O2");
+        vazio.setInteressado(null);
+        store.salvar(vazio);
+        Certidao ana = nova("O3");
+        ana.setInteressado("Ana");
+        store.salvar(ana);
+        Certidao outraAna = nova("O4");
+        outraAna.setInteressado("Ana");
+        store.salvar(outraAna);
+
+        CertidaoOrdenacao.Campo campo = CertidaoOrdenacao.Campo.INTERESSADO;
+        assertEquals(ids(ana, outraAna, bruno, vazio),
+                ids(store.pagina(null, 0, 10, new CertidaoOrdenacao(campo, true))));
+        // Vazios no fim também na ordem decrescente; empate desfeito pelo id
+        assertEquals(ids(bruno, ana, outraAna, vazio),
+                ids(store.pagina(null, 0, 10, new CertidaoOrdenacao(campo, false))));
+        assertEquals(ids(outraAna, bruno),
+                ids(store.pagina(null, 1, 2, new CertidaoOrdenacao(campo, true))));
+    }
+
+    @Test
+    public void paginasECursorSemFalhasNemRepeticoes() {
+        for (int i = 0; i < 25; i++) {
+            Certidao certidao = nova("K" + i);
+            certidao.setStatus(i % 3 == 0 ? CertidaoStatus.CANCELADA : CertidaoStatus.EMITIDA);
+            store.salvar(certidao);
+        }
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setStatus(CertidaoStatus.EMITIDA);
+        List<Long> esperados = ids(store.consultar(filtro));
+        assertEquals(16, esperados.size());
+        assertEquals(16, store.contar(filtro));
+
+        List<Long> porCursor = new ArrayList<>();
+        Long ultimo = null;
+        List<Certidao> lote;
+        while (!(lote = store.depoisDe(filtro, ultimo, 4)).isEmpty()) {
+            porCursor.addAll(ids(lote));
+            ultimo = lote.get(lote.size() - 1).getId();
+        }
+        assertEquals(esperados, porCursor);
+
+        List<Long> porOffset = new ArrayList<>();
+        for (int offset = 0; offset < 20; offset += 5) {
+            porOffset.addAll(ids(store.pagina(filtro, offset, 5, null)));
+        }
+        assertEquals(esperados, porOffset);
+    }
+
+    @Test
+    public void consultasRepetidasAcompanhamEscritas() {
+        for (int i = 0; i < 30; i++) {
+            store.salvar(nova("SÃO-" + i));
+        }
+        Certidao outra = store.salvar(nova("OUTRA"));
+
+        // Espaços, maiúsculas e acentos não mudam a consulta
+        assertEquals(11, store.contar(texto("  Sao-1 ")));
+        CertidaoFiltro filtro = texto("são-1");
+        List<Certidao> pagina = store.pagina(filtro, 10, 10, null);
+        assertEquals(1, pagina.size());
+        assertEquals("SÃO-19", pagina.get(0).getNumero());
+
+        // Escrita fora do resultado
+        outra.setInteressado("Outro interessado");
+        store.salvar(outra);
+        assertEquals(11, store.contar(filtro));
+
+        // Escritas dentro do resultado
+        store.salvar(nova("SAO-100"));
+        assertEquals(12, store.contar(filtro));
+        assertEquals(12, store.consultar(filtro).size());
+        filtro.setStatus(CertidaoStatus.CANCELADA);
+        assertEquals(0, store.contar(filtro));
+        store.atualizarStatus(Arrays.asList(pagina.get(0).getId(), outra.getId()), CertidaoStatus.CANCELADA);
+        assertEquals(1, store.contar(filtro));
+        assertEquals(ids(pagina.get(0)), ids(store.depoisDe(filtro, null, 10)));
+        store.remover(pagina.get(0).getId());
+        assertEquals(0, store.contar(filtro));
+        assertTrue(store.consultar(filtro).isEmpty());
+    }
+
+    private static Certidao comData(String numero, String data) {
+        Certidao certidao = nova(numero);
+        certidao.setDataEmissao(data);
+        return certidao;
+    }
+
+    private static CertidaoFiltro texto(String textoBusca) {
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setTextoBusca(textoBusca);
+        return filtro;
+    }
+
+    private static List<Long> ids(Certidao... certidoes) {
+        List<Long> ids = new ArrayList<>();
+        for (Certidao certidao : certidoes) {
+            ids.add(certidao.getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(List<Certidao> certidoes) {
+        return ids(certidoes.toArray(new Certidao[0]));
+    }
+
+    private static Certidao nova(String numero) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado("Interessado " + numero);
+        c.setDataEmissao("01/01/2026");
+        c.setStatus(CertidaoStatus.RASCUNHO);
+        return c;
+    }
+}
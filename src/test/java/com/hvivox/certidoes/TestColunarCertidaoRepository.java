@@ -0,0 +1,276 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CertidaoEstatisticas;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.infra.NumeroDuplicadoException;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Testa o ColunarCertidaoRepository.
+ *
+ * TESTES:
+ * - Certidão volta igual ao que foi salvo (inclusive data inválida e nulos)
+ * - Filtros e ordenação sobre as colunas
+ * - Número único, exclusão e compactação
+ * - Página sem ordenação e lote recusado por número repetido
+ * - Estatísticas acompanham save, saveAll, updateStatus e delete
+ * - Ids fora de ordem (índice à parte), número com espaços e limit 0
+ */
+public class TestColunarCertidaoRepository {
+
+    private ColunarCertidaoRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new ColunarCertidaoRepository();
+    }
+
+    @Test
+    public void materializaOQueFoiSalvo() {
+        Certidao salva = repository.save(nova("0001", "Empresa Ação Ltda", "24/12/2025", CertidaoStatus.EMITIDA));
+        Certidao invalida = repository.save(nova("0002", null, "texto livre", null));
+
+        Certidao lida = repository.findById(salva.getId()).get();
+        assertEquals("0001", lida.getNumero());
+        assertEquals("Empresa Ação Ltda", lida.getInteressado());
+        assertEquals("24/12/2025", lida.getDataEmissao());
+        assertEquals(CertidaoTipo.NEGATIVA, lida.getTipo());
+        assertEquals(CertidaoStatus.EMITIDA, lida.getStatus());
+
+        lida = repository.findById(invalida.getId()).get();
+        assertNull(lida.getInteressado());
+        assertNull(lida.getStatus());
+        assertEquals("texto livre", lida.getDataEmissao());
+
+        // Alterar o objeto devolvido não altera o repositório
+        lida.setNumero("OUTRO");
+        assertEquals("0002", repository.findById(invalida.getId()).get().getNumero());
+    }
+
+    @Test
+    public void filtraEOrdenaNasColunas() {
+        repository.save(nova("A-1", "José da Silva", "01/01/2026", CertidaoStatus.EMITIDA));
+        repository.save(nova("B-2", "Maria Souza", "15/01/2026", CertidaoStatus.CANCELADA));
+        repository.save(nova("C-3", "Jose Pereira", "01/02/2026", CertidaoStatus.EMITIDA));
+
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setTextoBusca("JOSE");
+        assertEquals(2, repository.countByFiltro(filtro));
+
+        filtro = new CertidaoFiltro();
+        filtro.setStatus(CertidaoStatus.EMITIDA);
+        List<Certidao> pagina = repository.findByFiltro(filtro, 0, 10,
+                new CertidaoOrdenacao(CertidaoOrdenacao.Campo.INTERESSADO, false));
+        assertEquals(Arrays.asList("José da Silva", "Jose Pereira"), interessados(pagina));
+
+        pagina = repository.findByFiltroAfterId(null, pagina.get(0).getId(), 10);
+        assertEquals(2, pagina.size());
+        assertEquals("B-2", pagina.get(0).getNumero());
+    }
+
+    @Test
+    public void numeroUnicoExclusaoECompactacao() {
+        List<Certidao> lote = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            lote.add(nova("N" + i, "Interessado " + (i % 10), "01/01/2026", CertidaoStatus.EMITIDA));
+        }
+        repository.saveAll(lote);
+
+        try {
+            repository.save(nova(" N5 ", null, null, null));
+            fail("Número duplicado deveria ser recusado");
+        } catch (NumeroDuplicadoException esperado) {
+            // ok
+        }
+
+        List<Long> remover = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            remover.add(lote.get(i).getId());
+        }
+        repository.deleteAll(remover);
+
+        assertEquals(1000, repository.tamanho());
+        assertFalse(repository.existsByNumero("N5", null));
+        assertTrue(repository.existsByNumero("N2500", null));
+        assertEquals("N2500", repository.findById(lote.get(2500).getId()).get().getNumero());
+        assertEquals(1, repository.updateStatus(Arrays.asList(lote.get(2999).getId()), CertidaoStatus.CANCELADA));
+
+        // Número liberado pela exclusão pode ser usado de novo
+        repository.save(nova("N5", null, null, null));
+    }
+
+    @Test
+    public void paginaSemOrdenacaoELoteComNumeroRepetido() {
+        List<Certidao> lote = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            lote.add(nova("P" + i, "Interessado " + i, "01/01/2026",
+                    i % 2 == 0 ? CertidaoStatus.EMITIDA : CertidaoStatus.CANCELADA));
+        }
+        repository.saveAll(lote);
+
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setStatus(CertidaoStatus.EMITIDA);
+        List<Certidao> pagina = repository.findByFiltro(filtro, 10, 5, null);
+        assertEquals(5, pagina.size());
+        assertEquals("P20", pagina.get(0).getNumero());
+        assertEquals("P28", pagina.get(4).getNumero());
+        assertEquals(3, repository.findByFiltro(filtro, 22, 10, null).size());
+
+        // Lote tudo ou nada: número repetido no lote ou já usado
+        for (String repetido : new String[]{"NOVO", "P7"}) {
+            try {
+                repository.saveAll(Arrays.asList(nova("NOVO", null, null, null), nova(repetido, null, null, null)));
+                fail("Número duplicado deveria ser recusado");
+            } catch (NumeroDuplicadoException esperado) {
+                assertEquals(repetido, esperado.getNumero());
+            }
+            assertFalse(repository.existsByNumero("NOVO", null));
+            assertEquals(50, repository.tamanho());
+        }
+    }
+
+    @Test
+    public void estatisticasAcompanhamEscritas() {
+        CertidaoEstatisticas estatisticas = repository.getEstatisticas();
+        Certidao janeiro = repository.save(nova("E1", null, "10/01/2026", CertidaoStatus.EMITIDA));
+        repository.saveAll(Arrays.asList(
+                nova("E2", null, "20/01/2026", CertidaoStatus.EMITIDA),
+                nova("E3", null, "texto livre", CertidaoStatus.RASCUNHO)));
+        assertEquals(3, estatisticas.getTotal());
+        assertEquals(2, estatisticas.getPorStatus(CertidaoStatus.EMITIDA));
+        assertEquals(2L, (long) estatisticas.getPorMes().get(YearMonth.of(2026, 1)));
+        assertEquals(1, estatisticas.getSemData());
+
+        // Edição troca tipo, status e mês
+        janeiro.setTipo(CertidaoTipo.POSITIVA);
+        janeiro.setStatus(CertidaoStatus.RASCUNHO);
+        janeiro.setDataEmissao("05/02/2026");
+        repository.save(janeiro);
+        assertEquals(3, estatisticas.getTotal());
+        assertEquals(1, estatisticas.getPorTipo(CertidaoTipo.POSITIVA));
+        assertEquals(2, estatisticas.getPorTipo(CertidaoTipo.NEGATIVA));
+        assertEquals(2, estatisticas.getPorStatus(CertidaoStatus.RASCUNHO));
+        assertEquals(1L, (long) estatisticas.getPorMes().get(YearMonth.of(2026, 2)));
+
+        // Só os status que mudam contam
+        List<Long> alterar = Arrays.asList(janeiro.getId(), janeiro.getId() + 1);
+        assertEquals(2, repository.updateStatus(alterar, CertidaoStatus.CANCELADA));
+        assertEquals(0, repository.updateStatus(alterar, CertidaoStatus.CANCELADA));
+        assertEquals(2, estatisticas.getPorStatus(CertidaoStatus.CANCELADA));
+        assertEquals(1, estatisticas.getPorStatus(CertidaoStatus.RASCUNHO));
+        assertEquals(0, estatisticas.getPorStatus(CertidaoStatus.EMITIDA));
+
+        repository.delete(janeiro.getId());
+        repository.delete(janeiro.getId());
+        assertEquals(2, estatisticas.getTotal());
+        assertEquals(0, estatisticas.getPorTipo(CertidaoTipo.POSITIVA));
+        assertEquals(1, estatisticas.getPorStatus(CertidaoStatus.CANCELADA));
+        assertNull(estatisticas.getPorMes().get(YearMonth.of(2026, 2)));
+        assertEquals(1, estatisticas.getSemData());
+    }
+
+    @Test
+    public void idsForaDeOrdemNumeroComEspacosELimitZero() {
+        repository.saveAll(Arrays.asList(comId(10, "A"), comId(5, " B "), comId(7, "C")));
+        Certidao nova = repository.save(nova("D", null, null, null));
+        assertEquals(11L, (long) nova.getId());
+
+        assertEquals(Arrays.asList(5L, 7L, 10L, 11L), ids(repository.findAll()));
+        assertEquals(Arrays.asList(7L, 10L), ids(repository.findByFiltro(null, 1, 2, null)));
+        assertEquals(Arrays.asList(10L, 11L), ids(repository.findByFiltroAfterId(null, 7L, 10)));
+
+        // Número guardado uma vez só, mas devolvido como foi informado
+        assertEquals(" B ", repository.findById(5L).get().getNumero());
+        assertTrue(repository.existsByNumero("B", null));
+        try {
+            repository.save(nova("B", null, null, null));
+            fail("Número duplicado deveria ser recusado");
+        } catch (NumeroDuplicadoException esperado) {
+            assertEquals("B", esperado.getNumero());
+        }
+
+        // Id removido e salvo de novo reaproveita a posição
+        repository.delete(7L);
+        repository.save(comId(7, "C2"));
+        assertEquals(Arrays.asList(5L, 7L, 10L, 11L), ids(repository.findAll()));
+
+        assertTrue(repository.findByFiltro(null, 0, 0, null).isEmpty());
+        assertTrue(repository.findByFiltro(null, 0, 0,
+                new CertidaoOrdenacao(CertidaoOrdenacao.Campo.NUMERO, true)).isEmpty());
+    }
+
+    @Test
+    public void compactacaoComIdsForaDeOrdem() {
+        List<Certidao> lote = new ArrayList<>();
+        for (int id = 3000; id >= 1; id--) {
+            lote.add(comId(id, "N" + id));
+        }
+        repository.saveAll(lote);
+
+        List<Long> remover = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            remover.add(id);
+        }
+        repository.deleteAll(remover);
+
+        List<Long> restantes = ids(repository.findAll());
+        assertEquals(1000, restantes.size());
+        assertEquals(2001L, (long) restantes.get(0));
+        assertEquals(3000L, (long) restantes.get(999));
+        assertEquals("N2500", repository.findById(2500L).get().getNumero());
+        assertFalse(repository.findById(1500L).isPresent());
+        assertEquals(Arrays.asList(2999L, 3000L), ids(repository.findByFiltroAfterId(null, 2998L, 10)));
+        assertEquals(3001L, (long) repository.save(nova("NOVA", null, null, null)).getId());
+        assertTrue(repository.existsByNumero("N3000", null));
+        assertFalse(repository.existsByNumero("N1000", null));
+    }
+
+    private static Certidao comId(long id, String numero) {
+        Certidao c = nova(numero, null, "01/01/2026", CertidaoStatus.EMITIDA);
+        c.setId(id);
+        return c;
+    }
+
+    private static List<Long> ids(List<Certidao> certidoes) {
+        List<Long> ids = new ArrayList<>();
+        for (Certidao certidao : certidoes) {
+            ids.add(certidao.getId());
+        }
+        return ids;
+    }
+
+    private static List<String> interessados(List<Certidao> certidoes) {
+        List<String> nomes = new ArrayList<>();
+        for (Certidao certidao : certidoes) {
+            nomes.add(certidao.getInteressado());
+        }
+        return nomes;
+    }
+
+    private static Certidao nova(String numero, String interessado, String data, CertidaoStatus status) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado(interessado);
+        c.setDataEmissao(data);
+        c.setStatus(status);
+        return c;
+    }
+}
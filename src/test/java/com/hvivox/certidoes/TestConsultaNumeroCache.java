@@ -0,0 +1,148 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.validator.ConsultaNumeroCache;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Testa o ConsultaNumeroCache.
+ *
+ * TESTES:
+ * - Consultas iguais ao mesmo tempo viram uma consulta ao repositório
+ * - Resposta vencida ou versão nova consulta de novo
+ * - Consulta que falha não fica guardada
+ * - Repositórios diferentes (mesma classe e versão) não se misturam
+ */
+public class TestConsultaNumeroCache {
+
+    @Test
+    public void consultasIguaisSaoAgrupadas() throws Exception {
+        CountDownLatch consultando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Contador repository = new Contador(consultando, liberar);
+        repository.save(nova("0001"));
+        ConsultaNumeroCache cache = new ConsultaNumeroCache(60_000);
+
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> respostas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                respostas.add(threads.submit(() -> cache.existeNumero(repository, "0001", null)));
+            }
+            assertTrue(consultando.await(10, TimeUnit.SECONDS));
+            liberar.countDown();
+            for (Future<Boolean> resposta : respostas) {
+                assertTrue(resposta.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertEquals(1, repository.consultas.get());
+        assertEquals(1, cache.getQuantidade());
+    }
+
+    @Test
+    public void validadeEVersao() {
+        Contador repository = new Contador(null, null);
+        ConsultaNumeroCache guardada = new ConsultaNumeroCache(60_000);
+        assertFalse(guardada.existeNumero(repository, "0001", null));
+        assertFalse(guardada.existeNumero(repository, "0001", null));
+        assertEquals(1, repository.consultas.get());
+
+        // Escrita muda a versão: a resposta antiga não é mais usada
+        repository.save(nova("0001"));
+        assertTrue(guardada.existeNumero(repository, "0001", null));
+        assertEquals(2, repository.consultas.get());
+
+        // Validade zero: cada chamada consulta o repositório
+        ConsultaNumeroCache vencida = new ConsultaNumeroCache(0);
+        vencida.existeNumero(repository, "0001", null);
+        vencida.existeNumero(repository, "0001", null);
+        assertEquals(4, repository.consultas.get());
+    }
+
+    @Test
+    public void falhaNaoFicaGuardada() {
+        Contador repository = new Contador(null, null);
+        repository.falhar = true;
+        ConsultaNumeroCache cache = new ConsultaNumeroCache(60_000);
+        try {
+            cache.existeNumero(repository, "0001", null);
+            fail("A falha do repositório deveria chegar ao chamador");
+        } catch (IllegalStateException esperado) {
+            // ok
+        }
+        assertEquals(0, cache.getQuantidade());
+
+        repository.falhar = false;
+        assertFalse(cache.existeNumero(repository, "0001", null));
+        assertEquals(2, repository.consultas.get());
+    }
+
+    @Test
+    public void repositoriosNaoSeMisturam() {
+        ColunarCertidaoRepository comNumero = new ColunarCertidaoRepository();
+        ColunarCertidaoRepository semNumero = new ColunarCertidaoRepository();
+        comNumero.save(nova("0001"));
+        semNumero.save(nova("0002"));
+        assertEquals(comNumero.getVersao(), semNumero.getVersao());
+
+        ConsultaNumeroCache cache = new ConsultaNumeroCache(60_000);
+        assertTrue(cache.existeNumero(comNumero, "0001", null));
+        assertFalse(cache.existeNumero(semNumero, "0001", null));
+    }
+
+    private static Certidao nova(String numero) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        return c;
+    }
+
+    /**
+     * Conta as consultas; opcionalmente espera o teste liberar a primeira
+     */
+    private static final class Contador extends ColunarCertidaoRepository {
+        final AtomicInteger consultas = new AtomicInteger();
+        private final CountDownLatch consultando;
+        private final CountDownLatch liberar;
+        volatile boolean falhar;
+
+        Contador(CountDownLatch consultando, CountDownLatch liberar) {
+            this.consultando = consultando;
+            this.liberar = liberar;
+        }
+
+        @Override
+        public boolean existsByNumero(String numero, Long excludingId) {
+            consultas.incrementAndGet();
+            if (falhar) {
+                throw new IllegalStateException("Repositório indisponível");
+            }
+            if (consultando != null) {
+                consultando.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.existsByNumero(numero, excludingId);
+        }
+    }
+}
@@ -3,7 +3,14 @@ package com.hvivox.certidoes;
 import com.hvivox.certidoes.converter.CEPConverter;
 import com.hvivox.certidoes.converter.CNPJConverter;
 import com.hvivox.certidoes.converter.CPFConverter;
+import com.hvivox.certidoes.converter.Conversores;
 import com.hvivox.certidoes.converter.MoedaBrasileiraConverter;
+import com.hvivox.certidoes.domain.Cep;
+import com.hvivox.certidoes.domain.Cnpj;
+import com.hvivox.certidoes.domain.Cpf;
+import com.hvivox.certidoes.domain.Dinheiro;
+import org.apache.wicket.ConverterLocator;
+import org.apache.wicket.IConverterLocator;
 import org.apache.wicket.util.convert.ConversionException;
 import org.junit.Test;
 
@@ -22,7 +29,7 @@ import static org.junit.Assert.*;
  * - CNPJConverter formata corretamente
  * - CEPConverter formata corretamente
  * - MoedaBrasileiraConverter formata corretamente
- * - Validações funcionam
+ * - Validações funcionam (inclusive dígitos verificadores de CPF/CNPJ)
  */
 public class TestConverters {
 
@@ -33,12 +40,28 @@ public class TestConverters {
         CPFConverter converter = new CPFConverter();
 
         // Testar formatação
-        String formatted = converter.convertToString("12345678901", LOCALE_BR);
-        assertEquals("123.456.789-01", formatted);
+        String formatted = converter.convertToString("12345678909", LOCALE_BR);
+        assertEquals("123.456.789-09", formatted);
 
         // Testar remoção de formatação
-        String unformatted = converter.convertToObject("123.456.789-01", LOCALE_BR);
-        assertEquals("12345678901", unformatted);
+        String unformatted = converter.convertToObject("123.456.789-09", LOCALE_BR);
+        assertEquals("12345678909", unformatted);
+    }
+
+    @Test(expected = ConversionException.class)
+    public void cpfConverterValidatesCheckDigits() {
+        CPFConverter converter = new CPFConverter();
+
+        // Deve lançar exceção para CPF com dígitos verificadores errados
+        converter.convertToObject("123.456.789-01", LOCALE_BR);
+    }
+
+    @Test(expected = ConversionException.class)
+    public void cpfConverterRejectsRepeatedDigits() {
+        CPFConverter converter = new CPFConverter();
+
+        // 111.111.111-11 passa no cálculo, mas não é um CPF válido
+        converter.convertToObject("111.111.111-11", LOCALE_BR);
     }
 
     @Test(expected = ConversionException.class)
@@ -62,6 +85,22 @@ public class TestConverters {
         assertEquals("12345678000195", unformatted);
     }
 
+    @Test(expected = ConversionException.class)
+    public void cnpjConverterValidatesCheckDigits() {
+        CNPJConverter converter = new CNPJConverter();
+
+        // Deve lançar exceção para CNPJ com dígitos verificadores errados
+        converter.convertToObject("12.345.678/0001-96", LOCALE_BR);
+    }
+
+    @Test
+    public void documentConvertersKeepInvalidLengthAsIs() {
+        // Texto sem a quantidade certa de dígitos é exibido como está
+        assertEquals("123.456", new CPFConverter().convertToString("123.456", LOCALE_BR));
+        assertEquals("123", new CNPJConverter().convertToString("123", LOCALE_BR));
+        assertEquals("12345-6789", new CEPConverter().convertToString("12345-6789", LOCALE_BR));
+    }
+
     @Test(expected = ConversionException.class)
     public void cnpjConverterValidatesLength() {
         CNPJConverter converter = new CNPJConverter();
@@ -103,6 +142,40 @@ public class TestConverters {
         assertEquals(new BigDecimal("1234.56"), value);
     }
 
+    @Test
+    public void moedaBrasileiraConverterKeepsPrecision() {
+        MoedaBrasileiraConverter converter = new MoedaBrasileiraConverter();
+
+        // Sem passar por double: valores grandes e centavos ficam exatos
+        assertEquals(new BigDecimal("12345678901234567.89"),
+                converter.convertToObject("R$ 12.345.678.901.234.567,89", LOCALE_BR));
+        assertEquals(new BigDecimal("-0.10"), converter.convertToObject("-R$ 0,10", LOCALE_BR));
+        assertEquals("R$ 12.345.678.901.234.567,89",
+                converter.convertToString(new BigDecimal("12345678901234567.89"), LOCALE_BR));
+        assertEquals("-R$ 0,50", converter.convertToString(new BigDecimal("-0.5"), LOCALE_BR));
+    }
+
+    @Test(expected = ConversionException.class)
+    public void moedaBrasileiraConverterRejectsInvalidText() {
+        new MoedaBrasileiraConverter().convertToObject("R$ 12,3,4", LOCALE_BR);
+    }
+
+    @Test
+    public void converterLocatorResolvesTypedValues() {
+        IConverterLocator locator = Conversores.registrar(new ConverterLocator());
+
+        // Mesma instância para todos os componentes
+        assertSame(locator.getConverter(Cpf.class), locator.getConverter(Cpf.class));
+
+        assertEquals(new Cpf("12345678909"), locator.getConverter(Cpf.class).convertToObject("123.456.789-09", LOCALE_BR));
+        assertEquals("12.345.678/0001-95",
+                locator.getConverter(Cnpj.class).convertToString(new Cnpj("12345678000195"), LOCALE_BR));
+        assertEquals("12345-678", locator.getConverter(Cep.class).convertToString(new Cep("12345678"), LOCALE_BR));
+        assertEquals(new Dinheiro(new BigDecimal("1234.56")),
+                locator.getConverter(Dinheiro.class).convertToObject("R$ 1.234,56", LOCALE_BR));
+        assertNull(locator.getConverter(Cpf.class).convertToObject("", LOCALE_BR));
+    }
+
     @Test
     public void convertersHandleNullValues() {
         CPFConverter cpfConverter = new CPFConverter();
@@ -0,0 +1,68 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.converter.DataCodec;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testa o DataCodec (dd/MM/yyyy <-> epoch-day) comparando com java.time.
+ */
+public class TestDataCodec {
+
+    private static final DateTimeFormatter FORMATO =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    @Test
+    public void todosOsDiasDe0001a9999BatemComLocalDate() {
+        long inicio = LocalDate.of(1, 1, 1).toEpochDay();
+        long fim = LocalDate.of(9999, 12, 31).toEpochDay();
+        for (long dia = inicio; dia <= fim; dia++) {
+            String esperado = LocalDate.ofEpochDay(dia).format(FORMATO);
+            String texto = DataCodec.formatar((int) dia);
+            assertEquals(esperado, texto);
+            assertEquals(esperado, dia, DataCodec.parse(texto));
+        }
+    }
+
+    @Test
+    public void datasInexistentesSaoInvalidas() {
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("29/02/2023"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("29/02/1900"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("31/04/2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("32/01/2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("00/01/2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("01/13/2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("01/00/2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("01/01/0000"));
+        assertTrue(DataCodec.isValida("29/02/2024"));
+        assertTrue(DataCodec.isValida("29/02/2000"));
+    }
+
+    @Test
+    public void formatoDiferenteEInvalido() {
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse(null));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse(""));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("1/1/2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("01-01-2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("2025/01/01"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("0a/01/2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse(" 01/01/2025"));
+        assertEquals(DataCodec.INVALIDA, DataCodec.parse("01/01/20255"));
+    }
+
+    @Test
+    public void aceitaQualquerCharSequence() {
+        assertEquals(LocalDate.of(2025, 12, 25).toEpochDay(), DataCodec.parse(new StringBuilder("25/12/2025")));
+    }
+
+    @Test
+    public void formataDataHora() {
+        assertEquals("05/03/2025 09:07", DataCodec.formatarDataHora(LocalDateTime.of(2025, 3, 5, 9, 7, 59)));
+    }
+}
@@ -1,11 +1,22 @@
 package com.hvivox.certidoes;
 
+import com.hvivox.certidoes.component.EstatisticasPanel;
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CacheCertidaoRepository;
 import org.apache.wicket.util.tester.WicketTester;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+
 /**
  * Simple test using the WicketTester
+ *
+ * TESTES:
+ * - HomePage renderiza
+ * - EstatisticasPanel acompanha save/delete feitos pelo repositório padrão
  */
 public class TestHomePage
 {
@@ -26,4 +37,45 @@ public class TestHomePage
 		//assert rendered page class
 		tester.assertRenderedPage(HomePage.class);
 	}
+
+	@Test
+	public void estatisticasAcompanhamEscritas()
+	{
+		String cancelada = "estatisticas:status:" + CertidaoStatus.CANCELADA.ordinal() + ":quantidade";
+		String positiva = "estatisticas:tipos:" + CertidaoTipo.POSITIVA.ordinal() + ":quantidade";
+
+		tester.startPage(HomePage.class);
+		tester.assertComponent("estatisticas", EstatisticasPanel.class);
+		long total = numero("estatisticas:total");
+		long semData = numero("estatisticas:semData");
+		long canceladas = numero(cancelada);
+		long positivas = numero(positiva);
+
+		Certidao certidao = new Certidao();
+		certidao.setNumero("HOME-" + System.nanoTime());
+		certidao.setTipo(CertidaoTipo.POSITIVA);
+		certidao.setInteressado("Empresa do painel");
+		certidao.setDataEmissao("sem data");
+		certidao.setStatus(CertidaoStatus.CANCELADA);
+		Long id = CacheCertidaoRepository.padrao().save(certidao).getId();
+
+		tester.startPage(HomePage.class);
+		assertEquals(total + 1, numero("estatisticas:total"));
+		assertEquals(semData + 1, numero("estatisticas:semData"));
+		assertEquals(canceladas + 1, numero(cancelada));
+		assertEquals(positivas + 1, numero(positiva));
+
+		CacheCertidaoRepository.padrao().delete(id);
+
+		tester.startPage(HomePage.class);
+		assertEquals(total, numero("estatisticas:total"));
+		assertEquals(semData, numero("estatisticas:semData"));
+		assertEquals(canceladas, numero(cancelada));
+		assertEquals(positivas, numero(positiva));
+	}
+
+	private long numero(String caminho)
+	{
+		return ((Number) tester.getComponentFromLastRenderedPage(caminho).getDefaultModelObject()).longValue();
+	}
 }
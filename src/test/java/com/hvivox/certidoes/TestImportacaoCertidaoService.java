@@ -0,0 +1,289 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.service.ImportacaoCertidaoService;
+import com.hvivox.certidoes.service.ImportacaoResultado;
+import com.hvivox.certidoes.service.LeitorCsvImportacao;
+import com.hvivox.certidoes.service.LeitorXlsxImportacao;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testa a importação de certidões em lote (ImportacaoCertidaoService com os
+ * leitores CSV e XLSX).
+ *
+ * TESTES:
+ * - CSV: campos entre aspas com separador, aspas e quebra de linha; separador
+ *   ';'; BOM; linhas em branco
+ * - Cabeçalho sem coluna obrigatória interrompe a importação
+ * - Erros por linha (com o número da linha), número repetido no arquivo e
+ *   número já existente no repositório
+ * - saveAll recusado: o lote é completado linha a linha
+ * - Só LIMITE_ERROS mensagens guardadas, mas todas as linhas contadas
+ * - XLSX: célula de data formatada e célula omitida no XML
+ */
+public class TestImportacaoCertidaoService {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private ColunarCertidaoRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new ColunarCertidaoRepository();
+    }
+
+    @Test
+    public void csvComAspasSeparadorPontoEVirgulaEBom() throws Exception {
+        String csv = "\uFEFFNúmero;Tipo;Interessado;Data Emissão;Status\r\n"
+                + "0001;Negativa;\"Empresa; \"\"ABC\"\"\r\nFilial\";24/12/2025;Emitida\r\n"
+                + "\r\n"
+                + "0002;POSITIVA_COM_EFEITO_DE_NEGATIVA;Maria;01/01/2026;\r\n"
+                + "\n";
+
+        ImportacaoResultado resultado = importar(csv, 1000);
+
+        assertEquals(2, resultado.getLinhasLidas());
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(0, resultado.getComErro());
+
+        Map<String, Certidao> porNumero = porNumero();
+        Certidao primeira = porNumero.get("0001");
+        assertEquals("Empresa; \"ABC\"\r\nFilial", primeira.getInteressado());
+        assertEquals(CertidaoTipo.NEGATIVA, primeira.getTipo());
+        assertEquals("24/12/2025", primeira.getDataEmissao());
+        assertEquals(CertidaoStatus.EMITIDA, primeira.getStatus());
+
+        Certidao segunda = porNumero.get("0002");
+        assertEquals(CertidaoTipo.POSITIVA_COM_EFEITO_DE_NEGATIVA, segunda.getTipo());
+        assertNull(segunda.getStatus());
+    }
+
+    @Test
+    public void csvComVirgulaEColunasForaDeOrdem() throws Exception {
+        String csv = "ID,Status,Interessado,Data Emissão,Tipo,Número\n"
+                + "99,Cancelada,\"Silva, João\",02/02/2026,Positiva,0001\n";
+
+        ImportacaoResultado resultado = importar(csv, 1000);
+
+        assertEquals(1, resultado.getImportadas());
+        Certidao certidao = porNumero().get("0001");
+        assertEquals("Silva, João", certidao.getInteressado());
+        assertEquals(CertidaoTipo.POSITIVA, certidao.getTipo());
+        assertEquals(CertidaoStatus.CANCELADA, certidao.getStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cabecalhoSemColunaObrigatoria() throws Exception {
+        importar("Número,Tipo,Interessado\n0001,Negativa,Maria\n", 1000);
+    }
+
+    @Test
+    public void errosPorLinha() throws Exception {
+        repository.save(nova("0100"));
+
+        String csv = "Número,Tipo,Interessado,Data Emissão,Status\n"
+                + ",Negativa,A,01/01/2026,\n"                       // 2
+                + "0003,Outro,A,01/01/2026,\n"                      // 3
+                + "0004,Negativa,,01/01/2026,\n"                    // 4
+                + "0005,Negativa,A,abc,\n"                          // 5
+                + "0006,Negativa,\"A\nB\",01/01/2026,\n"            // 6-7
+                + "0006,Negativa,C,01/01/2026,\n"                   // 8
+                + "0007,Negativa,A,01/01/2026,Arquivada\n"          // 9
+                + "0100,Negativa,A,01/01/2026,\n";                  // 10
+
+        ImportacaoResultado resultado = importar(csv, 1000);
+
+        assertEquals(8, resultado.getLinhasLidas());
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(7, resultado.getComErro());
+
+        List<ImportacaoResultado.ErroLinha> erros = resultado.getErros();
+        assertErro(erros.get(0), 2, "Número não informado");
+        assertErro(erros.get(1), 3, "Tipo inválido: 'Outro'");
+        assertErro(erros.get(2), 4, "Interessado não informado");
+        assertEquals(5, erros.get(3).getLinha());
+        assertTrue(erros.get(3).getMensagem(), erros.get(3).getMensagem().endsWith("(recebido: 'abc')"));
+        assertErro(erros.get(4), 8, "Número '0006' repetido no arquivo");
+        assertErro(erros.get(5), 9, "Status inválido: 'Arquivada'");
+        assertErro(erros.get(6), 10, "Já existe uma certidão com o número '0100'");
+
+        assertEquals("A\nB", porNumero().get("0006").getInteressado());
+    }
+
+    @Test
+    public void numeroRepetidoEmOutroLote() throws Exception {
+        String csv = "Número,Tipo,Interessado,Data Emissão\n"
+                + "0001,Negativa,A,01/01/2026\n"
+                + "0002,Negativa,B,01/01/2026\n"
+                + "0001,Negativa,C,01/01/2026\n";
+
+        ImportacaoResultado resultado = importar(csv, 2);
+
+        assertEquals(2, resultado.getImportadas());
+        assertErro(resultado.getErros().get(0), 4, "Já existe uma certidão com o número '0001'");
+        assertEquals("A", porNumero().get("0001").getInteressado());
+    }
+
+    @Test
+    public void saveAllRecusadoCompletaLinhaALinha() throws Exception {
+        // Número tomado entre a validação e a gravação: a validação não o vê
+        ColunarCertidaoRepository tudoOuNada = new ColunarCertidaoRepository() {
+            @Override
+            public boolean existsByNumero(String numero, Long excludingId) {
+                return false;
+            }
+        };
+        // Mesmo cenário com um saveAll que grava parte do lote antes de falhar
+        ColunarCertidaoRepository parcial = new ColunarCertidaoRepository() {
+            @Override
+            public boolean existsByNumero(String numero, Long excludingId) {
+                return false;
+            }
+
+            @Override
+            public List<Certidao> saveAll(Collection<Certidao> certidoes) {
+                List<Certidao> salvas = new ArrayList<>();
+                for (Certidao certidao : certidoes) {
+                    salvas.add(save(certidao));
+                }
+                return salvas;
+            }
+        };
+
+        for (ColunarCertidaoRepository destino : new ColunarCertidaoRepository[]{tudoOuNada, parcial}) {
+            repository = destino;
+            repository.save(nova("0002"));
+
+            String csv = "Número,Tipo,Interessado,Data Emissão\n"
+                    + "0001,Negativa,A,01/01/2026\n"
+                    + "0002,Negativa,B,01/01/2026\n"
+                    + "0003,Negativa,C,01/01/2026\n";
+            ImportacaoResultado resultado = importar(csv, 1000);
+
+            assertEquals(2, resultado.getImportadas());
+            assertEquals(1, resultado.getComErro());
+            assertErro(resultado.getErros().get(0), 3, "Já existe uma certidão com o número '0002'");
+            assertEquals(3, repository.findAll().size());
+            assertEquals("Interessado 0002", porNumero().get("0002").getInteressado());
+        }
+    }
+
+    @Test
+    public void limiteDeMensagensDeErro() throws Exception {
+        int linhas = ImportacaoResultado.LIMITE_ERROS + 500;
+        StringBuilder csv = new StringBuilder("Número,Tipo,Interessado,Data Emissão\n");
+        for (int i = 0; i < linhas; i++) {
+            csv.append("N").append(i).append(",Negativa,A,sem data\n");
+        }
+        csv.append("OK,Negativa,A,01/01/2026\n");
+
+        ImportacaoResultado resultado = importar(csv.toString(), 100);
+
+        assertEquals(linhas + 1, resultado.getLinhasLidas());
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(linhas, resultado.getComErro());
+        assertEquals(ImportacaoResultado.LIMITE_ERROS, resultado.getErros().size());
+        assertEquals(2, resultado.getErros().get(0).getLinha());
+        assertEquals(ImportacaoResultado.LIMITE_ERROS + 1,
+                resultado.getErros().get(ImportacaoResultado.LIMITE_ERROS - 1).getLinha());
+    }
+
+    @Test
+    public void xlsxComDataECelulaOmitida() throws Exception {
+        File arquivo = pasta.newFile("certidoes.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(arquivo)) {
+            CellStyle estiloData = workbook.createCellStyle();
+            estiloData.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+            Date natal = Date.from(LocalDate.of(2025, 12, 25).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+            Sheet sheet = workbook.createSheet("Certidões");
+            preencher(sheet.createRow(0), "ID", "Número", "Tipo", "Interessado", "Data Emissão", "Status");
+
+            Row primeira = sheet.createRow(1);
+            preencher(primeira, null, "0001", "Negativa", "Empresa ABC", null, "Emitida");
+            primeira.createCell(0).setCellValue(1);
+            Cell data = primeira.createCell(4);
+            data.setCellValue(natal);
+            data.setCellStyle(estiloData);
+
+            // Sem célula de interessado no XML
+            preencher(sheet.createRow(2), "2", "0002", "Positiva", null, "01/01/2026", null);
+            workbook.write(out);
+        }
+
+        ImportacaoResultado resultado = new ImportacaoCertidaoService(repository, 1000, 2)
+                .importar(new LeitorXlsxImportacao(arquivo));
+
+        assertEquals(2, resultado.getLinhasLidas());
+        assertEquals(1, resultado.getImportadas());
+        assertErro(resultado.getErros().get(0), 3, "Interessado não informado");
+        Certidao certidao = porNumero().get("0001");
+        assertEquals("25/12/2025", certidao.getDataEmissao());
+        assertEquals(CertidaoStatus.EMITIDA, certidao.getStatus());
+    }
+
+    private ImportacaoResultado importar(String csv, int tamanhoLote) throws Exception {
+        return new ImportacaoCertidaoService(repository, tamanhoLote, 2)
+                .importar(new LeitorCsvImportacao(new StringReader(csv)));
+    }
+
+    private Map<String, Certidao> porNumero() {
+        Map<String, Certidao> certidoes = new HashMap<>();
+        for (Certidao certidao : repository.findAll()) {
+            certidoes.put(certidao.getNumero(), certidao);
+        }
+        return certidoes;
+    }
+
+    private static void assertErro(ImportacaoResultado.ErroLinha erro, long linha, String mensagem) {
+        assertEquals(erro.toString(), linha, erro.getLinha());
+        assertEquals(mensagem, erro.getMensagem());
+    }
+
+    private static void preencher(Row row, String... valores) {
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] != null) {
+                row.createCell(i).setCellValue(valores[i]);
+            }
+        }
+    }
+
+    private static Certidao nova(String numero) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado("Interessado " + numero);
+        c.setDataEmissao("01/01/2026");
+        c.setStatus(CertidaoStatus.RASCUNHO);
+        return c;
+    }
+}
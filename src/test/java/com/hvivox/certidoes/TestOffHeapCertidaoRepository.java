@@ -0,0 +1,237 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CertidaoEstatisticas;
+import com.hvivox.certidoes.infra.NumeroDuplicadoException;
+import com.hvivox.certidoes.infra.OffHeapCertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Testa o OffHeapCertidaoRepository.
+ *
+ * TESTES:
+ * - Dados sobrevivem ao close() e à reabertura
+ * - Índices são reconstruídos quando o repositório não foi fechado
+ * - Filtros, ordenação e paginação por id com ids informados fora de ordem
+ * - Estatísticas contadas na reabertura e atualizadas pelas escritas
+ * - Fim dos textos recalculado na reconstrução (cabeçalho desatualizado)
+ * - Lote com id inválido recusado antes de gravar; página com limit 0
+ */
+public class TestOffHeapCertidaoRepository {
+
+    private Path diretorio;
+
+    @Before
+    public void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("certidoes-offheap");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Test
+    public void reabreComOsMesmosDados() throws IOException {
+        Long emitida;
+        Long excluida;
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            emitida = repository.save(nova("0001", "Empresa Ação Ltda", "24/12/2025")).getId();
+            excluida = repository.save(nova("0002", null, "texto livre")).getId();
+            Certidao editada = repository.findById(emitida).get();
+            editada.setInteressado("Empresa Ação e Comércio Ltda");
+            repository.save(editada);
+            repository.delete(excluida);
+            repository.updateStatus(Arrays.asList(emitida), CertidaoStatus.CANCELADA);
+        }
+
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            assertEquals(1, repository.tamanho());
+            Certidao certidao = repository.findById(emitida).get();
+            assertEquals("0001", certidao.getNumero());
+            assertEquals("Empresa Ação e Comércio Ltda", certidao.getInteressado());
+            assertEquals("24/12/2025", certidao.getDataEmissao());
+            assertEquals(CertidaoStatus.CANCELADA, certidao.getStatus());
+            assertFalse(repository.findById(excluida).isPresent());
+            assertTrue(repository.existsByNumero(" 0001 ", null));
+            assertFalse(repository.existsByNumero("0002", null));
+
+            // A sequência continua depois do maior id já usado
+            assertTrue(repository.save(nova("0003", null, null)).getId() > excluida);
+        }
+    }
+
+    @Test
+    public void reconstroiIndicesSemClose() throws IOException {
+        OffHeapCertidaoRepository anterior = new OffHeapCertidaoRepository(diretorio);
+        for (int i = 0; i < 3000; i++) {
+            anterior.save(nova("N" + i, "Interessado " + i, "01/01/2026"));
+        }
+        anterior.delete(10L);
+
+        // Abre de novo sem close(): simula uma queda do processo
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            assertEquals(2999, repository.tamanho());
+            assertEquals("N1999", repository.findById(2000L).get().getNumero());
+            assertFalse(repository.existsByNumero("N9", null));
+            try {
+                repository.save(nova("N2999", null, null));
+                fail("Número duplicado deveria ser recusado");
+            } catch (NumeroDuplicadoException esperado) {
+                // ok
+            }
+        }
+        anterior.close();
+    }
+
+    @Test
+    public void reconstrucaoRecalculaFimDosTextos() throws IOException {
+        OffHeapCertidaoRepository anterior = new OffHeapCertidaoRepository(diretorio);
+        Long primeira = anterior.save(nova("0001", "Primeira", "01/01/2026")).getId();
+        Long segunda = anterior.save(nova("0002", "Segunda", "01/01/2026")).getId();
+
+        // Queda antes de o cabeçalho chegar ao disco: fim dos textos antigo
+        try (RandomAccessFile arquivo = new RandomAccessFile(
+                diretorio.resolve("certidoes.registros").toFile(), "rw")) {
+            arquivo.seek(24);
+            arquivo.writeLong(8);
+        }
+
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            repository.save(nova("0003", "Terceira com um interessado bem mais longo", null));
+            assertEquals("0001", repository.findById(primeira).get().getNumero());
+            assertEquals("Primeira", repository.findById(primeira).get().getInteressado());
+            assertEquals("Segunda", repository.findById(segunda).get().getInteressado());
+        }
+        anterior.close();
+    }
+
+    @Test
+    public void loteComIdInvalidoELimitZero() throws IOException {
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            repository.save(nova("0001", null, null));
+            Certidao invalida = nova("0003", null, null);
+            invalida.setId(-5L);
+            try {
+                repository.saveAll(Arrays.asList(nova("0002", null, null), invalida));
+                fail("Id negativo deveria ser recusado");
+            } catch (IllegalArgumentException esperado) {
+                // ok
+            }
+            // Nada do lote foi gravado
+            assertEquals(1, repository.tamanho());
+            assertFalse(repository.existsByNumero("0002", null));
+
+            assertTrue(repository.findByFiltro(null, 0, 0, null).isEmpty());
+            assertTrue(repository.findByFiltro(null, 0, 0,
+                    new CertidaoOrdenacao(CertidaoOrdenacao.Campo.NUMERO, true)).isEmpty());
+            assertTrue(repository.findByFiltroAfterId(null, null, 0).isEmpty());
+        }
+    }
+
+    @Test
+    public void consultasComIdsForaDeOrdem() throws IOException {
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            List<Certidao> lote = new ArrayList<>();
+            for (long id : new long[] {30, 10, 20}) {
+                Certidao certidao = nova("N" + id, id == 20 ? "José" : "Maria", "01/01/2026");
+                certidao.setId(id);
+                lote.add(certidao);
+            }
+            repository.saveAll(lote);
+
+            assertEquals(Arrays.asList(10L, 20L, 30L), ids(repository.findAll()));
+            assertEquals(Arrays.asList(20L, 30L), ids(repository.findByFiltroAfterId(null, 10L, 5)));
+
+            CertidaoFiltro filtro = new CertidaoFiltro();
+            filtro.setTextoBusca("jose");
+            assertEquals(1, repository.countByFiltro(filtro));
+
+            List<Certidao> pagina = repository.findByFiltro(null, 1, 2,
+                    new CertidaoOrdenacao(CertidaoOrdenacao.Campo.INTERESSADO, true));
+            assertEquals(Arrays.asList(10L, 30L), ids(pagina));
+        }
+    }
+
+    @Test
+    public void estatisticasAcompanhamEscritas() throws IOException {
+        Long janeiro;
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            janeiro = repository.save(nova("E1", null, "10/01/2026")).getId();
+            repository.saveAll(Arrays.asList(nova("E2", null, "20/01/2026"), nova("E3", null, "texto livre")));
+            repository.delete(repository.save(nova("E4", null, "01/03/2026")).getId());
+        }
+
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            // Contadas dos registros na primeira leitura (a removida fica de fora)
+            CertidaoEstatisticas estatisticas = repository.getEstatisticas();
+            assertEquals(3, estatisticas.getTotal());
+            assertEquals(2L, (long) estatisticas.getPorMes().get(YearMonth.of(2026, 1)));
+            assertEquals(1, estatisticas.getSemData());
+            assertFalse(estatisticas.getPorMes().containsKey(YearMonth.of(2026, 3)));
+
+            Certidao editada = repository.findById(janeiro).get();
+            editada.setTipo(CertidaoTipo.POSITIVA);
+            editada.setDataEmissao("05/02/2026");
+            repository.save(editada);
+            assertEquals(3, estatisticas.getTotal());
+            assertEquals(1, estatisticas.getPorTipo(CertidaoTipo.POSITIVA));
+            assertEquals(1L, (long) estatisticas.getPorMes().get(YearMonth.of(2026, 2)));
+
+            List<Long> alterar = Arrays.asList(janeiro, janeiro + 1);
+            assertEquals(2, repository.updateStatus(alterar, CertidaoStatus.CANCELADA));
+            assertEquals(0, repository.updateStatus(alterar, CertidaoStatus.CANCELADA));
+            assertEquals(2, estatisticas.getPorStatus(CertidaoStatus.CANCELADA));
+            assertEquals(1, estatisticas.getPorStatus(CertidaoStatus.EMITIDA));
+
+            repository.delete(janeiro);
+            repository.save(nova("E5", null, "texto livre"));
+            assertEquals(3, estatisticas.getTotal());
+            assertEquals(0, estatisticas.getPorTipo(CertidaoTipo.POSITIVA));
+            assertEquals(1, estatisticas.getPorStatus(CertidaoStatus.CANCELADA));
+            assertEquals(2, estatisticas.getSemData());
+        }
+    }
+
+    private static List<Long> ids(List<Certidao> certidoes) {
+        List<Long> ids = new ArrayList<>();
+        for (Certidao certidao : certidoes) {
+            ids.add(certidao.getId());
+        }
+        return ids;
+    }
+
+    private static Certidao nova(String numero, String interessado, String data) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado(interessado);
+        c.setDataEmissao(data);
+        c.setStatus(CertidaoStatus.EMITIDA);
+        return c;
+    }
+}
@@ -0,0 +1,152 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.service.RelatorioCache;
+import com.hvivox.certidoes.service.RelatorioCsvService;
+import com.hvivox.certidoes.service.RelatorioJob;
+import com.hvivox.certidoes.service.RelatorioJobService;
+import com.hvivox.certidoes.service.RelatorioNdjsonService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testa o RelatorioCache.
+ *
+ * TESTES:
+ * - Chave pelo conteúdo: filtros equivalentes geram a mesma chave; formato e
+ *   versão mudam a chave
+ * - LRU limitado por bytes: o usado há mais tempo sai e o arquivo é apagado
+ * - Escrita no repositório invalida o relatório cacheado (nova versão)
+ */
+public class TestRelatorioCache {
+
+    private RelatorioCache cache;
+
+    @Before
+    public void setUp() {
+        cache = RelatorioCache.emDiretorioTemporario(10);
+    }
+
+    @After
+    public void tearDown() {
+        cache.limpar();
+    }
+
+    @Test
+    public void chavePeloConteudo() {
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setTextoBusca("  JOSÉ ");
+        filtro.setStatus(CertidaoStatus.EMITIDA);
+        CertidaoFiltro equivalente = new CertidaoFiltro();
+        equivalente.setTextoBusca("jose");
+        equivalente.setStatus(CertidaoStatus.EMITIDA);
+        RelatorioCsvService csv = new RelatorioCsvService();
+
+        String chave = RelatorioCache.chave(filtro, csv, 7);
+        assertEquals(64, chave.length());
+        assertEquals(chave, RelatorioCache.chave(equivalente, new RelatorioCsvService(), 7));
+        assertEquals(RelatorioCache.chave(null, csv, 7), RelatorioCache.chave(new CertidaoFiltro(), csv, 7));
+
+        assertNotEquals(chave, RelatorioCache.chave(filtro, csv, 8));
+        assertNotEquals(chave, RelatorioCache.chave(filtro, new RelatorioCsvService(true), 7));
+        assertNotEquals(chave, RelatorioCache.chave(filtro, new RelatorioNdjsonService(), 7));
+        equivalente.setStatus(CertidaoStatus.CANCELADA);
+        assertNotEquals(chave, RelatorioCache.chave(equivalente, csv, 7));
+    }
+
+    @Test
+    public void lruLimitadoPorBytes() throws IOException {
+        File a = cache.guardar("a", arquivo(4));
+        File b = cache.guardar("b", arquivo(4));
+        assertEquals(8, cache.getTotalBytes());
+
+        // "a" usado por último: "b" é o que sai ao passar de 10 bytes
+        assertEquals(a, cache.buscar("a"));
+        cache.guardar("c", arquivo(4));
+
+        assertEquals(2, cache.getQuantidade());
+        assertEquals(8, cache.getTotalBytes());
+        assertNull(cache.buscar("b"));
+        assertFalse(b.exists());
+        assertNotNull(cache.buscar("a"));
+        assertNotNull(cache.buscar("c"));
+
+        // Maior que o limite sozinho: fica, mas todos os outros saem
+        cache.guardar("d", arquivo(12));
+        assertEquals(1, cache.getQuantidade());
+        assertEquals(12, cache.getTotalBytes());
+
+        // Apagado por fora do cache: deixa de ser encontrado e de contar
+        assertTrue(cache.buscar("d").delete());
+        assertNull(cache.buscar("d"));
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    public void escritaInvalidaPelaVersao() throws Exception {
+        ColunarCertidaoRepository repository = new ColunarCertidaoRepository();
+        repository.save(nova("0001"));
+        RelatorioCache grande = RelatorioCache.emDiretorioTemporario(1024 * 1024);
+        RelatorioJobService service = new RelatorioJobService(repository, grande, 1, 4);
+        try {
+            RelatorioJob primeiro = aguardar(service.submeter(new RelatorioCsvService(), null, "certidoes"));
+            RelatorioJob repetido = service.submeter(new RelatorioCsvService(), null, "certidoes");
+
+            // Mesma versão: já nasce concluído, com o mesmo arquivo e a mesma etag
+            assertEquals(RelatorioJob.Status.CONCLUIDO, repetido.getStatus());
+            assertEquals(primeiro.getEtag(), repetido.getEtag());
+            assertEquals(primeiro.getArquivo(), repetido.getArquivo());
+            assertEquals(0, repetido.getProcessadas());
+
+            repository.save(nova("0002"));
+            RelatorioJob depois = aguardar(service.submeter(new RelatorioCsvService(), null, "certidoes"));
+            assertNotEquals(primeiro.getEtag(), depois.getEtag());
+            assertEquals(2, depois.getProcessadas());
+            assertEquals(2, grande.getQuantidade());
+        } finally {
+            service.encerrar();
+        }
+    }
+
+    private static File arquivo(int bytes) throws IOException {
+        File arquivo = File.createTempFile("relatorio-", ".tmp");
+        Files.write(arquivo.toPath(), new byte[bytes]);
+        return arquivo;
+    }
+
+    private static RelatorioJob aguardar(RelatorioJob job) throws InterruptedException {
+        long limite = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!job.isFinalizado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue("Job não terminou: " + job, job.isFinalizado());
+        return job;
+    }
+
+    private static Certidao nova(String numero) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado("Interessado " + numero);
+        c.setDataEmissao("01/01/2026");
+        c.setStatus(CertidaoStatus.EMITIDA);
+        return c;
+    }
+}
@@ -0,0 +1,153 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.service.RelatorioExcelService;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testa o RelatorioExcelService lendo de volta a planilha gerada.
+ *
+ * TESTES:
+ * - Cabeçalho, valores e quantidade de linhas (mais linhas que a janela do SXSSF)
+ * - Largura das colunas: pelo cabeçalho, pela amostra e limitada ao máximo
+ * - Geração pelo cursor do repositório, com filtro e vários lotes
+ */
+public class TestRelatorioExcelService {
+
+    private final RelatorioExcelService service = new RelatorioExcelService();
+
+    @Test
+    public void linhasEValores() throws Exception {
+        List<Certidao> certidoes = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            certidoes.add(nova((long) i, String.format("%04d", i), "Empresa " + i, CertidaoStatus.EMITIDA));
+        }
+        certidoes.add(nova(null, null, null, null));
+
+        try (XSSFWorkbook workbook = ler(gerar(certidoes))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("Certidões", sheet.getSheetName());
+            assertEquals(252, sheet.getPhysicalNumberOfRows());
+
+            Row cabecalho = sheet.getRow(0);
+            assertEquals("ID", cabecalho.getCell(0).getStringCellValue());
+            assertEquals("Status", cabecalho.getCell(5).getStringCellValue());
+
+            Row primeira = sheet.getRow(1);
+            assertEquals(1, (long) primeira.getCell(0).getNumericCellValue());
+            assertEquals("0001", primeira.getCell(1).getStringCellValue());
+            assertEquals(CertidaoTipo.NEGATIVA.getDescricao(), primeira.getCell(2).getStringCellValue());
+            assertEquals("Empresa 1", primeira.getCell(3).getStringCellValue());
+            assertEquals("24/12/2025", primeira.getCell(4).getStringCellValue());
+            assertEquals(CertidaoStatus.EMITIDA.getDescricao(), primeira.getCell(5).getStringCellValue());
+
+            // Linha já descarregada pelo SXSSF continua no arquivo
+            assertEquals("0250", sheet.getRow(250).getCell(1).getStringCellValue());
+
+            // Valores vazios viram células vazias
+            Row vazia = sheet.getRow(251);
+            assertEquals(0, (long) vazia.getCell(0).getNumericCellValue());
+            assertEquals("", vazia.getCell(1).getStringCellValue());
+            assertEquals("", vazia.getCell(5).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void larguraDasColunas() throws Exception {
+        List<Certidao> certidoes = new ArrayList<>();
+        certidoes.add(nova(1L, "0001", "Nome com exatamente trinta ch.", CertidaoStatus.EMITIDA));
+        certidoes.add(nova(2L, repetir('N', 100), "Curto", CertidaoStatus.EMITIDA));
+        for (int i = 3; i <= 300; i++) {
+            certidoes.add(nova((long) i, "0003", "Curto", CertidaoStatus.EMITIDA));
+        }
+        // Fora da amostra (primeiras 200 linhas): não muda a largura
+        certidoes.add(nova(301L, "0301", repetir('X', 50), CertidaoStatus.EMITIDA));
+
+        try (XSSFWorkbook workbook = ler(gerar(certidoes))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            // Unidade do POI: 1/256 de caractere, mais 2 de margem
+            assertEquals(("ID".length() + 2 + 2) * 256, sheet.getColumnWidth(0));
+            assertEquals((60 + 2) * 256, sheet.getColumnWidth(1));
+            assertEquals((30 + 2) * 256, sheet.getColumnWidth(3));
+            assertEquals(("Data Emissão".length() + 2 + 2) * 256, sheet.getColumnWidth(4));
+        }
+    }
+
+    @Test
+    public void geraPeloCursorDoRepositorio() throws Exception {
+        ColunarCertidaoRepository repository = new ColunarCertidaoRepository();
+        List<Certidao> lote = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            lote.add(nova(null, "N" + i, "Interessado " + i, i % 2 == 0 ? CertidaoStatus.EMITIDA : CertidaoStatus.CANCELADA));
+        }
+        repository.saveAll(lote);
+
+        CertidaoFiltro filtro = new CertidaoFiltro();
+        filtro.setStatus(CertidaoStatus.EMITIDA);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.gerarRelatorio(repository, filtro, out);
+
+        try (XSSFWorkbook workbook = ler(out.toByteArray())) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(1251, sheet.getPhysicalNumberOfRows());
+
+            Set<String> numeros = new HashSet<>();
+            long idAnterior = 0;
+            for (int i = 1; i < 1251; i++) {
+                Row row = sheet.getRow(i);
+                long id = (long) row.getCell(0).getNumericCellValue();
+                assertTrue("Ids em ordem, sem repetição", id > idAnterior);
+                idAnterior = id;
+                assertEquals(CertidaoStatus.EMITIDA.getDescricao(), row.getCell(5).getStringCellValue());
+                numeros.add(row.getCell(1).getStringCellValue());
+            }
+            assertEquals(1250, numeros.size());
+        }
+    }
+
+    private byte[] gerar(List<Certidao> certidoes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.gerarRelatorio(certidoes, out);
+        return out.toByteArray();
+    }
+
+    private static XSSFWorkbook ler(byte[] planilha) throws Exception {
+        return new XSSFWorkbook(new ByteArrayInputStream(planilha));
+    }
+
+    private static String repetir(char c, int vezes) {
+        StringBuilder sb = new StringBuilder(vezes);
+        for (int i = 0; i < vezes; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static Certidao nova(Long id, String numero, String interessado, CertidaoStatus status) {
+        Certidao c = new Certidao();
+        c.setId(id);
+        c.setNumero(numero);
+        c.setTipo(numero != null ? CertidaoTipo.NEGATIVA : null);
+        c.setInteressado(interessado);
+        c.setDataEmissao(numero != null ? "24/12/2025" : null);
+        c.setStatus(status);
+        return c;
+    }
+}
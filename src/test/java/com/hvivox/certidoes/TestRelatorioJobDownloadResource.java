@@ -0,0 +1,68 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.resource.RelatorioJobDownloadResource;
+import com.hvivox.certidoes.service.RelatorioCsvService;
+import com.hvivox.certidoes.service.RelatorioJob;
+import org.apache.wicket.util.tester.WicketTester;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testa o RelatorioJobDownloadResource.
+ *
+ * TESTES:
+ * - Download de relatório cacheado envia o arquivo com ETag
+ * - If-None-Match com a mesma ETag devolve 304, sem corpo
+ * - Job inexistente devolve 404
+ */
+public class TestRelatorioJobDownloadResource {
+
+    private WicketTester tester;
+
+    @Before
+    public void setUp() {
+        tester = new WicketTester(new WicketApplication());
+    }
+
+    @After
+    public void tearDown() {
+        tester.destroy();
+    }
+
+    @Test
+    public void ifNoneMatchDevolve304() throws InterruptedException {
+        RelatorioJob job = WicketApplication.get().getRelatorioJobService()
+                .submeter(new RelatorioCsvService(), null, "certidoes");
+        long limite = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!job.isFinalizado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(RelatorioJob.Status.CONCLUIDO, job.getStatus());
+        assertNotNull(job.getEtag());
+
+        tester.startResource(new RelatorioJobDownloadResource(job.getId()));
+        assertEquals(200, tester.getLastResponse().getStatus());
+        String etag = tester.getLastResponse().getHeader("ETag");
+        assertEquals('"' + job.getEtag() + '"', etag);
+        assertEquals("private, no-cache", tester.getLastResponse().getHeader("Cache-Control"));
+        assertTrue(tester.getLastResponse().getBinaryContent().length > 0);
+
+        tester.getRequest().setHeader("If-None-Match", etag);
+        tester.startResource(new RelatorioJobDownloadResource(job.getId()));
+        assertEquals(304, tester.getLastResponse().getStatus());
+        assertEquals(0, tester.getLastResponse().getBinaryContent().length);
+    }
+
+    @Test
+    public void jobInexistenteDevolve404() {
+        tester.startResource(new RelatorioJobDownloadResource("inexistente"));
+        assertEquals(404, tester.getLastResponse().getStatus());
+    }
+}
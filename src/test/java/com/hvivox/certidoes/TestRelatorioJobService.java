@@ -0,0 +1,168 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.service.RelatorioCsvService;
+import com.hvivox.certidoes.service.RelatorioJob;
+import com.hvivox.certidoes.service.RelatorioJobService;
+import com.hvivox.certidoes.service.RelatorioService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Testa o RelatorioJobService.
+ *
+ * TESTES:
+ * - Job lido em lotes pelo cursor, com o progresso contado na leitura
+ * - Fila cheia: o job é recusado na hora
+ * - Limpeza agendada remove jobs expirados e apaga o arquivo
+ */
+public class TestRelatorioJobService {
+
+    private static final long ESPERA_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private ColunarCertidaoRepository repository;
+    private RelatorioJobService service;
+
+    @Before
+    public void setUp() {
+        repository = new ColunarCertidaoRepository();
+    }
+
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.encerrar();
+        }
+    }
+
+    @Test
+    public void jobComProgresso() throws Exception {
+        // Mais de um lote do cursor (CertidaoCursor.TAMANHO_LOTE = 1000)
+        for (int i = 0; i < 2500; i++) {
+            repository.save(nova(String.format("%05d", i)));
+        }
+        service = new RelatorioJobService(repository, null, 1, 1);
+
+        RelatorioJob job = aguardar(service.submeter(new RelatorioCsvService(), null, "certidoes"));
+
+        assertEquals(RelatorioJob.Status.CONCLUIDO, job.getStatus());
+        assertEquals(2500, job.getTotal());
+        assertEquals(2500, job.getProcessadas());
+        assertEquals(100, job.getPercentual());
+        assertEquals("certidoes.csv", job.getNomeArquivo());
+        // Cabeçalho + uma linha por certidão
+        assertEquals(2501, Files.readAllLines(job.getArquivo().toPath(), StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void filaCheiaRecusaJob() throws Exception {
+        repository.save(nova("0001"));
+        service = new RelatorioJobService(repository, null, 1, 1);
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        RelatorioJob executando = service.submeter(new Bloqueante(iniciou, liberar), null, "a");
+        assertTrue(iniciou.await(ESPERA_MS, TimeUnit.MILLISECONDS));
+        RelatorioJob naFila = service.submeter(new RelatorioCsvService(), null, "b");
+        assertEquals(1, service.getJobsNaFila());
+
+        try {
+            service.submeter(new RelatorioCsvService(), null, "c");
+            fail("Fila cheia deveria recusar o job");
+        } catch (RejectedExecutionException e) {
+            // esperado
+        }
+
+        liberar.countDown();
+        assertEquals(RelatorioJob.Status.CONCLUIDO, aguardar(executando).getStatus());
+        assertEquals(RelatorioJob.Status.CONCLUIDO, aguardar(naFila).getStatus());
+        assertSame(naFila, service.getJob(naFila.getId()));
+    }
+
+    @Test
+    public void limpezaRemoveExpirados() throws Exception {
+        repository.save(nova("0001"));
+        // Sem retenção e limpeza a cada 20 ms: nenhum novo submeter() é feito
+        service = new RelatorioJobService(repository, null, 1, 1, 0, 20);
+
+        RelatorioJob job = aguardar(service.submeter(new RelatorioCsvService(), null, "certidoes"));
+        File arquivo = job.getArquivo();
+        assertTrue(arquivo.exists());
+
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (service.getJob(job.getId()) != null && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertNull(service.getJob(job.getId()));
+        assertFalse(arquivo.exists());
+    }
+
+    private static RelatorioJob aguardar(RelatorioJob job) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!job.isFinalizado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue("Job não terminou: " + job, job.isFinalizado());
+        return job;
+    }
+
+    private static Certidao nova(String numero) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado("Interessado " + numero);
+        c.setDataEmissao("01/01/2026");
+        c.setStatus(CertidaoStatus.EMITIDA);
+        return c;
+    }
+
+    /**
+     * Relatório que só termina quando o teste libera
+     */
+    private static final class Bloqueante implements RelatorioService {
+        private static final long serialVersionUID = 1L;
+
+        private final transient CountDownLatch iniciou;
+        private final transient CountDownLatch liberar;
+
+        Bloqueante(CountDownLatch iniciou, CountDownLatch liberar) {
+            this.iniciou = iniciou;
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void gerarRelatorio(Iterable<Certidao> certidoes, OutputStream outputStream) throws Exception {
+            iniciou.countDown();
+            liberar.await(ESPERA_MS, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public String getContentType() {
+            return "text/plain";
+        }
+
+        @Override
+        public String getFileExtension() {
+            return ".txt";
+        }
+    }
+}
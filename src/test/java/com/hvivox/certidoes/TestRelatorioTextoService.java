@@ -0,0 +1,277 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.service.RelatorioCsvService;
+import com.hvivox.certidoes.service.RelatorioNdjsonService;
+import com.hvivox.certidoes.service.RelatorioTextoService;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Testa os relatórios em texto (CSV e NDJSON) lendo de volta o que foi gerado.
+ *
+ * TESTES:
+ * - CSV: campos com vírgula, aspas e quebras de linha (CR/LF) voltam iguais
+ * - NDJSON: escape de aspas, barra, controle e quebras de linha nas strings
+ * - Datas: dd/MM/yyyy no CSV e yyyy-MM-dd no NDJSON, com zeros à esquerda
+ * - Gzip: o arquivo descompactado é igual ao gerado sem compactação
+ * - Cursor: exportação com mais de um lote (1000), sem falhas nem repetições
+ */
+public class TestRelatorioTextoService {
+
+    private static final String DIFICIL = "Empresa \"ABC\", filial\r\nCentro\\Sul\ttab\u0001";
+
+    @Test
+    public void csvComEscape() throws Exception {
+        List<Certidao> certidoes = Arrays.asList(
+                nova(1L, "0001", DIFICIL, "24/12/2025", CertidaoStatus.EMITIDA),
+                nova(2L, "a,b", "sem escape", "texto livre", null),
+                nova(3L, "\"", null, null, CertidaoStatus.CANCELADA));
+
+        List<List<String>> linhas = lerCsv(texto(gerar(new RelatorioCsvService(), certidoes)));
+
+        assertEquals(Arrays.asList("ID", "Número", "Tipo", "Interessado", "Data Emissão", "Status"), linhas.get(0));
+        assertEquals(Arrays.asList("1", "0001", CertidaoTipo.NEGATIVA.getDescricao(), DIFICIL, "24/12/2025",
+                CertidaoStatus.EMITIDA.getDescricao()), linhas.get(1));
+        assertEquals(Arrays.asList("2", "a,b", CertidaoTipo.NEGATIVA.getDescricao(), "sem escape", "texto livre", ""),
+                linhas.get(2));
+        assertEquals(Arrays.asList("3", "\"", CertidaoTipo.NEGATIVA.getDescricao(), "", "",
+                CertidaoStatus.CANCELADA.getDescricao()), linhas.get(3));
+        assertEquals(4, linhas.size());
+    }
+
+    @Test
+    public void ndjsonComEscape() throws Exception {
+        List<Certidao> certidoes = Arrays.asList(
+                nova(1L, "0001", DIFICIL, "24/12/2025", CertidaoStatus.EMITIDA),
+                nova(null, "0002", null, "texto \"livre\"", null));
+
+        String texto = texto(gerar(new RelatorioNdjsonService(), certidoes));
+        String[] linhas = texto.split("\n", -1);
+        assertEquals(3, linhas.length);
+        assertEquals("", linhas[2]);
+
+        // Nenhum caractere de controle sai sem escape
+        for (char c : linhas[0].toCharArray()) {
+            assertFalse("Caractere de controle sem escape: " + (int) c, c < 0x20);
+        }
+
+        assertEquals("1", campoJson(linhas[0], "id"));
+        assertEquals("0001", campoJson(linhas[0], "numero"));
+        assertEquals("NEGATIVA", campoJson(linhas[0], "tipo"));
+        assertEquals(DIFICIL, campoJson(linhas[0], "interessado"));
+        assertEquals("2025-12-24", campoJson(linhas[0], "dataEmissao"));
+        assertEquals("EMITIDA", campoJson(linhas[0], "status"));
+
+        assertNull(campoJson(linhas[1], "id"));
+        assertNull(campoJson(linhas[1], "interessado"));
+        assertEquals("texto \"livre\"", campoJson(linhas[1], "dataEmissao"));
+        assertNull(campoJson(linhas[1], "status"));
+    }
+
+    @Test
+    public void datasComZerosAEsquerda() throws Exception {
+        List<Certidao> certidoes = Arrays.asList(
+                nova(1L, "0001", null, "01/02/0999", null),
+                nova(2L, "0002", null, "29/02/2024", null));
+
+        List<List<String>> linhas = lerCsv(texto(gerar(new RelatorioCsvService(), certidoes)));
+        assertEquals("01/02/0999", linhas.get(1).get(4));
+        assertEquals("29/02/2024", linhas.get(2).get(4));
+
+        String[] objetos = texto(gerar(new RelatorioNdjsonService(), certidoes)).split("\n");
+        assertEquals("0999-02-01", campoJson(objetos[0], "dataEmissao"));
+        assertEquals("2024-02-29", campoJson(objetos[1], "dataEmissao"));
+    }
+
+    @Test
+    public void gzipDescompactaIgualAoTexto() throws Exception {
+        List<Certidao> certidoes = new ArrayList<>();
+        for (int i = 1; i <= 3000; i++) {
+            certidoes.add(nova((long) i, "N" + i, DIFICIL + i, "24/12/2025", CertidaoStatus.EMITIDA));
+        }
+
+        RelatorioTextoService[] pares = {
+                new RelatorioCsvService(false), new RelatorioCsvService(true),
+                new RelatorioNdjsonService(false), new RelatorioNdjsonService(true)};
+        for (int i = 0; i < pares.length; i += 2) {
+            byte[] puro = gerar(pares[i], certidoes);
+            byte[] compactado = gerar(pares[i + 1], certidoes);
+            assertEquals(pares[i].getFileExtension() + ".gz", pares[i + 1].getFileExtension());
+            assertEquals(texto(puro), texto(descompactar(compactado)));
+        }
+    }
+
+    @Test
+    public void cursorComVariosLotes() throws Exception {
+        ColunarCertidaoRepository repository = new ColunarCertidaoRepository();
+        List<Certidao> lote = new ArrayList<>();
+        for (int i = 0; i < 4500; i++) {
+            lote.add(nova(null, "N" + i, "Interessado " + i, "24/12/2025",
+                    i % 3 == 0 ? CertidaoStatus.CANCELADA : CertidaoStatus.EMITIDA));
+        }
+        repository.saveAll(lote);
+
+        // Sem filtro: 4500 (último lote incompleto); só emitidas: 3000 (lotes cheios)
+        CertidaoFiltro emitidas = new CertidaoFiltro();
+        emitidas.setStatus(CertidaoStatus.EMITIDA);
+        for (CertidaoFiltro filtro : Arrays.asList(null, emitidas)) {
+            List<Long> esperados = new ArrayList<>();
+            for (Certidao certidao : repository.findByFiltro(filtro)) {
+                esperados.add(certidao.getId());
+            }
+
+            ByteArrayOutputStream csv = new ByteArrayOutputStream();
+            new RelatorioCsvService().gerarRelatorio(repository, filtro, csv);
+            List<List<String>> linhas = lerCsv(texto(csv.toByteArray()));
+            List<Long> exportados = new ArrayList<>();
+            for (List<String> linha : linhas.subList(1, linhas.size())) {
+                exportados.add(Long.valueOf(linha.get(0)));
+            }
+            assertEquals(esperados, exportados);
+
+            ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+            new RelatorioNdjsonService(true).gerarRelatorio(repository, filtro, ndjson);
+            String[] objetos = texto(descompactar(ndjson.toByteArray())).split("\n");
+            exportados.clear();
+            for (String objeto : objetos) {
+                exportados.add(Long.valueOf(campoJson(objeto, "id")));
+            }
+            assertEquals(esperados, exportados);
+        }
+    }
+
+    private static byte[] gerar(RelatorioTextoService service, List<Certidao> certidoes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.gerarRelatorio(certidoes, out);
+        return out.toByteArray();
+    }
+
+    private static String texto(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] descompactar(byte[] gz) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Leitor CSV (RFC 4180) só para o teste: registros terminam em CRLF fora
+     * de aspas
+     */
+    private static List<List<String>> lerCsv(String texto) {
+        List<List<String>> linhas = new ArrayList<>();
+        List<String> linha = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (aspas) {
+                if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    aspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                aspas = true;
+            } else if (c == ',') {
+                linha.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' && i + 1 < texto.length() && texto.charAt(i + 1) == '\n') {
+                linha.add(campo.toString());
+                campo.setLength(0);
+                linhas.add(linha);
+                linha = new ArrayList<>();
+                i++;
+            } else {
+                campo.append(c);
+            }
+        }
+        assertEquals("O arquivo termina em CRLF", 0, campo.length() + linha.size());
+        return linhas;
+    }
+
+    /**
+     * Valor de um campo de um objeto NDJSON plano (string ou número), ou
+     * null. Só para o teste: desfaz os escapes gerados pelo serviço.
+     */
+    private static String campoJson(String objeto, String nome) {
+        String inicio = "\"" + nome + "\":";
+        int i = objeto.indexOf(inicio) + inicio.length();
+        if (objeto.startsWith("null", i)) {
+            return null;
+        }
+        StringBuilder valor = new StringBuilder();
+        if (objeto.charAt(i) != '"') {
+            while (Character.isDigit(objeto.charAt(i))) {
+                valor.append(objeto.charAt(i++));
+            }
+            return valor.toString();
+        }
+        for (i++; objeto.charAt(i) != '"'; i++) {
+            char c = objeto.charAt(i);
+            if (c != '\\') {
+                valor.append(c);
+                continue;
+            }
+            c = objeto.charAt(++i);
+            switch (c) {
+                case 'n':
+                    valor.append('\n');
+                    break;
+                case 'r':
+                    valor.append('\r');
+                    break;
+                case 't':
+                    valor.append('\t');
+                    break;
+                case 'u':
+                    valor.append((char) Integer.parseInt(objeto.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default:
+                    valor.append(c);
+            }
+        }
+        return valor.toString();
+    }
+
+    private static Certidao nova(Long id, String numero, String interessado, String data, CertidaoStatus status) {
+        Certidao c = new Certidao();
+        c.setId(id);
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado(interessado);
+        c.setDataEmissao(data);
+        c.setStatus(status);
+        return c;
+    }
+}
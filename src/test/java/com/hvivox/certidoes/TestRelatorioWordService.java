@@ -0,0 +1,94 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.service.RelatorioWordService;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testa o contrato de OutputStream do RelatorioWordService.
+ *
+ * TESTES:
+ * - O documento é escrito no stream informado, que não é fechado
+ * - O arquivo gerado abre no POI com a tabela completa (cabeçalho + linhas)
+ * - Relatório sem certidões também é um .docx válido
+ */
+public class TestRelatorioWordService {
+
+    private final RelatorioWordService service = new RelatorioWordService();
+
+    @Test
+    public void escreveNoStreamSemFechar() throws Exception {
+        List<Certidao> certidoes = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            certidoes.add(nova((long) i, String.format("%04d", i), "Empresa " + i));
+        }
+
+        StreamVigiado out = new StreamVigiado();
+        service.gerarRelatorio(certidoes, out);
+        assertFalse("O serviço não deve fechar o stream de destino", out.fechado);
+        assertTrue(out.size() > 0);
+
+        // O stream continua utilizável por quem o abriu
+        out.write(new byte[0]);
+
+        try (XWPFDocument documento = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(1, documento.getTables().size());
+            XWPFTable tabela = documento.getTables().get(0);
+            assertEquals(31, tabela.getNumberOfRows());
+            assertEquals("ID", tabela.getRow(0).getCell(0).getText());
+            assertEquals("0001", tabela.getRow(1).getCell(1).getText());
+            assertEquals("Empresa 30", tabela.getRow(30).getCell(3).getText());
+            assertEquals(CertidaoStatus.EMITIDA.getDescricao(), tabela.getRow(30).getCell(5).getText());
+            assertTrue(documento.getParagraphs().get(documento.getParagraphs().size() - 1).getText()
+                    .contains("Total de certidões: 30"));
+        }
+    }
+
+    @Test
+    public void relatorioVazio() throws Exception {
+        StreamVigiado out = new StreamVigiado();
+        service.gerarRelatorio(Collections.<Certidao>emptyList(), out);
+        assertFalse(out.fechado);
+
+        try (XWPFDocument documento = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(1, documento.getTables().get(0).getNumberOfRows());
+        }
+    }
+
+    private static Certidao nova(Long id, String numero, String interessado) {
+        Certidao c = new Certidao();
+        c.setId(id);
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado(interessado);
+        c.setDataEmissao("24/12/2025");
+        c.setStatus(CertidaoStatus.EMITIDA);
+        return c;
+    }
+
+    /**
+     * Stream em memória que registra se foi fechado
+     */
+    private static final class StreamVigiado extends ByteArrayOutputStream {
+        private boolean fechado;
+
+        @Override
+        public void close() {
+            fechado = true;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.hvivox.certidoes;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.WalCertidaoRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Testa a persistência do WalCertidaoRepository.
+ *
+ * TESTES:
+ * - Dados sobrevivem ao reinício (só log, snapshot + log)
+ * - Registro incompleto no fim do log é descartado
+ * - Ids de certidões excluídas não são reutilizados
+ * - Alteração sem save() não chega ao store nem ao snapshot
+ * - Falha na gravação do log desfaz a escrita no store e recusa as seguintes
+ */
+public class TestWalCertidaoRepository {
+
+    private Path diretorio;
+
+    @Before
+    public void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("certidoes-wal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Test
+    public void recuperaDoLog() throws IOException {
+        Long emitida;
+        Long excluida;
+        try (WalCertidaoRepository repository = abrir()) {
+            emitida = repository.save(nova("0001", "24/12/2025")).getId();
+            excluida = repository.save(nova("0002", "texto livre")).getId();
+            Certidao editada = repository.findById(emitida).get();
+            editada.setInteressado("Empresa Ação Ltda");
+            repository.save(editada);
+            repository.delete(excluida);
+            repository.updateStatus(Arrays.asList(emitida), CertidaoStatus.CANCELADA);
+        }
+
+        try (WalCertidaoRepository repository = abrir()) {
+            assertEquals(1, repository.findAll().size());
+            Certidao certidao = repository.findById(emitida).get();
+            assertEquals("0001", certidao.getNumero());
+            assertEquals("Empresa Ação Ltda", certidao.getInteressado());
+            assertEquals("24/12/2025", certidao.getDataEmissao());
+            assertEquals(CertidaoTipo.NEGATIVA, certidao.getTipo());
+            assertEquals(CertidaoStatus.CANCELADA, certidao.getStatus());
+            assertFalse(repository.findById(excluida).isPresent());
+            assertTrue(repository.existsByNumero("0001", null));
+        }
+    }
+
+    @Test
+    public void recuperaDoSnapshotMaisLog() throws IOException {
+        List<Certidao> lote = new ArrayList<>();
+        try (WalCertidaoRepository repository = abrir()) {
+            for (int i = 0; i < 1000; i++) {
+                lote.add(nova("S" + i, "01/01/2026"));
+            }
+            repository.saveAll(lote);
+            repository.snapshot();
+            // Depois do snapshot: só no log
+            repository.save(nova("DEPOIS", null));
+            repository.delete(lote.get(999).getId());
+        }
+
+        try (WalCertidaoRepository repository = abrir()) {
+            assertEquals(1000, repository.findAll().size());
+            assertEquals("S0", repository.findById(lote.get(0).getId()).get().getNumero());
+            assertFalse(repository.findById(lote.get(999).getId()).isPresent());
+            assertTrue(repository.existsByNumero("DEPOIS", null));
+            assertNull(repository.findAll().get(999).getDataEmissao());
+
+            // A sequência continua depois do maior id já usado (inclusive excluído)
+            Certidao nova = repository.save(nova("NOVA", null));
+            assertTrue(nova.getId() > lote.get(999).getId() + 1);
+        }
+    }
+
+    @Test
+    public void descartaRegistroIncompletoNoFimDoLog() throws IOException {
+        try (WalCertidaoRepository repository = abrir()) {
+            repository.save(nova("0001", "01/01/2026"));
+        }
+        // Simula queda no meio da gravação: lixo no fim do último segmento
+        Path segmento;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmento = arquivos.filter(arquivo -> arquivo.toString().endsWith(".wal"))
+                    .max(Comparator.naturalOrder()).get();
+        }
+        long tamanhoValido = Files.size(segmento);
+        try (OutputStream saida = Files.newOutputStream(segmento, StandardOpenOption.APPEND)) {
+            saida.write(new byte[] {0, 0, 0, 40, 1, 2, 3});
+        }
+
+        try (WalCertidaoRepository repository = abrir()) {
+            assertEquals(1, repository.findAll().size());
+            assertEquals(tamanhoValido, Files.size(segmento));
+        }
+    }
+
+    @Test
+    public void alteracaoSemSaveNaoChegaAoSnapshot() throws IOException {
+        Long id;
+        try (WalCertidaoRepository repository = abrir()) {
+            Certidao salva = repository.save(nova("0001", "01/01/2026"));
+            id = salva.getId();
+            salva.setInteressado("Alterado sem save");
+            repository.findById(id).get().setNumero("9999");
+            repository.findAll().get(0).setStatus(CertidaoStatus.CANCELADA);
+            assertEquals("0001", repository.findById(id).get().getNumero());
+            repository.snapshot();
+        }
+
+        try (WalCertidaoRepository repository = abrir()) {
+            Certidao certidao = repository.findById(id).get();
+            assertEquals("0001", certidao.getNumero());
+            assertEquals("Interessado 0001", certidao.getInteressado());
+            assertEquals(CertidaoStatus.EMITIDA, certidao.getStatus());
+        }
+    }
+
+    @Test
+    public void falhaNoLogDesfazEscrita() throws IOException {
+        try (WalCertidaoRepository repository = abrir()) {
+            Long id = repository.save(nova("0001", "01/01/2026")).getId();
+
+            // Um diretório no lugar do próximo segmento: o log fica sem arquivo aberto
+            Path segmento;
+            try (Stream<Path> arquivos = Files.list(diretorio)) {
+                segmento = arquivos.filter(arquivo -> arquivo.toString().endsWith(".wal"))
+                        .max(Comparator.naturalOrder()).get();
+            }
+            String nome = segmento.getFileName().toString();
+            long numero = Long.parseLong(nome.replaceAll("\\D", ""));
+            Files.createDirectory(diretorio.resolve(nome.replace(String.format("%010d", numero),
+                    String.format("%010d", numero + 1))));
+            try {
+                repository.snapshot();
+                fail("O segmento novo não deveria abrir");
+            } catch (IOException esperado) {
+                // segue sem log
+            }
+
+            try {
+                repository.save(nova("0002", "01/01/2026"));
+                fail("A gravação do log deveria falhar");
+            } catch (UncheckedIOException esperado) {
+                assertEquals(1, repository.findAll().size());
+                assertFalse(repository.existsByNumero("0002", null));
+            }
+            try {
+                repository.updateStatus(Arrays.asList(id), CertidaoStatus.CANCELADA);
+                fail("O log falhou: escritas são recusadas");
+            } catch (UncheckedIOException esperado) {
+                assertEquals(CertidaoStatus.EMITIDA, repository.findById(id).get().getStatus());
+            }
+        }
+    }
+
+    private WalCertidaoRepository abrir() throws IOException {
+        return new WalCertidaoRepository(diretorio, WalCertidaoRepository.Sincronizacao.A_CADA_COMMIT,
+                WalCertidaoRepository.INTERVALO_SINCRONIZACAO_PADRAO_MS,
+                WalCertidaoRepository.REGISTROS_POR_SNAPSHOT_PADRAO);
+    }
+
+    private static Certidao nova(String numero, String data) {
+        Certidao c = new Certidao();
+        c.setNumero(numero);
+        c.setTipo(CertidaoTipo.NEGATIVA);
+        c.setInteressado("Interessado " + numero);
+        c.setDataEmissao(data);
+        c.setStatus(CertidaoStatus.EMITIDA);
+        return c;
+    }
+}
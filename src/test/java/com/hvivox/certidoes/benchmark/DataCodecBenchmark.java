@@ -0,0 +1,115 @@
+package com.hvivox.certidoes.benchmark;
+
+import com.hvivox.certidoes.converter.DataCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de datas dd/MM/yyyy: DataCodec x SimpleDateFormat (como era feito
+ * no DataFormatadaValidator: um novo SimpleDateFormat por chamada, parse e
+ * format para conferir o texto) x DateTimeFormatter estrito (como era feito
+ * na Certidao).
+ *
+ * As datas variam entre válidas e inválidas (29/02 em ano não bissexto).
+ *
+ * COMO EXECUTAR:
+ * mvn test-compile e rodar o main() desta classe pela IDE.
+ * Para medir alocação: adicionar .addProfiler("gc") no main().
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataCodecBenchmark {
+
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    private String[] datas;
+    private int[] dias;
+    private int indice;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        datas = new String[1024];
+        dias = new int[datas.length];
+        for (int i = 0; i < datas.length; i++) {
+            int ano = 1990 + i % 40;
+            int mes = 1 + i % 12;
+            int dia = i % 7 == 0 ? 29 : 1 + i % 28;
+            datas[i] = String.format("%02d/%02d/%04d", dia, mes, ano);
+            dias[i] = (int) LocalDate.of(ano, mes, 1 + i % 28).toEpochDay();
+        }
+    }
+
+    private int proximo() {
+        indice = (indice + 1) & (datas.length - 1);
+        return indice;
+    }
+
+    // ==================== PARSE ====================
+
+    @Benchmark
+    public int parseDataCodec() {
+        return DataCodec.parse(datas[proximo()]);
+    }
+
+    @Benchmark
+    public boolean parseSimpleDateFormat() {
+        String texto = datas[proximo()];
+        try {
+            SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
+            sdf.setLenient(false);
+            Date data = sdf.parse(texto);
+            return sdf.format(data).equals(texto);
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public long parseDateTimeFormatter() {
+        try {
+            return LocalDate.parse(datas[proximo()], FORMATTER).toEpochDay();
+        } catch (RuntimeException e) {
+            return DataCodec.INVALIDA;
+        }
+    }
+
+    // ==================== FORMAT ====================
+
+    @Benchmark
+    public String formatarDataCodec() {
+        return DataCodec.formatar(dias[proximo()]);
+    }
+
+    @Benchmark
+    public void formatarSimpleDateFormat(Blackhole bh) {
+        long millis = TimeUnit.DAYS.toMillis(dias[proximo()]);
+        bh.consume(new SimpleDateFormat("dd/MM/yyyy").format(new Date(millis)));
+    }
+
+    @Benchmark
+    public String formatarDateTimeFormatter() {
+        return LocalDate.ofEpochDay(dias[proximo()]).format(FORMATTER);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
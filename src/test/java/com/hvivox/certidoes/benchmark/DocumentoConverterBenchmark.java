@@ -0,0 +1,125 @@
+package com.hvivox.certidoes.benchmark;
+
+import com.hvivox.certidoes.converter.CEPConverter;
+import com.hvivox.certidoes.converter.CNPJConverter;
+import com.hvivox.certidoes.converter.CPFConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark dos conversores de CPF/CNPJ/CEP: versão atual (uma passada em
+ * char[]) x versão antiga (replaceAll("[^0-9]", "") + String.format com
+ * substring), reproduzida aqui.
+ *
+ * convertToObject mede a limpeza do texto digitado (a versão atual também
+ * confere os dígitos verificadores); convertToString mede a formatação para
+ * exibição.
+ *
+ * COMO EXECUTAR:
+ * mvn test-compile e rodar o main() desta classe pela IDE.
+ * Para medir alocação: adicionar .addProfiler("gc") no main().
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentoConverterBenchmark {
+
+    private static final Locale LOCALE_BR = new Locale("pt", "BR");
+
+    private final CPFConverter cpf = new CPFConverter();
+    private final CNPJConverter cnpj = new CNPJConverter();
+    private final CEPConverter cep = new CEPConverter();
+
+    // ==================== CPF ====================
+
+    @Benchmark
+    public String cpfParseAtual() {
+        return cpf.convertToObject("529.982.247-25", LOCALE_BR);
+    }
+
+    @Benchmark
+    public String cpfParseAntigo() {
+        return limparAntigo("529.982.247-25", 11);
+    }
+
+    @Benchmark
+    public String cpfFormatarAtual() {
+        return cpf.convertToString("52998224725", LOCALE_BR);
+    }
+
+    @Benchmark
+    public String cpfFormatarAntigo() {
+        String limpo = "52998224725".replaceAll("[^0-9]", "");
+        return String.format("%s.%s.%s-%s", limpo.substring(0, 3), limpo.substring(3, 6),
+                limpo.substring(6, 9), limpo.substring(9, 11));
+    }
+
+    // ==================== CNPJ ====================
+
+    @Benchmark
+    public String cnpjParseAtual() {
+        return cnpj.convertToObject("11.222.333/0001-81", LOCALE_BR);
+    }
+
+    @Benchmark
+    public String cnpjParseAntigo() {
+        return limparAntigo("11.222.333/0001-81", 14);
+    }
+
+    @Benchmark
+    public String cnpjFormatarAtual() {
+        return cnpj.convertToString("11222333000181", LOCALE_BR);
+    }
+
+    @Benchmark
+    public String cnpjFormatarAntigo() {
+        String limpo = "11222333000181".replaceAll("[^0-9]", "");
+        return String.format("%s.%s.%s/%s-%s", limpo.substring(0, 2), limpo.substring(2, 5),
+                limpo.substring(5, 8), limpo.substring(8, 12), limpo.substring(12, 14));
+    }
+
+    // ==================== CEP ====================
+
+    @Benchmark
+    public String cepParseAtual() {
+        return cep.convertToObject("01310-100", LOCALE_BR);
+    }
+
+    @Benchmark
+    public String cepParseAntigo() {
+        return limparAntigo("01310-100", 8);
+    }
+
+    @Benchmark
+    public String cepFormatarAtual() {
+        return cep.convertToString("01310100", LOCALE_BR);
+    }
+
+    @Benchmark
+    public String cepFormatarAntigo() {
+        String limpo = "01310100".replaceAll("[^0-9]", "");
+        return String.format("%s-%s", limpo.substring(0, 5), limpo.substring(5, 8));
+    }
+
+    private static String limparAntigo(String valor, int digitos) {
+        String limpo = valor.replaceAll("[^0-9]", "");
+        if (limpo.length() != digitos) {
+            throw new IllegalArgumentException(valor);
+        }
+        return limpo;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DocumentoConverterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
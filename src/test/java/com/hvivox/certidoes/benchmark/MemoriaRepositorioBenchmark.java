@@ -0,0 +1,120 @@
+package com.hvivox.certidoes.benchmark;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CertidaoRepository;
+import com.hvivox.certidoes.infra.ColunarCertidaoRepository;
+import com.hvivox.certidoes.infra.InMemoryCertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import com.hvivox.certidoes.model.CertidaoOrdenacao;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de memória e de varredura: InMemoryCertidaoRepository (objetos
+ * no CertidaoStore) x ColunarCertidaoRepository (arrays primitivos).
+ *
+ * - Memória: no setup, heap usado depois de GC antes e depois de carregar as
+ *   certidões; o resultado (bytes por certidão) é impresso no console
+ * - Varredura: contagem por status, busca por texto e página ordenada por
+ *   interessado sobre todas as certidões
+ *
+ * Cada implementação roda em um fork próprio, então o DB estático do
+ * InMemoryCertidaoRepository começa só com os dados iniciais.
+ *
+ * COMO EXECUTAR:
+ * mvn test-compile e rodar o main() desta classe pela IDE.
+ * O fork já usa -Xmx8g para caber 5M certidões no InMemoryCertidaoRepository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class MemoriaRepositorioBenchmark {
+
+    @Param({"MEMORIA", "COLUNAR"})
+    public String implementacao;
+
+    @Param({"5000000"})
+    public int registros;
+
+    private CertidaoRepository repository;
+    private CertidaoFiltro porStatus;
+    private CertidaoFiltro porTexto;
+    private CertidaoOrdenacao porInteressado;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long antes = heapUsado();
+        repository = "COLUNAR".equals(implementacao)
+                ? new ColunarCertidaoRepository()
+                : new InMemoryCertidaoRepository();
+        List<Certidao> lote = new ArrayList<>(10_000);
+        for (int i = 0; i < registros; i++) {
+            lote.add(nova(i));
+            if (lote.size() == 10_000) {
+                repository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        repository.saveAll(lote);
+        lote.clear();
+        long depois = heapUsado();
+        System.out.printf("%n%s: %,d bytes no heap, %d bytes por certidão%n",
+                implementacao, depois - antes, (depois - antes) / registros);
+
+        porStatus = new CertidaoFiltro();
+        porStatus.setStatus(CertidaoStatus.CANCELADA);
+        porTexto = new CertidaoFiltro();
+        porTexto.setTextoBusca("empresa 4242");
+        porInteressado = new CertidaoOrdenacao(CertidaoOrdenacao.Campo.INTERESSADO, true);
+    }
+
+    @Benchmark
+    public long contarPorStatus() {
+        return repository.countByFiltro(porStatus);
+    }
+
+    @Benchmark
+    public long buscarTexto() {
+        return repository.countByFiltro(porTexto);
+    }
+
+    @Benchmark
+    public List<Certidao> paginaOrdenada() {
+        return repository.findByFiltro(porStatus, 0, 20, porInteressado);
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static Certidao nova(int i) {
+        Certidao c = new Certidao();
+        c.setNumero(String.format("%010d", i));
+        c.setTipo(CertidaoTipo.values()[i % CertidaoTipo.values().length]);
+        c.setInteressado("Empresa " + (i % 50_000) + " Ltda");
+        c.setDataEmissao(String.format("%02d/%02d/%04d", 1 + i % 28, 1 + i % 12, 2000 + i % 26));
+        c.setStatus(CertidaoStatus.values()[i % CertidaoStatus.values().length]);
+        return c;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MemoriaRepositorioBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
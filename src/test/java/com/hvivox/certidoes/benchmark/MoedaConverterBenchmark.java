@@ -0,0 +1,69 @@
+package com.hvivox.certidoes.benchmark;
+
+import com.hvivox.certidoes.converter.MoedaBrasileiraConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do MoedaBrasileiraConverter: versão atual (MoedaCodec) x versão
+ * antiga, reproduzida aqui (regex + NumberFormat + double no parse;
+ * DecimalFormatSymbols + DecimalFormat novos a cada formatação).
+ *
+ * COMO EXECUTAR:
+ * mvn test-compile e rodar o main() desta classe pela IDE.
+ * Para medir alocação: adicionar .addProfiler("gc") no main().
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoedaConverterBenchmark {
+
+    private static final Locale LOCALE_BR = new Locale("pt", "BR");
+
+    private final MoedaBrasileiraConverter converter = new MoedaBrasileiraConverter();
+    private final BigDecimal valor = new BigDecimal("1234567.89");
+
+    @Benchmark
+    public BigDecimal parseAtual() {
+        return converter.convertToObject("R$ 1.234.567,89", LOCALE_BR);
+    }
+
+    @Benchmark
+    public BigDecimal parseAntigo() throws ParseException {
+        String valorLimpo = "R$ 1.234.567,89".replaceAll("R\\$", "").trim();
+        Number numero = NumberFormat.getInstance(LOCALE_BR).parse(valorLimpo);
+        return BigDecimal.valueOf(numero.doubleValue());
+    }
+
+    @Benchmark
+    public String formatarAtual() {
+        return converter.convertToString(valor, LOCALE_BR);
+    }
+
+    @Benchmark
+    public String formatarAntigo() {
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols(LOCALE_BR);
+        symbols.setGroupingSeparator('.');
+        symbols.setDecimalSeparator(',');
+        return new DecimalFormat("R$ #,##0.00", symbols).format(valor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoedaConverterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,153 @@
+package com.hvivox.certidoes.benchmark;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.OffHeapCertidaoRepository;
+import com.hvivox.certidoes.model.CertidaoFiltro;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark do OffHeapCertidaoRepository com heap pequeno (-Xmx256m) e
+ * volumes crescentes: os tempos de abertura e de varredura devem crescer só
+ * com a leitura das páginas, sem pausas de GC proporcionais aos dados.
+ *
+ * - abertura: abrir o repositório já gravado (não carrega nada no heap)
+ * - contarPorStatus / buscarTexto: varredura completa dos registros
+ *
+ * COMO EXECUTAR:
+ * mvn test-compile e rodar o main() desta classe pela IDE.
+ * Para ver as pausas de GC: adicionar .addProfiler("gc") no main().
+ * A preparação de 20M certidões grava ~3 GB no diretório temporário.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class OffHeapCertidaoRepositoryBenchmark {
+
+    // ==================== ABERTURA ====================
+
+    @State(Scope.Benchmark)
+    public static class Abertura {
+        @Param({"1000000", "20000000"})
+        public int registros;
+
+        Path diretorio;
+
+        @Setup(Level.Trial)
+        public void gravar() throws IOException {
+            diretorio = OffHeapCertidaoRepositoryBenchmark.gravar(registros);
+        }
+
+        @TearDown(Level.Trial)
+        public void apagarDados() throws IOException {
+            apagar(diretorio);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public long abertura(Abertura estado) throws IOException {
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(estado.diretorio)) {
+            return repository.tamanho();
+        }
+    }
+
+    // ==================== VARREDURA ====================
+
+    @State(Scope.Benchmark)
+    public static class Varredura {
+        @Param({"1000000", "20000000"})
+        public int registros;
+
+        Path diretorio;
+        OffHeapCertidaoRepository repository;
+        CertidaoFiltro porStatus;
+        CertidaoFiltro porTexto;
+
+        @Setup(Level.Trial)
+        public void abrir() throws IOException {
+            diretorio = OffHeapCertidaoRepositoryBenchmark.gravar(registros);
+            repository = new OffHeapCertidaoRepository(diretorio);
+            porStatus = new CertidaoFiltro();
+            porStatus.setStatus(CertidaoStatus.CANCELADA);
+            porTexto = new CertidaoFiltro();
+            porTexto.setTextoBusca("empresa 4242");
+        }
+
+        @TearDown(Level.Trial)
+        public void fechar() throws IOException {
+            repository.close();
+            apagar(diretorio);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public long contarPorStatus(Varredura estado) {
+        return estado.repository.countByFiltro(estado.porStatus);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public long buscarTexto(Varredura estado) {
+        return estado.repository.countByFiltro(estado.porTexto);
+    }
+
+    private static Path gravar(int registros) throws IOException {
+        Path diretorio = Files.createTempDirectory("certidoes-offheap");
+        try (OffHeapCertidaoRepository repository = new OffHeapCertidaoRepository(diretorio)) {
+            List<Certidao> lote = new ArrayList<>(10_000);
+            for (int i = 0; i < registros; i++) {
+                lote.add(nova(i));
+                if (lote.size() == 10_000) {
+                    repository.saveAll(lote);
+                    lote.clear();
+                }
+            }
+            repository.saveAll(lote);
+        }
+        return diretorio;
+    }
+
+    private static void apagar(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    private static Certidao nova(int i) {
+        Certidao c = new Certidao();
+        c.setNumero(String.format("%010d", i));
+        c.setTipo(CertidaoTipo.values()[i % CertidaoTipo.values().length]);
+        c.setInteressado("Empresa " + (i % 50_000) + " Ltda");
+        c.setDataEmissao(String.format("%02d/%02d/%04d", 1 + i % 28, 1 + i % 12, 2000 + i % 26));
+        c.setStatus(CertidaoStatus.values()[i % CertidaoStatus.values().length]);
+        return c;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OffHeapCertidaoRepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
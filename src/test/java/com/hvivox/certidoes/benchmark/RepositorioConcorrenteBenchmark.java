@@ -0,0 +1,128 @@
+package com.hvivox.certidoes.benchmark;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.CertidaoStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark de throughput: CertidaoStore x armazenamento antigo.
+ *
+ * O armazenamento antigo (LinkedHashMap estático) não suporta acesso
+ * concorrente, então a comparação é feita com a versão mínima segura dele:
+ * o mesmo LinkedHashMap protegido por Collections.synchronizedMap.
+ *
+ * Cada grupo roda 3 threads lendo (findById + listagem) e 1 thread gravando.
+ *
+ * COMO EXECUTAR:
+ * mvn test-compile e rodar o main() desta classe pela IDE.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class RepositorioConcorrenteBenchmark {
+
+    @Param({"10000"})
+    public int registros;
+
+    private CertidaoStore store;
+    private Map<Long, Certidao> legado;
+    private AtomicLong seqLegado;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new CertidaoStore();
+        legado = Collections.synchronizedMap(new LinkedHashMap<>());
+        seqLegado = new AtomicLong(0);
+        for (int i = 0; i < registros; i++) {
+            store.salvar(nova(i));
+            Certidao c = nova(i);
+            c.setId(seqLegado.incrementAndGet());
+            legado.put(c.getId(), c);
+        }
+    }
+
+    // ==================== CERTIDAO STORE ====================
+
+    @Benchmark
+    @Group("store")
+    @GroupThreads(3)
+    public void storeLeitura(Blackhole bh) {
+        long id = 1 + ThreadLocalRandom.current().nextInt(registros);
+        bh.consume(store.buscar(id));
+        if (id % 100 == 0) {
+            bh.consume(store.listar());
+        }
+    }
+
+    @Benchmark
+    @Group("store")
+    @GroupThreads(1)
+    public void storeEscrita() {
+        long id = 1 + ThreadLocalRandom.current().nextInt(registros);
+        // O setUp salvou nova(i) com o id i + 1: mesmo número, sem conflito
+        Certidao c = nova((int) id - 1);
+        c.setId(id);
+        store.salvar(c);
+    }
+
+    // ==================== LEGADO (synchronizedMap) ====================
+
+    @Benchmark
+    @Group("legado")
+    @GroupThreads(3)
+    public void legadoLeitura(Blackhole bh) {
+        long id = 1 + ThreadLocalRandom.current().nextInt(registros);
+        bh.consume(legado.get(id));
+        if (id % 100 == 0) {
+            List<Certidao> copia;
+            synchronized (legado) {
+                copia = new ArrayList<>(legado.values());
+            }
+            bh.consume(copia);
+        }
+    }
+
+    @Benchmark
+    @Group("legado")
+    @GroupThreads(1)
+    public void legadoEscrita() {
+        long id = 1 + ThreadLocalRandom.current().nextInt(registros);
+        Certidao c = nova((int) id - 1);
+        c.setId(id);
+        legado.put(id, c);
+    }
+
+    private static Certidao nova(int i) {
+        Certidao c = new Certidao();
+        c.setNumero(String.format("%06d", i));
+        c.setTipo(CertidaoTipo.values()[i % CertidaoTipo.values().length]);
+        c.setInteressado("Interessado " + i);
+        c.setDataEmissao("01/01/2026");
+        c.setStatus(CertidaoStatus.values()[i % CertidaoStatus.values().length]);
+        return c;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RepositorioConcorrenteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,143 @@
+package com.hvivox.certidoes.benchmark;
+
+import com.hvivox.certidoes.domain.Certidao;
+import com.hvivox.certidoes.domain.CertidaoStatus;
+import com.hvivox.certidoes.domain.CertidaoTipo;
+import com.hvivox.certidoes.infra.WalCertidaoRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark do WalCertidaoRepository: vazão de escrita e tempo de recuperação.
+ *
+ * - escrita: save() de 8 threads ao mesmo tempo, para cada política de
+ *   sincronização (com A_CADA_COMMIT, o group commit junta as escritas
+ *   simultâneas no mesmo fsync)
+ * - recuperacao: abrir o repositório com 10M certidões gravadas (snapshots
+ *   automáticos a cada 1M registros + o resto no log)
+ *
+ * COMO EXECUTAR:
+ * mvn test-compile e rodar o main() desta classe pela IDE.
+ * A recuperação de 10M precisa de heap grande (o fork já usa -Xmx8g) e a
+ * preparação grava ~1 GB em disco no diretório temporário.
+ */
+@Fork(1)
+public class WalCertidaoRepositoryBenchmark {
+
+    private static final AtomicLong NUMEROS = new AtomicLong();
+
+    // ==================== ESCRITA ====================
+
+    @State(Scope.Benchmark)
+    public static class Escrita {
+        @Param({"A_CADA_COMMIT", "PERIODICA", "SISTEMA"})
+        public WalCertidaoRepository.Sincronizacao sincronizacao;
+
+        Path diretorio;
+        WalCertidaoRepository repository;
+
+        @Setup(Level.Trial)
+        public void abrir() throws IOException {
+            diretorio = Files.createTempDirectory("certidoes-wal-escrita");
+            repository = new WalCertidaoRepository(diretorio, sincronizacao,
+                    WalCertidaoRepository.INTERVALO_SINCRONIZACAO_PADRAO_MS,
+                    WalCertidaoRepository.REGISTROS_POR_SNAPSHOT_PADRAO);
+        }
+
+        @TearDown(Level.Trial)
+        public void fechar() throws IOException {
+            repository.close();
+            apagar(diretorio);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(8)
+    public Certidao escrita(Escrita estado) {
+        return estado.repository.save(nova(NUMEROS.incrementAndGet()));
+    }
+
+    // ==================== RECUPERAÇÃO ====================
+
+    @State(Scope.Benchmark)
+    public static class Recuperacao {
+        @Param({"10000000"})
+        public int registros;
+
+        Path diretorio;
+
+        @Setup(Level.Trial)
+        public void gravar() throws IOException {
+            diretorio = Files.createTempDirectory("certidoes-wal-recuperacao");
+            try (WalCertidaoRepository repository = new WalCertidaoRepository(diretorio,
+                    WalCertidaoRepository.Sincronizacao.SISTEMA,
+                    WalCertidaoRepository.INTERVALO_SINCRONIZACAO_PADRAO_MS,
+                    WalCertidaoRepository.REGISTROS_POR_SNAPSHOT_PADRAO)) {
+                List<Certidao> lote = new ArrayList<>(10_000);
+                for (int i = 0; i < registros; i++) {
+                    lote.add(nova(i));
+                    if (lote.size() == 10_000) {
+                        repository.saveAll(lote);
+                        lote.clear();
+                    }
+                }
+                repository.saveAll(lote);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void apagarDados() throws IOException {
+            apagar(diretorio);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+    public int recuperacao(Recuperacao estado) throws IOException {
+        try (WalCertidaoRepository repository = new WalCertidaoRepository(estado.diretorio)) {
+            return repository.findAll().size();
+        }
+    }
+
+    private static Certidao nova(long i) {
+        Certidao c = new Certidao();
+        c.setNumero(String.format("%010d", i));
+        c.setTipo(CertidaoTipo.values()[(int) (i % CertidaoTipo.values().length)]);
+        c.setInteressado("Empresa " + (i % 50_000) + " Ltda");
+        c.setDataEmissao(String.format("%02d/%02d/%04d", 1 + i % 28, 1 + i % 12, 2000 + i % 26));
+        c.setStatus(CertidaoStatus.values()[(int) (i % CertidaoStatus.values().length)]);
+        return c;
+    }
+
+    private static void apagar(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WalCertidaoRepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}